@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core;
+
+/**
+ * Provides version of entity of resource method annotated with {@link Versioned}. Version must be cheap to get, e.g. revision or
+ * time of last modification of entity. Instance of provider is created once for each resource method, so implementation must be
+ * thread-safe.
+ *
+ * @author andrew00x
+ */
+public interface VersionProvider {
+    /**
+     * Get version of entity.
+     *
+     * @param resource
+     *         instance of resource class
+     * @param context
+     *         context of current request
+     * @return version of entity or <code>null</code> if version is unknown
+     */
+    String getVersion(Object resource, ApplicationContext context);
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks resource method which entity has version that may be got without invoking of resource method. Version is used as strong
+ * entity tag. Preconditions of request (headers 'If-Match' and 'If-None-Match') are evaluated before invoking of resource method, so
+ * if client already has actual version of entity resource method is not invoked and response 304 (Not Modified) is sent. Otherwise
+ * version is sent to client in 'ETag' header of response to GET or HEAD request if resource method does not set this header itself.
+ *
+ * @author andrew00x
+ * @see VersionProvider
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Versioned {
+    /** @return class of provider of entity version, it must have public constructor without parameters */
+    Class<? extends VersionProvider> value();
+}
@@ -43,6 +43,7 @@ import javax.ws.rs.ext.ContextResolver;
 import java.net.URI;
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -55,6 +56,10 @@ import java.util.Set;
 public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ApplicationContextImpl.class);
 
+    /** Method invokers are stateless and shared between requests. */
+    private static final MethodInvoker DEFAULT_METHOD_INVOKER = new DefaultMethodInvoker();
+    private static final MethodInvoker OPTIONS_METHOD_INVOKER = new OptionsRequestMethodInvoker();
+
     /** {@link ThreadLocal} ApplicationContext. */
     private static ThreadLocal<ApplicationContext> current = new ThreadLocal<>();
 
@@ -80,14 +85,14 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
     /** Providers. */
     protected ProviderBinder           providers;
     protected DependencySupplier       depInjector;
-    /** Values of template parameters. */
-    private List<String> parameterValues    = new ArrayList<>();
+    /** Values of template parameters. Lists are created when they are needed first time. */
+    private List<String> parameterValues;
     /** List of matched resources. */
-    private List<Object> matchedResources   = new ArrayList<>();
+    private List<Object> matchedResources;
     /** List of not decoded matched URIs. */
-    private List<String> encodedMatchedURIs = new ArrayList<>();
+    private List<String> encodedMatchedURIs;
     /** List of decoded matched URIs. */
-    private List<String> matchedURIs        = new ArrayList<>();
+    private List<String> matchedURIs;
     /** Mutable runtime attributes. */
     private Map<String, Object>            attributes;
     /** Properties. */
@@ -115,6 +120,8 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
     private EverrestConfiguration          config;
 
     private final MethodInvokerDecoratorFactory methodInvokerDecoratorFactory;
+    /** <code>true</code> if method of resource is invoked in asynchronous job that may use this context after request is finished. */
+    private       boolean                       asynchronousJobStarted;
 
     /**
      * Constructs new instance of ApplicationContext.
@@ -150,15 +157,77 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
         this.methodInvokerDecoratorFactory = methodInvokerDecoratorFactory;
     }
 
+    /**
+     * Prepare this context for reusing for next request. All state of previous request is dropped. Context is reset with
+     * <code>null</code> arguments when request is finished and context is returned to pool.
+     *
+     * @param request
+     *         See {@link GenericContainerRequest}
+     * @param response
+     *         See {@link GenericContainerResponse}
+     * @param providers
+     *         See {@link ProviderBinder}
+     */
+    void reset(GenericContainerRequest request, GenericContainerResponse response, ProviderBinder providers) {
+        this.request = request;
+        this.response = response;
+        this.providers = providers;
+        depInjector = null;
+        clear(parameterValues);
+        clear(matchedResources);
+        clear(encodedMatchedURIs);
+        clear(matchedURIs);
+        if (attributes != null) {
+            attributes.clear();
+        }
+        if (properties != null) {
+            properties.clear();
+        }
+        absolutePath = null;
+        path = null;
+        encodedPath = null;
+        encodedPathParameters = null;
+        pathParameters = null;
+        encodedPathSegments = null;
+        pathSegments = null;
+        encodedQueryParameters = null;
+        queryParameters = null;
+        asynchronousSecurityContext = null;
+        application = null;
+        config = null;
+        asynchronousJobStarted = false;
+    }
+
+    /**
+     * @return <code>true</code> if context may be reset and reused for next request and <code>false</code> if it may be still used
+     * after request is finished, e.g. by asynchronous job
+     */
+    boolean isReusable() {
+        return !asynchronousJobStarted;
+    }
+
+    private static void clear(List<?> list) {
+        if (list != null) {
+            list.clear();
+        }
+    }
+
 
     @Override
     public void addMatchedResource(Object resource) {
+        if (matchedResources == null) {
+            matchedResources = new ArrayList<>(4);
+        }
         matchedResources.add(0, resource);
     }
 
 
     @Override
     public void addMatchedURI(String uri) {
+        if (encodedMatchedURIs == null) {
+            encodedMatchedURIs = new ArrayList<>(4);
+            matchedURIs = new ArrayList<>(4);
+        }
         encodedMatchedURIs.add(0, uri);
         matchedURIs.add(0, UriComponent.decode(uri, UriComponent.PATH_SEGMENT));
     }
@@ -229,7 +298,7 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
 
     @Override
     public List<Object> getMatchedResources() {
-        return matchedResources;
+        return matchedResources == null ? Collections.emptyList() : matchedResources;
     }
 
 
@@ -254,6 +323,9 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
 
     @Override
     public List<String> getMatchedURIs(boolean decode) {
+        if (matchedURIs == null) {
+            return Collections.emptyList();
+        }
         return decode ? matchedURIs : encodedMatchedURIs;
     }
 
@@ -265,9 +337,8 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
             // GenericMethodResource.getMethod() always return null if method for
             // "OPTIONS" request was not described in source code of service. In
             // this case we provide mechanism for "fake" method invoking.
-            return new OptionsRequestMethodInvoker();
+            return OPTIONS_METHOD_INVOKER;
         }
-        MethodInvoker invoker = null;
         // Never use AsynchronousMethodInvoker for process SubResourceLocatorDescriptor.
         // Locators can't be processed in asynchronous mode since it is not end point of request.
         if (isAsynchronous() && methodDescriptor instanceof ResourceMethodDescriptor) {
@@ -275,21 +346,24 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
             if (asyncJobsResolver == null) {
                 throw new IllegalStateException("Asynchronous jobs feature is not configured properly. ");
             }
-            invoker = new AsynchronousMethodInvoker(asyncJobsResolver.getContext(null));
-        }
-        if (invoker == null) {
-            invoker = new DefaultMethodInvoker();
+            asynchronousJobStarted = true;
+            MethodInvoker invoker = new AsynchronousMethodInvoker(asyncJobsResolver.getContext(null));
+            if (methodInvokerDecoratorFactory != null) {
+                return methodInvokerDecoratorFactory.makeDecorator(invoker);
+            }
+            return invoker;
         }
+        // Decorator is created for each request, it may keep state of request.
         if (methodInvokerDecoratorFactory != null) {
-            return methodInvokerDecoratorFactory.makeDecorator(invoker);
+            return methodInvokerDecoratorFactory.makeDecorator(DEFAULT_METHOD_INVOKER);
         }
-        return invoker;
+        return DEFAULT_METHOD_INVOKER;
     }
 
 
     @Override
     public List<String> getParameterValues() {
-        return parameterValues;
+        return parameterValues == null ? parameterValues = new ArrayList<>(4) : parameterValues;
     }
 
 
@@ -476,7 +550,7 @@ public class ApplicationContextImpl implements ApplicationContext, Lifecycle {
             encodedPathParameters = new MultivaluedMapImpl();
         }
         for (int i = 0; i < parameterNames.size(); i++) {
-            encodedPathParameters.add(parameterNames.get(i), parameterValues.get(i));
+            encodedPathParameters.add(parameterNames.get(i), getParameterValues().get(i));
         }
     }
 
@@ -12,6 +12,11 @@ package org.everrest.core.impl;
 
 import org.everrest.core.FilterDescriptor;
 import org.everrest.core.ObjectFactory;
+import org.everrest.core.impl.header.MediaTypeHelper;
+import org.everrest.core.provider.ProviderDescriptor;
+import org.everrest.core.uri.UriPattern;
+import org.everrest.core.util.MediaTypeMap;
+import org.everrest.core.util.UriPatternMap;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.ContextResolver;
@@ -20,18 +25,34 @@ import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Provider binder for concrete JAX-RS application. Set of providers from this binder always take preference over
  * providers embedded to EverRest framework. For example if ApplicationProviderBinder is able to provide
  * MessageBodyWriter or MessageBodyReader for media type 'application/xml' then such reader/writer will be in use for
  * all resources from the same Application.
+ * <p/>
+ * Providers of application and embedded providers are merged in immutable snapshot, so each lookup is done once over
+ * merged view instead of looking in this binder first and in embedded providers after that. Snapshot is recreated
+ * when providers are added in any of binders.
  *
  * @author andrew00x
  * @see javax.ws.rs.core.Application
  */
 public class ApplicationProviderBinder extends ProviderBinder {
+    /** Max number of media types for which lists of candidate readers or writers are kept in snapshot. */
+    static final int MAX_CANDIDATES_CACHE_SIZE = 256;
+
+    private volatile Snapshot snapshot;
 
     public ApplicationProviderBinder() {
         super();
@@ -44,69 +65,273 @@ public class ApplicationProviderBinder extends ProviderBinder {
 
     @Override
     public List<MediaType> getAcceptableWriterMediaTypes(Class<?> type, Type genericType, Annotation[] annotations) {
-        List<MediaType> l = doGetAcceptableWriterMediaTypes(type, genericType, annotations);
-        l.addAll(getDefaults().getAcceptableWriterMediaTypes(type, genericType, annotations));
+        final Snapshot s = getSnapshot();
+        List<MediaType> l = s.getAcceptableWriterMediaTypes(s.applicationWriters, type, genericType, annotations);
+        l.addAll(s.getAcceptableWriterMediaTypes(s.defaultWriters, type, genericType, annotations));
         return l;
     }
 
     @Override
+    @SuppressWarnings({"unchecked"})
     public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
-        ContextResolver<T> resolver = doGetContextResolver(contextType, mediaType);
-        if (resolver == null) {
-            resolver = getDefaults().getContextResolver(contextType, mediaType);
+        final List<MediaTypeMap<ObjectFactory<ProviderDescriptor>>> resolvers = getSnapshot().contextResolvers.get(contextType);
+        if (resolvers != null) {
+            for (MediaTypeMap<ObjectFactory<ProviderDescriptor>> pm : resolvers) {
+                MediaTypeHelper.MediaTypeRange mrange = new MediaTypeHelper.MediaTypeRange(mediaType);
+                while (mrange.hasNext()) {
+                    MediaType actual = mrange.next();
+                    for (Map.Entry<MediaType, ObjectFactory<ProviderDescriptor>> e : pm.entrySet()) {
+                        if (actual.isCompatible(e.getKey())) {
+                            return (ContextResolver<T>)e.getValue().getInstance(ApplicationContextImpl.getCurrent());
+                        }
+                    }
+                }
+            }
         }
-        return resolver;
+        return null;
     }
 
     @Override
+    @SuppressWarnings({"unchecked"})
     public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
-        ExceptionMapper<T> excMapper = doGetExceptionMapper(type);
-        if (excMapper == null) {
-            excMapper = getDefaults().getExceptionMapper(type);
+        ObjectFactory<ProviderDescriptor> pf = getSnapshot().exceptionMappers.get(type);
+        if (pf != null) {
+            return (ExceptionMapper<T>)pf.getInstance(ApplicationContextImpl.getCurrent());
         }
-        return excMapper;
+        return null;
     }
 
     @Override
+    ExceptionMapperCache getExceptionMapperCache() {
+        return getSnapshot().exceptionMapperCache;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
     public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        MessageBodyReader<T> reader = doGetMessageBodyReader(type, genericType, annotations, mediaType);
-        if (reader == null) {
-            reader = getDefaults().getMessageBodyReader(type, genericType, annotations, mediaType);
+        final Map<ObjectFactory<ProviderDescriptor>, MessageBodyReader> instanceCache = new IdentityHashMap<>();
+        for (Candidate candidate : getSnapshot().getReaders(mediaType)) {
+            MessageBodyReader reader = instanceCache.get(candidate.factory);
+            if (reader == null) {
+                reader = (MessageBodyReader)candidate.factory.getInstance(ApplicationContextImpl.getCurrent());
+                instanceCache.put(candidate.factory, reader);
+            }
+            if (reader.isReadable(type, genericType, annotations, candidate.mediaType)) {
+                return reader;
+            }
         }
-        return reader;
+        return null;
     }
 
     @Override
+    @SuppressWarnings({"unchecked"})
     public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        MessageBodyWriter<T> writer = doGetMessageBodyWriter(type, genericType, annotations, mediaType);
-        if (writer == null) {
-            writer = getDefaults().getMessageBodyWriter(type, genericType, annotations, mediaType);
+        final Map<ObjectFactory<ProviderDescriptor>, MessageBodyWriter> instanceCache = new IdentityHashMap<>();
+        for (Candidate candidate : getSnapshot().getWriters(mediaType)) {
+            MessageBodyWriter writer = instanceCache.get(candidate.factory);
+            if (writer == null) {
+                writer = (MessageBodyWriter)candidate.factory.getInstance(ApplicationContextImpl.getCurrent());
+                instanceCache.put(candidate.factory, writer);
+            }
+            if (writer.isWriteable(type, genericType, annotations, candidate.mediaType)) {
+                return writer;
+            }
         }
-        return writer;
+        return null;
     }
 
     @Override
     public List<ObjectFactory<FilterDescriptor>> getMethodInvokerFilters(String path) {
-        List<ObjectFactory<FilterDescriptor>> l = doGetMatchedFilters(path, invokerFilters);
-        l.addAll(getDefaults().getMethodInvokerFilters(path));
-        return l;
+        return getSnapshot().invokerFilters.getMatched(path);
     }
 
     @Override
     public List<ObjectFactory<FilterDescriptor>> getRequestFilters(String path) {
-        List<ObjectFactory<FilterDescriptor>> l = doGetMatchedFilters(path, requestFilters);
-        l.addAll(getDefaults().getRequestFilters(path));
-        return l;
+        return getSnapshot().requestFilters.getMatched(path);
     }
 
     @Override
     public List<ObjectFactory<FilterDescriptor>> getResponseFilters(String path) {
-        List<ObjectFactory<FilterDescriptor>> l = doGetMatchedFilters(path, responseFilters);
-        l.addAll(getDefaults().getResponseFilters(path));
-        return l;
+        return getSnapshot().responseFilters.getMatched(path);
+    }
+
+    /** Get actual snapshot of providers, create new one if providers of application or embedded providers were changed. */
+    private Snapshot getSnapshot() {
+        final ProviderBinder defaults = ProviderBinder.getInstance();
+        Snapshot s = snapshot;
+        if (s == null
+            || s.modificationCount != getModificationCount()
+            || s.defaults != defaults
+            || s.defaultsModificationCount != defaults.getModificationCount()) {
+            // Copy providers under locks of both binders, so snapshot never reflects batch that is not committed completely.
+            synchronized (modificationLock) {
+                synchronized (defaults.modificationLock) {
+                    s = new Snapshot(this, defaults);
+                }
+            }
+            snapshot = s;
+        }
+        return s;
     }
 
-    private ProviderBinder getDefaults() {
-        return ProviderBinder.getInstance();
+    /** Provider together with media type that must be used when check is provider able to read or write entity. */
+    private static final class Candidate {
+        final ObjectFactory<ProviderDescriptor> factory;
+        final MediaType                         mediaType;
+
+        Candidate(ObjectFactory<ProviderDescriptor> factory, MediaType mediaType) {
+            this.factory = factory;
+            this.mediaType = mediaType;
+        }
+    }
+
+    /**
+     * Immutable merged view of providers of application and embedded providers. Providers of application always go first.
+     * Lists of candidate readers and writers are collected once for each requested media type.
+     */
+    private static final class Snapshot {
+        final ProviderBinder defaults;
+        final long           modificationCount;
+        final long           defaultsModificationCount;
+
+        final Map<Class<? extends Throwable>, ObjectFactory<ProviderDescriptor>>   exceptionMappers;
+        final ExceptionMapperCache                                                 exceptionMapperCache;
+        final Map<Class<?>, List<MediaTypeMap<ObjectFactory<ProviderDescriptor>>>> contextResolvers;
+        final FilterIndex                                                          requestFilters;
+        final FilterIndex                                                          responseFilters;
+        final FilterIndex                                                          invokerFilters;
+        final Map<MediaType, List<ObjectFactory<ProviderDescriptor>>>              applicationWriters;
+        final Map<MediaType, List<ObjectFactory<ProviderDescriptor>>>              defaultWriters;
+        final Map<MediaType, List<ObjectFactory<ProviderDescriptor>>>              applicationReaders;
+        final Map<MediaType, List<ObjectFactory<ProviderDescriptor>>>              defaultReaders;
+
+        private final ConcurrentMap<MediaType, List<Candidate>> readerCandidates = new ConcurrentHashMap<>();
+        private final ConcurrentMap<MediaType, List<Candidate>> writerCandidates = new ConcurrentHashMap<>();
+
+        Snapshot(ApplicationProviderBinder application, ProviderBinder defaults) {
+            this.defaults = defaults;
+            this.modificationCount = application.getModificationCount();
+            this.defaultsModificationCount = defaults.getModificationCount();
+
+            Map<Class<? extends Throwable>, ObjectFactory<ProviderDescriptor>> myExceptionMappers = new HashMap<>(defaults.exceptionMappers);
+            myExceptionMappers.putAll(application.exceptionMappers);
+            exceptionMappers = myExceptionMappers;
+            exceptionMapperCache = new ExceptionMapperCache(myExceptionMappers, modificationCount);
+
+            Map<Class<?>, List<MediaTypeMap<ObjectFactory<ProviderDescriptor>>>> myContextResolvers = new HashMap<>();
+            addContextResolvers(myContextResolvers, application.contextResolvers);
+            addContextResolvers(myContextResolvers, defaults.contextResolvers);
+            contextResolvers = myContextResolvers;
+
+            requestFilters = new FilterIndex(merge(application.requestFilters, defaults.requestFilters), modificationCount);
+            responseFilters = new FilterIndex(merge(application.responseFilters, defaults.responseFilters), modificationCount);
+            invokerFilters = new FilterIndex(merge(application.invokerFilters, defaults.invokerFilters), modificationCount);
+
+            applicationWriters = copy(application.writeProviders);
+            defaultWriters = copy(defaults.writeProviders);
+            applicationReaders = copy(application.readProviders);
+            defaultReaders = copy(defaults.readProviders);
+        }
+
+        List<Candidate> getReaders(MediaType mediaType) {
+            return getCandidates(readerCandidates, mediaType, applicationReaders, defaultReaders);
+        }
+
+        List<Candidate> getWriters(MediaType mediaType) {
+            return getCandidates(writerCandidates, mediaType, applicationWriters, defaultWriters);
+        }
+
+        @SuppressWarnings({"unchecked"})
+        List<MediaType> getAcceptableWriterMediaTypes(Map<MediaType, List<ObjectFactory<ProviderDescriptor>>> writers,
+                                                      Class<?> type, Type genericType, Annotation[] annotations) {
+            List<MediaType> l = new ArrayList<>();
+            Map<Class, MessageBodyWriter> instanceCache = new HashMap<>();
+            for (Map.Entry<MediaType, List<ObjectFactory<ProviderDescriptor>>> e : writers.entrySet()) {
+                MediaType mime = e.getKey();
+                for (ObjectFactory pf : e.getValue()) {
+                    Class clazz = pf.getObjectModel().getObjectClass();
+                    MessageBodyWriter writer = instanceCache.get(clazz);
+                    if (writer == null) {
+                        writer = (MessageBodyWriter)pf.getInstance(ApplicationContextImpl.getCurrent());
+                        instanceCache.put(clazz, writer);
+                    }
+                    if (writer.isWriteable(type, genericType, annotations, MediaTypeHelper.DEFAULT_TYPE)) {
+                        l.add(mime);
+                    }
+                }
+            }
+            if (l.size() > 1) {
+                Collections.sort(l, MediaTypeHelper.MEDIA_TYPE_COMPARATOR);
+            }
+            return l;
+        }
+
+        /**
+         * Collect providers for all media types from range of specified media type. Providers of application are checked
+         * over the whole range before embedded providers, the same as it is done when binders are checked one by one.
+         */
+        private static List<Candidate> getCandidates(ConcurrentMap<MediaType, List<Candidate>> cache,
+                                                     MediaType mediaType,
+                                                     Map<MediaType, List<ObjectFactory<ProviderDescriptor>>> application,
+                                                     Map<MediaType, List<ObjectFactory<ProviderDescriptor>>> defaults) {
+            if (mediaType == null) {
+                mediaType = MediaTypeHelper.DEFAULT_TYPE;
+            }
+            List<Candidate> candidates = cache.get(mediaType);
+            if (candidates == null) {
+                List<Candidate> l = new ArrayList<>();
+                addCandidates(l, mediaType, application);
+                addCandidates(l, mediaType, defaults);
+                candidates = Collections.unmodifiableList(l);
+                if (cache.size() >= MAX_CANDIDATES_CACHE_SIZE) {
+                    cache.clear();
+                }
+                cache.putIfAbsent(mediaType, candidates);
+            }
+            return candidates;
+        }
+
+        private static void addCandidates(List<Candidate> candidates, MediaType mediaType,
+                                          Map<MediaType, List<ObjectFactory<ProviderDescriptor>>> providers) {
+            MediaTypeHelper.MediaTypeRange mrange = new MediaTypeHelper.MediaTypeRange(mediaType);
+            while (mrange.hasNext()) {
+                MediaType actual = mrange.next();
+                List<ObjectFactory<ProviderDescriptor>> factories = providers.get(actual);
+                if (factories != null) {
+                    for (ObjectFactory<ProviderDescriptor> factory : factories) {
+                        candidates.add(new Candidate(factory, actual));
+                    }
+                }
+            }
+        }
+
+        private static void addContextResolvers(Map<Class<?>, List<MediaTypeMap<ObjectFactory<ProviderDescriptor>>>> merged,
+                                                Map<Class<?>, MediaTypeMap<ObjectFactory<ProviderDescriptor>>> resolvers) {
+            for (Map.Entry<Class<?>, MediaTypeMap<ObjectFactory<ProviderDescriptor>>> e : resolvers.entrySet()) {
+                List<MediaTypeMap<ObjectFactory<ProviderDescriptor>>> l = merged.get(e.getKey());
+                if (l == null) {
+                    merged.put(e.getKey(), l = new ArrayList<>(2));
+                }
+                l.add(e.getValue());
+            }
+        }
+
+        /** Copy providers, keep order of media types and skip media types without providers. */
+        private static <K, V> Map<K, List<V>> copy(Map<K, List<V>> map) {
+            Map<K, List<V>> copy = new LinkedHashMap<>();
+            for (Map.Entry<K, List<V>> e : map.entrySet()) {
+                if (!e.getValue().isEmpty()) {
+                    copy.put(e.getKey(), Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+                }
+            }
+            return copy;
+        }
+
+        private static List<Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>>> merge(
+                UriPatternMap<ObjectFactory<FilterDescriptor>> application, UriPatternMap<ObjectFactory<FilterDescriptor>> defaults) {
+            List<Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>>> l = new ArrayList<>(copy(application).entrySet());
+            l.addAll(copy(defaults).entrySet());
+            return l;
+        }
     }
 }
@@ -15,8 +15,10 @@ import org.everrest.core.ObjectFactory;
 import org.everrest.core.ObjectModel;
 import org.everrest.core.RequestFilter;
 import org.everrest.core.ResourceBinder;
+import org.everrest.core.ResourcePublicationException;
 import org.everrest.core.ResponseFilter;
 import org.everrest.core.method.MethodInvokerFilter;
+import org.everrest.core.resource.AbstractResourceDescriptor;
 
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Application;
@@ -25,14 +27,35 @@ import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Publishes components of {@link Application}. If {@link ResourceBinderImpl} is used then descriptors of root resources are
+ * built and validated in parallel and registered in one batch after all, see {@link ResourceBinderImpl#addResources(Collection)}.
+ * Resources are registered in the same order as they are listed in application, so the same resource is rejected in case of
+ * conflict of URI patterns as if resources were published one by one.
+ *
  * @author andrew00x
  */
 public class ApplicationPublisher {
+    /** Min number of root resources per thread, descriptors of small number of resources are built in publishing thread. */
+    public static final int RESOURCES_PER_THREAD = 8;
+
+    /** Max number of threads that build descriptors of root resources. */
+    public static final int MAX_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
     protected final ResourceBinder resources;
     protected final ProviderBinder providers;
 
@@ -42,6 +65,9 @@ public class ApplicationPublisher {
     }
 
     public void publish(Application application) {
+        // Descriptors of resources are built later if batch registration is supported, otherwise resources are registered at once.
+        final List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors =
+                resources instanceof ResourceBinderImpl ? new ArrayList<Callable<ObjectFactory<AbstractResourceDescriptor>>>() : null;
         Set<Class<?>> classes = new LinkedHashSet<>();
         Set<Class<?>> appClasses = application.getClasses();
         if (appClasses != null) {
@@ -51,37 +77,128 @@ public class ApplicationPublisher {
             EverrestApplication everrest = (EverrestApplication)application;
             for (Map.Entry<String, Class<?>> e : everrest.getResourceClasses().entrySet()) {
                 Class<?> clazz = e.getValue();
-                addResource(e.getKey(), clazz);
+                addResource(e.getKey(), clazz, descriptors);
                 classes.remove(clazz);
             }
             for (Map.Entry<String, Object> e : everrest.getResourceSingletons().entrySet()) {
-                addResource(e.getKey(), e.getValue());
+                addResource(e.getKey(), e.getValue(), descriptors);
             }
             for (ObjectFactory<? extends ObjectModel> factory : everrest.getFactories()) {
-                addFactory(factory);
+                addFactory(factory, descriptors);
                 classes.remove(factory.getObjectModel().getObjectClass());
             }
         }
         for (Class<?> clazz : classes) {
-            addPerRequest(clazz);
+            addPerRequest(clazz, descriptors);
         }
         Set<Object> singletons = application.getSingletons();
         if (singletons != null) {
             for (Object instance : singletons) {
-                addSingleton(instance);
+                addSingleton(instance, descriptors);
+            }
+        }
+        if (descriptors != null && !descriptors.isEmpty()) {
+            ((ResourceBinderImpl)resources).addResources(build(descriptors));
+        }
+    }
+
+    /** Builds descriptors of resources, descriptors are returned in the same order as tasks. */
+    private List<ObjectFactory<AbstractResourceDescriptor>> build(List<Callable<ObjectFactory<AbstractResourceDescriptor>>> tasks) {
+        final List<ObjectFactory<AbstractResourceDescriptor>> factories = new ArrayList<>(tasks.size());
+        final int threads = Math.min(MAX_THREADS, tasks.size() / RESOURCES_PER_THREAD);
+        if (threads < 2) {
+            for (Callable<ObjectFactory<AbstractResourceDescriptor>> task : tasks) {
+                factories.add(getResult(task));
+            }
+            return factories;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new PublisherThreadFactory());
+        try {
+            for (Future<ObjectFactory<AbstractResourceDescriptor>> future : executor.invokeAll(tasks)) {
+                try {
+                    factories.add(future.get());
+                } catch (ExecutionException e) {
+                    throw toPublicationException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourcePublicationException("Publication of resources is interrupted. ", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return factories;
+    }
+
+    private ObjectFactory<AbstractResourceDescriptor> getResult(Callable<ObjectFactory<AbstractResourceDescriptor>> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw toPublicationException(e);
+        }
+    }
+
+    private RuntimeException toPublicationException(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException)cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error)cause;
+        }
+        return new ResourcePublicationException(cause.getMessage(), cause);
+    }
+
+    private void addResource(final String uriPattern, final Class<?> resourceClass,
+                             List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
+        if (descriptors == null) {
+            if (uriPattern == null) {
+                resources.addResource(resourceClass, null);
+            } else {
+                resources.addResource(uriPattern, resourceClass, null);
             }
+        } else {
+            descriptors.add(new Callable<ObjectFactory<AbstractResourceDescriptor>>() {
+                @Override
+                public ObjectFactory<AbstractResourceDescriptor> call() {
+                    return ((ResourceBinderImpl)resources).createResourceFactory(uriPattern, resourceClass, null);
+                }
+            });
         }
     }
 
-    private void addResource(String uriPattern, Class<?> resourceClass) {
-        resources.addResource(uriPattern, resourceClass, null);
+    private void addResource(final String uriPattern, final Object resource,
+                             List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
+        if (descriptors == null) {
+            if (uriPattern == null) {
+                resources.addResource(resource, null);
+            } else {
+                resources.addResource(uriPattern, resource, null);
+            }
+        } else {
+            descriptors.add(new Callable<ObjectFactory<AbstractResourceDescriptor>>() {
+                @Override
+                public ObjectFactory<AbstractResourceDescriptor> call() {
+                    return ((ResourceBinderImpl)resources).createResourceFactory(uriPattern, resource, null);
+                }
+            });
+        }
     }
 
-    private void addResource(String uriPattern, Object resource) {
-        resources.addResource(uriPattern, resource, null);
+    private void addResource(final ObjectFactory<AbstractResourceDescriptor> factory,
+                             List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
+        if (descriptors == null) {
+            resources.addResource(factory);
+        } else {
+            descriptors.add(new Callable<ObjectFactory<AbstractResourceDescriptor>>() {
+                @Override
+                public ObjectFactory<AbstractResourceDescriptor> call() {
+                    return factory;
+                }
+            });
+        }
     }
 
-    private void addSingleton(Object instance) {
+    private void addSingleton(Object instance, List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
         Class clazz = instance.getClass();
         if (clazz.getAnnotation(Provider.class) != null) {
             // singleton provider
@@ -110,12 +227,12 @@ public class ApplicationPublisher {
             }
         } else if (clazz.getAnnotation(Path.class) != null) {
             // singleton resource
-            resources.addResource(instance, null);
+            addResource(null, instance, descriptors);
         }
     }
 
     @SuppressWarnings({"unchecked"})
-    private void addPerRequest(Class clazz) {
+    private void addPerRequest(Class clazz, List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
         if (clazz.getAnnotation(Provider.class) != null) {
             // per-request provider
             if (ContextResolver.class.isAssignableFrom(clazz)) {
@@ -143,12 +260,12 @@ public class ApplicationPublisher {
             }
         } else if (clazz.getAnnotation(Path.class) != null) {
             // per-request resource
-            resources.addResource(clazz, null);
+            addResource(null, (Class<?>)clazz, descriptors);
         }
     }
 
     @SuppressWarnings({"unchecked"})
-    private void addFactory(ObjectFactory factory) {
+    private void addFactory(ObjectFactory factory, List<Callable<ObjectFactory<AbstractResourceDescriptor>>> descriptors) {
         Class clazz = factory.getObjectModel().getObjectClass();
         if (clazz.getAnnotation(Provider.class) != null) {
             // per-request provider
@@ -177,7 +294,21 @@ public class ApplicationPublisher {
             }
         } else if (clazz.getAnnotation(Path.class) != null) {
             // per-request resource
-            resources.addResource(factory);
+            addResource((ObjectFactory<AbstractResourceDescriptor>)factory, descriptors);
+        }
+    }
+
+    /** Creates daemon threads that use context class loader of publishing thread. */
+    private static class PublisherThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter     = new AtomicInteger();
+        private final ClassLoader   classLoader = Thread.currentThread().getContextClassLoader();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "everrest-publisher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
         }
     }
 }
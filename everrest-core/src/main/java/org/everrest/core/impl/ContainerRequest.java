@@ -11,9 +11,10 @@
 package org.everrest.core.impl;
 
 import org.everrest.core.GenericContainerRequest;
-import org.everrest.core.impl.header.AcceptLanguage;
+import org.everrest.core.impl.header.AcceptHeadersCache;
 import org.everrest.core.impl.header.AcceptMediaType;
 import org.everrest.core.impl.header.HeaderHelper;
+import org.everrest.core.impl.header.HttpDateFormat;
 import org.everrest.core.impl.header.Language;
 import org.everrest.core.impl.header.MediaTypeHelper;
 
@@ -29,7 +30,6 @@ import javax.ws.rs.core.Variant;
 import java.io.InputStream;
 import java.net.URI;
 import java.security.Principal;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -304,15 +304,7 @@ public class ContainerRequest implements GenericContainerRequest {
     @Override
     public List<Locale> getAcceptableLanguages() {
         if (acceptLanguage == null) {
-            List<AcceptLanguage> l =
-                    HeaderHelper.createAcceptedLanguageList(HeaderHelper.convertToString(getRequestHeader(ACCEPT_LANGUAGE)));
-            List<Locale> t = new ArrayList<>(l.size());
-            // extract Locales from AcceptLanguage
-            for (AcceptLanguage al : l) {
-                t.add(al.getLocale());
-            }
-
-            acceptLanguage = Collections.unmodifiableList(t);
+            acceptLanguage = AcceptHeadersCache.getAcceptLocales(HeaderHelper.convertToString(getRequestHeader(ACCEPT_LANGUAGE)));
         }
 
         return acceptLanguage;
@@ -326,10 +318,8 @@ public class ContainerRequest implements GenericContainerRequest {
     @Override
     public List<MediaType> getAcceptableMediaTypes() {
         if (acceptMediaType == null) {
-            // 'extract' MediaType from AcceptMediaType
-            List<MediaType> t = new ArrayList<MediaType>(HeaderHelper.createAcceptedMediaTypeList(
-                    HeaderHelper.convertToString(getRequestHeader(ACCEPT))));
-            acceptMediaType = Collections.unmodifiableList(t);
+            acceptMediaType = Collections.<MediaType>unmodifiableList(
+                    AcceptHeadersCache.getAcceptMediaTypes(HeaderHelper.convertToString(getRequestHeader(ACCEPT))));
         }
 
         return acceptMediaType;
@@ -489,7 +479,7 @@ public class ContainerRequest implements GenericContainerRequest {
             return null;
         }
         try {
-            long unmodifiedSince = HeaderHelper.parseDateHeader(ifUnmodified).getTime();
+            long unmodifiedSince = HttpDateFormat.parse(ifUnmodified);
             if (lastModified > unmodifiedSince) {
                 return Response.status(Response.Status.PRECONDITION_FAILED);
             }
@@ -516,7 +506,7 @@ public class ContainerRequest implements GenericContainerRequest {
             return null;
         }
         try {
-            long modifiedSince = HeaderHelper.parseDateHeader(ifModified).getTime();
+            long modifiedSince = HttpDateFormat.parse(ifModified);
             if (lastModified < modifiedSince) {
                 return Response.notModified();
             }
@@ -17,12 +17,15 @@ import com.google.common.collect.Iterables;
 import org.everrest.core.ApplicationContext;
 import org.everrest.core.ContainerResponseWriter;
 import org.everrest.core.GenericContainerResponse;
+import org.everrest.core.impl.header.HeaderHelper;
+import org.everrest.core.util.NoSyncByteArrayOutputStream;
 import org.everrest.core.util.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -34,6 +37,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 /**
@@ -51,11 +56,35 @@ public class ContainerResponse implements GenericContainerResponse {
     private static class BodyWriter implements MessageBodyWriter<Object> {
         private final MessageBodyWriter<Object> delegate;
         private final OutputListener            writeListener;
+        private final EntityTagListener         entityTagListener;
+        private final int                       entityTagMaxSize;
+        private final ContentEncoding           contentEncoding;
+        private final OutputStream              entityCopy;
         private static final Logger LOG = LoggerFactory.getLogger(BodyWriter.class);
 
         public BodyWriter(MessageBodyWriter<Object> writer, OutputListener writeListener) {
+            this(writer, writeListener, null, 0, null, null);
+        }
+
+        /**
+         * @param entityTagListener
+         *         gets entity tag of response body if size of body is not greater then <code>entityTagMaxSize</code>, may be
+         *         <code>null</code> if entity tag must not be generated
+         * @param entityTagMaxSize
+         *         max size of response body that is buffered for generating entity tag
+         * @param contentEncoding
+         *         content coding for compression of response body, may be <code>null</code> if body must not be compressed
+         * @param entityCopy
+         *         stream that gets copy of response body before compression, may be <code>null</code>
+         */
+        public BodyWriter(MessageBodyWriter<Object> writer, OutputListener writeListener, EntityTagListener entityTagListener,
+                          int entityTagMaxSize, ContentEncoding contentEncoding, OutputStream entityCopy) {
             this.delegate = writer;
             this.writeListener = writeListener;
+            this.entityTagListener = entityTagListener;
+            this.entityTagMaxSize = entityTagMaxSize;
+            this.contentEncoding = contentEncoding;
+            this.entityCopy = entityCopy;
         }
 
         @Override
@@ -77,9 +106,31 @@ public class ContainerResponse implements GenericContainerResponse {
                             MultivaluedMap<String, Object> httpHeaders,
                             OutputStream entityStream) throws IOException, WebApplicationException {
 
+            ContentEncoding.EncoderOutputStream encoder = null;
             try {
-                delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders,
-                                 new NotifiesOutputStream(entityStream, writeListener));
+                OutputStream output = new NotifiesOutputStream(entityStream, writeListener);
+                EntityTagOutputStream entityTagOutput = null;
+                if (entityTagListener != null) {
+                    // Entity tag is created from compressed body, so it is different for each content coding.
+                    output = entityTagOutput = new EntityTagOutputStream(output, writeListener, entityTagListener, entityTagMaxSize);
+                }
+                if (contentEncoding != null) {
+                    output = encoder = contentEncoding.createEncoder(output);
+                }
+                if (entityCopy != null) {
+                    output = new CopyOutputStream(output, entityCopy);
+                }
+                delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, output);
+                if (encoder != null) {
+                    encoder.finish();
+                }
+                if (entityTagOutput != null) {
+                    entityTagOutput.done();
+                }
+                if (entityCopy != null) {
+                    // The whole body is written successfully.
+                    entityCopy.close();
+                }
             } catch (Exception e) {
                 if (Iterables.any(Throwables.getCausalChain(e), new Predicate<Throwable>() {
                     @Override
@@ -91,6 +142,11 @@ public class ContainerResponse implements GenericContainerResponse {
                     return;
                 }
                 throw e;
+            } finally {
+                if (encoder != null) {
+                    // Be sure deflater is returned to the pool.
+                    encoder.release();
+                }
             }
         }
     }
@@ -139,11 +195,182 @@ public class ContainerResponse implements GenericContainerResponse {
         }
     }
 
+    /**
+     * Buffers response body until its size is not greater then limit. If the whole body is buffered then strong entity tag is created
+     * from digest of body and passed to EntityTagListener. After that headers and body are written to the back-end stream, or only
+     * headers if EntityTagListener says that client already has actual version of entity. If body is too big then buffered content is
+     * written to the back-end stream as is and entity tag is not generated.
+     */
+    private static class EntityTagOutputStream extends OutputStream {
+        final OutputStream      delegate;
+        final OutputListener    writeListener;
+        final EntityTagListener entityTagListener;
+        final int               limit;
+        /** Buffered body, <code>null</code> if size of body exceeds limit. */
+        NoSyncByteArrayOutputStream buffer;
+        boolean                     closed;
+
+        EntityTagOutputStream(OutputStream output, OutputListener writeListener, EntityTagListener entityTagListener, int limit) {
+            this.delegate = output;
+            this.writeListener = writeListener;
+            this.entityTagListener = entityTagListener;
+            this.limit = limit;
+            buffer = new NoSyncByteArrayOutputStream(Math.min(limit, 1024));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (buffer != null && buffer.size() + 1 > limit) {
+                overflow();
+            }
+            if (buffer == null) {
+                delegate.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (buffer != null && buffer.size() + len > limit) {
+                overflow();
+            }
+            if (buffer == null) {
+                delegate.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Flushing of buffered body commits response, do that only when body does not fit to the buffer.
+            if (buffer == null) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                delegate.close();
+            } else {
+                closed = true;
+            }
+        }
+
+        private void overflow() throws IOException {
+            NoSyncByteArrayOutputStream buffered = buffer;
+            buffer = null;
+            buffered.writeTo(delegate);
+        }
+
+        /** Called when MessageBodyWriter finishes writing of body. */
+        void done() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            final byte[] bytes = buffer.getBytes();
+            final int length = buffer.size();
+            buffer = null;
+            if (entityTagListener.onEntityTag(createEntityTag(bytes, length), length)) {
+                writeListener.onChange(null);
+            } else if (length > 0) {
+                delegate.write(bytes, 0, length);
+            }
+            if (closed) {
+                delegate.close();
+            }
+        }
+
+        private static EntityTag createEntityTag(byte[] bytes, int length) {
+            final MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                // MD5 is supported by every java platform
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            digest.update(bytes, 0, length);
+            final byte[] hash = digest.digest();
+            final char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX[(hash[i] >> 4) & 0x0F];
+                hex[i * 2 + 1] = HEX[hash[i] & 0x0F];
+            }
+            return new EntityTag(new String(hex));
+        }
+
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+    }
+
+    /** Writes the same data to the back-end stream and to the copy stream. Copy stream is never flushed or closed. */
+    private static class CopyOutputStream extends OutputStream {
+        final OutputStream delegate;
+        final OutputStream copy;
+
+        CopyOutputStream(OutputStream delegate, OutputStream copy) {
+            this.delegate = delegate;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /** Creates stream that gets copy of serialized response body, e.g. for caching of response. */
+    public static interface EntityCopier {
+        /**
+         * Called before response body is written, after all headers of response are set.
+         *
+         * @param response
+         *         response
+         * @return stream that gets copy of response body or <code>null</code> if copy is not required. Stream is closed only if the
+         * whole body is written successfully
+         */
+        OutputStream createCopy(GenericContainerResponse response);
+    }
+
     /** Listen any changes in response output stream, e.g. write, flush, close, */
     private static interface OutputListener {
         void onChange(java.util.EventObject event) throws IOException;
     }
 
+    /** Gets entity tag generated from content of response body. */
+    private static interface EntityTagListener {
+        /**
+         * @param entityTag
+         *         strong entity tag of response body
+         * @param length
+         *         length of response body
+         * @return <code>true</code> if response body must not be written, e.g. client has actual version of entity
+         */
+        boolean onEntityTag(EntityTag entityTag, int length) throws IOException;
+    }
+
+    /** Headers that are sent with response 304 (Not Modified) if they present in original response. */
+    private static final String[] NOT_MODIFIED_HEADERS =
+            {HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_LOCATION, HttpHeaders.EXPIRES, HttpHeaders.VARY};
+
    /* --------------------------------------------------------- */
 
     /** Logger. */
@@ -180,6 +407,17 @@ public class ContainerResponse implements GenericContainerResponse {
     /** See {@link Response}, {@link ResponseBuilder}. */
     private Response response;
 
+    /** See {@link EntityCopier}. */
+    private EntityCopier entityCopier;
+
+    /**
+     * @param entityCopier
+     *         gets copy of serialized response body, may be <code>null</code>
+     */
+    public void setEntityCopier(EntityCopier entityCopier) {
+        this.entityCopier = entityCopier;
+    }
+
 
     @Override
     public void setResponse(Response response) {
@@ -234,7 +472,7 @@ public class ContainerResponse implements GenericContainerResponse {
             return;
         }
 
-        ApplicationContext context = ApplicationContextImpl.getCurrent();
+        final ApplicationContext context = ApplicationContextImpl.getCurrent();
         MediaType contentType = getContentType();
 
         // if content-type is still not preset try determine it
@@ -292,6 +530,22 @@ public class ContainerResponse implements GenericContainerResponse {
             }
         }
 
+        // Copy is made before compression, so headers of response are not updated yet.
+        final OutputStream entityCopy = entity == null || entityCopier == null ? null : entityCopier.createCopy(this);
+
+        ContentEncoding contentEncoding = null;
+        if (entity != null && isCompressible(context)) {
+            addVary(HttpHeaders.ACCEPT_ENCODING);
+            // Client may send 'Accept-Encoding' as several headers, all of them make one list of content codings.
+            contentEncoding = ContentEncoding.negotiate(HeaderHelper.convertToString(
+                    context.getContainerRequest().getRequestHeaders().get(HttpHeaders.ACCEPT_ENCODING)));
+            if (contentEncoding != null) {
+                getHttpHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, contentEncoding.getToken());
+                // Length of compressed body is unknown.
+                getHttpHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            }
+        }
+
         if (context.getContainerRequest().getMethod().equals(HttpMethod.HEAD)) {
             entity = null;
         }
@@ -312,10 +566,107 @@ public class ContainerResponse implements GenericContainerResponse {
             Tracer.addTraceHeaders(this);
         }
 
-        responseWriter.writeBody(this, new BodyWriter(entityWriter, headersWriter));
+        EntityTagListener entityTagListener = null;
+        if (entity != null && isAutoEntityTag(context)) {
+            entityTagListener = new EntityTagListener() {
+                @Override
+                public boolean onEntityTag(EntityTag entityTag, int length) {
+                    return applyEntityTag(context, entityTag, length);
+                }
+            };
+        }
+        final BodyWriter bodyWriter = new BodyWriter(entityWriter, headersWriter, entityTagListener,
+                                                     context.getEverrestConfiguration().getEntityTagMaxSize(), contentEncoding,
+                                                     entityCopy);
+
+        responseWriter.writeBody(this, bodyWriter);
         headersWriter.onChange(null); // Be sure headers were written.
     }
 
+    /**
+     * Check is entity tag should be generated from content of response body. Entity tag is generated, if it is enabled in configuration,
+     * only for successful responses of GET requests that do not have 'ETag' header yet.
+     */
+    private boolean isAutoEntityTag(ApplicationContext context) {
+        return status == Response.Status.OK.getStatusCode()
+               && context.getEverrestConfiguration().isAutoEntityTag()
+               && HttpMethod.GET.equals(context.getContainerRequest().getMethod())
+               && getHttpHeaders().getFirst(HttpHeaders.ETAG) == null;
+    }
+
+    /**
+     * Check is response body should be compressed if client accepts compressed content. Compression must be enabled in configuration,
+     * media type of body must be compressible and size of body must be unknown or not less then configured min size.
+     */
+    private boolean isCompressible(ApplicationContext context) {
+        EverrestConfiguration config = context.getEverrestConfiguration();
+        if (!config.isCompression()
+            || status < 200
+            || status == Response.Status.NO_CONTENT.getStatusCode()
+            || status == Response.Status.PARTIAL_CONTENT.getStatusCode()
+            || status == Response.Status.NOT_MODIFIED.getStatusCode()
+            || getHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        MediaType contentType = getContentType();
+        if (contentType == null || !ContentEncoding.isCompressible(contentType, config.getCompressionMediaTypes())) {
+            return false;
+        }
+        Object contentLength = getHttpHeaders().getFirst(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                long length = Long.parseLong(contentLength.toString());
+                return length < 0 || length >= config.getCompressionMinSize();
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return true;
+    }
+
+    /** Add header name to the 'Vary' header of response if it is not there yet. */
+    private void addVary(String header) {
+        Object vary = getHttpHeaders().getFirst(HttpHeaders.VARY);
+        if (vary == null) {
+            getHttpHeaders().putSingle(HttpHeaders.VARY, header);
+            return;
+        }
+        String varyString = HeaderHelper.getHeaderAsString(vary);
+        for (String name : varyString.split(",")) {
+            name = name.trim();
+            if ("*".equals(name) || header.equalsIgnoreCase(name)) {
+                return;
+            }
+        }
+        getHttpHeaders().putSingle(HttpHeaders.VARY, varyString + ',' + header);
+    }
+
+    /**
+     * Add entity tag generated from content of response body to the response. If client already has entity with the same tag (see
+     * header 'If-None-Match') then response is replaced with response 304 (Not Modified).
+     *
+     * @return <code>true</code> if response body must not be sent to client
+     */
+    private boolean applyEntityTag(ApplicationContext context, EntityTag entityTag, int length) {
+        ResponseBuilder preconditions = context.getContainerRequest().evaluatePreconditions(entityTag);
+        if (preconditions == null) {
+            getHttpHeaders().putSingle(HttpHeaders.ETAG, entityTag);
+            if (getHttpHeaders().getFirst(HttpHeaders.CONTENT_LENGTH) == null) {
+                getHttpHeaders().putSingle(HttpHeaders.CONTENT_LENGTH, Integer.toString(length));
+            }
+            return false;
+        }
+        for (String header : NOT_MODIFIED_HEADERS) {
+            List<Object> values = getHttpHeaders().get(header);
+            if (values != null) {
+                for (Object value : values) {
+                    preconditions.header(header, value);
+                }
+            }
+        }
+        setResponse(preconditions.build());
+        return true;
+    }
+
 
     @Override
     public MediaType getContentType() {
@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.impl.header.AcceptHeadersCache;
+import org.everrest.core.impl.header.AcceptToken;
+import org.everrest.core.impl.header.MediaTypeHelper;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content codings that are supported for compression of response body and decompression of request body. Instances of {@link
+ * Deflater} that are used for compression are pooled.
+ *
+ * @author andrew00x
+ * @see EverrestConfiguration#EVERREST_COMPRESSION
+ */
+public enum ContentEncoding {
+    GZIP("gzip", true) {
+        @Override
+        public EncoderOutputStream createEncoder(OutputStream output) throws IOException {
+            return new GzipOutputStream(output, this);
+        }
+
+        @Override
+        InputStream createDecoder(InputStream input) throws IOException {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        }
+    },
+    DEFLATE("deflate", false) {
+        @Override
+        public EncoderOutputStream createEncoder(OutputStream output) throws IOException {
+            return new EncoderOutputStream(output, this);
+        }
+
+        @Override
+        InputStream createDecoder(InputStream input) throws IOException {
+            return new InflaterInputStream(input);
+        }
+    };
+
+    /** Max number of pooled deflaters of each content coding. */
+    public static final int POOL_SIZE = 64;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final String                   token;
+    /** Deflater does not write zlib header and checksum if <code>true</code>, gzip format uses its own header and checksum. */
+    private final boolean                  nowrap;
+    private final BlockingQueue<Deflater> pool = new LinkedBlockingQueue<>(POOL_SIZE);
+
+    private ContentEncoding(String token, boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    /** @return value of 'Content-Encoding' header for this content coding */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Create stream that compresses data and writes it to the <code>output</code>. Stream must be finished, closed or released
+     * after use, otherwise its deflater is not returned to the pool.
+     *
+     * @param output
+     *         output for compressed data
+     * @return compressing stream
+     */
+    public abstract EncoderOutputStream createEncoder(OutputStream output) throws IOException;
+
+    abstract InputStream createDecoder(InputStream input) throws IOException;
+
+    /**
+     * Create stream that decompresses data from the <code>input</code>.
+     *
+     * @param input
+     *         compressed data
+     * @param maxSize
+     *         max number of bytes that may be read from decompressing stream. Attempt to read more bytes causes {@link
+     *         WebApplicationException} with status 413 (Request Entity Too Large)
+     * @return decompressing stream
+     */
+    public InputStream createDecoder(InputStream input, long maxSize) throws IOException {
+        return new LimitedInputStream(createDecoder(input), maxSize);
+    }
+
+    private Deflater getDeflater() {
+        Deflater deflater = pool.poll();
+        return deflater == null ? new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap) : deflater;
+    }
+
+    private void release(Deflater deflater) {
+        deflater.reset();
+        if (!pool.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Get content coding for response body that is the most acceptable for client. Quality value of content coding that is
+     * listed explicitly takes precedence over quality value of '*', so e.g. <i>gzip;q=0, *</i> gives deflate. Content coding
+     * that is not listed is acceptable only if '*' is listed. If quality values are equal then gzip is preferred.
+     *
+     * @param acceptEncoding
+     *         value of 'Accept-Encoding' header, may be <code>null</code>
+     * @return content coding or <code>null</code> if response should not be compressed
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            // Client that does not send 'Accept-Encoding' most likely does not support compression.
+            return null;
+        }
+        List<AcceptToken> tokens;
+        try {
+            tokens = AcceptHeadersCache.getAcceptEncodings(acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // -1 means that content coding is not listed in header.
+        float gzip = -1.0F;
+        float deflate = -1.0F;
+        float identity = -1.0F;
+        float any = -1.0F;
+        for (AcceptToken token : tokens) {
+            String value = token.getToken();
+            float qvalue = token.getQvalue();
+            if ("gzip".equalsIgnoreCase(value) || "x-gzip".equalsIgnoreCase(value)) {
+                gzip = Math.max(gzip, qvalue);
+            } else if ("deflate".equalsIgnoreCase(value)) {
+                deflate = Math.max(deflate, qvalue);
+            } else if ("identity".equalsIgnoreCase(value)) {
+                identity = Math.max(identity, qvalue);
+            } else if ("*".equals(value)) {
+                any = Math.max(any, qvalue);
+            }
+        }
+        if (gzip < 0.0F) {
+            gzip = any;
+        }
+        if (deflate < 0.0F) {
+            deflate = any;
+        }
+        ContentEncoding result = null;
+        float best = 0.0F;
+        if (gzip > best) {
+            result = GZIP;
+            best = gzip;
+        }
+        if (deflate > best) {
+            result = DEFLATE;
+            best = deflate;
+        }
+        // Client prefers not compressed content.
+        if (identity > best) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Get content coding by value of 'Content-Encoding' header.
+     *
+     * @param contentEncoding
+     *         value of 'Content-Encoding' header
+     * @return content coding or <code>null</code> if content coding is not supported
+     */
+    public static ContentEncoding forToken(String contentEncoding) {
+        if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+            return GZIP;
+        }
+        if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    private static volatile CompressibleTypes compressibleTypes;
+
+    /**
+     * Check is content of specified media type worth compression.
+     *
+     * @param mediaType
+     *         media type of content
+     * @param compressibleMediaTypes
+     *         comma separated list of compressible media types, e.g. <i>text/*, application/json, application/*+xml</i>
+     * @return <code>true</code> if content of specified media type should be compressed
+     */
+    public static boolean isCompressible(MediaType mediaType, String compressibleMediaTypes) {
+        CompressibleTypes types = compressibleTypes;
+        if (types == null || !types.source.equals(compressibleMediaTypes)) {
+            compressibleTypes = types = new CompressibleTypes(compressibleMediaTypes);
+        }
+        for (MediaType type : types.mediaTypes) {
+            if (MediaTypeHelper.isMatched(type, mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Parsed list of compressible media types, it is parsed once until configuration is not changed. */
+    private static final class CompressibleTypes {
+        final String          source;
+        final List<MediaType> mediaTypes;
+
+        CompressibleTypes(String source) {
+            this.source = source;
+            List<MediaType> mediaTypes = new ArrayList<>();
+            for (String type : source.split(",")) {
+                type = type.trim();
+                if (!type.isEmpty()) {
+                    mediaTypes.add(MediaType.valueOf(type));
+                }
+            }
+            this.mediaTypes = Collections.unmodifiableList(mediaTypes);
+        }
+    }
+
+    /** Stream that uses deflater from the pool and returns it back to the pool when stream is finished. */
+    public static class EncoderOutputStream extends DeflaterOutputStream {
+        private final ContentEncoding encoding;
+        boolean released;
+
+        EncoderOutputStream(OutputStream output, ContentEncoding encoding) {
+            super(output, encoding.getDeflater(), BUFFER_SIZE);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (released) {
+                throw new IOException("Stream closed. ");
+            }
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (released) {
+                return;
+            }
+            try {
+                super.finish();
+                writeTrailer();
+            } finally {
+                release();
+            }
+        }
+
+        /** Return deflater to the pool without writing of remaining compressed data, e.g. if writing of content failed. */
+        public void release() {
+            if (!released) {
+                released = true;
+                encoding.release(def);
+            }
+        }
+
+        void writeTrailer() throws IOException {
+        }
+    }
+
+    /** Writes compressed data in gzip format, see RFC 1952. */
+    private static final class GzipOutputStream extends EncoderOutputStream {
+        private static final byte[] HEADER = {(byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff};
+
+        private final CRC32   crc = new CRC32();
+        /** Header is written with first portion of data, so MessageBodyWriter still may update HTTP headers before writing. */
+        private       boolean headerWritten;
+
+        GzipOutputStream(OutputStream output, ContentEncoding encoding) {
+            super(output, encoding);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writeHeader();
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!released) {
+                writeHeader();
+                super.finish();
+            }
+        }
+
+        private void writeHeader() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                out.write(HEADER);
+            }
+        }
+
+        @Override
+        void writeTrailer() throws IOException {
+            final byte[] trailer = new byte[8];
+            writeInt((int)crc.getValue(), trailer, 0);
+            writeInt((int)def.getBytesRead(), trailer, 4);
+            out.write(trailer);
+        }
+
+        private static void writeInt(int i, byte[] buf, int offset) {
+            buf[offset] = (byte)i;
+            buf[offset + 1] = (byte)(i >> 8);
+            buf[offset + 2] = (byte)(i >> 16);
+            buf[offset + 3] = (byte)(i >> 24);
+        }
+    }
+
+    /** Protects from decompression bombs, limits number of bytes that may be read from decompressing stream. */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private       long count;
+
+        LimitedInputStream(InputStream input, long maxSize) {
+            super(input);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > maxSize) {
+                throw new WebApplicationException(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                                                          .entity("Decompressed request entity is bigger than " + maxSize + " bytes")
+                                                          .type(MediaType.TEXT_PLAIN).build());
+            }
+        }
+    }
+}
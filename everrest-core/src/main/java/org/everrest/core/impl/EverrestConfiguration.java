@@ -14,8 +14,13 @@ import org.everrest.core.impl.method.MethodInvokerDecoratorFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Configuration of EverRest. Configuration is not thread safe, it is expected to be changed before it is used by {@link
+ * EverrestProcessor}. EverrestProcessor compiles configuration in immutable snapshot and shares it between requests. Snapshot is
+ * recreated when configuration is changed. Changes made in configuration of particular request are not visible for other requests.
+ *
  * @author andrew00x
  */
 public class EverrestConfiguration {
@@ -34,6 +39,59 @@ public class EverrestConfiguration {
      * system during entity processing.
      */
     public static final String EVERREST_MAX_BUFFER_SIZE           = "org.everrest.max.buffer.size";
+    /**
+     * If <code>true</code> then JAXBContexts for all classes annotated with &#064XmlRootElement that are used as entity or return
+     * type of resource methods are created at deploy time.
+     */
+    public static final String EVERREST_JAXB_PREBUILD_CONTEXTS    = "org.everrest.jaxb.prebuild.contexts";
+    /**
+     * If <code>true</code> then strong entity tag is generated for responses to GET requests that do not have 'ETag' header. Tag is
+     * created from content of response body, body is buffered until its size is not greater then {@link #EVERREST_ETAG_MAX_SIZE}.
+     */
+    public static final String EVERREST_ETAG_AUTO                 = "org.everrest.etag.auto";
+    /** Max size of response body for which entity tag may be generated. See {@link #EVERREST_ETAG_AUTO}. */
+    public static final String EVERREST_ETAG_MAX_SIZE             = "org.everrest.etag.max.size";
+    /**
+     * If <code>true</code> then response body is compressed with content coding that is acceptable for client (see header
+     * 'Accept-Encoding') and compressed request body (see header 'Content-Encoding') is decompressed.
+     */
+    public static final String EVERREST_COMPRESSION               = "org.everrest.compression";
+    /** Min size of response body that is compressed. Body of unknown size is always compressed. */
+    public static final String EVERREST_COMPRESSION_MIN_SIZE      = "org.everrest.compression.min.size";
+    /** Comma separated list of media types of response body that should be compressed. */
+    public static final String EVERREST_COMPRESSION_MEDIA_TYPES   = "org.everrest.compression.media.types";
+    /** Max size of decompressed request body, protection from decompression bombs. */
+    public static final String EVERREST_DECOMPRESSION_MAX_SIZE    = "org.everrest.decompression.max.size";
+    /** If <code>true</code> then responses to GET requests are cached in accordance to their 'Cache-Control' header. */
+    public static final String EVERREST_CACHE                     = "org.everrest.cache";
+    /** Max total size of cached responses in bytes. See {@link #EVERREST_CACHE}. */
+    public static final String EVERREST_CACHE_MAX_SIZE            = "org.everrest.cache.max.size";
+    /**
+     * If <code>true</code> then EverrestServlet processes requests asynchronously with non-blocking I/O. Servlet must support
+     * asynchronous mode, otherwise requests are processed synchronously.
+     */
+    public static final String EVERREST_SERVLET_ASYNC             = "org.everrest.servlet.async";
+    /** Number of threads that process asynchronous requests. See {@link #EVERREST_SERVLET_ASYNC}. */
+    public static final String EVERREST_SERVLET_ASYNC_POOL_SIZE   = "org.everrest.servlet.async.pool.size";
+    /** Max number of asynchronous requests that wait for processing. See {@link #EVERREST_SERVLET_ASYNC}. */
+    public static final String EVERREST_SERVLET_ASYNC_QUEUE_SIZE  = "org.everrest.servlet.async.queue.size";
+    /** Timeout of asynchronous request in seconds. See {@link #EVERREST_SERVLET_ASYNC}. */
+    public static final String EVERREST_SERVLET_ASYNC_TIMEOUT     = "org.everrest.servlet.async.timeout";
+    /**
+     * Max number of ApplicationContexts that are kept for reusing by next requests. If <code>0</code> then new ApplicationContext is
+     * created for each request.
+     */
+    public static final String EVERREST_CONTEXT_POOL_SIZE         = "org.everrest.context.pool.size";
+    /**
+     * Path to file of resource model snapshot. If set then signatures of resource methods found in root resources at startup are
+     * stored in this file and reused at next startup with the same classpath. See {@link org.everrest.core.impl.resource.ResourceModelSnapshot}.
+     */
+    public static final String EVERREST_RESOURCE_MODEL_SNAPSHOT   = "org.everrest.resource.model.snapshot";
+    /**
+     * Time in milliseconds during that result of checking role of user is remembered by
+     * {@link org.everrest.core.impl.method.filter.SecurityConstraint}. If <code>0</code> then roles are checked for each request.
+     */
+    public static final String EVERREST_ROLE_CACHE_TIMEOUT        = "org.everrest.security.role.cache.timeout";
 
 
     public static final boolean defaultCheckSecurity           = true;
@@ -47,15 +105,45 @@ public class EverrestConfiguration {
     public static final int     defaultAsynchronousJobTimeout  = 60;
     /** Max buffer size attribute value. See {@link #EVERREST_MAX_BUFFER_SIZE}. */
     public static final int     defaultMaxBufferSize           = 204800;
+    public static final boolean defaultPrebuildJAXBContexts    = false;
+    public static final boolean defaultAutoEntityTag           = false;
+    /** Max size of response body for generating entity tag. See {@link #EVERREST_ETAG_MAX_SIZE}. */
+    public static final int     defaultEntityTagMaxSize        = 65536;
+    public static final boolean defaultCompression             = false;
+    public static final int     defaultCompressionMinSize      = 1024;
+    public static final String  defaultCompressionMediaTypes   =
+            "text/*,application/json,application/*+json,application/xml,application/*+xml,application/javascript";
+    public static final long    defaultDecompressionMaxSize    = 10 * 1024 * 1024;
+    public static final boolean defaultCache                   = false;
+    public static final long    defaultCacheMaxSize            = 10 * 1024 * 1024;
+    public static final boolean defaultServletAsync            = false;
+    public static final int     defaultServletAsyncPoolSize    = 20;
+    public static final int     defaultServletAsyncQueueSize   = 1000;
+    public static final int     defaultServletAsyncTimeout     = 60;
+    public static final int     defaultContextPoolSize         = 0;
+    public static final long    defaultRoleCacheTimeout        = 0;
 
     protected final Map<String, String> properties;
 
+    /** Number of modifications of this configuration, it lets detect that snapshot of configuration is outdated. */
+    private final AtomicLong modificationCount = new AtomicLong();
+
     public EverrestConfiguration() {
         properties = new HashMap<>();
     }
 
     public EverrestConfiguration(EverrestConfiguration other) {
-        properties = new HashMap<>(other.properties);
+        properties = other.copyProperties();
+    }
+
+    /**
+     * Create configuration over specified map of properties. Map is not copied.
+     *
+     * @param properties
+     *         properties of configuration
+     */
+    protected EverrestConfiguration(Map<String, String> properties) {
+        this.properties = properties;
     }
 
     public boolean isCheckSecurity() {
@@ -63,7 +151,7 @@ public class EverrestConfiguration {
     }
 
     public void setCheckSecurity(boolean checkSecurity) {
-        properties.put(EVERREST_CHECK_SECURITY, Boolean.toString(checkSecurity));
+        setProperty(EVERREST_CHECK_SECURITY, Boolean.toString(checkSecurity));
     }
 
     public boolean isHttpMethodOverride() {
@@ -71,7 +159,7 @@ public class EverrestConfiguration {
     }
 
     public void setHttpMethodOverride(boolean httpMethodOverride) {
-        properties.put(EVERREST_HTTP_METHOD_OVERRIDE, Boolean.toString(httpMethodOverride));
+        setProperty(EVERREST_HTTP_METHOD_OVERRIDE, Boolean.toString(httpMethodOverride));
     }
 
     public boolean isNormalizeUri() {
@@ -79,7 +167,7 @@ public class EverrestConfiguration {
     }
 
     public void setNormalizeUri(boolean normalizeUri) {
-        properties.put(EVERREST_NORMALIZE_URI, Boolean.toString(normalizeUri));
+        setProperty(EVERREST_NORMALIZE_URI, Boolean.toString(normalizeUri));
     }
 
     public boolean isAsynchronousSupported() {
@@ -87,7 +175,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousSupported(boolean asynchronousSupported) {
-        properties.put(EVERREST_ASYNCHRONOUS, Boolean.toString(asynchronousSupported));
+        setProperty(EVERREST_ASYNCHRONOUS, Boolean.toString(asynchronousSupported));
     }
 
     public String getAsynchronousServicePath() {
@@ -95,7 +183,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousServicePath(String servicePath) {
-        properties.put(EVERREST_ASYNCHRONOUS_SERVICE_PATH, servicePath);
+        setProperty(EVERREST_ASYNCHRONOUS_SERVICE_PATH, servicePath);
     }
 
     public int getAsynchronousPoolSize() {
@@ -103,7 +191,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousPoolSize(int asynchronousPoolSize) {
-        properties.put(EVERREST_ASYNCHRONOUS_POOL_SIZE, Integer.toString(asynchronousPoolSize));
+        setProperty(EVERREST_ASYNCHRONOUS_POOL_SIZE, Integer.toString(asynchronousPoolSize));
     }
 
     public int getAsynchronousQueueSize() {
@@ -111,7 +199,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousQueueSize(int asynchronousQueueSize) {
-        properties.put(EVERREST_ASYNCHRONOUS_QUEUE_SIZE, Integer.toString(asynchronousQueueSize));
+        setProperty(EVERREST_ASYNCHRONOUS_QUEUE_SIZE, Integer.toString(asynchronousQueueSize));
     }
 
     public int getAsynchronousCacheSize() {
@@ -119,7 +207,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousCacheSize(int asynchronousCacheSize) {
-        properties.put(EVERREST_ASYNCHRONOUS_CACHE_SIZE, Integer.toString(asynchronousCacheSize));
+        setProperty(EVERREST_ASYNCHRONOUS_CACHE_SIZE, Integer.toString(asynchronousCacheSize));
     }
 
     public int getAsynchronousJobTimeout() {
@@ -127,7 +215,7 @@ public class EverrestConfiguration {
     }
 
     public void setAsynchronousJobTimeout(int asynchronousJobTimeout) {
-        properties.put(EVERREST_ASYNCHRONOUS_JOB_TIMEOUT, Integer.toString(asynchronousJobTimeout));
+        setProperty(EVERREST_ASYNCHRONOUS_JOB_TIMEOUT, Integer.toString(asynchronousJobTimeout));
     }
 
     public int getMaxBufferSize() {
@@ -135,7 +223,135 @@ public class EverrestConfiguration {
     }
 
     public void setMaxBufferSize(int maxBufferSize) {
-        properties.put(EVERREST_MAX_BUFFER_SIZE, Integer.toString(maxBufferSize));
+        setProperty(EVERREST_MAX_BUFFER_SIZE, Integer.toString(maxBufferSize));
+    }
+
+    public boolean isPrebuildJAXBContexts() {
+        return getBooleanProperty(EVERREST_JAXB_PREBUILD_CONTEXTS, defaultPrebuildJAXBContexts);
+    }
+
+    public void setPrebuildJAXBContexts(boolean prebuildJAXBContexts) {
+        setProperty(EVERREST_JAXB_PREBUILD_CONTEXTS, Boolean.toString(prebuildJAXBContexts));
+    }
+
+    public boolean isAutoEntityTag() {
+        return getBooleanProperty(EVERREST_ETAG_AUTO, defaultAutoEntityTag);
+    }
+
+    public void setAutoEntityTag(boolean autoEntityTag) {
+        setProperty(EVERREST_ETAG_AUTO, Boolean.toString(autoEntityTag));
+    }
+
+    public int getEntityTagMaxSize() {
+        return getNumberProperty(EVERREST_ETAG_MAX_SIZE, defaultEntityTagMaxSize).intValue();
+    }
+
+    public void setEntityTagMaxSize(int entityTagMaxSize) {
+        setProperty(EVERREST_ETAG_MAX_SIZE, Integer.toString(entityTagMaxSize));
+    }
+
+    public boolean isCompression() {
+        return getBooleanProperty(EVERREST_COMPRESSION, defaultCompression);
+    }
+
+    public void setCompression(boolean compression) {
+        setProperty(EVERREST_COMPRESSION, Boolean.toString(compression));
+    }
+
+    public int getCompressionMinSize() {
+        return getNumberProperty(EVERREST_COMPRESSION_MIN_SIZE, defaultCompressionMinSize).intValue();
+    }
+
+    public void setCompressionMinSize(int compressionMinSize) {
+        setProperty(EVERREST_COMPRESSION_MIN_SIZE, Integer.toString(compressionMinSize));
+    }
+
+    public String getCompressionMediaTypes() {
+        return getProperty(EVERREST_COMPRESSION_MEDIA_TYPES, defaultCompressionMediaTypes);
+    }
+
+    public void setCompressionMediaTypes(String compressionMediaTypes) {
+        setProperty(EVERREST_COMPRESSION_MEDIA_TYPES, compressionMediaTypes);
+    }
+
+    public long getDecompressionMaxSize() {
+        return getNumberProperty(EVERREST_DECOMPRESSION_MAX_SIZE, defaultDecompressionMaxSize).longValue();
+    }
+
+    public void setDecompressionMaxSize(long decompressionMaxSize) {
+        setProperty(EVERREST_DECOMPRESSION_MAX_SIZE, Long.toString(decompressionMaxSize));
+    }
+
+    public boolean isCache() {
+        return getBooleanProperty(EVERREST_CACHE, defaultCache);
+    }
+
+    public void setCache(boolean cache) {
+        setProperty(EVERREST_CACHE, Boolean.toString(cache));
+    }
+
+    public long getCacheMaxSize() {
+        return getNumberProperty(EVERREST_CACHE_MAX_SIZE, defaultCacheMaxSize).longValue();
+    }
+
+    public void setCacheMaxSize(long cacheMaxSize) {
+        setProperty(EVERREST_CACHE_MAX_SIZE, Long.toString(cacheMaxSize));
+    }
+
+    public boolean isServletAsync() {
+        return getBooleanProperty(EVERREST_SERVLET_ASYNC, defaultServletAsync);
+    }
+
+    public void setServletAsync(boolean servletAsync) {
+        setProperty(EVERREST_SERVLET_ASYNC, Boolean.toString(servletAsync));
+    }
+
+    public int getServletAsyncPoolSize() {
+        return getNumberProperty(EVERREST_SERVLET_ASYNC_POOL_SIZE, defaultServletAsyncPoolSize).intValue();
+    }
+
+    public void setServletAsyncPoolSize(int servletAsyncPoolSize) {
+        setProperty(EVERREST_SERVLET_ASYNC_POOL_SIZE, Integer.toString(servletAsyncPoolSize));
+    }
+
+    public int getServletAsyncQueueSize() {
+        return getNumberProperty(EVERREST_SERVLET_ASYNC_QUEUE_SIZE, defaultServletAsyncQueueSize).intValue();
+    }
+
+    public void setServletAsyncQueueSize(int servletAsyncQueueSize) {
+        setProperty(EVERREST_SERVLET_ASYNC_QUEUE_SIZE, Integer.toString(servletAsyncQueueSize));
+    }
+
+    public int getServletAsyncTimeout() {
+        return getNumberProperty(EVERREST_SERVLET_ASYNC_TIMEOUT, defaultServletAsyncTimeout).intValue();
+    }
+
+    public void setServletAsyncTimeout(int servletAsyncTimeout) {
+        setProperty(EVERREST_SERVLET_ASYNC_TIMEOUT, Integer.toString(servletAsyncTimeout));
+    }
+
+    public int getContextPoolSize() {
+        return getNumberProperty(EVERREST_CONTEXT_POOL_SIZE, defaultContextPoolSize).intValue();
+    }
+
+    public void setContextPoolSize(int contextPoolSize) {
+        setProperty(EVERREST_CONTEXT_POOL_SIZE, Integer.toString(contextPoolSize));
+    }
+
+    public String getResourceModelSnapshot() {
+        return getProperty(EVERREST_RESOURCE_MODEL_SNAPSHOT);
+    }
+
+    public void setResourceModelSnapshot(String resourceModelSnapshot) {
+        setProperty(EVERREST_RESOURCE_MODEL_SNAPSHOT, resourceModelSnapshot);
+    }
+
+    public long getRoleCacheTimeout() {
+        return getNumberProperty(EVERREST_ROLE_CACHE_TIMEOUT, defaultRoleCacheTimeout).longValue();
+    }
+
+    public void setRoleCacheTimeout(long roleCacheTimeout) {
+        setProperty(EVERREST_ROLE_CACHE_TIMEOUT, Long.toString(roleCacheTimeout));
     }
 
     public void setProperty(String name, String value) {
@@ -144,6 +360,7 @@ public class EverrestConfiguration {
         } else {
             properties.put(name, value);
         }
+        modificationCount.incrementAndGet();
     }
 
     public String getProperty(String name) {
@@ -176,4 +393,13 @@ public class EverrestConfiguration {
         }
         return def;
     }
+
+    /** @return copy of all properties of this configuration */
+    Map<String, String> copyProperties() {
+        return new HashMap<>(properties);
+    }
+
+    long getModificationCount() {
+        return modificationCount.get();
+    }
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of single request. It reads properties from shared {@link EverrestConfigurationSnapshot} until any of properties is
+ * changed. Changed properties are kept in this instance and are not visible for other requests.
+ *
+ * @author andrew00x
+ */
+final class EverrestConfigurationOverlay extends EverrestConfiguration {
+    private final EverrestConfigurationSnapshot snapshot;
+    /** Properties changed for current request, value <code>null</code> means that property is removed. */
+    private       Map<String, String>           overrides;
+
+    EverrestConfigurationOverlay(EverrestConfigurationSnapshot snapshot) {
+        super(snapshot.properties);
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void setProperty(String name, String value) {
+        if (overrides == null) {
+            overrides = new HashMap<>(4);
+        }
+        overrides.put(name, value);
+    }
+
+    @Override
+    public String getProperty(String name) {
+        if (overrides != null && overrides.containsKey(name)) {
+            return overrides.get(name);
+        }
+        return snapshot.getProperty(name);
+    }
+
+    @Override
+    Map<String, String> copyProperties() {
+        Map<String, String> copy = snapshot.copyProperties();
+        if (overrides != null) {
+            for (Map.Entry<String, String> e : overrides.entrySet()) {
+                if (e.getValue() == null) {
+                    copy.remove(e.getKey());
+                } else {
+                    copy.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean isHttpMethodOverride() {
+        return overrides == null ? snapshot.isHttpMethodOverride() : super.isHttpMethodOverride();
+    }
+
+    @Override
+    public boolean isNormalizeUri() {
+        return overrides == null ? snapshot.isNormalizeUri() : super.isNormalizeUri();
+    }
+
+    @Override
+    public int getMaxBufferSize() {
+        return overrides == null ? snapshot.getMaxBufferSize() : super.getMaxBufferSize();
+    }
+
+    @Override
+    public boolean isAutoEntityTag() {
+        return overrides == null ? snapshot.isAutoEntityTag() : super.isAutoEntityTag();
+    }
+
+    @Override
+    public int getEntityTagMaxSize() {
+        return overrides == null ? snapshot.getEntityTagMaxSize() : super.getEntityTagMaxSize();
+    }
+
+    @Override
+    public boolean isCompression() {
+        return overrides == null ? snapshot.isCompression() : super.isCompression();
+    }
+
+    @Override
+    public int getCompressionMinSize() {
+        return overrides == null ? snapshot.getCompressionMinSize() : super.getCompressionMinSize();
+    }
+
+    @Override
+    public String getCompressionMediaTypes() {
+        return overrides == null ? snapshot.getCompressionMediaTypes() : super.getCompressionMediaTypes();
+    }
+
+    @Override
+    public long getDecompressionMaxSize() {
+        return overrides == null ? snapshot.getDecompressionMaxSize() : super.getDecompressionMaxSize();
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import java.util.Collections;
+
+/**
+ * Immutable snapshot of {@link EverrestConfiguration}. Values of properties that are read while request is processed are parsed
+ * once when snapshot is created. Snapshot is shared between requests, each request gets own copy-on-write view of snapshot, see
+ * {@link EverrestConfigurationOverlay}.
+ *
+ * @author andrew00x
+ */
+final class EverrestConfigurationSnapshot extends EverrestConfiguration {
+    private final long    sourceModificationCount;
+    private final boolean httpMethodOverride;
+    private final boolean normalizeUri;
+    private final int     maxBufferSize;
+    private final boolean autoEntityTag;
+    private final int     entityTagMaxSize;
+    private final boolean compression;
+    private final int     compressionMinSize;
+    private final String  compressionMediaTypes;
+    private final long    decompressionMaxSize;
+
+    EverrestConfigurationSnapshot(EverrestConfiguration source) {
+        // Remember number of modifications before copying properties. If source is changed while snapshot is created then
+        // snapshot is recreated.
+        this(source.getModificationCount(), source);
+    }
+
+    private EverrestConfigurationSnapshot(long sourceModificationCount, EverrestConfiguration source) {
+        super(Collections.unmodifiableMap(source.copyProperties()));
+        this.sourceModificationCount = sourceModificationCount;
+        httpMethodOverride = super.isHttpMethodOverride();
+        normalizeUri = super.isNormalizeUri();
+        maxBufferSize = super.getMaxBufferSize();
+        autoEntityTag = super.isAutoEntityTag();
+        entityTagMaxSize = super.getEntityTagMaxSize();
+        compression = super.isCompression();
+        compressionMinSize = super.getCompressionMinSize();
+        compressionMediaTypes = super.getCompressionMediaTypes();
+        decompressionMaxSize = super.getDecompressionMaxSize();
+    }
+
+    /**
+     * Check is this snapshot created from actual state of configuration.
+     *
+     * @param source
+     *         configuration from which this snapshot was created
+     * @return <code>true</code> if configuration was not changed after this snapshot was created
+     */
+    boolean isActual(EverrestConfiguration source) {
+        return sourceModificationCount == source.getModificationCount();
+    }
+
+    @Override
+    public void setProperty(String name, String value) {
+        throw new UnsupportedOperationException("Configuration snapshot may not be changed. ");
+    }
+
+    @Override
+    public boolean isHttpMethodOverride() {
+        return httpMethodOverride;
+    }
+
+    @Override
+    public boolean isNormalizeUri() {
+        return normalizeUri;
+    }
+
+    @Override
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    @Override
+    public boolean isAutoEntityTag() {
+        return autoEntityTag;
+    }
+
+    @Override
+    public int getEntityTagMaxSize() {
+        return entityTagMaxSize;
+    }
+
+    @Override
+    public boolean isCompression() {
+        return compression;
+    }
+
+    @Override
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    @Override
+    public String getCompressionMediaTypes() {
+        return compressionMediaTypes;
+    }
+
+    @Override
+    public long getDecompressionMaxSize() {
+        return decompressionMaxSize;
+    }
+}
@@ -15,22 +15,39 @@ import org.everrest.core.ExtHttpHeaders;
 import org.everrest.core.GenericContainerRequest;
 import org.everrest.core.GenericContainerResponse;
 import org.everrest.core.Lifecycle;
+import org.everrest.core.ObjectFactory;
 import org.everrest.core.RequestHandler;
 import org.everrest.core.ResourceBinder;
 import org.everrest.core.UnhandledException;
 import org.everrest.core.impl.method.MethodInvokerDecoratorFactory;
+import org.everrest.core.impl.provider.JAXBContextResolver;
+import org.everrest.core.impl.provider.XMLHelper;
+import org.everrest.core.impl.resource.ResourceModelSnapshot;
 import org.everrest.core.impl.uri.UriComponent;
+import org.everrest.core.method.MethodParameter;
+import org.everrest.core.resource.AbstractResourceDescriptor;
+import org.everrest.core.resource.ResourceMethodDescriptor;
+import org.everrest.core.resource.ResourceMethodMap;
+import org.everrest.core.resource.SubResourceMethodDescriptor;
 import org.everrest.core.util.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -46,8 +63,17 @@ public final class EverrestProcessor implements Lifecycle {
     private final RequestHandler        requestHandler;
     private final Deployer              deployer;
     private final EverrestConfiguration config;
+    /** Immutable snapshot of {@link #config}, it is shared between requests and recreated when configuration is changed. */
+    private volatile EverrestConfigurationSnapshot configSnapshot;
+    /** Cache of responses, <code>null</code> if caching is disabled. */
+    private final ResponseCache         responseCache;
 
-    private final MethodInvokerDecoratorFactory methodInvokerDecoratorFactory;
+    private final MethodInvokerDecoratorFactory         methodInvokerDecoratorFactory;
+    /**
+     * ApplicationContexts that may be reused, <code>null</code> if reusing of contexts is disabled. Contexts of asynchronous
+     * requests are never reused, asynchronous job may use context after request is finished.
+     */
+    private final BlockingQueue<ApplicationContextImpl> contextPool;
 
     /**
      * Application properties. Properties from this map will be copied to ApplicationContext and may be accessible via method {@link
@@ -60,7 +86,6 @@ public final class EverrestProcessor implements Lifecycle {
         this.resources = resources;
         this.providers = providers;
         this.dependencySupplier = dependencySupplier;
-        this.requestHandler = new RequestHandlerImpl(new RequestDispatcher(resources));
         properties = new ConcurrentHashMap<>();
 
         this.config = config == null ? new EverrestConfiguration() : config;
@@ -77,7 +102,19 @@ public final class EverrestProcessor implements Lifecycle {
             methodInvokerDecoratorFactory = null;
         }
 
-        deployer = new Deployer(resources, providers);
+        final int contextPoolSize = this.config.getContextPoolSize();
+        contextPool = contextPoolSize > 0 ? new ArrayBlockingQueue<ApplicationContextImpl>(contextPoolSize) : null;
+
+        responseCache = this.config.isCache() ? new ResponseCache(this.config.getCacheMaxSize()) : null;
+        requestHandler = new RequestHandlerImpl(new RequestDispatcher(resources), responseCache);
+
+        final String resourceModelSnapshot = this.config.getResourceModelSnapshot();
+        if (resourceModelSnapshot != null && resources instanceof ResourceBinderImpl) {
+            ((ResourceBinderImpl)resources).setResourceModel(
+                    ResourceModelSnapshot.load(new File(resourceModelSnapshot), Thread.currentThread().getContextClassLoader()));
+        }
+
+        deployer = new Deployer(resources, providers, this.config.isPrebuildJAXBContexts());
 
         if (application != null) {
             deployer.addApplication(application);
@@ -107,19 +144,20 @@ public final class EverrestProcessor implements Lifecycle {
 
         ApplicationContextImpl context = null;
         try {
-            context = new ApplicationContextImpl(request, response, providers, methodInvokerDecoratorFactory);
+            context = createContext(request, response);
             context.getProperties().putAll(properties);
             context.setDependencySupplier(dependencySupplier);
             context.setApplication(deployer);
-            context.setEverrestConfiguration(new EverrestConfiguration(config));
+            final EverrestConfigurationSnapshot snapshot = getConfigurationSnapshot();
+            context.setEverrestConfiguration(new EverrestConfigurationOverlay(snapshot));
             context.start();
             ApplicationContextImpl.setCurrent(context);
 
-            if (config.isNormalizeUri()) {
+            if (snapshot.isNormalizeUri()) {
                 request.setUris(UriComponent.normalize(request.getRequestUri()), request.getBaseUri());
             }
 
-            if (config.isHttpMethodOverride()) {
+            if (snapshot.isHttpMethodOverride()) {
                 String method = request.getRequestHeaders().getFirst(ExtHttpHeaders.X_HTTP_METHOD_OVERRIDE);
                 if (method != null) {
                     if (Tracer.isTracingEnabled()) {
@@ -142,7 +180,36 @@ public final class EverrestProcessor implements Lifecycle {
                 ApplicationContextImpl.setCurrent(null);
             }
             EnvironmentContext.setCurrent(null);
+            if (context != null && contextPool != null && context.isReusable()) {
+                // Pooled context must not keep request, response and resources of finished request.
+                context.reset(null, null, null);
+                contextPool.offer(context);
+            }
+        }
+    }
+
+    private ApplicationContextImpl createContext(GenericContainerRequest request, GenericContainerResponse response) {
+        if (contextPool != null) {
+            final ApplicationContextImpl context = contextPool.poll();
+            if (context != null) {
+                context.reset(request, response, providers);
+                return context;
+            }
         }
+        return new ApplicationContextImpl(request, response, providers, methodInvokerDecoratorFactory);
+    }
+
+    private EverrestConfigurationSnapshot getConfigurationSnapshot() {
+        EverrestConfigurationSnapshot snapshot = configSnapshot;
+        if (snapshot == null || !snapshot.isActual(config)) {
+            configSnapshot = snapshot = new EverrestConfigurationSnapshot(config);
+        }
+        return snapshot;
+    }
+
+    /** @return cache of responses or <code>null</code> if caching of responses is disabled in configuration */
+    public ResponseCache getResponseCache() {
+        return responseCache;
     }
 
     public void addApplication(Application application) {
@@ -152,22 +219,36 @@ public final class EverrestProcessor implements Lifecycle {
         deployer.addApplication(application);
     }
 
-    /** @see org.everrest.core.Lifecycle#start() */
+    /**
+     * Store snapshot of resource model if resources were added directly to {@link ResourceBinder}, bypassing
+     * {@link #addApplication(Application)}.
+     *
+     * @see org.everrest.core.Lifecycle#start()
+     */
     @Override
     public void start() {
+        deployer.saveResourceModel();
     }
 
     /** @see org.everrest.core.Lifecycle#stop() */
     @Override
     public void stop() {
+        deployer.saveResourceModel();
         deployer.stop();
+        XMLHelper.clearPools();
     }
 
     private static class Deployer extends EverrestApplication {
         final ApplicationPublisher        publisher;
         final List<WeakReference<Object>> singletonsReferences;
-
-        Deployer(ResourceBinder resources, ProviderBinder providers) {
+        final ResourceBinder              resources;
+        final ProviderBinder              providers;
+        final boolean                     prebuildJAXBContexts;
+
+        Deployer(ResourceBinder resources, ProviderBinder providers, boolean prebuildJAXBContexts) {
+            this.resources = resources;
+            this.providers = providers;
+            this.prebuildJAXBContexts = prebuildJAXBContexts;
             publisher = new ApplicationPublisher(resources, providers);
             singletonsReferences = new ArrayList<>();
         }
@@ -176,6 +257,10 @@ public final class EverrestProcessor implements Lifecycle {
         public void addApplication(Application application) {
             super.addApplication(application);
             publisher.publish(application);
+            saveResourceModel();
+            if (prebuildJAXBContexts) {
+                prebuildJAXBContexts();
+            }
             Set<Object> singletons = application.getSingletons();
             if (singletons != null && singletons.size() > 0) {
                 for (Object o : singletons) {
@@ -184,6 +269,62 @@ public final class EverrestProcessor implements Lifecycle {
             }
         }
 
+        /** Store snapshot of resource model if new resources were added in it. */
+        void saveResourceModel() {
+            if (resources instanceof ResourceBinderImpl) {
+                ResourceModelSnapshot resourceModel = ((ResourceBinderImpl)resources).getResourceModel();
+                if (resourceModel != null && resourceModel.isModified()) {
+                    try {
+                        resourceModel.save();
+                    } catch (IOException e) {
+                        LOG.warn("Unable save resource model snapshot. {}", e.getMessage());
+                    }
+                }
+            }
+        }
+
+        /** Create JAXBContexts for all JAXB types that are consumed or produced by resource methods. */
+        void prebuildJAXBContexts() {
+            ContextResolver<JAXBContextResolver> resolver =
+                    providers.getContextResolver(JAXBContextResolver.class, MediaType.APPLICATION_XML_TYPE);
+            if (resolver == null) {
+                return;
+            }
+            Set<Class<?>> jaxbTypes = new LinkedHashSet<>();
+            for (ObjectFactory<AbstractResourceDescriptor> factory : resources.getResources()) {
+                AbstractResourceDescriptor resource = factory.getObjectModel();
+                for (List<ResourceMethodDescriptor> methods : resource.getResourceMethods().values()) {
+                    collectJAXBTypes(methods, jaxbTypes);
+                }
+                for (ResourceMethodMap<SubResourceMethodDescriptor> subResourceMethods : resource.getSubResourceMethods().values()) {
+                    for (List<SubResourceMethodDescriptor> methods : subResourceMethods.values()) {
+                        collectJAXBTypes(methods, jaxbTypes);
+                    }
+                }
+            }
+            JAXBContextResolver jaxbContextResolver = resolver.getContext(null);
+            for (Class<?> jaxbType : jaxbTypes) {
+                try {
+                    jaxbContextResolver.getJAXBContext(jaxbType);
+                } catch (JAXBException e) {
+                    LOG.warn("Unable create JAXBContext for {}. {}", jaxbType.getName(), e.getMessage());
+                }
+            }
+        }
+
+        private void collectJAXBTypes(List<? extends ResourceMethodDescriptor> methods, Set<Class<?>> jaxbTypes) {
+            for (ResourceMethodDescriptor method : methods) {
+                if (method.getResponseType().getAnnotation(XmlRootElement.class) != null) {
+                    jaxbTypes.add(method.getResponseType());
+                }
+                for (MethodParameter parameter : method.getMethodParameters()) {
+                    if (parameter.getAnnotation() == null && parameter.getParameterClass().getAnnotation(XmlRootElement.class) != null) {
+                        jaxbTypes.add(parameter.getParameterClass());
+                    }
+                }
+            }
+        }
+
         void stop() {
             for (WeakReference<Object> ref : singletonsReferences) {
                 Object o = ref.get();
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.ObjectFactory;
+import org.everrest.core.provider.ProviderDescriptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of ExceptionMapper resolved for type of exception. ExceptionMapper is looked up for type of exception and then for its
+ * super classes. Result of lookup is cached, absence of ExceptionMapper is cached as well. Size of cache is bounded, cache is
+ * cleared when it reaches {@link #MAX_SIZE}. Cache is valid until set of ExceptionMappers is not changed, see {@link
+ * #getModificationCount()}.
+ *
+ * @author andrew00x
+ */
+final class ExceptionMapperCache {
+    /** Max number of cached types of exception. */
+    static final int MAX_SIZE = 256;
+
+    /** Marker for types of exception that do not have ExceptionMapper. */
+    private static final Object NO_MAPPER = new Object();
+
+    private final Map<Class<? extends Throwable>, ObjectFactory<ProviderDescriptor>> exceptionMappers;
+    private final long                                                               modificationCount;
+    private final ConcurrentMap<Class<?>, Object>                                    cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param exceptionMappers
+     *         ExceptionMappers by type of exception
+     * @param modificationCount
+     *         number of modifications of binder at the moment when cache is created
+     */
+    ExceptionMapperCache(Map<Class<? extends Throwable>, ObjectFactory<ProviderDescriptor>> exceptionMappers,
+                         long modificationCount) {
+        this.exceptionMappers = exceptionMappers;
+        this.modificationCount = modificationCount;
+    }
+
+    long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get ExceptionMapper for specified type of exception or for the nearest super class of it.
+     *
+     * @param type
+     *         type of exception
+     * @return factory of ExceptionMapper or <code>null</code> if there is no ExceptionMapper for specified type of exception
+     */
+    @SuppressWarnings({"unchecked"})
+    ObjectFactory<ProviderDescriptor> resolve(Class<?> type) {
+        Object resolved = cache.get(type);
+        if (resolved == null) {
+            ObjectFactory<ProviderDescriptor> factory = null;
+            for (Class<?> c = type; c != null && factory == null; c = c.getSuperclass()) {
+                factory = exceptionMappers.get(c);
+            }
+            resolved = factory == null ? NO_MAPPER : factory;
+            if (cache.size() >= MAX_SIZE) {
+                cache.clear();
+            }
+            cache.putIfAbsent(type, resolved);
+        }
+        return resolved == NO_MAPPER ? null : (ObjectFactory<ProviderDescriptor>)resolved;
+    }
+}
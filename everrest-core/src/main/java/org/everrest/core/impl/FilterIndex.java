@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.FilterDescriptor;
+import org.everrest.core.ObjectFactory;
+import org.everrest.core.uri.UriPattern;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable index of filters by literal prefix of their UriPattern. Literal part of pattern is part of template before the first
+ * template parameter. Path may match pattern only if it starts with literal prefix of pattern, so filters are kept in prefix tree
+ * and regular expression is checked only for filters found by walking through the tree with characters of request path.
+ * Lists of resolved filters are remembered for each set of matched patterns rather than for each request path, so number of
+ * cached lists does not depend on number of distinct request paths. Size of cache is bounded anyway, cache is cleared when it
+ * reaches {@link #MAX_CACHE_SIZE}.
+ * <p/>
+ * Order of resolved filters is the same as order of filters in index.
+ *
+ * @author andrew00x
+ * @see ProviderBinder#isFilterMatched(UriPattern, String, List)
+ */
+final class FilterIndex {
+    /** Max number of sets of matched patterns for which resolved filters are cached. */
+    static final int MAX_CACHE_SIZE = 256;
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Integer>        entries  = new ArrayList<>(1);
+    }
+
+    private final long                                                         modificationCount;
+    private final UriPattern[]                                                 patterns;
+    private final List<List<ObjectFactory<FilterDescriptor>>>                 filters;
+    private final Node                                                         root;
+    private final ConcurrentMap<BitSet, List<ObjectFactory<FilterDescriptor>>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param filters
+     *         filters grouped by UriPattern in order in which they must be applied
+     * @param modificationCount
+     *         number of modifications of binder at the moment when index is created
+     */
+    FilterIndex(Collection<Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>>> filters, long modificationCount) {
+        this.modificationCount = modificationCount;
+        this.patterns = new UriPattern[filters.size()];
+        this.filters = new ArrayList<>(filters.size());
+        this.root = new Node();
+        int i = 0;
+        for (Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>> e : filters) {
+            patterns[i] = e.getKey();
+            this.filters.add(Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+            Node node = root;
+            final String prefix = getLiteralPrefix(e.getKey());
+            for (int j = 0; j < prefix.length(); j++) {
+                Node child = node.children.get(prefix.charAt(j));
+                if (child == null) {
+                    node.children.put(prefix.charAt(j), child = new Node());
+                }
+                node = child;
+            }
+            node.entries.add(i);
+            i++;
+        }
+    }
+
+    long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get filters that are applicable to the request path.
+     *
+     * @param path
+     *         request path
+     * @return unmodifiable list of filters
+     */
+    List<ObjectFactory<FilterDescriptor>> getMatched(String path) {
+        if (patterns.length == 0) {
+            return Collections.emptyList();
+        }
+        if (path == null) {
+            path = FilterDescriptorImpl.DEFAULT_PATH;
+        }
+        final BitSet matchedPatterns = match(path);
+        if (matchedPatterns.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ObjectFactory<FilterDescriptor>> matched = cache.get(matchedPatterns);
+        if (matched == null) {
+            final List<ObjectFactory<FilterDescriptor>> l = new ArrayList<>();
+            for (int i = matchedPatterns.nextSetBit(0); i >= 0; i = matchedPatterns.nextSetBit(i + 1)) {
+                l.addAll(filters.get(i));
+            }
+            matched = Collections.unmodifiableList(l);
+            if (cache.size() >= MAX_CACHE_SIZE) {
+                cache.clear();
+            }
+            cache.putIfAbsent(matchedPatterns, matched);
+        }
+        return matched;
+    }
+
+    /** @return indexes of patterns that match the request path */
+    private BitSet match(String path) {
+        final BitSet candidates = new BitSet(patterns.length);
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            for (int entry : node.entries) {
+                candidates.set(entry);
+            }
+            node = i < path.length() ? node.children.get(path.charAt(i)) : null;
+        }
+        final List<String> capturingValues = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (!ProviderBinder.isFilterMatched(patterns[i], path, capturingValues)) {
+                candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Get literal part of template before the first template parameter. Literal characters of template are escaped in regular
+     * expression of UriPattern, so path that matches pattern always starts with this prefix. Trailing '/' is not included in prefix
+     * since UriPattern matches path without it.
+     */
+    private static String getLiteralPrefix(UriPattern pattern) {
+        if (pattern == null) {
+            return "";
+        }
+        String template = pattern.getTemplate();
+        int end = template.indexOf('{');
+        if (end < 0) {
+            end = template.length();
+        }
+        while (end > 0 && template.charAt(end - 1) == '/') {
+            end--;
+        }
+        return template.substring(0, end);
+    }
+}
@@ -36,6 +36,8 @@ import org.everrest.core.impl.provider.SAXSourceEntityProvider;
 import org.everrest.core.impl.provider.StreamOutputEntityProvider;
 import org.everrest.core.impl.provider.StreamSourceEntityProvider;
 import org.everrest.core.impl.provider.StringEntityProvider;
+import org.everrest.core.impl.provider.XMLEventReaderEntityProvider;
+import org.everrest.core.impl.provider.XMLStreamReaderEntityProvider;
 import org.everrest.core.impl.provider.multipart.CollectionMultipartFormDataMessageBodyWriter;
 import org.everrest.core.impl.provider.multipart.ListMultipartFormDataMessageBodyReader;
 import org.everrest.core.impl.provider.multipart.MapMultipartFormDataMessageBodyReader;
@@ -62,10 +64,13 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -152,6 +157,18 @@ public class ProviderBinder implements Providers {
     /** Validator. */
     protected final ResourceDescriptorVisitor rdv = ResourceDescriptorValidator.getInstance();
 
+    /** Number of modifications of this binder, it lets detect that views created over this binder are outdated. */
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    /** Guards modifications of providers, batches are checked and registered under this lock, see {@link #startBatch()}. */
+    final Object modificationLock = new Object();
+
+    private volatile FilterIndex requestFilterIndex;
+    private volatile FilterIndex responseFilterIndex;
+    private volatile FilterIndex invokerFilterIndex;
+
+    private volatile ExceptionMapperCache exceptionMapperCache;
+
     protected ProviderBinder() {
         init();
     }
@@ -410,6 +427,36 @@ public class ProviderBinder implements Providers {
     }
 
 
+    /**
+     * Get ExceptionMapper for specified type of exception or for the nearest super class of it that has ExceptionMapper. Result
+     * of lookup, including absence of ExceptionMapper, is cached until set of providers is not changed.
+     *
+     * @param type
+     *         type of exception
+     * @return ExceptionMapper or <code>null</code> if there is no ExceptionMapper for specified type of exception and any of its
+     *         super classes
+     */
+    @SuppressWarnings({"unchecked"})
+    public <T extends Throwable> ExceptionMapper<T> findExceptionMapper(Class<T> type) {
+        ObjectFactory<ProviderDescriptor> pf = getExceptionMapperCache().resolve(type);
+        if (pf != null) {
+            return (ExceptionMapper<T>)pf.getInstance(ApplicationContextImpl.getCurrent());
+        }
+        return null;
+    }
+
+    ExceptionMapperCache getExceptionMapperCache() {
+        ExceptionMapperCache cache = exceptionMapperCache;
+        if (cache == null || cache.getModificationCount() != getModificationCount()) {
+            // Copy ExceptionMappers under lock, so cache never reflects batch that is not committed completely.
+            synchronized (modificationLock) {
+                cache = new ExceptionMapperCache(new HashMap<>(exceptionMappers), modificationCount.get());
+            }
+            exceptionMapperCache = cache;
+        }
+        return cache;
+    }
+
     @Override
     public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return doGetMessageBodyReader(type, genericType, annotations, mediaType);
@@ -425,84 +472,130 @@ public class ProviderBinder implements Providers {
     /**
      * @param path
      *         request path
-     * @return acceptable method invocation filters
+     * @return unmodifiable list of acceptable method invocation filters
      */
     public List<ObjectFactory<FilterDescriptor>> getMethodInvokerFilters(String path) {
-        return doGetMatchedFilters(path, invokerFilters);
+        FilterIndex index = invokerFilterIndex;
+        if (index == null || index.getModificationCount() != getModificationCount()) {
+            invokerFilterIndex = index = createFilterIndex(invokerFilters);
+        }
+        return index.getMatched(path);
     }
 
     /**
      * @param path
      *         request path
-     * @return acceptable request filters
+     * @return unmodifiable list of acceptable request filters
      */
     public List<ObjectFactory<FilterDescriptor>> getRequestFilters(String path) {
-        return doGetMatchedFilters(path, requestFilters);
+        FilterIndex index = requestFilterIndex;
+        if (index == null || index.getModificationCount() != getModificationCount()) {
+            requestFilterIndex = index = createFilterIndex(requestFilters);
+        }
+        return index.getMatched(path);
     }
 
     /**
      * @param path
      *         request path
-     * @return acceptable response filters
+     * @return unmodifiable list of acceptable response filters
      */
     public List<ObjectFactory<FilterDescriptor>> getResponseFilters(String path) {
-        return doGetMatchedFilters(path, responseFilters);
+        FilterIndex index = responseFilterIndex;
+        if (index == null || index.getModificationCount() != getModificationCount()) {
+            responseFilterIndex = index = createFilterIndex(responseFilters);
+        }
+        return index.getMatched(path);
+    }
+
+    private FilterIndex createFilterIndex(UriPatternMap<ObjectFactory<FilterDescriptor>> filters) {
+        // Read filters under lock, so index never reflects batch that is not committed completely.
+        synchronized (modificationLock) {
+            return new FilterIndex(filters.entrySet(), modificationCount.get());
+        }
     }
 
     public void addContextResolver(ObjectFactory<ProviderDescriptor> contextResolverFactory) {
-        for (Type type : contextResolverFactory.getObjectModel().getObjectClass().getGenericInterfaces()) {
-            if (type instanceof ParameterizedType) {
-                ParameterizedType pt = (ParameterizedType)type;
-                if (ContextResolver.class == pt.getRawType()) {
-                    Type[] typeArguments = pt.getActualTypeArguments();
-                    if (typeArguments.length > 1) {
-                        throw new RuntimeException("Unable strong determine actual type argument, more then one type found.");
-                    }
+        final Class<?> clazz = getContextResolverType(contextResolverFactory);
+        synchronized (modificationLock) {
+            doAddContextResolver(clazz, contextResolverFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
 
-                    Class<?> clazz = (Class<?>)typeArguments[0];
-                    MediaTypeMap<ObjectFactory<ProviderDescriptor>> pm = contextResolvers.get(clazz);
+    public void addExceptionMapper(ObjectFactory<ProviderDescriptor> exceptionMapperFactory) {
+        final Class<? extends Throwable> exc = getExceptionMapperType(exceptionMapperFactory);
+        synchronized (modificationLock) {
+            doAddExceptionMapper(exc, exceptionMapperFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
 
-                    if (pm == null) {
-                        MediaTypeMap<ObjectFactory<ProviderDescriptor>> newPm = new MediaTypeMap<>();
-                        pm = contextResolvers.putIfAbsent(clazz, newPm);
-                        if (pm == null) {
-                            pm = newPm;
-                        }
-                    }
+    public void addMessageBodyReader(ObjectFactory<ProviderDescriptor> readerFactory) {
+        synchronized (modificationLock) {
+            doAddMessageBodyReader(readerFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
 
-                    for (MediaType mime : contextResolverFactory.getObjectModel().produces()) {
-                        if (pm.get(mime) != null) {
-                            throw new RuntimeException("ContextResolver for " + clazz.getName() + " and media type " + mime
-                                                       + " already registered.");
-                        } else {
-                            pm.put(mime, contextResolverFactory);
-                        }
-                    }
-                }
-            }
+    public void addMessageBodyWriter(ObjectFactory<ProviderDescriptor> writerFactory) {
+        synchronized (modificationLock) {
+            doAddMessageBodyWriter(writerFactory);
+            modificationCount.incrementAndGet();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public void addExceptionMapper(ObjectFactory<ProviderDescriptor> exceptionMapperFactory) {
-        for (Type type : exceptionMapperFactory.getObjectModel().getObjectClass().getGenericInterfaces()) {
-            if (type instanceof ParameterizedType) {
-                ParameterizedType pt = (ParameterizedType)type;
-                if (ExceptionMapper.class == pt.getRawType()) {
-                    Type[] typeArguments = pt.getActualTypeArguments();
-                    if (typeArguments.length > 1) {
-                        throw new RuntimeException("Unable strong determine actual type argument, more then one type found.");
-                    }
-                    Class<? extends Throwable> exc = (Class<? extends Throwable>)typeArguments[0];
-                    if (exceptionMappers.putIfAbsent(exc, exceptionMapperFactory) != null) {
-                        throw new RuntimeException("ExceptionMapper for exception " + exc + " already registered.");
-                    }
-                }
+    public void addMethodInvokerFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+        synchronized (modificationLock) {
+            invokerFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    public void addRequestFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+        synchronized (modificationLock) {
+            requestFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    public void addResponseFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+        synchronized (modificationLock) {
+            responseFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    // Methods below register providers but do not increment number of modifications. Caller must hold modificationLock.
+
+    private void doAddContextResolver(Class<?> clazz, ObjectFactory<ProviderDescriptor> contextResolverFactory) {
+        MediaTypeMap<ObjectFactory<ProviderDescriptor>> pm = contextResolvers.get(clazz);
+
+        if (pm == null) {
+            MediaTypeMap<ObjectFactory<ProviderDescriptor>> newPm = new MediaTypeMap<>();
+            pm = contextResolvers.putIfAbsent(clazz, newPm);
+            if (pm == null) {
+                pm = newPm;
+            }
+        }
+
+        for (MediaType mime : contextResolverFactory.getObjectModel().produces()) {
+            if (pm.get(mime) != null) {
+                throw new RuntimeException("ContextResolver for " + clazz.getName() + " and media type " + mime
+                                           + " already registered.");
+            } else {
+                pm.put(mime, contextResolverFactory);
             }
         }
     }
 
-    public void addMessageBodyReader(ObjectFactory<ProviderDescriptor> readerFactory) {
+    private void doAddExceptionMapper(Class<? extends Throwable> exc, ObjectFactory<ProviderDescriptor> exceptionMapperFactory) {
+        if (exceptionMappers.putIfAbsent(exc, exceptionMapperFactory) != null) {
+            throw new RuntimeException("ExceptionMapper for exception " + exc + " already registered.");
+        }
+    }
+
+    private void doAddMessageBodyReader(ObjectFactory<ProviderDescriptor> readerFactory) {
         // MessageBodyReader is smart component and can determine which type it
         // supports, see method MessageBodyReader.isReadable. So here does not
         // check is reader for the same Java and media type already exists.
@@ -512,7 +605,7 @@ public class ProviderBinder implements Providers {
         }
     }
 
-    public void addMessageBodyWriter(ObjectFactory<ProviderDescriptor> writerFactory) {
+    private void doAddMessageBodyWriter(ObjectFactory<ProviderDescriptor> writerFactory) {
         // MessageBodyWriter is smart component and can determine which type it
         // supports, see method MessageBodyWriter#isWriteable. So here does not
         // check is writer for the same Java and media type already exists.
@@ -522,16 +615,214 @@ public class ProviderBinder implements Providers {
         }
     }
 
-    public void addMethodInvokerFilter(ObjectFactory<FilterDescriptor> filterFactory) {
-        invokerFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+    /**
+     * Start batch of providers. Providers added to batch are registered on commit. Conflicts of ContextResolvers and
+     * ExceptionMappers are checked before any provider is registered, so batch that has conflicts registers nothing. Batch is
+     * checked and registered under the same lock as any other modification of this binder, so other modifications can't break
+     * batch in the middle. Number of modifications is incremented once when whole batch is registered. Indexes of filters and
+     * ExceptionMappers and snapshot of providers of {@link ApplicationProviderBinder} are rebuilt under the same lock with the
+     * next lookup, so they see either none or all providers of batch. Other lookups of this class, e.g. of MessageBodyReader, do
+     * not take lock and may see some providers of batch before commit is finished. Batch is not thread-safe.
+     *
+     * @return new batch
+     */
+    public Batch startBatch() {
+        return new Batch();
     }
 
-    public void addRequestFilter(ObjectFactory<FilterDescriptor> filterFactory) {
-        requestFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+    /** Set of providers that are registered at once, see {@link #startBatch()}. */
+    public final class Batch {
+        private final List<ObjectFactory<ProviderDescriptor>> contextResolverFactories = new ArrayList<>();
+        private final List<ObjectFactory<ProviderDescriptor>> exceptionMapperFactories = new ArrayList<>();
+        private final List<ObjectFactory<ProviderDescriptor>> readerFactories          = new ArrayList<>();
+        private final List<ObjectFactory<ProviderDescriptor>> writerFactories          = new ArrayList<>();
+        private final List<ObjectFactory<FilterDescriptor>>   invokerFilterFactories   = new ArrayList<>();
+        private final List<ObjectFactory<FilterDescriptor>>   requestFilterFactories   = new ArrayList<>();
+        private final List<ObjectFactory<FilterDescriptor>>   responseFilterFactories  = new ArrayList<>();
+        private       boolean                                 committed;
+
+        private Batch() {
+        }
+
+        public Batch addContextResolver(ObjectFactory<ProviderDescriptor> contextResolverFactory) {
+            checkNotCommitted();
+            contextResolverFactories.add(contextResolverFactory);
+            return this;
+        }
+
+        public Batch addExceptionMapper(ObjectFactory<ProviderDescriptor> exceptionMapperFactory) {
+            checkNotCommitted();
+            exceptionMapperFactories.add(exceptionMapperFactory);
+            return this;
+        }
+
+        public Batch addMessageBodyReader(ObjectFactory<ProviderDescriptor> readerFactory) {
+            checkNotCommitted();
+            readerFactories.add(readerFactory);
+            return this;
+        }
+
+        public Batch addMessageBodyWriter(ObjectFactory<ProviderDescriptor> writerFactory) {
+            checkNotCommitted();
+            writerFactories.add(writerFactory);
+            return this;
+        }
+
+        public Batch addMethodInvokerFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+            checkNotCommitted();
+            invokerFilterFactories.add(filterFactory);
+            return this;
+        }
+
+        public Batch addRequestFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+            checkNotCommitted();
+            requestFilterFactories.add(filterFactory);
+            return this;
+        }
+
+        public Batch addResponseFilter(ObjectFactory<FilterDescriptor> filterFactory) {
+            checkNotCommitted();
+            responseFilterFactories.add(filterFactory);
+            return this;
+        }
+
+        /**
+         * Register all providers of batch.
+         *
+         * @throws RuntimeException
+         *         if ContextResolver or ExceptionMapper conflicts with already registered one or with other provider of this
+         *         batch, in this case none of providers is registered
+         * @throws IllegalStateException
+         *         if batch is already committed
+         */
+        public void commit() {
+            checkNotCommitted();
+            committed = true;
+            synchronized (modificationLock) {
+                checkConflicts();
+                for (ObjectFactory<ProviderDescriptor> factory : contextResolverFactories) {
+                    doAddContextResolver(getContextResolverType(factory), factory);
+                }
+                for (ObjectFactory<ProviderDescriptor> factory : exceptionMapperFactories) {
+                    doAddExceptionMapper(getExceptionMapperType(factory), factory);
+                }
+                for (ObjectFactory<ProviderDescriptor> factory : readerFactories) {
+                    doAddMessageBodyReader(factory);
+                }
+                for (ObjectFactory<ProviderDescriptor> factory : writerFactories) {
+                    doAddMessageBodyWriter(factory);
+                }
+                for (ObjectFactory<FilterDescriptor> factory : invokerFilterFactories) {
+                    invokerFilters.getList(factory.getObjectModel().getUriPattern()).add(factory);
+                }
+                for (ObjectFactory<FilterDescriptor> factory : requestFilterFactories) {
+                    requestFilters.getList(factory.getObjectModel().getUriPattern()).add(factory);
+                }
+                for (ObjectFactory<FilterDescriptor> factory : responseFilterFactories) {
+                    responseFilters.getList(factory.getObjectModel().getUriPattern()).add(factory);
+                }
+                modificationCount.incrementAndGet();
+            }
+        }
+
+        private void checkConflicts() {
+            Set<Class<?>> exceptions = new HashSet<>();
+            for (ObjectFactory<ProviderDescriptor> factory : exceptionMapperFactories) {
+                Class<?> exc = getExceptionMapperType(factory);
+                if (exceptionMappers.containsKey(exc) || !exceptions.add(exc)) {
+                    throw new RuntimeException("ExceptionMapper for exception " + exc + " already registered.");
+                }
+            }
+            Map<Class<?>, Set<MediaType>> resolvers = new HashMap<>();
+            for (ObjectFactory<ProviderDescriptor> factory : contextResolverFactories) {
+                Class<?> clazz = getContextResolverType(factory);
+                MediaTypeMap<ObjectFactory<ProviderDescriptor>> pm = contextResolvers.get(clazz);
+                Set<MediaType> mediaTypes = resolvers.get(clazz);
+                if (mediaTypes == null) {
+                    resolvers.put(clazz, mediaTypes = new HashSet<>());
+                }
+                for (MediaType mime : factory.getObjectModel().produces()) {
+                    if ((pm != null && pm.get(mime) != null) || !mediaTypes.add(mime)) {
+                        throw new RuntimeException("ContextResolver for " + clazz.getName() + " and media type " + mime
+                                                   + " already registered.");
+                    }
+                }
+            }
+        }
+
+        private void checkNotCommitted() {
+            if (committed) {
+                throw new IllegalStateException("Batch is already committed. ");
+            }
+        }
     }
 
-    public void addResponseFilter(ObjectFactory<FilterDescriptor> filterFactory) {
-        responseFilters.getList(filterFactory.getObjectModel().getUriPattern()).add(filterFactory);
+    /**
+     * @return type of objects that ContextResolver provides
+     * @throws RuntimeException
+     *         if type is not determined, e.g. ContextResolver is implemented as raw type
+     */
+    private static Class<?> getContextResolverType(ObjectFactory<ProviderDescriptor> contextResolverFactory) {
+        final Class<?> providerClass = contextResolverFactory.getObjectModel().getObjectClass();
+        final Class<?> clazz = getActualTypeArgument(providerClass, ContextResolver.class);
+        if (clazz == null) {
+            throw new RuntimeException("Unable determine type of objects that ContextResolver " + providerClass.getName()
+                                       + " provides. ");
+        }
+        return clazz;
+    }
+
+    /**
+     * @return type of exception that ExceptionMapper handles
+     * @throws RuntimeException
+     *         if type is not determined, e.g. ExceptionMapper is implemented as raw type
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Throwable> getExceptionMapperType(ObjectFactory<ProviderDescriptor> exceptionMapperFactory) {
+        final Class<?> providerClass = exceptionMapperFactory.getObjectModel().getObjectClass();
+        final Class<?> exc = getActualTypeArgument(providerClass, ExceptionMapper.class);
+        if (exc == null) {
+            throw new RuntimeException("Unable determine type of exception that ExceptionMapper " + providerClass.getName()
+                                       + " handles. ");
+        }
+        return (Class<? extends Throwable>)exc;
+    }
+
+    /**
+     * @return actual type argument of generic interface <code>rawType</code> implemented by provider class, its super classes or
+     *         super interfaces or <code>null</code> if type argument is not determined, e.g. it is type variable
+     */
+    private static Class<?> getActualTypeArgument(Class<?> providerClass, Class<?> rawType) {
+        for (Class<?> clazz = providerClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            Class<?> typeArgument = getActualTypeArgument(clazz.getGenericInterfaces(), rawType);
+            if (typeArgument != null) {
+                return typeArgument;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> getActualTypeArgument(Type[] interfaces, Class<?> rawType) {
+        for (Type type : interfaces) {
+            if (type instanceof ParameterizedType) {
+                ParameterizedType pt = (ParameterizedType)type;
+                if (pt.getRawType() == rawType) {
+                    Type typeArgument = pt.getActualTypeArguments()[0];
+                    if (typeArgument instanceof ParameterizedType) {
+                        typeArgument = ((ParameterizedType)typeArgument).getRawType();
+                    }
+                    return typeArgument instanceof Class ? (Class<?>)typeArgument : null;
+                }
+                type = pt.getRawType();
+            }
+            if (type instanceof Class) {
+                Class<?> typeArgument = getActualTypeArgument(((Class<?>)type).getGenericInterfaces(), rawType);
+                if (typeArgument != null) {
+                    return typeArgument;
+                }
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings({"unchecked"})
@@ -691,26 +982,44 @@ public class ProviderBinder implements Providers {
 
         List<String> capturingValues = new ArrayList<>();
         for (Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>> e : m.entrySet()) {
-            UriPattern uriPattern = e.getKey();
-
-            if (uriPattern != null) {
-                if (uriPattern.match(path, capturingValues)) {
-                    int len = capturingValues.size();
-                    if (capturingValues.get(len - 1) != null && !"/".equals(capturingValues.get(len - 1))) {
-                        // not matched
-                        continue;
-                    }
-                } else {
-                    // not matched
-                    continue;
-                }
+            if (isFilterMatched(e.getKey(), path, capturingValues)) {
+                l.addAll(e.getValue());
             }
-            // if matched or UriPattern is null
-            l.addAll(e.getValue());
         }
         return l;
     }
 
+    /**
+     * Check is filter with specified UriPattern applicable to request path.
+     *
+     * @param uriPattern
+     *         UriPattern of filter, filter with <code>null</code> pattern is applicable to any path
+     * @param path
+     *         request path
+     * @param capturingValues
+     *         list for capturing values, it is reused by caller to avoid creation of new list for each filter
+     * @return <code>true</code> if filter is applicable to request path
+     */
+    static boolean isFilterMatched(UriPattern uriPattern, String path, List<String> capturingValues) {
+        if (uriPattern == null) {
+            return true;
+        }
+        if (uriPattern.match(path, capturingValues)) {
+            int len = capturingValues.size();
+            return capturingValues.get(len - 1) == null || "/".equals(capturingValues.get(len - 1));
+        }
+        return false;
+    }
+
+    /**
+     * Get number of modifications of this binder. Number is changed each time when provider or filter is added in binder.
+     *
+     * @return number of modifications of this binder
+     */
+    long getModificationCount() {
+        return modificationCount.get();
+    }
+
     /** Add prepared providers. */
     protected void init() {
         // Add known Providers, Filters, etc with predefined life cycle.
@@ -750,6 +1059,14 @@ public class ProviderBinder implements Providers {
         addMessageBodyReader(ssep);
         addMessageBodyWriter(ssep);
 
+        XMLStreamReaderEntityProvider xmlsrep = new XMLStreamReaderEntityProvider();
+        addMessageBodyReader(xmlsrep);
+        addMessageBodyWriter(xmlsrep);
+
+        XMLEventReaderEntityProvider xmlerep = new XMLEventReaderEntityProvider();
+        addMessageBodyReader(xmlerep);
+        addMessageBodyWriter(xmlerep);
+
         StringEntityProvider sep = new StringEntityProvider();
         addMessageBodyReader(sep);
         addMessageBodyWriter(sep);
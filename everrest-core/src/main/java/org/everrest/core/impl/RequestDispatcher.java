@@ -17,6 +17,8 @@ import org.everrest.core.Lifecycle;
 import org.everrest.core.ObjectFactory;
 import org.everrest.core.ResourceBinder;
 import org.everrest.core.SingletonObjectFactory;
+import org.everrest.core.VersionProvider;
+import org.everrest.core.Versioned;
 import org.everrest.core.impl.async.AsynchronousJob;
 import org.everrest.core.impl.header.HeaderHelper;
 import org.everrest.core.impl.header.MediaTypeHelper;
@@ -33,18 +35,24 @@ import org.everrest.core.uri.UriPattern;
 import org.everrest.core.util.Tracer;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Lookup resource which can serve request.
@@ -54,11 +62,24 @@ import java.util.Map.Entry;
 public class RequestDispatcher {
     /** Logger. */
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(RequestDispatcher.class);
+    /** Name of attribute of ApplicationContext that contains descriptor of resource method invoked for GET request. */
+    static final String MATCHED_METHOD_ATTRIBUTE = "org.everrest.resource.method";
     /** See {@link org.everrest.core.ResourceBinder}. */
     protected final ResourceBinder resourceBinder;
 
     private final HelperCache<Class<?>, AbstractResourceDescriptor> locatorDescriptorCache = new HelperCache<>(60 * 1000, 50);
 
+    /** Stub for resource methods that are not annotated with {@link Versioned}. */
+    private static final VersionProvider NO_VERSION = new VersionProvider() {
+        @Override
+        public String getVersion(Object resource, ApplicationContext context) {
+            return null;
+        }
+    };
+
+    /** Providers of entity version for resource methods. */
+    private final ConcurrentMap<Method, VersionProvider> versionProviders = new ConcurrentHashMap<>();
+
     /**
      * Constructs new instance of RequestDispatcher.
      *
@@ -285,9 +306,66 @@ public class RequestDispatcher {
                                   ApplicationContext context,
                                   GenericContainerRequest request,
                                   GenericContainerResponse response) {
+        EntityTag version = getVersion(method, resource, context);
+        if (version != null) {
+            ResponseBuilder preconditions = request.evaluatePreconditions(version);
+            if (preconditions != null) {
+                if (Tracer.isTracingEnabled()) {
+                    Tracer.trace("Preconditions of request are not met for version " + version + " of entity, method is not invoked");
+                }
+                response.setResponse(preconditions.build());
+                return;
+            }
+        }
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            // ResponseCache checks security constraints and produced media types of method before response is stored.
+            context.getAttributes().put(MATCHED_METHOD_ATTRIBUTE, method);
+        }
         MethodInvoker invoker = context.getMethodInvoker(method);
         Object o = invoker.invokeMethod(resource, method, context);
         processResponse(o, request, response, method.produces(), context);
+        if (version != null
+            && (HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))
+            && response.getStatus() == Status.OK.getStatusCode()
+            && response.getHttpHeaders().getFirst(HttpHeaders.ETAG) == null) {
+            response.getHttpHeaders().putSingle(HttpHeaders.ETAG, version);
+        }
+    }
+
+    /**
+     * Get version of entity of resource method annotated with {@link Versioned}.
+     *
+     * @return version of entity as strong entity tag or <code>null</code> if method is not annotated with {@link Versioned} or version
+     * is unknown
+     */
+    private EntityTag getVersion(ResourceMethodDescriptor method, Object resource, ApplicationContext context) {
+        Method javaMethod = method.getMethod();
+        if (javaMethod == null) {
+            // Method descriptor that is not backed by java method, e.g. default OPTIONS method.
+            return null;
+        }
+        VersionProvider versionProvider = versionProviders.get(javaMethod);
+        if (versionProvider == null) {
+            Versioned versioned = javaMethod.getAnnotation(Versioned.class);
+            if (versioned == null) {
+                versionProvider = NO_VERSION;
+            } else {
+                try {
+                    versionProvider = versioned.value().newInstance();
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new InternalException("Unable create version provider for method " + javaMethod, e);
+                }
+            }
+            VersionProvider existed = versionProviders.putIfAbsent(javaMethod, versionProvider);
+            if (existed != null) {
+                versionProvider = existed;
+            }
+        }
+        if (versionProvider == NO_VERSION) {
+            return null;
+        }
+        String version = versionProvider.getVersion(resource, context);
+        return version == null ? null : new EntityTag(version);
     }
 
     /**
@@ -25,11 +25,15 @@ import org.everrest.core.util.Tracer;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.ext.ExceptionMapper;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author andrew00x
@@ -41,12 +45,26 @@ public class RequestHandlerImpl implements RequestHandler {
     /** See {@link RequestDispatcher}. */
     private final RequestDispatcher dispatcher;
 
+    /** Cache of responses, <code>null</code> if caching is disabled. */
+    private final ResponseCache responseCache;
+
     /**
      * @param dispatcher
      *         RequestDispatcher
      */
     public RequestHandlerImpl(RequestDispatcher dispatcher) {
+        this(dispatcher, null);
+    }
+
+    /**
+     * @param dispatcher
+     *         RequestDispatcher
+     * @param responseCache
+     *         cache of responses, may be <code>null</code> if caching is disabled
+     */
+    public RequestHandlerImpl(RequestDispatcher dispatcher, ResponseCache responseCache) {
         this.dispatcher = dispatcher;
+        this.responseCache = responseCache;
     }
 
 
@@ -57,11 +75,19 @@ public class RequestHandlerImpl implements RequestHandler {
         final ApplicationContext context = ApplicationContextImpl.getCurrent();
 
         try {
+            decodeEntityStream(request, context.getEverrestConfiguration());
+
             for (ObjectFactory<FilterDescriptor> factory : context.getProviders().getRequestFilters(context.getPath())) {
                 ((RequestFilter)factory.getInstance(context)).doFilter(request);
             }
 
-            dispatcher.dispatch(request, response);
+            if (responseCache == null || !responseCache.serve(request, response)) {
+                dispatcher.dispatch(request, response);
+                if (responseCache != null && response instanceof ContainerResponse) {
+                    // Snapshot of response is taken before response filters, they are applied to cached response again.
+                    ((ContainerResponse)response).setEntityCopier(responseCache.snapshot(request, response));
+                }
+            }
 
             if (response.getHttpHeaders().getFirst(ExtHttpHeaders.JAXRS_BODY_PROVIDED) == null) {
                 String jaxrsHeader = getJaxrsHeader(response.getStatus());
@@ -137,14 +163,7 @@ public class RequestHandlerImpl implements RequestHandler {
                     throw new UnhandledException(e.getCause());
                 }
 
-                Class causeClazz = cause.getClass();
-                ExceptionMapper exceptionMapper = context.getProviders().getExceptionMapper(causeClazz);
-                while (causeClazz != null && exceptionMapper == null) {
-                    exceptionMapper = context.getProviders().getExceptionMapper(causeClazz);
-                    if (exceptionMapper == null) {
-                        causeClazz = causeClazz.getSuperclass();
-                    }
-                }
+                ExceptionMapper exceptionMapper = context.getProviders().findExceptionMapper(cause.getClass());
 
                 if (exceptionMapper != null) {
                     // Hide error message if exception mapper exists.
@@ -169,6 +188,40 @@ public class RequestHandlerImpl implements RequestHandler {
         response.writeResponse();
     }
 
+    /**
+     * Replace compressed entity stream of request with decompressing stream if compression is enabled in configuration and content
+     * coding of request (see header 'Content-Encoding') is supported. Headers 'Content-Encoding' and 'Content-Length' are removed
+     * from request since they describe compressed entity.
+     *
+     * @param request
+     *         request
+     * @param config
+     *         configuration
+     */
+    private void decodeEntityStream(GenericContainerRequest request, EverrestConfiguration config) {
+        if (!config.isCompression() || request.getEntityStream() == null) {
+            return;
+        }
+        ContentEncoding contentEncoding = ContentEncoding.forToken(request.getRequestHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        if (contentEncoding != null) {
+            try {
+                request.setEntityStream(contentEncoding.createDecoder(request.getEntityStream(), config.getDecompressionMaxSize()));
+            } catch (IOException e) {
+                throw new WebApplicationException(e, Response.status(Response.Status.BAD_REQUEST)
+                                                             .entity("Unable decompress request entity. " + e.getMessage())
+                                                             .type(MediaType.TEXT_PLAIN).build());
+            }
+            Map<String, List<String>> headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> e : request.getRequestHeaders().entrySet()) {
+                if (!(HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(e.getKey())
+                      || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(e.getKey()))) {
+                    headers.put(e.getKey(), e.getValue());
+                }
+            }
+            request.setRequestHeaders(new InputHeadersMap(headers));
+        }
+    }
+
     /**
      * Create error response with specified status and body message.
      *
@@ -17,7 +17,9 @@ import org.everrest.core.ResourceBinder;
 import org.everrest.core.ResourcePublicationException;
 import org.everrest.core.SingletonObjectFactory;
 import org.everrest.core.impl.resource.AbstractResourceDescriptorImpl;
+import org.everrest.core.impl.resource.PathValue;
 import org.everrest.core.impl.resource.ResourceDescriptorValidator;
+import org.everrest.core.impl.resource.ResourceModelSnapshot;
 import org.everrest.core.resource.AbstractResourceDescriptor;
 import org.everrest.core.resource.ResourceDescriptorVisitor;
 import org.everrest.core.uri.UriPattern;
@@ -26,10 +28,13 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -66,40 +71,109 @@ public class ResourceBinderImpl implements ResourceBinder {
     /** Validator. */
     private final ResourceDescriptorVisitor rdv = ResourceDescriptorValidator.getInstance();
 
+    /** Snapshot of resource model that is used when descriptors of resources are created, may be <code>null</code>. */
+    private volatile ResourceModelSnapshot resourceModel;
+
     /** Update resources (add, remove, clear) lock. */
     private final ReentrantLock lock = new ReentrantLock();
 
     public ResourceBinderImpl() {
     }
 
+    /**
+     * Set snapshot of resource model that is used and updated when descriptors of root resources are created.
+     *
+     * @param resourceModel
+     *         snapshot of resource model or <code>null</code> to always discover resource methods with reflection
+     */
+    public void setResourceModel(ResourceModelSnapshot resourceModel) {
+        this.resourceModel = resourceModel;
+    }
+
+    public ResourceModelSnapshot getResourceModel() {
+        return resourceModel;
+    }
+
     @Override
     public void addResource(Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+        addResource(createResourceFactory(null, resourceClass, properties));
+    }
+
+    @Override
+    public void addResource(String uriPattern, Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+        addResource(createResourceFactory(uriPattern, resourceClass, properties));
+    }
+
+    /**
+     * Create and validate descriptor of per-request root resource but do not register it. This method does not change state
+     * of this binder and may be called concurrently, e.g. to build descriptors of many resources in parallel and register
+     * them with {@link #addResources(Collection)}.
+     *
+     * @param uriPattern
+     *         URI pattern of resource, if <code>null</code> then value of &#64;Path annotation of resource class is used
+     * @param resourceClass
+     *         resource class
+     * @param properties
+     *         optional resource properties, may be <code>null</code>
+     * @return factory of resource
+     * @throws ResourcePublicationException
+     *         if resource is not valid
+     */
+    public ObjectFactory<AbstractResourceDescriptor> createResourceFactory(String uriPattern,
+                                                                           Class<?> resourceClass,
+                                                                           MultivaluedMap<String, String> properties) {
+        if (uriPattern == null) {
+            checkRootResource(resourceClass);
+            try {
+                return new PerRequestObjectFactory<>(newResourceDescriptor(null, resourceClass, properties));
+            } catch (Exception e) {
+                if (e instanceof ResourcePublicationException) {
+                    throw (ResourcePublicationException)e;
+                }
+                throw new ResourcePublicationException(e.getMessage(), e);
+            }
+        }
+        return new PerRequestObjectFactory<>(newResourceDescriptor(uriPattern, resourceClass, properties));
+    }
+
+    /**
+     * Create and validate descriptor of singleton root resource but do not register it. This method does not change state of
+     * this binder and may be called concurrently.
+     *
+     * @param uriPattern
+     *         URI pattern of resource, if <code>null</code> then value of &#64;Path annotation of resource class is used
+     * @param resource
+     *         resource instance
+     * @param properties
+     *         optional resource properties, may be <code>null</code>
+     * @return factory of resource
+     * @throws ResourcePublicationException
+     *         if resource is not valid
+     * @see #createResourceFactory(String, Class, MultivaluedMap)
+     */
+    public ObjectFactory<AbstractResourceDescriptor> createResourceFactory(String uriPattern,
+                                                                           Object resource,
+                                                                           MultivaluedMap<String, String> properties) {
+        if (uriPattern == null) {
+            checkRootResource(resource.getClass());
+        }
+        return new SingletonObjectFactory<>(newResourceDescriptor(uriPattern, resource, properties), resource);
+    }
+
+    private void checkRootResource(Class<?> resourceClass) {
         Path path = resourceClass.getAnnotation(Path.class);
         if (path == null) {
             throw new ResourcePublicationException(String.format(
                     "Resource class %s it is not root resource. Path annotation javax.ws.rs.Path is not specified for this class.",
                     resourceClass.getName()));
         }
-        try {
-            addResource(new PerRequestObjectFactory<>(newResourceDescriptor(null, resourceClass, properties)));
-        } catch (Exception e) {
-            if (e instanceof ResourcePublicationException) {
-                throw (ResourcePublicationException)e;
-            }
-            throw new ResourcePublicationException(e.getMessage(), e);
-        }
-    }
-
-    @Override
-    public void addResource(String uriPattern, Class<?> resourceClass, MultivaluedMap<String, String> properties) {
-        addResource(new PerRequestObjectFactory<>(newResourceDescriptor(uriPattern, resourceClass, properties)));
     }
 
     private AbstractResourceDescriptor newResourceDescriptor(String path,
                                                              Class<?> resourceClass,
                                                              MultivaluedMap<String, String> properties) {
-        AbstractResourceDescriptor descriptor =
-                path == null ? new AbstractResourceDescriptorImpl(resourceClass) : new AbstractResourceDescriptorImpl(path, resourceClass);
+        AbstractResourceDescriptor descriptor = new AbstractResourceDescriptorImpl(
+                path == null ? PathValue.getPath(resourceClass.getAnnotation(Path.class)) : path, resourceClass, resourceModel);
         descriptor.accept(rdv);
         if (properties != null) {
             descriptor.getProperties().putAll(properties);
@@ -109,25 +183,19 @@ public class ResourceBinderImpl implements ResourceBinder {
 
     @Override
     public void addResource(Object resource, MultivaluedMap<String, String> properties) {
-        Path path = resource.getClass().getAnnotation(Path.class);
-        if (path == null) {
-            throw new ResourcePublicationException(String.format(
-                    "Resource class %s it is not root resource. Path annotation javax.ws.rs.Path is not specified for this class.",
-                    resource.getClass().getName()));
-        }
-        addResource(new SingletonObjectFactory<>(newResourceDescriptor(null, resource, properties), resource));
+        addResource(createResourceFactory(null, resource, properties));
     }
 
     @Override
     public void addResource(String uriPattern, Object resource, MultivaluedMap<String, String> properties) {
-        addResource(new SingletonObjectFactory<>(newResourceDescriptor(uriPattern, resource, properties), resource));
+        addResource(createResourceFactory(uriPattern, resource, properties));
     }
 
     private AbstractResourceDescriptor newResourceDescriptor(String path,
                                                              Object resource,
                                                              MultivaluedMap<String, String> properties) {
-        AbstractResourceDescriptor descriptor =
-                path == null ? new AbstractResourceDescriptorImpl(resource) : new AbstractResourceDescriptorImpl(path, resource);
+        AbstractResourceDescriptor descriptor = new AbstractResourceDescriptorImpl(
+                path == null ? PathValue.getPath(resource.getClass().getAnnotation(Path.class)) : path, resource, resourceModel);
         descriptor.accept(rdv);
         if (properties != null) {
             descriptor.getProperties().putAll(properties);
@@ -137,21 +205,13 @@ public class ResourceBinderImpl implements ResourceBinder {
 
     @Override
     public void addResource(ObjectFactory<AbstractResourceDescriptor> resourceFactory) {
-        UriPattern pattern = resourceFactory.getObjectModel().getUriPattern();
         lock.lock();
         try {
             List<ObjectFactory<AbstractResourceDescriptor>> snapshot = new ArrayList<>(resources);
             for (ObjectFactory<AbstractResourceDescriptor> resource : snapshot) {
                 if (resource.getObjectModel().getUriPattern().equals(resourceFactory.getObjectModel().getUriPattern())) {
-                    if (resource.getObjectModel().getObjectClass() == resourceFactory.getObjectModel().getObjectClass()) {
-                        LOG.debug(String.format("Resource %s already registered.",
-                                                resourceFactory.getObjectModel().getObjectClass().getName()));
-                        return;
-                    }
-                    throw new ResourcePublicationException(String.format(
-                            "Resource class %s can't be registered. Resource class %s with the same pattern %s already registered.",
-                            resourceFactory.getObjectModel().getObjectClass().getName(),
-                            resource.getObjectModel().getObjectClass().getName(), pattern));
+                    checkRegistered(resource, resourceFactory);
+                    return;
                 }
             }
             snapshot.add(resourceFactory);
@@ -165,6 +225,95 @@ public class ResourceBinderImpl implements ResourceBinder {
         }
     }
 
+    /**
+     * Register many root resources at once. Resources are checked in order of iteration over <code>resourceFactories</code>
+     * in the same way as they would be registered one by one with {@link #addResource(ObjectFactory)}, but list of resources
+     * is sorted and published once. If any resource can't be registered then none of resources is registered.
+     *
+     * @param resourceFactories
+     *         factories of resources
+     * @throws ResourcePublicationException
+     *         if any resource has the same {@link UriPattern} as other resource
+     */
+    public void addResources(Collection<ObjectFactory<AbstractResourceDescriptor>> resourceFactories) {
+        Batch batch = startBatch();
+        for (ObjectFactory<AbstractResourceDescriptor> resourceFactory : resourceFactories) {
+            batch.addResource(resourceFactory);
+        }
+        batch.commit();
+    }
+
+    /**
+     * Start batch of changes. Resources that are added to or removed from batch are not visible until batch is committed. On
+     * commit all changes are applied to copy of list of resources which is sorted and published once, so readers see either
+     * previous or new list of resources but never part of changes. Batch is not thread-safe.
+     *
+     * @return new batch
+     */
+    public Batch startBatch() {
+        return new Batch();
+    }
+
+    /** Applies changes of batch to the list of resources. If any change can't be applied then none of them is applied. */
+    private void commit(List<Change> changes) {
+        lock.lock();
+        try {
+            List<ObjectFactory<AbstractResourceDescriptor>> snapshot = new ArrayList<>(resources);
+            Map<UriPattern, ObjectFactory<AbstractResourceDescriptor>> patterns = new HashMap<>();
+            for (ObjectFactory<AbstractResourceDescriptor> resource : snapshot) {
+                patterns.put(resource.getObjectModel().getUriPattern(), resource);
+            }
+            boolean modified = false;
+            for (Change change : changes) {
+                if (change.added != null) {
+                    ObjectFactory<AbstractResourceDescriptor> resource = patterns.get(change.added.getObjectModel().getUriPattern());
+                    if (resource != null) {
+                        checkRegistered(resource, change.added);
+                        continue;
+                    }
+                    patterns.put(change.added.getObjectModel().getUriPattern(), change.added);
+                    snapshot.add(change.added);
+                    modified = true;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Add resource: " + change.added.getObjectModel());
+                    }
+                } else {
+                    for (Iterator<ObjectFactory<AbstractResourceDescriptor>> iterator = snapshot.iterator(); iterator.hasNext(); ) {
+                        ObjectFactory<AbstractResourceDescriptor> next = iterator.next();
+                        if (change.isRemoved(next)) {
+                            iterator.remove();
+                            patterns.remove(next.getObjectModel().getUriPattern());
+                            modified = true;
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("Remove resource: " + next.getObjectModel());
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            if (modified) {
+                Collections.sort(snapshot, RESOURCE_COMPARATOR);
+                resources = snapshot;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Throws exception if resource with the same URI pattern as <code>resourceFactory</code> has is other class. */
+    private void checkRegistered(ObjectFactory<AbstractResourceDescriptor> resource,
+                                 ObjectFactory<AbstractResourceDescriptor> resourceFactory) {
+        if (resource.getObjectModel().getObjectClass() == resourceFactory.getObjectModel().getObjectClass()) {
+            LOG.debug(String.format("Resource %s already registered.", resourceFactory.getObjectModel().getObjectClass().getName()));
+            return;
+        }
+        throw new ResourcePublicationException(String.format(
+                "Resource class %s can't be registered. Resource class %s with the same pattern %s already registered.",
+                resourceFactory.getObjectModel().getObjectClass().getName(),
+                resource.getObjectModel().getObjectClass().getName(), resourceFactory.getObjectModel().getUriPattern()));
+    }
+
     /** Clear the list of resources. */
     public void clear() {
         lock.lock();
@@ -284,4 +433,97 @@ public class ResourceBinderImpl implements ResourceBinder {
             lock.unlock();
         }
     }
+
+    /**
+     * Set of changes of resources that are applied at once, see {@link #startBatch()}. Descriptors of added resources are
+     * created and validated immediately, so invalid resource is rejected when it is added to batch. Conflicts of URI patterns
+     * are checked on commit in order of changes.
+     */
+    public final class Batch {
+        private final List<Change> changes = new ArrayList<>();
+        private       boolean      committed;
+
+        private Batch() {
+        }
+
+        /** @see ResourceBinder#addResource(Class, MultivaluedMap) */
+        public Batch addResource(Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+            return addResource(createResourceFactory(null, resourceClass, properties));
+        }
+
+        /** @see ResourceBinder#addResource(String, Class, MultivaluedMap) */
+        public Batch addResource(String uriPattern, Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+            return addResource(createResourceFactory(uriPattern, resourceClass, properties));
+        }
+
+        /** @see ResourceBinder#addResource(Object, MultivaluedMap) */
+        public Batch addResource(Object resource, MultivaluedMap<String, String> properties) {
+            return addResource(createResourceFactory(null, resource, properties));
+        }
+
+        /** @see ResourceBinder#addResource(String, Object, MultivaluedMap) */
+        public Batch addResource(String uriPattern, Object resource, MultivaluedMap<String, String> properties) {
+            return addResource(createResourceFactory(uriPattern, resource, properties));
+        }
+
+        /** @see ResourceBinder#addResource(ObjectFactory) */
+        public Batch addResource(ObjectFactory<AbstractResourceDescriptor> resourceFactory) {
+            return add(new Change(resourceFactory, null, null));
+        }
+
+        /** @see ResourceBinder#removeResource(Class) */
+        public Batch removeResource(Class<?> clazz) {
+            return add(new Change(null, clazz, null));
+        }
+
+        /** @see ResourceBinder#removeResource(String) */
+        public Batch removeResource(String path) {
+            return add(new Change(null, null, new UriPattern(path)));
+        }
+
+        /**
+         * Apply all changes at once.
+         *
+         * @throws ResourcePublicationException
+         *         if any resource has the same {@link UriPattern} as other resource, in this case none of changes is applied
+         * @throws IllegalStateException
+         *         if batch is already committed
+         */
+        public void commit() {
+            checkNotCommitted();
+            committed = true;
+            ResourceBinderImpl.this.commit(changes);
+        }
+
+        private Batch add(Change change) {
+            checkNotCommitted();
+            changes.add(change);
+            return this;
+        }
+
+        private void checkNotCommitted() {
+            if (committed) {
+                throw new IllegalStateException("Batch is already committed. ");
+            }
+        }
+    }
+
+    /** Addition or removal of resource. */
+    private static final class Change {
+        final ObjectFactory<AbstractResourceDescriptor> added;
+        final Class<?>                                  removedClass;
+        final UriPattern                                removedPattern;
+
+        Change(ObjectFactory<AbstractResourceDescriptor> added, Class<?> removedClass, UriPattern removedPattern) {
+            this.added = added;
+            this.removedClass = removedClass;
+            this.removedPattern = removedPattern;
+        }
+
+        boolean isRemoved(ObjectFactory<AbstractResourceDescriptor> resource) {
+            return removedClass != null
+                   ? removedClass.equals(resource.getObjectModel().getObjectClass())
+                   : removedPattern.equals(resource.getObjectModel().getUriPattern());
+        }
+    }
 }
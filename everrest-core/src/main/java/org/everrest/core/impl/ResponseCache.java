@@ -0,0 +1,537 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.GenericContainerRequest;
+import org.everrest.core.GenericContainerResponse;
+import org.everrest.core.impl.header.HeaderHelper;
+import org.everrest.core.impl.uri.UriComponent;
+import org.everrest.core.resource.ResourceMethodDescriptor;
+import org.everrest.core.util.NoSyncByteArrayOutputStream;
+import org.everrest.core.util.Tracer;
+
+import javax.annotation.security.DenyAll;
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process shared cache of responses to GET requests. Response is stored if it has status 200 (OK) and header 'Cache-Control' with
+ * directive 'max-age' or 's-maxage' and without directives 'no-store', 'no-cache' and 'private'. Responses to requests of
+ * authenticated users, responses of methods restricted with {@link RolesAllowed} or {@link DenyAll}, responses to requests with
+ * cookies and responses that set cookies are never stored, method invoker filters are not applied to responses from cache.
+ * <p/>
+ * Cache keeps serialized entity and headers of response as they were set by resource method, before response filters, and serves
+ * them without invoking of resource while entry is fresh. Request and response filters are applied to responses from cache as to
+ * any other one, so headers that are added by filters are never shared between requests. Response is selected with headers that
+ * are listed in 'Vary' header of stored response, header 'Accept' is added to them if method produces more than one media type.
+ * Entry that has entity tag is revalidated with header 'If-None-Match' of request.
+ * <p/>
+ * Total size of cached entities is limited, least recently used entries are evicted when cache reaches its max size. Size of single
+ * entity may not be greater then 1/8 of max size of cache. Any request to the same URI with method other then GET or HEAD removes
+ * all cached responses for this URI.
+ *
+ * @author andrew00x
+ * @see EverrestConfiguration#EVERREST_CACHE
+ */
+public final class ResponseCache {
+    /** Approximate size of each header in memory, it is added to size of entity when size of cache is counted. */
+    private static final int HEADER_SIZE = 64;
+
+    /** Headers of response that are not stored, they are created again when entry is sent to client. */
+    private static final List<String> SKIP_HEADERS = Arrays.asList(HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING,
+                                                                   HttpHeaders.DATE, "Age");
+    /** Headers of stored response that are sent with response 304 (Not Modified). */
+    private static final List<String> NOT_MODIFIED_HEADERS = Arrays.asList(HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_LOCATION,
+                                                                           HttpHeaders.EXPIRES, HttpHeaders.VARY);
+
+    /** Cached responses to the same URI. */
+    private static final class Variants {
+        /** Names of request headers that select response, see 'Vary' header of response. */
+        final String[]                      vary;
+        final Map<List<String>, CacheEntry> entries = new HashMap<>(4);
+        long size;
+
+        Variants(String[] vary) {
+            this.vary = vary;
+        }
+    }
+
+    private static final class CacheEntry {
+        final String[] headers;
+        final byte[]   entity;
+        final String   entityTag;
+        final long     created;
+        final long     expires;
+        final int      size;
+
+        CacheEntry(String[] headers, byte[] entity, String entityTag, long created, long expires) {
+            this.headers = headers;
+            this.entity = entity;
+            this.entityTag = entityTag;
+            this.created = created;
+            this.expires = expires;
+            this.size = entity.length + (headers.length / 2) * HEADER_SIZE;
+        }
+    }
+
+    private final long                            maxSize;
+    private final int                             maxEntrySize;
+    /** URI -> cached responses. Access order is used for LRU eviction. */
+    private final LinkedHashMap<String, Variants> cache = new LinkedHashMap<>(16, 0.75f, true);
+    /** Total size of cached responses. */
+    private       long                            size;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize
+     *         max total size of cached entities in bytes
+     */
+    public ResponseCache(long maxSize) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = (int)Math.min(Integer.MAX_VALUE, maxSize / 8);
+    }
+
+    /**
+     * Set cached response if there is fresh response for the request. Method is invoked after request filters, just before request
+     * is dispatched to resource. Response filters are applied to cached response as to any other one.
+     *
+     * @param request
+     *         request
+     * @param response
+     *         response
+     * @return <code>true</code> if response was taken from cache and request must not be dispatched to resource
+     */
+    public boolean serve(GenericContainerRequest request, GenericContainerResponse response) throws IOException {
+        final String method = request.getMethod();
+        if (!(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))) {
+            if (!HttpMethod.OPTIONS.equals(method)) {
+                invalidate(getKey(request));
+            }
+            return false;
+        }
+        if (isNoCache(request)) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        final CacheEntry entry = get(getKey(request), request, now);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        if (Tracer.isTracingEnabled()) {
+            Tracer.trace("Response is sent from cache");
+        }
+        ResponseBuilder responseBuilder = null;
+        if (entry.entityTag != null) {
+            responseBuilder = request.evaluatePreconditions(EntityTag.valueOf(entry.entityTag));
+        }
+        final boolean entityIncluded = responseBuilder == null;
+        if (entityIncluded) {
+            responseBuilder = Response.ok(entry.entity);
+        }
+        for (int i = 0; i < entry.headers.length; i += 2) {
+            if (entityIncluded || containsIgnoreCase(NOT_MODIFIED_HEADERS, entry.headers[i])) {
+                responseBuilder.header(entry.headers[i], entry.headers[i + 1]);
+            }
+        }
+        responseBuilder.header("Age", Long.toString((now - entry.created) / 1000));
+        response.setResponse(responseBuilder.build());
+        return true;
+    }
+
+    /**
+     * Take snapshot of response that is just created by resource method. Method is invoked after request is dispatched to resource and
+     * before response filters. Response is stored in cache when its entity is written, if response filters do not replace entity or
+     * status of response.
+     *
+     * @param request
+     *         request
+     * @param response
+     *         response
+     * @return copier of response entity that stores response in cache or <code>null</code> if response may not be stored
+     */
+    public ContainerResponse.EntityCopier snapshot(GenericContainerRequest request, GenericContainerResponse response) {
+        if (!HttpMethod.GET.equals(request.getMethod())
+            || response.getStatus() != Response.Status.OK.getStatusCode()
+            || response.getEntity() == null) {
+            return null;
+        }
+        final ResourceMethodDescriptor method =
+                (ResourceMethodDescriptor)ApplicationContextImpl.getCurrent().getAttributes().get(RequestDispatcher.MATCHED_METHOD_ATTRIBUTE);
+        if (method == null || isSecured(method)) {
+            return null;
+        }
+        final long maxAge = getMaxAge(request, response);
+        if (maxAge <= 0) {
+            return null;
+        }
+        String[] vary = getVary(response);
+        if (vary == null) {
+            return null;
+        }
+        if (isProducesMany(method) && !containsIgnoreCase(Arrays.asList(vary), HttpHeaders.ACCEPT)) {
+            vary = Arrays.copyOf(vary, vary.length + 1);
+            vary[vary.length - 1] = HttpHeaders.ACCEPT;
+            Arrays.sort(vary, String.CASE_INSENSITIVE_ORDER);
+        }
+        final List<String> headers = new ArrayList<>();
+        String entityTag = null;
+        for (Map.Entry<String, List<Object>> e : response.getHttpHeaders().entrySet()) {
+            final String name = e.getKey();
+            if (containsIgnoreCase(SKIP_HEADERS, name)) {
+                continue;
+            }
+            for (Object value : e.getValue()) {
+                String str;
+                if (value != null && (str = HeaderHelper.getHeaderAsString(value)) != null) {
+                    headers.add(name);
+                    headers.add(str);
+                    if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                        entityTag = str;
+                    }
+                }
+            }
+        }
+        final long now = System.currentTimeMillis();
+        return new Snapshot(response.getEntity(), getKey(request), vary, getVaryValues(vary, request), headers, entityTag, now,
+                            now + maxAge * 1000);
+    }
+
+    /** Remove all cached responses. */
+    public synchronized void clear() {
+        cache.clear();
+        size = 0;
+    }
+
+    /** @return number of requests that were served from cache */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** @return number of requests to GET or HEAD method that were not served from cache */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** @return number of entries that were evicted from cache because of lack of space */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** @return ratio of cache hits to all requests that may be served from cache or <code>0.0</code> if there were no requests yet */
+    public double getHitRatio() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 0.0 : (double)h / total;
+    }
+
+    /** @return total size of cached responses in bytes */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /** @return max size of cached responses in bytes */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    private synchronized CacheEntry get(String key, GenericContainerRequest request, long now) {
+        final Variants variants = cache.get(key);
+        if (variants == null) {
+            return null;
+        }
+        final List<String> varyValues = getVaryValues(variants.vary, request);
+        final CacheEntry entry = variants.entries.get(varyValues);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expires <= now) {
+            variants.entries.remove(varyValues);
+            variants.size -= entry.size;
+            size -= entry.size;
+            if (variants.entries.isEmpty()) {
+                cache.remove(key);
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(String key, String[] vary, List<String> varyValues, CacheEntry entry) {
+        Variants variants = cache.get(key);
+        if (variants == null || !Arrays.equals(variants.vary, vary)) {
+            if (variants != null) {
+                size -= variants.size;
+            }
+            variants = new Variants(vary);
+            cache.put(key, variants);
+        }
+        final CacheEntry previous = variants.entries.put(varyValues, entry);
+        if (previous != null) {
+            variants.size -= previous.size;
+            size -= previous.size;
+        }
+        variants.size += entry.size;
+        size += entry.size;
+        for (Iterator<Variants> iterator = cache.values().iterator(); size > maxSize && iterator.hasNext(); ) {
+            Variants eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.size;
+            evictions.addAndGet(eldest.entries.size());
+        }
+    }
+
+    private synchronized void invalidate(String key) {
+        final Variants variants = cache.remove(key);
+        if (variants != null) {
+            size -= variants.size;
+        }
+    }
+
+    /**
+     * Key of cached responses and of their invalidation. Query string is part of key, cached response to '/a?x=1' is not returned for
+     * '/a?x=2' and unsafe request to '/a?x=1' invalidates responses to '/a?x=1' only.
+     */
+    private static String getKey(GenericContainerRequest request) {
+        final URI uri = UriComponent.normalize(request.getRequestUri());
+        final String query = uri.getRawQuery();
+        final String path = uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+        return query == null ? path : path + '?' + query;
+    }
+
+    private static boolean isNoCache(GenericContainerRequest request) {
+        final String cacheControl = request.getRequestHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"))) {
+            return true;
+        }
+        final String pragma = request.getRequestHeaders().getFirst("Pragma");
+        return pragma != null && pragma.contains("no-cache");
+    }
+
+    /** @return max age of response in seconds or <code>0</code> if response may not be stored */
+    private static long getMaxAge(GenericContainerRequest request, GenericContainerResponse response) {
+        final Object header = response.getHttpHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+        // Cookies identify user, response to request with cookies or response that sets cookies is considered as private.
+        if (header == null
+            || isNoCache(request)
+            || request.getRequestHeaders().getFirst(HttpHeaders.COOKIE) != null
+            || response.getHttpHeaders().getFirst(HttpHeaders.SET_COOKIE) != null) {
+            return 0;
+        }
+        final CacheControl cacheControl;
+        try {
+            cacheControl = header instanceof CacheControl ? (CacheControl)header : CacheControl.valueOf(header.toString());
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+        if (cacheControl.isNoStore()
+            || cacheControl.isPrivate()
+            || (cacheControl.isNoCache() && cacheControl.getNoCacheFields().isEmpty())) {
+            return 0;
+        }
+        // Cached response is sent without checking of user, so response to authenticated user is never shared.
+        if (request.getUserPrincipal() != null || request.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION) != null) {
+            return 0;
+        }
+        if (cacheControl.getSMaxAge() >= 0) {
+            return cacheControl.getSMaxAge();
+        }
+        return Math.max(cacheControl.getMaxAge(), 0);
+    }
+
+    /** @return <code>true</code> if access to method is restricted, cached response is sent without checking of security constraints */
+    private static boolean isSecured(ResourceMethodDescriptor method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            final Class<?> type = annotation.annotationType();
+            if (type == RolesAllowed.class || type == DenyAll.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return <code>true</code> if representation of response depends on 'Accept' header of request */
+    private static boolean isProducesMany(ResourceMethodDescriptor method) {
+        final List<MediaType> produces = method.produces();
+        return produces.size() > 1 || (produces.size() == 1 && (produces.get(0).isWildcardType() || produces.get(0).isWildcardSubtype()));
+    }
+
+    /** @return names of headers listed in 'Vary' header of response or <code>null</code> if response varies on everything */
+    private static String[] getVary(GenericContainerResponse response) {
+        final List<Object> values = response.getHttpHeaders().get(HttpHeaders.VARY);
+        if (values == null || values.isEmpty()) {
+            return new String[0];
+        }
+        final List<String> vary = new ArrayList<>();
+        for (Object value : values) {
+            for (String name : HeaderHelper.getHeaderAsString(value).split(",")) {
+                name = name.trim();
+                if ("*".equals(name)) {
+                    return null;
+                }
+                // Response is stored without content coding, it is applied again when response is sent from cache.
+                if (!name.isEmpty() && !HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name) && !containsIgnoreCase(vary, name)) {
+                    vary.add(name);
+                }
+            }
+        }
+        Collections.sort(vary, String.CASE_INSENSITIVE_ORDER);
+        return vary.toArray(new String[vary.size()]);
+    }
+
+    private static List<String> getVaryValues(String[] vary, GenericContainerRequest request) {
+        if (vary.length == 0) {
+            return Collections.emptyList();
+        }
+        final List<String> values = new ArrayList<>(vary.length);
+        for (String name : vary) {
+            final List<String> headerValues = request.getRequestHeader(name);
+            values.add(headerValues == null ? "" : HeaderHelper.convertToString(headerValues));
+        }
+        return values;
+    }
+
+    private static boolean containsIgnoreCase(List<String> list, String str) {
+        for (String item : list) {
+            if (item.equalsIgnoreCase(str)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Headers and entity of response before response filters. */
+    private final class Snapshot implements ContainerResponse.EntityCopier {
+        final Object       entity;
+        final String       key;
+        final String[]     vary;
+        final List<String> varyValues;
+        final List<String> headers;
+        final String       entityTag;
+        final long         created;
+        final long         expires;
+
+        Snapshot(Object entity, String key, String[] vary, List<String> varyValues, List<String> headers, String entityTag,
+                 long created, long expires) {
+            this.entity = entity;
+            this.key = key;
+            this.vary = vary;
+            this.varyValues = varyValues;
+            this.headers = headers;
+            this.entityTag = entityTag;
+            this.created = created;
+            this.expires = expires;
+        }
+
+        private boolean hasHeader(List<String> headers, String name) {
+            for (int i = 0; i < headers.size(); i += 2) {
+                if (headers.get(i).equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public OutputStream createCopy(GenericContainerResponse response) {
+            if (response.getEntity() != entity || response.getStatus() != Response.Status.OK.getStatusCode()) {
+                // Response is replaced by response filter.
+                return null;
+            }
+            if (!hasHeader(headers, HttpHeaders.CONTENT_TYPE)) {
+                // Content type is selected when response is written if resource method does not set it.
+                final Object contentType = response.getHttpHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+                if (contentType != null) {
+                    headers.add(HttpHeaders.CONTENT_TYPE);
+                    headers.add(HeaderHelper.getHeaderAsString(contentType));
+                }
+            }
+            return new EntityCopy(key, vary, varyValues, headers.toArray(new String[headers.size()]), entityTag, created, expires);
+        }
+    }
+
+    /** Collects serialized entity of response and stores it in cache when entity is written successfully. */
+    private final class EntityCopy extends OutputStream {
+        final String       key;
+        final String[]     vary;
+        final List<String> varyValues;
+        final String[]     headers;
+        final String       entityTag;
+        final long         created;
+        final long         expires;
+        /** Copy of entity, <code>null</code> if entity is too big for caching. */
+        NoSyncByteArrayOutputStream entity = new NoSyncByteArrayOutputStream();
+
+        EntityCopy(String key, String[] vary, List<String> varyValues, String[] headers, String entityTag, long created,
+                   long expires) {
+            this.key = key;
+            this.vary = vary;
+            this.varyValues = varyValues;
+            this.headers = headers;
+            this.entityTag = entityTag;
+            this.created = created;
+            this.expires = expires;
+        }
+
+        @Override
+        public void write(int b) {
+            if (entity != null) {
+                if (entity.size() + 1 > maxEntrySize) {
+                    entity = null;
+                } else {
+                    entity.write(b);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (entity != null) {
+                if (entity.size() + len > maxEntrySize) {
+                    entity = null;
+                } else {
+                    entity.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (entity != null) {
+                put(key, vary, varyValues, new CacheEntry(headers, entity.toByteArray(), entityTag, created, expires));
+                entity = null;
+            }
+        }
+    }
+}
@@ -707,34 +707,9 @@ public final class ResponseImpl extends Response {
                 return this;
             }
 
-            boolean acceptMediaType = variants.get(0).getMediaType() != null;
-            boolean acceptLanguage = variants.get(0).getLanguage() != null;
-            boolean acceptEncoding = variants.get(0).getEncoding() != null;
-
-            for (Variant v : variants) {
-                acceptMediaType |= v.getMediaType() != null;
-                acceptLanguage |= v.getLanguage() != null;
-                acceptEncoding |= v.getEncoding() != null;
-            }
-
-            StringBuilder sb = new StringBuilder();
-            if (acceptMediaType) {
-                sb.append(HttpHeaders.ACCEPT);
-            }
-            if (acceptLanguage) {
-                if (sb.length() > 0) {
-                    sb.append(',');
-                }
-                sb.append(HttpHeaders.ACCEPT_LANGUAGE);
-            }
-            if (acceptEncoding) {
-                if (sb.length() > 0) {
-                    sb.append(',');
-                }
-                sb.append(HttpHeaders.ACCEPT_ENCODING);
-            }
-            if (sb.length() > 0) {
-                header(HttpHeaders.VARY, sb.toString());
+            String vary = VariantsHandler.getVary(variants);
+            if (vary != null) {
+                header(HttpHeaders.VARY, vary);
             }
             return this;
         }
@@ -11,6 +11,7 @@
 package org.everrest.core.impl;
 
 import org.everrest.core.header.QualityValue;
+import org.everrest.core.impl.header.AcceptHeadersCache;
 import org.everrest.core.impl.header.AcceptLanguage;
 import org.everrest.core.impl.header.AcceptMediaType;
 import org.everrest.core.impl.header.AcceptToken;
@@ -18,11 +19,16 @@ import org.everrest.core.impl.header.HeaderHelper;
 import org.everrest.core.impl.header.Language;
 import org.everrest.core.impl.header.Token;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Variant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
@@ -170,8 +176,82 @@ public final class VariantsHandler {
 
             };
 
+    /** Max number of cached variant lists. Cache is cleared when it reaches this size. */
+    private static final int MAX_CACHE_SIZE      = 256;
+    /** Max number of cached selections for one variant list. */
+    private static final int MAX_SELECTIONS_SIZE = 64;
+
+    /** Variant list and everything computed for it. */
+    private static final class VariantsEntry {
+        /** Copy of variant list. */
+        final List<Variant>                  variants;
+        /** Value of 'Vary' header for variant list, <code>null</code> if variants do not differ. */
+        final String                         vary;
+        /** Index of selected variant for combination of accept headers, -1 if there is no acceptable variant. */
+        final ConcurrentMap<AcceptKey, Integer> selections = new ConcurrentHashMap<>();
+
+        VariantsEntry(List<Variant> variants) {
+            this.variants = variants;
+            this.vary = createVary(variants);
+        }
+    }
+
+    /** Values of 'Accept', 'Accept-Language', 'Accept-Charset' and 'Accept-Encoding' headers. */
+    private static final class AcceptKey {
+        final String mediaType;
+        final String language;
+        final String charset;
+        final String encoding;
+        final int    hash;
+
+        AcceptKey(String mediaType, String language, String charset, String encoding) {
+            this.mediaType = mediaType;
+            this.language = language;
+            this.charset = charset;
+            this.encoding = encoding;
+            this.hash = Objects.hash(mediaType, language, charset, encoding);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AcceptKey)) {
+                return false;
+            }
+            AcceptKey other = (AcceptKey)o;
+            return hash == other.hash
+                   && Objects.equals(mediaType, other.mediaType)
+                   && Objects.equals(language, other.language)
+                   && Objects.equals(charset, other.charset)
+                   && Objects.equals(encoding, other.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final ConcurrentMap<List<Variant>, VariantsEntry> CACHE = new ConcurrentHashMap<>();
+
+    /** Entry for the last used variant list. Most resources return constant list, it lets skip hash lookup for it. */
+    private static volatile LastUsed lastUsed = new LastUsed(null, null);
+
+    private static final class LastUsed {
+        final List<Variant> source;
+        final VariantsEntry entry;
+
+        LastUsed(List<Variant> source, VariantsEntry entry) {
+            this.source = source;
+            this.entry = entry;
+        }
+    }
+
     /**
-     * Looking for most acceptable variant for given request.
+     * Looking for most acceptable variant for given request. Result is cached for each combination of variant list and
+     * accept headers.
      *
      * @param r
      *         see {@link ContainerRequest}
@@ -180,28 +260,102 @@ public final class VariantsHandler {
      * @return variant or null
      */
     public static Variant handleVariants(ContainerRequest r, List<Variant> variants) {
-        // create quality sorted list of acceptable media types
-        List<AcceptMediaType> m =
-                HeaderHelper.createAcceptedMediaTypeList(HeaderHelper.convertToString(r
-                                                                                              .getRequestHeader(ContainerRequest.ACCEPT)));
-
-        // create quality sorted list of accept encoding
-        List<AcceptLanguage> l =
-                HeaderHelper.createAcceptedLanguageList(HeaderHelper.convertToString(r
-                                                                                             .getRequestHeader(
-                                                                                                     ContainerRequest.ACCEPT_LANGUAGE)));
-
-        // create quality sorted list of accept encoding
-        List<AcceptToken> c =
-                HeaderHelper.createAcceptedCharsetList(HeaderHelper.convertToString(r
-                                                                                            .getRequestHeader(
-                                                                                                    ContainerRequest.ACCEPT_CHARSET)));
-
-        // create quality sorted list of accept encoding
-        List<AcceptToken> e =
-                HeaderHelper.createAcceptedEncodingList(HeaderHelper.convertToString(r
-                                                                                             .getRequestHeader(
-                                                                                                     ContainerRequest.ACCEPT_ENCODING)));
+        AcceptKey key = new AcceptKey(HeaderHelper.convertToString(r.getRequestHeader(ContainerRequest.ACCEPT)),
+                                      HeaderHelper.convertToString(r.getRequestHeader(ContainerRequest.ACCEPT_LANGUAGE)),
+                                      HeaderHelper.convertToString(r.getRequestHeader(ContainerRequest.ACCEPT_CHARSET)),
+                                      HeaderHelper.convertToString(r.getRequestHeader(ContainerRequest.ACCEPT_ENCODING)));
+        VariantsEntry entry = getEntry(variants);
+        Integer index = entry.selections.get(key);
+        if (index == null) {
+            Variant selected = selectVariant(key, entry.variants);
+            index = selected == null ? -1 : indexOf(entry.variants, selected);
+            if (entry.selections.size() >= MAX_SELECTIONS_SIZE) {
+                entry.selections.clear();
+            }
+            entry.selections.put(key, index);
+        }
+        return index < 0 ? null : variants.get(index);
+    }
+
+    /**
+     * Get value of 'Vary' header for variant list. Value is computed once for each variant list.
+     *
+     * @param variants
+     *         variants
+     * @return value of 'Vary' header or <code>null</code> if variants do not differ by any of media type, language or
+     * encoding
+     */
+    public static String getVary(List<Variant> variants) {
+        return getEntry(variants).vary;
+    }
+
+    private static VariantsEntry getEntry(List<Variant> variants) {
+        LastUsed last = lastUsed;
+        // Comparison of variants does not create any objects but calculation of hash code does.
+        if (last.source == variants && last.entry.variants.equals(variants)) {
+            return last.entry;
+        }
+        VariantsEntry entry = CACHE.get(variants);
+        if (entry == null) {
+            List<Variant> copy = Collections.unmodifiableList(new ArrayList<>(variants));
+            entry = new VariantsEntry(copy);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            VariantsEntry existed = CACHE.putIfAbsent(copy, entry);
+            if (existed != null) {
+                entry = existed;
+            }
+        }
+        lastUsed = new LastUsed(variants, entry);
+        return entry;
+    }
+
+    private static int indexOf(List<Variant> variants, Variant variant) {
+        for (int i = 0, size = variants.size(); i < size; i++) {
+            if (variants.get(i) == variant) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String createVary(List<Variant> variants) {
+        boolean acceptMediaType = false;
+        boolean acceptLanguage = false;
+        boolean acceptEncoding = false;
+
+        for (Variant v : variants) {
+            acceptMediaType |= v.getMediaType() != null;
+            acceptLanguage |= v.getLanguage() != null;
+            acceptEncoding |= v.getEncoding() != null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (acceptMediaType) {
+            sb.append(HttpHeaders.ACCEPT);
+        }
+        if (acceptLanguage) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(HttpHeaders.ACCEPT_LANGUAGE);
+        }
+        if (acceptEncoding) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    private static Variant selectVariant(AcceptKey key, List<Variant> variants) {
+        // quality sorted lists of acceptable media types, languages, charsets and encodings
+        List<AcceptMediaType> m = AcceptHeadersCache.getAcceptMediaTypes(key.mediaType);
+        List<AcceptLanguage> l = AcceptHeadersCache.getAcceptLanguages(key.language);
+        List<AcceptToken> c = AcceptHeadersCache.getAcceptCharsets(key.charset);
+        List<AcceptToken> e = AcceptHeadersCache.getAcceptEncodings(key.encoding);
 
         List<Variant> myVariants = new ArrayList<Variant>(variants);
 
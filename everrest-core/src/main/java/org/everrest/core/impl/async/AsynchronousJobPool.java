@@ -15,6 +15,7 @@ import org.everrest.core.GenericContainerRequest;
 import org.everrest.core.impl.ApplicationContextImpl;
 import org.everrest.core.impl.ContainerRequest;
 import org.everrest.core.impl.EverrestConfiguration;
+import org.everrest.core.impl.InputHeadersMap;
 import org.everrest.core.impl.InternalException;
 import org.everrest.core.resource.ResourceMethodDescriptor;
 import org.everrest.core.tools.EmptyInputStream;
@@ -173,13 +174,14 @@ public class AsynchronousJobPool implements ContextResolver<AsynchronousJobPool>
         GenericContainerRequest request = context.getContainerRequest();
 
         // Create copy of request. Need to keep 'Accept' headers to be able determine MessageBodyWriter which can be
-        // used to serialize result of method invocation. Do not copy entity stream. This stream is empty any way.
+        // used to serialize result of method invocation. Headers are copied since they may be read lazily from original request
+        // that is not available after the end of request. Do not copy entity stream. This stream is empty any way.
         ContainerRequest copyRequest = new ContainerRequest(
                 request.getMethod(),
                 request.getRequestUri(),
                 request.getBaseUri(),
                 new EmptyInputStream(),
-                request.getRequestHeaders(),
+                new InputHeadersMap(request.getRequestHeaders()),
                 context.getSecurityContext()
         );
         job.getContext().put("org.everrest.async.request", copyRequest);
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of parsed 'Accept', 'Accept-Language', 'Accept-Charset' and 'Accept-Encoding' headers. Usually number of distinct
+ * values of these headers is small, so raw header string is mapped to the immutable list of parsed tokens sorted by quality
+ * value and the same header is never parsed twice. Size of cache is bounded, cache of each header is cleared when it reaches
+ * its max size. Headers longer than {@link #MAX_HEADER_LENGTH} are parsed but never cached.
+ *
+ * @author andrew00x
+ * @see HeaderHelper#createAcceptedMediaTypeList(String)
+ * @see HeaderHelper#createAcceptedLanguageList(String)
+ * @see HeaderHelper#createAcceptedCharsetList(String)
+ * @see HeaderHelper#createAcceptedEncodingList(String)
+ */
+public final class AcceptHeadersCache {
+    /** Max number of cached values of each header. */
+    public static final int MAX_SIZE          = 256;
+    /** Max length of header that may be cached. */
+    public static final int MAX_HEADER_LENGTH = 1024;
+
+    private static final AtomicLong hits   = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private static final HeaderCache<List<AcceptMediaType>> MEDIA_TYPES = new HeaderCache<List<AcceptMediaType>>() {
+        @Override
+        List<AcceptMediaType> parse(String header) {
+            return Collections.unmodifiableList(HeaderHelper.createAcceptedMediaTypeList(header));
+        }
+    };
+
+    private static final HeaderCache<List<AcceptLanguage>> LANGUAGES = new HeaderCache<List<AcceptLanguage>>() {
+        @Override
+        List<AcceptLanguage> parse(String header) {
+            return Collections.unmodifiableList(HeaderHelper.createAcceptedLanguageList(header));
+        }
+    };
+
+    private static final HeaderCache<List<Locale>> LOCALES = new HeaderCache<List<Locale>>() {
+        @Override
+        List<Locale> parse(String header) {
+            List<AcceptLanguage> languages = getAcceptLanguages(header);
+            List<Locale> locales = new ArrayList<>(languages.size());
+            for (AcceptLanguage language : languages) {
+                locales.add(language.getLocale());
+            }
+            return Collections.unmodifiableList(locales);
+        }
+    };
+
+    private static final HeaderCache<List<AcceptToken>> CHARSETS = new HeaderCache<List<AcceptToken>>() {
+        @Override
+        List<AcceptToken> parse(String header) {
+            return Collections.unmodifiableList(HeaderHelper.createAcceptedCharsetList(header));
+        }
+    };
+
+    private static final HeaderCache<List<AcceptToken>> ENCODINGS = new HeaderCache<List<AcceptToken>>() {
+        @Override
+        List<AcceptToken> parse(String header) {
+            return Collections.unmodifiableList(HeaderHelper.createAcceptedEncodingList(header));
+        }
+    };
+
+    private AcceptHeadersCache() {
+    }
+
+    /**
+     * Get unmodifiable list of media types sorted by quality value.
+     *
+     * @param header
+     *         value of 'Accept' header, may be <code>null</code>
+     * @return list of accepted media types
+     * @throws IllegalArgumentException
+     *         if header can't be parsed
+     */
+    public static List<AcceptMediaType> getAcceptMediaTypes(String header) {
+        return MEDIA_TYPES.get(header);
+    }
+
+    /**
+     * Get unmodifiable list of languages sorted by quality value.
+     *
+     * @param header
+     *         value of 'Accept-Language' header, may be <code>null</code>
+     * @return list of accepted languages
+     * @throws IllegalArgumentException
+     *         if header can't be parsed
+     */
+    public static List<AcceptLanguage> getAcceptLanguages(String header) {
+        return LANGUAGES.get(header);
+    }
+
+    /**
+     * Get unmodifiable list of locales sorted by quality value.
+     *
+     * @param header
+     *         value of 'Accept-Language' header, may be <code>null</code>
+     * @return list of accepted locales
+     * @throws IllegalArgumentException
+     *         if header can't be parsed
+     * @see #getAcceptLanguages(String)
+     */
+    public static List<Locale> getAcceptLocales(String header) {
+        return LOCALES.get(header);
+    }
+
+    /**
+     * Get unmodifiable list of charsets sorted by quality value.
+     *
+     * @param header
+     *         value of 'Accept-Charset' header, may be <code>null</code>
+     * @return list of accepted charsets
+     * @throws IllegalArgumentException
+     *         if header can't be parsed
+     */
+    public static List<AcceptToken> getAcceptCharsets(String header) {
+        return CHARSETS.get(header);
+    }
+
+    /**
+     * Get unmodifiable list of encodings sorted by quality value.
+     *
+     * @param header
+     *         value of 'Accept-Encoding' header, may be <code>null</code>
+     * @return list of accepted encodings
+     * @throws IllegalArgumentException
+     *         if header can't be parsed
+     */
+    public static List<AcceptToken> getAcceptEncodings(String header) {
+        return ENCODINGS.get(header);
+    }
+
+    /** @return number of requests for parsed header that were served from cache */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /** @return number of requests for parsed header that caused parsing of header */
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    /** @return ratio of cache hits to all requests or <code>1.0</code> if there were no requests yet */
+    public static double getHitRatio() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 1.0 : (double)h / total;
+    }
+
+    /** Remove all cached headers and reset statistics. */
+    public static void clear() {
+        MEDIA_TYPES.cache.clear();
+        LANGUAGES.cache.clear();
+        LOCALES.cache.clear();
+        CHARSETS.cache.clear();
+        ENCODINGS.cache.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private abstract static class HeaderCache<T> {
+        final ConcurrentMap<String, T> cache = new ConcurrentHashMap<>();
+        /** Result for absent header. It never changes, so create it once. */
+        T absent;
+
+        abstract T parse(String header);
+
+        T get(String header) {
+            if (header == null) {
+                T result = absent;
+                if (result == null) {
+                    absent = result = parse(null);
+                }
+                return result;
+            }
+            T result = cache.get(header);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+            misses.incrementAndGet();
+            result = parse(header);
+            if (header.length() <= MAX_HEADER_LENGTH) {
+                if (cache.size() >= MAX_SIZE) {
+                    cache.clear();
+                }
+                cache.putIfAbsent(header, result);
+            }
+            return result;
+        }
+    }
+}
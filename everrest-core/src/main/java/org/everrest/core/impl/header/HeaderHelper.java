@@ -19,18 +19,14 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.ext.RuntimeDelegate;
 import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.TimeZone;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -340,46 +336,6 @@ public final class HeaderHelper {
 
     // Date
 
-    // HTTP applications have historically allowed three different formats
-    // for the representation of date/time stamps
-    // For example :
-    // Sun, 06 Nov 1994 08:49:37 GMT  ; RFC 822, updated by RFC 1123
-    // Sunday, 06-Nov-94 08:49:37 GMT ; RFC 850, obsoleted by RFC 1036
-    // Sun Nov 6 08:49:37 1994        ; ANSI C's asctime() format
-
-    private static class DateFormats {
-        /** RFC 822, updated by RFC 1123. */
-        static final String RFC_1123_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
-
-        /** RFC 850, obsoleted by RFC 1036. */
-        static final String RFC_1036_DATE_FORMAT = "EEEE, dd-MMM-yy HH:mm:ss zzz";
-
-        /** ANSI C's asctime() format. */
-        static final String ANSI_C_DATE_FORMAT = "EEE MMM d HH:mm:ss yyyy";
-
-        /**
-         * SimpleDateFormat java docs says:
-         * <p>
-         * Date formats are not synchronized. It is recommended to create separate format instances for each thread. If
-         * multiple threads access a format concurrently, it must be synchronized externally.
-         * </p>
-         * Formats from this not used directly create instead.
-         */
-        static final SimpleDateFormat[] formats = createFormats();
-
-        private static SimpleDateFormat[] createFormats() {
-            SimpleDateFormat[] tmp = new SimpleDateFormat[3];
-            tmp[0] = new SimpleDateFormat(RFC_1123_DATE_FORMAT, Locale.US);
-            tmp[1] = new SimpleDateFormat(RFC_1036_DATE_FORMAT, Locale.US);
-            tmp[2] = new SimpleDateFormat(ANSI_C_DATE_FORMAT, Locale.US);
-            TimeZone tz = TimeZone.getTimeZone("GMT");
-            tmp[0].setTimeZone(tz);
-            tmp[1].setTimeZone(tz);
-            tmp[2].setTimeZone(tz);
-            return tmp;
-        }
-    }
-
     /**
      * Parse date header. Will try to found appropriated format for given date header. Format can be one of see
      * {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.3.1" >HTTP/1.1 documentation</a>} .
@@ -387,17 +343,10 @@ public final class HeaderHelper {
      * @param header
      *         source date header
      * @return parsed Date
+     * @see HttpDateFormat#parse(String)
      */
     public static Date parseDateHeader(String header) {
-        for (SimpleDateFormat format : DateFormats.formats) {
-            try {
-                return ((SimpleDateFormat)format.clone()).parse(header);
-            } catch (ParseException e) {
-                // ignore all ParseException now
-            }
-        }
-        // no one format was found
-        throw new IllegalArgumentException("Not found appropriated date format for " + header);
+        return new Date(HttpDateFormat.parse(header));
     }
 
     /**
@@ -408,7 +357,7 @@ public final class HeaderHelper {
      * @return string in RFC 1123 format
      */
     public static String formatDate(Date date) {
-        return ((DateFormat)DateFormats.formats[0].clone()).format(date);
+        return HttpDateFormat.format(date);
     }
 
     //
@@ -433,6 +382,12 @@ public final class HeaderHelper {
      */
     @SuppressWarnings({"unchecked"})
     public static String getHeaderAsString(Object o) {
+        if (o instanceof String) {
+            return (String)o;
+        }
+        if (HeaderValueCache.isCacheable(o)) {
+            return HeaderValueCache.toString(o);
+        }
         HeaderDelegate hd = RuntimeDelegate.getInstance().createHeaderDelegate(o.getClass());
         if (hd != null) {
             return hd.toString(o);
@@ -456,6 +411,9 @@ public final class HeaderHelper {
         if (collection.size() == 0) {
             return "";
         }
+        if (collection.size() == 1) {
+            return collection.iterator().next();
+        }
 
         StringBuilder sb = new StringBuilder();
         for (String t : collection) {
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.RuntimeDelegate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cache of string representation of header values. Responses of the same resource method usually have the same
+ * 'Content-Type', 'Cache-Control' and 'ETag' headers, so string representation of {@link MediaType}, {@link CacheControl}
+ * and {@link EntityTag} is created once. Only instances of these exact classes are cached, subclasses may be serialized in
+ * different way. {@link CacheControl} is mutable, so copy of it is used as key in cache. {@link MediaType#equals(Object)}
+ * ignores case of type, subtype and names of parameters, so media types are cached by exact (case-sensitive) values of these
+ * parts and string representation keeps case of value passed by application.
+ * <p/>
+ * {@link MediaType} is immutable and the same instances, e.g. media types produced by resource method, are used for many
+ * responses. Such instances are found by identity in small table before looking up by value, so frequent lookups do not
+ * create key and do not copy parameters of media type.
+ * <p/>
+ * Size of cache is bounded, cache is cleared when it reaches {@link #MAX_SIZE}.
+ *
+ * @author andrew00x
+ * @see HeaderHelper#getHeaderAsString(Object)
+ */
+public final class HeaderValueCache {
+    /** Max number of cached header values. */
+    public static final int MAX_SIZE = 512;
+
+    /** Size of table of media types found by identity, must be power of two. */
+    static final int IDENTITY_TABLE_SIZE = 256;
+
+    private static final ConcurrentMap<Object, String>        CACHE          = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<IdentityEntry> IDENTITY_TABLE = new AtomicReferenceArray<>(IDENTITY_TABLE_SIZE);
+
+    private HeaderValueCache() {
+    }
+
+    /**
+     * Check can string representation of header value be cached.
+     *
+     * @param value
+     *         header value
+     * @return <code>true</code> if string representation of header value may be cached
+     */
+    public static boolean isCacheable(Object value) {
+        final Class<?> type = value.getClass();
+        return type == MediaType.class || type == EntityTag.class || type == CacheControl.class;
+    }
+
+    /**
+     * Get string representation of header value, see {@link #isCacheable(Object)}.
+     *
+     * @param value
+     *         header value
+     * @return string representation of header value
+     * @throws IllegalArgumentException
+     *         if string representation of header value may not be cached
+     */
+    public static String toString(Object value) {
+        if (!isCacheable(value)) {
+            throw new IllegalArgumentException("Not cacheable header value " + value.getClass().getName());
+        }
+        if (value instanceof MediaType) {
+            return toString((MediaType)value);
+        }
+        return toString(value, value);
+    }
+
+    private static String toString(MediaType mediaType) {
+        final int index = System.identityHashCode(mediaType) & (IDENTITY_TABLE_SIZE - 1);
+        final IdentityEntry entry = IDENTITY_TABLE.get(index);
+        if (entry != null && entry.mediaType == mediaType) {
+            return entry.str;
+        }
+        final String str = toString(new MediaTypeKey(mediaType), mediaType);
+        IDENTITY_TABLE.set(index, new IdentityEntry(mediaType, str));
+        return str;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static String toString(Object key, Object value) {
+        String str = CACHE.get(key);
+        if (str == null) {
+            RuntimeDelegate.HeaderDelegate delegate = RuntimeDelegate.getInstance().createHeaderDelegate(value.getClass());
+            str = delegate.toString(value);
+            if (CACHE.size() >= MAX_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.putIfAbsent(value instanceof CacheControl ? copy((CacheControl)value) : key, str);
+        }
+        return str;
+    }
+
+    private static CacheControl copy(CacheControl cacheControl) {
+        CacheControl copy = new CacheControl();
+        copy.setPrivate(cacheControl.isPrivate());
+        copy.getPrivateFields().addAll(cacheControl.getPrivateFields());
+        copy.setNoCache(cacheControl.isNoCache());
+        copy.getNoCacheFields().addAll(cacheControl.getNoCacheFields());
+        copy.setNoStore(cacheControl.isNoStore());
+        copy.setNoTransform(cacheControl.isNoTransform());
+        copy.setMustRevalidate(cacheControl.isMustRevalidate());
+        copy.setProxyRevalidate(cacheControl.isProxyRevalidate());
+        copy.setMaxAge(cacheControl.getMaxAge());
+        copy.setSMaxAge(cacheControl.getSMaxAge());
+        copy.getCacheExtension().putAll(cacheControl.getCacheExtension());
+        return copy;
+    }
+
+    /** Media type together with its string representation. */
+    private static final class IdentityEntry {
+        final MediaType mediaType;
+        final String    str;
+
+        IdentityEntry(MediaType mediaType, String str) {
+            this.mediaType = mediaType;
+            this.str = str;
+        }
+    }
+
+    /** Case-sensitive key of {@link MediaType}. */
+    private static final class MediaTypeKey {
+        final String              type;
+        final String              subtype;
+        final Map<String, String> parameters;
+
+        MediaTypeKey(MediaType mediaType) {
+            type = mediaType.getType();
+            subtype = mediaType.getSubtype();
+            parameters = mediaType.getParameters().isEmpty() ? Collections.<String, String>emptyMap()
+                                                             : new HashMap<>(mediaType.getParameters());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MediaTypeKey)) {
+                return false;
+            }
+            MediaTypeKey other = (MediaTypeKey)o;
+            return type.equals(other.type) && subtype.equals(other.subtype) && parameters.equals(other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type.hashCode();
+            hash = hash * 31 + subtype.hashCode();
+            return hash * 31 + parameters.hashCode();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Parser and formatter of HTTP dates. HTTP applications have historically allowed three different formats for the
+ * representation of date/time stamps:
+ * <pre>
+ * Sun, 06 Nov 1994 08:49:37 GMT  ; RFC 822, updated by RFC 1123
+ * Sunday, 06-Nov-94 08:49:37 GMT ; RFC 850, obsoleted by RFC 1036
+ * Sun Nov  6 08:49:37 1994       ; ANSI C's asctime() format
+ * </pre>
+ * All of them are recognized in one pass over the date string. Dates are always formatted in RFC 1123 format. All methods
+ * are thread-safe and do not lock. Result of the last parsing and formatting is remembered, so repeated conditional
+ * headers and dates within the same second are not processed again.
+ *
+ * @author andrew00x
+ */
+public final class HttpDateFormat {
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
+    /** SimpleDateFormat and Calendar are not thread-safe, keep one instance per thread. */
+    private static final ThreadLocal<SimpleDateFormat> RFC_1123 = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+            format.setTimeZone(GMT);
+            return format;
+        }
+    };
+
+    private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            Calendar calendar = new GregorianCalendar(GMT, Locale.US);
+            calendar.setLenient(false);
+            return calendar;
+        }
+    };
+
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+
+    /** Immutable pair of time in milliseconds and string representation of it. */
+    private static final class Entry {
+        final long   time;
+        final String text;
+
+        Entry(long time, String text) {
+            this.time = time;
+            this.text = text;
+        }
+    }
+
+    /** Last formatted second. */
+    private static volatile Entry formatted = new Entry(Long.MIN_VALUE, null);
+    /** Last parsed date string. */
+    private static volatile Entry parsed    = new Entry(0, null);
+
+    private HttpDateFormat() {
+    }
+
+    /**
+     * Format time in RFC 1123 format. Milliseconds are truncated.
+     *
+     * @param time
+     *         time in milliseconds since the epoch
+     * @return string in RFC 1123 format
+     */
+    public static String format(long time) {
+        final long second = time >= 0 ? time / 1000L : (time - 999L) / 1000L;
+        Entry entry = formatted;
+        if (entry.time == second) {
+            return entry.text;
+        }
+        String text = RFC_1123.get().format(new Date(second * 1000L));
+        if (second > entry.time) {
+            // Remember only moving forward second, most likely it is current time.
+            formatted = new Entry(second, text);
+        }
+        return text;
+    }
+
+    /**
+     * Format date in RFC 1123 format.
+     *
+     * @param date
+     *         date
+     * @return string in RFC 1123 format
+     */
+    public static String format(Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Parse date in one of HTTP date formats.
+     *
+     * @param header
+     *         source date string
+     * @return time in milliseconds since the epoch
+     * @throws IllegalArgumentException
+     *         if date string is not in any of HTTP date formats
+     */
+    public static long parse(String header) {
+        Entry entry = parsed;
+        if (header.equals(entry.text)) {
+            return entry.time;
+        }
+        long time;
+        try {
+            time = new Parser(header).parse();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Not found appropriated date format for " + header);
+        }
+        parsed = new Entry(time, header);
+        return time;
+    }
+
+    private static final class Parser {
+        final String s;
+        int pos;
+
+        Parser(String s) {
+            this.s = s.trim();
+        }
+
+        long parse() {
+            // Day of week is not used, just skip it.
+            skipLetters();
+            final int day;
+            final int month;
+            final int year;
+            final int hour;
+            final int minute;
+            final int second;
+            final String zone;
+            if (s.charAt(pos) == ',') {
+                // RFC 1123 or RFC 1036
+                pos++;
+                skipSpaces();
+                day = number(1, 2);
+                char separator = s.charAt(pos);
+                if (separator != ' ' && separator != '-') {
+                    throw error();
+                }
+                pos++;
+                month = month();
+                expect(separator);
+                int start = pos;
+                int y = number(2, 4);
+                year = pos - start == 2 ? twoDigitYear(y) : y;
+                skipSpaces();
+                hour = number(1, 2);
+                expect(':');
+                minute = number(1, 2);
+                expect(':');
+                second = number(1, 2);
+                skipSpaces();
+                zone = s.substring(pos);
+            } else {
+                // asctime
+                skipSpaces();
+                month = month();
+                skipSpaces();
+                day = number(1, 2);
+                skipSpaces();
+                hour = number(1, 2);
+                expect(':');
+                minute = number(1, 2);
+                expect(':');
+                second = number(1, 2);
+                skipSpaces();
+                year = number(4, 4);
+                skipSpaces();
+                zone = s.substring(pos);
+            }
+            // Calendar is not lenient, so it throws IllegalArgumentException if any field is out of range.
+            final Calendar calendar = CALENDAR.get();
+            calendar.clear();
+            calendar.setTimeZone(timeZone(zone));
+            calendar.set(year, month - 1, day, hour, minute, second);
+            return calendar.getTimeInMillis();
+        }
+
+        private TimeZone timeZone(String zone) {
+            if (zone.isEmpty() || "GMT".equalsIgnoreCase(zone) || "UTC".equalsIgnoreCase(zone)
+                || "UT".equalsIgnoreCase(zone) || "Z".equalsIgnoreCase(zone)) {
+                return GMT;
+            }
+            char c = zone.charAt(0);
+            if ((c == '+' || c == '-') && zone.length() == 5) {
+                for (int i = 1; i < 5; i++) {
+                    if (zone.charAt(i) < '0' || zone.charAt(i) > '9') {
+                        throw error();
+                    }
+                }
+                return TimeZone.getTimeZone("GMT" + zone.substring(0, 3) + ':' + zone.substring(3));
+            }
+            // TimeZone falls back to GMT for unknown identifiers, do not accept it silently.
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            if ("GMT".equals(timeZone.getID())) {
+                timeZone = TimeZone.getTimeZone(zone.toUpperCase(Locale.US));
+                if ("GMT".equals(timeZone.getID())) {
+                    throw error();
+                }
+            }
+            return timeZone;
+        }
+
+        private int twoDigitYear(int year) {
+            // The same as java.text.SimpleDateFormat does: within 80 years before and 20 years after current time.
+            final int base = Calendar.getInstance(GMT, Locale.US).get(Calendar.YEAR) - 80;
+            int result = base / 100 * 100 + year;
+            if (result < base) {
+                result += 100;
+            }
+            return result;
+        }
+
+        private int month() {
+            final int start = pos;
+            skipLetters();
+            if (pos - start < 3) {
+                throw error();
+            }
+            for (int i = 0; i < MONTHS.length; i++) {
+                if (s.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                    return i + 1;
+                }
+            }
+            throw error();
+        }
+
+        private int number(int minDigits, int maxDigits) {
+            final int start = pos;
+            int result = 0;
+            while (pos < s.length() && pos - start < maxDigits) {
+                char c = s.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                result = result * 10 + (c - '0');
+                pos++;
+            }
+            if (pos - start < minDigits) {
+                throw error();
+            }
+            return result;
+        }
+
+        private void expect(char c) {
+            if (s.charAt(pos) != c) {
+                throw error();
+            }
+            pos++;
+        }
+
+        private void skipLetters() {
+            while (pos < s.length() && Character.isLetter(s.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < s.length() && s.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Unexpected character at index " + pos);
+        }
+    }
+}
@@ -70,10 +70,23 @@ public final class MediaTypeHelper {
      * {@link MessageBodyWriter} or {@link ContextResolver}. It provider set of media types in descending ordering.
      */
     public static final class MediaTypeRange implements java.util.Iterator<MediaType> {
-        private MediaType next;
+        private MediaType   next;
+        /** Precomputed range of registered media type. */
+        private MediaType[] range;
+        private int         index;
 
         public MediaTypeRange(MediaType type) {
+            this(type, true);
+        }
+
+        MediaTypeRange(MediaType type, boolean useRegistry) {
             next = (type == null) ? MediaTypeHelper.DEFAULT_TYPE : type;
+            if (useRegistry) {
+                MediaTypeRegistry.Entry entry = MediaTypeRegistry.get(next);
+                if (entry != null) {
+                    range = entry.range;
+                }
+            }
         }
 
         @Override
@@ -87,7 +100,11 @@ public final class MediaTypeHelper {
                 throw new NoSuchElementException();
             }
             MediaType type = next;
-            fetchNext();
+            if (range != null) {
+                next = index < range.length ? range[index++] : null;
+            } else {
+                fetchNext();
+            }
             return type;
         }
 
@@ -145,55 +162,54 @@ public final class MediaTypeHelper {
     public static final Comparator<MediaType> MEDIA_TYPE_COMPARATOR = new Comparator<MediaType>() {
         @Override
         public int compare(MediaType mediaType1, MediaType mediaType2) {
-            String type1 = mediaType1.getType();
-            String subType1 = mediaType1.getSubtype();
-            String type2 = mediaType2.getType();
-            String subType2 = mediaType2.getSubtype();
-
-            if (type1.equals(MediaType.MEDIA_TYPE_WILDCARD) && !type2.equals(MediaType.MEDIA_TYPE_WILDCARD)) {
-                return 1;
-            }
-            if (!type1.equals(MediaType.MEDIA_TYPE_WILDCARD) && type2.equals(MediaType.MEDIA_TYPE_WILDCARD)) {
-                return -1;
-            }
-            if (subType1.equals(MediaType.MEDIA_TYPE_WILDCARD) && !subType2.equals(MediaType.MEDIA_TYPE_WILDCARD)) {
-                return 1;
-            }
-            if (!subType1.equals(MediaType.MEDIA_TYPE_WILDCARD) && subType2.equals(MediaType.MEDIA_TYPE_WILDCARD)) {
-                return -1;
-            }
-
-            Matcher extmatcher1 = EXT_SUBTYPE_PATTERN.matcher(subType1);
-            Matcher extmatcher2 = EXT_SUBTYPE_PATTERN.matcher(subType2);
-            if (extmatcher1.matches() && !extmatcher2.matches()) {
-                return 1;
-            }
-            if (!extmatcher1.matches() && extmatcher2.matches()) {
-                return -1;
-            }
+            return Integer.compare(specificity(mediaType1.getType(), mediaType1.getSubtype()),
+                                   specificity(mediaType2.getType(), mediaType2.getSubtype()));
+        }
 
-            extmatcher1 = EXT_PREFIX_SUBTYPE_PATTERN.matcher(subType1);
-            extmatcher2 = EXT_PREFIX_SUBTYPE_PATTERN.matcher(subType2);
-            if (extmatcher1.matches() && !extmatcher2.matches()) {
-                return 1;
-            }
-            if (!extmatcher1.matches() && extmatcher2.matches()) {
-                return -1;
-            }
+    };
 
-            extmatcher1 = EXT_SUFFIX_SUBTYPE_PATTERN.matcher(subType1);
-            extmatcher2 = EXT_SUFFIX_SUBTYPE_PATTERN.matcher(subType2);
-            if (extmatcher1.matches() && !extmatcher2.matches()) {
-                return 1;
+    /**
+     * Get specificity of media type. Less value means more specific media type. Media types are ordered by following rules,
+     * the first rule has the highest priority:
+     * <ul>
+     * <li>wildcard type, e.g. * / *</li>
+     * <li>wildcard sub-type, e.g. application/*</li>
+     * <li>extended sub-type, e.g. application/atom+xml</li>
+     * <li>extended sub-type with wildcard before '+', e.g. application/*+xml</li>
+     * <li>extended sub-type with wildcard after '+', e.g. application/atom+*</li>
+     * </ul>
+     *
+     * @param type
+     *         type
+     * @param subtype
+     *         sub-type
+     * @return specificity of media type
+     * @see #MEDIA_TYPE_COMPARATOR
+     */
+    static int specificity(String type, String subtype) {
+        int specificity = 0;
+        if (MediaType.MEDIA_TYPE_WILDCARD.equals(type)) {
+            specificity |= 16;
+        }
+        if (MediaType.MEDIA_TYPE_WILDCARD.equals(subtype)) {
+            specificity |= 8;
+        }
+        final int length = subtype.length();
+        final int plus = subtype.indexOf('+');
+        if (plus > 0 && plus < length - 1) {
+            // the same as EXT_SUBTYPE_PATTERN
+            specificity |= 4;
+            if (plus == 1 && subtype.charAt(0) == '*') {
+                // the same as EXT_PREFIX_SUBTYPE_PATTERN
+                specificity |= 2;
             }
-            if (!extmatcher1.matches() && extmatcher2.matches()) {
-                return -1;
+            if (plus == length - 2 && subtype.charAt(length - 1) == '*') {
+                // the same as EXT_SUFFIX_SUBTYPE_PATTERN
+                specificity |= 1;
             }
-
-            return 0;
         }
-
-    };
+        return specificity;
+    }
 
     /**
      * Create a list of media type for given Consumes annotation. If parameter mime is null then list with single
@@ -226,7 +242,14 @@ public final class MediaTypeHelper {
             return DEFAULT_TYPE_LIST;
         }
 
-        return createMediaTypesList(mime.value());
+        List<MediaType> produces = createMediaTypesList(mime.value());
+        // Produced media types are used as 'Content-Type' of response, prepare string representation of them.
+        for (MediaType mediaType : produces) {
+            if (!(mediaType.isWildcardType() || mediaType.isWildcardSubtype())) {
+                HeaderValueCache.toString(mediaType);
+            }
+        }
+        return produces;
     }
 
     /**
@@ -258,7 +281,9 @@ public final class MediaTypeHelper {
     private static List<MediaType> createMediaTypesList(String[] mimes) {
         List<MediaType> l = new ArrayList<MediaType>(mimes.length);
         for (String m : mimes) {
-            l.add(MediaType.valueOf(m));
+            MediaType mediaType = MediaType.valueOf(m);
+            MediaTypeRegistry.register(mediaType);
+            l.add(mediaType);
         }
 
         Collections.sort(l, MEDIA_TYPE_COMPARATOR);
@@ -313,7 +338,16 @@ public final class MediaTypeHelper {
         if (one == null || two == null) {
             throw new IllegalArgumentException("null");
         }
+        MediaTypeRegistry.Entry oneEntry = MediaTypeRegistry.get(one);
+        MediaTypeRegistry.Entry twoEntry = oneEntry == null ? null : MediaTypeRegistry.get(two);
+        if (twoEntry != null) {
+            return MediaTypeRegistry.isCompatible(oneEntry, twoEntry);
+        }
+        return computeCompatible(one, two);
+    }
 
+    /** Check types <code>one</code> and type <code>two</code> are compatible without {@link MediaTypeRegistry}. */
+    static boolean computeCompatible(MediaType one, MediaType two) {
         String oneType = one.getType();
         String twoType = two.getType();
         if (oneType.equals(MediaType.MEDIA_TYPE_WILDCARD) || twoType.equals(MediaType.MEDIA_TYPE_WILDCARD)) {
@@ -385,7 +419,16 @@ public final class MediaTypeHelper {
         if (pattern == null || checkMe == null) {
             throw new IllegalArgumentException("null");
         }
+        MediaTypeRegistry.Entry patternEntry = MediaTypeRegistry.get(pattern);
+        MediaTypeRegistry.Entry checkMeEntry = patternEntry == null ? null : MediaTypeRegistry.get(checkMe);
+        if (checkMeEntry != null) {
+            return MediaTypeRegistry.isMatched(patternEntry, checkMeEntry);
+        }
+        return computeMatched(pattern, checkMe);
+    }
 
+    /** Check is type <code>checkMe</code> matched to type <code>pattern</code> without {@link MediaTypeRegistry}. */
+    static boolean computeMatched(MediaType pattern, MediaType checkMe) {
         if (pattern.getType().equals(MediaType.MEDIA_TYPE_WILDCARD)) {
             return true;
         }
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of media types. Each media type (parameters are ignored) gets small integer id when it is registered first time. Only
+ * media types declared by resources and providers with annotations {@link javax.ws.rs.Produces} and {@link javax.ws.rs.Consumes}
+ * are registered.
+ * Range of media types for look up of providers (with decomposition of extended sub-types) is computed once. Compatibility
+ * and matching of registered media types are computed when media type is registered and kept in bitsets, so after that
+ * {@link MediaTypeHelper#isCompatible(MediaType, MediaType)} and {@link MediaTypeHelper#isMatched(MediaType, MediaType)} do
+ * not compare any strings.
+ * <p/>
+ * Number of registered media types is limited with {@link #MAX_SIZE}. Media types that are not registered, e.g. media types of
+ * requests that are not declared by any resource or provider, are processed as before with string comparison.
+ *
+ * @author andrew00x
+ */
+public final class MediaTypeRegistry {
+    /** Max number of registered media types. */
+    public static final int MAX_SIZE = 1024;
+
+    /** Registered media type. Instances are immutable. */
+    static final class Entry {
+        final int         id;
+        /** Media type without parameters. */
+        final MediaType   mediaType;
+        /** Media types to check after this one when look up provider, see {@link MediaTypeHelper.MediaTypeRange}. */
+        final MediaType[] range;
+        /** Ids of registered before media types that are compatible with this media type. */
+        final BitSet      compatible;
+        /** Ids of registered before media types that are matched to this media type as pattern. */
+        final BitSet      matches;
+        /** Ids of registered before media types that are patterns this media type is matched to. */
+        final BitSet      matchedBy;
+
+        Entry(int id, MediaType mediaType, List<Entry> registered) {
+            this.id = id;
+            this.mediaType = new MediaType(mediaType.getType(), mediaType.getSubtype());
+            range = createRange(mediaType);
+            compatible = new BitSet(id);
+            matches = new BitSet(id);
+            matchedBy = new BitSet(id);
+            for (Entry other : registered) {
+                MediaType otherType = other.mediaType;
+                if (MediaTypeHelper.computeCompatible(mediaType, otherType)) {
+                    compatible.set(other.id);
+                }
+                if (MediaTypeHelper.computeMatched(mediaType, otherType)) {
+                    matches.set(other.id);
+                }
+                if (MediaTypeHelper.computeMatched(otherType, mediaType)) {
+                    matchedBy.set(other.id);
+                }
+            }
+        }
+
+        private static MediaType[] createRange(MediaType mediaType) {
+            List<MediaType> range = new ArrayList<>(3);
+            MediaTypeHelper.MediaTypeRange iterator = new MediaTypeHelper.MediaTypeRange(mediaType, false);
+            // skip media type itself
+            iterator.next();
+            while (iterator.hasNext()) {
+                range.add(iterator.next());
+            }
+            return range.toArray(new MediaType[range.size()]);
+        }
+    }
+
+    /** Registered media types: type -> sub-type -> entry. Lookup does not create any objects. */
+    private static final ConcurrentMap<String, ConcurrentMap<String, Entry>> types   = new ConcurrentHashMap<>();
+    private static final List<Entry>                                         entries = new ArrayList<>();
+    /** Set when registry reaches its max size to avoid locking for media types that never be registered. */
+    private static volatile boolean full;
+
+    private MediaTypeRegistry() {
+    }
+
+    /**
+     * Register media type if it is not registered yet.
+     *
+     * @param mediaType
+     *         media type
+     * @return id of media type or -1 if registry is full
+     */
+    public static int register(MediaType mediaType) {
+        Entry entry = get(mediaType);
+        if (entry == null && !full) {
+            entry = doRegister(mediaType);
+        }
+        return entry == null ? -1 : entry.id;
+    }
+
+    /**
+     * Get registered media type. This method never registers media type, so media types that come from requests (e.g. headers
+     * 'Content-Type' and 'Accept') do not fill registry and do not cause locking.
+     *
+     * @param mediaType
+     *         media type
+     * @return registered media type or <code>null</code> if media type is not registered
+     */
+    static Entry get(MediaType mediaType) {
+        ConcurrentMap<String, Entry> subtypes = types.get(mediaType.getType());
+        return subtypes == null ? null : subtypes.get(mediaType.getSubtype());
+    }
+
+    private static synchronized Entry doRegister(MediaType mediaType) {
+        ConcurrentMap<String, Entry> subtypes = types.get(mediaType.getType());
+        if (subtypes == null) {
+            if (entries.size() >= MAX_SIZE) {
+                return null;
+            }
+            types.put(mediaType.getType(), subtypes = new ConcurrentHashMap<>());
+        }
+        Entry entry = subtypes.get(mediaType.getSubtype());
+        if (entry == null) {
+            if (entries.size() >= MAX_SIZE) {
+                return null;
+            }
+            entry = new Entry(entries.size(), mediaType, entries);
+            entries.add(entry);
+            subtypes.put(mediaType.getSubtype(), entry);
+            full = entries.size() >= MAX_SIZE;
+        }
+        return entry;
+    }
+
+    /** @return number of registered media types */
+    public static synchronized int size() {
+        return entries.size();
+    }
+
+    static boolean isCompatible(Entry one, Entry two) {
+        if (one == two) {
+            return true;
+        }
+        // Relation is kept by media type that is registered later.
+        return one.id > two.id ? one.compatible.get(two.id) : two.compatible.get(one.id);
+    }
+
+    static boolean isMatched(Entry pattern, Entry checkMe) {
+        if (pattern == checkMe) {
+            return true;
+        }
+        return pattern.id > checkMe.id ? pattern.matches.get(checkMe.id) : checkMe.matchedBy.get(pattern.id);
+    }
+}
@@ -12,6 +12,7 @@ package org.everrest.core.impl.method.filter;
 
 import org.everrest.core.Filter;
 import org.everrest.core.impl.ApplicationContextImpl;
+import org.everrest.core.impl.EverrestConfiguration;
 import org.everrest.core.method.MethodInvokerFilter;
 import org.everrest.core.resource.GenericMethodResource;
 
@@ -23,15 +24,57 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Contract of this class is constraint access to the resource method that use JSR-250 security common annotations. See also
  * https://jsr250.dev.java.net
+ * <p/>
+ * Security annotations of each resource method are analyzed once and result is kept as compiled rule. Optionally results of
+ * {@link SecurityContext#isUserInRole(String)} may be remembered for each user for short time, it is useful if checking of
+ * roles is expensive in container, e.g. requires LDAP lookup. User is identified by name of principal and authentication
+ * scheme. Changes of roles of user are visible after expiration of remembered result.
  *
  * @author andrew00x
  */
 @Filter
 public class SecurityConstraint implements MethodInvokerFilter {
+    /** Max number of compiled rules. Cache of rules is cleared when it reaches this size. */
+    public static final int MAX_RULES = 1024;
+
+    /** Max number of remembered results of role checks. Cache of results is cleared when it reaches this size. */
+    public static final int MAX_ROLE_DECISIONS = 1024;
+
+    private final long                                 roleCacheTimeout;
+    private final ConcurrentMap<RuleKey, Rule>         rules;
+    private final ConcurrentMap<RoleKey, RoleDecision> roleDecisions;
+
+    public SecurityConstraint() {
+        this(0);
+    }
+
+    /**
+     * @param config
+     *         configuration, see {@link EverrestConfiguration#EVERREST_ROLE_CACHE_TIMEOUT}
+     */
+    public SecurityConstraint(EverrestConfiguration config) {
+        this(config.getRoleCacheTimeout());
+    }
+
+    /**
+     * @param roleCacheTimeout
+     *         time in milliseconds during that result of {@link SecurityContext#isUserInRole(String)} is remembered for user.
+     *         If <code>0</code> or less then results are not remembered
+     */
+    public SecurityConstraint(long roleCacheTimeout) {
+        this.roleCacheTimeout = roleCacheTimeout;
+        rules = new ConcurrentHashMap<>();
+        roleDecisions = roleCacheTimeout > 0 ? new ConcurrentHashMap<RoleKey, RoleDecision>() : null;
+    }
+
     /**
      * Check does <tt>method</tt> contains one on of security annotations PermitAll, DenyAll, RolesAllowed.
      *
@@ -41,25 +84,152 @@ public class SecurityConstraint implements MethodInvokerFilter {
      */
     @Override
     public void accept(GenericMethodResource method, Object[] params) throws WebApplicationException {
-        for (Annotation a : method.getAnnotations()) {
-            Class<?> aClass = a.annotationType();
-            if (aClass == PermitAll.class) {
-                return;
-            } else if (aClass == DenyAll.class) {
-                throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN)
-                                                          .entity("User not authorized to call this method.").type(MediaType.TEXT_PLAIN)
-                                                          .build());
-            } else if (aClass == RolesAllowed.class) {
-                SecurityContext security = ApplicationContextImpl.getCurrent().getSecurityContext();
-                for (String role : ((RolesAllowed)a).value()) {
-                    if (security.isUserInRole(role)) {
-                        return;
-                    }
+        Rule rule = getRule(method);
+        if (rule == Rule.PERMIT_ALL) {
+            return;
+        }
+        if (rule != Rule.DENY_ALL) {
+            SecurityContext security = ApplicationContextImpl.getCurrent().getSecurityContext();
+            for (String role : rule.roles) {
+                if (isUserInRole(security, role)) {
+                    return;
                 }
-                throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN)
-                                                          .entity("User not authorized to call this method.").type(MediaType.TEXT_PLAIN)
-                                                          .build());
             }
         }
+        throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN)
+                                                  .entity("User not authorized to call this method.").type(MediaType.TEXT_PLAIN)
+                                                  .build());
+    }
+
+    private Rule getRule(GenericMethodResource method) {
+        if (method.getMethod() == null || method.getParentResource() == null) {
+            return Rule.compile(method.getAnnotations());
+        }
+        // Descriptors of sub-resources may be created for each request, so rule is bound to method and resource class.
+        RuleKey key = new RuleKey(method.getMethod(), method.getParentResource().getObjectClass());
+        Rule rule = rules.get(key);
+        if (rule == null) {
+            rule = Rule.compile(method.getAnnotations());
+            if (rules.size() >= MAX_RULES) {
+                rules.clear();
+            }
+            rules.putIfAbsent(key, rule);
+        }
+        return rule;
+    }
+
+    private boolean isUserInRole(SecurityContext security, String role) {
+        Principal principal;
+        if (roleDecisions == null || (principal = security.getUserPrincipal()) == null) {
+            return security.isUserInRole(role);
+        }
+        RoleKey key = new RoleKey(principal.getName(), security.getAuthenticationScheme(), role);
+        long now = System.currentTimeMillis();
+        RoleDecision decision = roleDecisions.get(key);
+        if (decision == null || decision.expires < now) {
+            decision = new RoleDecision(security.isUserInRole(role), now + roleCacheTimeout);
+            if (roleDecisions.size() >= MAX_ROLE_DECISIONS) {
+                roleDecisions.clear();
+            }
+            roleDecisions.put(key, decision);
+        }
+        return decision.inRole;
+    }
+
+    /** Compiled security annotations of resource method. */
+    static final class Rule {
+        static final Rule PERMIT_ALL = new Rule(null);
+        static final Rule DENY_ALL   = new Rule(null);
+
+        static Rule compile(Annotation[] annotations) {
+            for (Annotation a : annotations) {
+                Class<?> aClass = a.annotationType();
+                if (aClass == PermitAll.class) {
+                    return PERMIT_ALL;
+                } else if (aClass == DenyAll.class) {
+                    return DENY_ALL;
+                } else if (aClass == RolesAllowed.class) {
+                    return new Rule(((RolesAllowed)a).value());
+                }
+            }
+            return PERMIT_ALL;
+        }
+
+        final String[] roles;
+
+        private Rule(String[] roles) {
+            this.roles = roles;
+        }
+    }
+
+    private static final class RuleKey {
+        final Method   method;
+        final Class<?> resourceClass;
+
+        RuleKey(Method method, Class<?> resourceClass) {
+            this.method = method;
+            this.resourceClass = resourceClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RuleKey)) {
+                return false;
+            }
+            RuleKey other = (RuleKey)o;
+            return method.equals(other.method) && resourceClass == other.resourceClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() * 31 + resourceClass.hashCode();
+        }
+    }
+
+    private static final class RoleKey {
+        final String name;
+        final String authenticationScheme;
+        final String role;
+
+        RoleKey(String name, String authenticationScheme, String role) {
+            this.name = name;
+            this.authenticationScheme = authenticationScheme;
+            this.role = role;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RoleKey)) {
+                return false;
+            }
+            RoleKey other = (RoleKey)o;
+            return (name == null ? other.name == null : name.equals(other.name))
+                   && (authenticationScheme == null ? other.authenticationScheme == null
+                                                    : authenticationScheme.equals(other.authenticationScheme))
+                   && role.equals(other.role);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = name == null ? 0 : name.hashCode();
+            hash = hash * 31 + (authenticationScheme == null ? 0 : authenticationScheme.hashCode());
+            return hash * 31 + role.hashCode();
+        }
+    }
+
+    private static final class RoleDecision {
+        final boolean inRole;
+        final long    expires;
+
+        RoleDecision(boolean inRole, long expires) {
+            this.inRole = inRole;
+            this.expires = expires;
+        }
     }
 }
@@ -21,14 +21,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -62,9 +56,7 @@ public class DOMSourceEntityProvider implements EntityProvider<DOMSource> {
                               MultivaluedMap<String, String> httpHeaders,
                               InputStream entityStream) throws IOException {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            Document d = factory.newDocumentBuilder().parse(entityStream);
+            Document d = XMLHelper.parse(entityStream);
             return new DOMSource(d);
         } catch (SAXParseException saxpe) {
             // if can't read from stream (e.g. steam is empty)
@@ -100,15 +92,6 @@ public class DOMSourceEntityProvider implements EntityProvider<DOMSource> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException {
-        StreamResult out = new StreamResult(entityStream);
-        try {
-            TransformerFactory.newInstance().newTransformer().transform(t, out);
-        } catch (TransformerConfigurationException e) {
-            throw new IOException("Can't write to output stream " + e);
-        } catch (TransformerException e) {
-            throw new IOException("Can't write to output stream " + e);
-        } catch (TransformerFactoryConfigurationError e) {
-            throw new IOException("Can't write to output stream " + e);
-        }
+        XMLHelper.write(t, entityStream);
     }
 }
@@ -16,11 +16,23 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Provide cache for {@link JAXBContext}.
+ * Provide cache for {@link JAXBContext}. Since {@link Marshaller} and {@link Unmarshaller} are not thread-safe this class
+ * also keeps bounded pools of them for each JAXBContext, see {@link #marshal(JAXBContext, Object, String, OutputStream)}
+ * and {@link #unmarshal(JAXBContext, InputStream)}. Pools are kept for any JAXBContext, not only for contexts cached by this
+ * class, so entity providers may take JAXBContext from anywhere, e.g. from overridden <code>getJAXBContext</code> method.
  *
  * @author andrew00x
  */
@@ -28,8 +40,35 @@ import java.util.concurrent.ConcurrentHashMap;
 @Consumes({MediaType.APPLICATION_XML, "application/*+xml", MediaType.TEXT_XML, "text/*+xml"})
 @Produces({MediaType.APPLICATION_XML, "application/*+xml", MediaType.TEXT_XML, "text/*+xml"})
 public class JAXBContextResolver implements ContextResolver<JAXBContextResolver> {
+    /** Default max number of idle marshallers (unmarshallers) kept for each JAXBContext and character set. */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /** Max number of JAXBContexts pools of marshallers (unmarshallers) are kept for. All pools are dropped when limit is reached. */
+    private static final int MAX_POOLS = 256;
+
     /** JAXBContext cache. */
-    private final ConcurrentHashMap<Class, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class, JAXBContextEntry> jaxbContexts = new ConcurrentHashMap<>();
+
+    /** Pools of marshallers (unmarshallers). JAXBContext does not override equals, so pools are found by identity of context. */
+    private final ConcurrentHashMap<JAXBContext, MarshallerPool> pools = new ConcurrentHashMap<>();
+
+    private final int poolSize;
+
+    public JAXBContextResolver() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize
+     *         max number of idle marshallers (unmarshallers) kept for each JAXBContext and character set. If <code>0</code> then
+     *         marshallers and unmarshallers are not pooled at all
+     */
+    public JAXBContextResolver(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size may not be negative");
+        }
+        this.poolSize = poolSize;
+    }
 
     @Override
     public JAXBContextResolver getContext(Class<?> type) {
@@ -38,6 +77,7 @@ public class JAXBContextResolver implements ContextResolver<JAXBContextResolver>
 
     /**
      * Return JAXBContext according to supplied type. If no one context found then try create new context and save it in cache.
+     * Context for each class is created at most once even if few threads ask for it at the same time.
      *
      * @param clazz
      *         class to be bound
@@ -46,12 +86,15 @@ public class JAXBContextResolver implements ContextResolver<JAXBContextResolver>
      *         if JAXBContext creation failed
      */
     public JAXBContext getJAXBContext(Class<?> clazz) throws JAXBException {
-        JAXBContext jaxbContext = jaxbContexts.get(clazz);
-        if (jaxbContext == null) {
-            jaxbContext = JAXBContext.newInstance(clazz);
-            jaxbContexts.put(clazz, jaxbContext);
+        JAXBContextEntry entry = jaxbContexts.get(clazz);
+        if (entry == null) {
+            JAXBContextEntry newEntry = new JAXBContextEntry(null);
+            entry = jaxbContexts.putIfAbsent(clazz, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+            }
         }
-        return jaxbContext;
+        return entry.init(clazz);
     }
 
     /**
@@ -78,6 +121,173 @@ public class JAXBContextResolver implements ContextResolver<JAXBContextResolver>
      *         java classes to be bound
      */
     public void addJAXBContext(JAXBContext jaxbContext, Class<?> clazz) {
-        jaxbContexts.put(clazz, jaxbContext);
+        jaxbContexts.put(clazz, new JAXBContextEntry(jaxbContext));
+    }
+
+    /**
+     * Unmarshal XML data from the specified input stream. Unmarshaller created by <code>jaxbContext</code> is taken from pool and
+     * returned back after using.
+     *
+     * @param jaxbContext
+     *         JAXBContext
+     * @param entityStream
+     *         stream to read XML data from
+     * @return unmarshalled object
+     * @throws JAXBException
+     *         if any error occurs while unmarshalling
+     */
+    public Object unmarshal(JAXBContext jaxbContext, InputStream entityStream) throws JAXBException {
+        MarshallerPool pool = getPool(jaxbContext);
+        Unmarshaller unmarshaller = pool.acquireUnmarshaller();
+        Object result = unmarshaller.unmarshal(entityStream);
+        pool.releaseUnmarshaller(unmarshaller);
+        return result;
+    }
+
+    /**
+     * Unmarshal XML data from the specified source to {@link JAXBElement} of <code>declaredType</code>. Unmarshaller created by
+     * <code>jaxbContext</code> is taken from pool and returned back after using.
+     *
+     * @param jaxbContext
+     *         JAXBContext
+     * @param declaredType
+     *         java class to be bound
+     * @param source
+     *         source to read XML data from
+     * @return unmarshalled object
+     * @throws JAXBException
+     *         if any error occurs while unmarshalling
+     */
+    public <T> JAXBElement<T> unmarshal(JAXBContext jaxbContext, Class<T> declaredType, Source source) throws JAXBException {
+        MarshallerPool pool = getPool(jaxbContext);
+        Unmarshaller unmarshaller = pool.acquireUnmarshaller();
+        JAXBElement<T> result = unmarshaller.unmarshal(source, declaredType);
+        pool.releaseUnmarshaller(unmarshaller);
+        return result;
+    }
+
+    /**
+     * Marshal supplied object to the specified output stream. Marshaller created by <code>jaxbContext</code> for
+     * <code>charset</code> is taken from pool and returned back after using.
+     *
+     * @param jaxbContext
+     *         JAXBContext
+     * @param t
+     *         object to marshal
+     * @param charset
+     *         character set that Marshaller must use, may be <code>null</code> then JAXB default encoding is used
+     * @param entityStream
+     *         stream to write XML data to
+     * @throws JAXBException
+     *         if any error occurs while marshalling
+     */
+    public void marshal(JAXBContext jaxbContext, Object t, String charset, OutputStream entityStream) throws JAXBException {
+        MarshallerPool pool = getPool(jaxbContext);
+        Marshaller marshaller = pool.acquireMarshaller(charset);
+        marshaller.marshal(t, entityStream);
+        pool.releaseMarshaller(charset, marshaller);
+    }
+
+    private MarshallerPool getPool(JAXBContext jaxbContext) {
+        MarshallerPool pool = pools.get(jaxbContext);
+        if (pool == null) {
+            if (pools.size() >= MAX_POOLS) {
+                pools.clear();
+            }
+            MarshallerPool newPool = new MarshallerPool(jaxbContext, poolSize);
+            pool = pools.putIfAbsent(jaxbContext, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /** Cached JAXBContext, it is created with {@link #init(Class)} if entry was added in cache without context. */
+    private static final class JAXBContextEntry {
+        volatile JAXBContext jaxbContext;
+
+        JAXBContextEntry(JAXBContext jaxbContext) {
+            this.jaxbContext = jaxbContext;
+        }
+
+        /** Create JAXBContext if it is not created yet. Few threads may ask for it at the same time but only one creates it. */
+        JAXBContext init(Class<?> clazz) throws JAXBException {
+            JAXBContext result = jaxbContext;
+            if (result == null) {
+                synchronized (this) {
+                    result = jaxbContext;
+                    if (result == null) {
+                        jaxbContext = result = JAXBContext.newInstance(clazz);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /** Pools of Marshallers and Unmarshallers created by one JAXBContext. */
+    private static final class MarshallerPool {
+        final JAXBContext                                      jaxbContext;
+        final int                                              poolSize;
+        final BlockingQueue<Unmarshaller>                      unmarshallers;
+        final ConcurrentMap<String, BlockingQueue<Marshaller>> marshallers;
+
+        MarshallerPool(JAXBContext jaxbContext, int poolSize) {
+            this.jaxbContext = jaxbContext;
+            this.poolSize = poolSize;
+            this.unmarshallers = poolSize > 0 ? new ArrayBlockingQueue<Unmarshaller>(poolSize) : null;
+            this.marshallers = new ConcurrentHashMap<>();
+        }
+
+        Unmarshaller acquireUnmarshaller() throws JAXBException {
+            Unmarshaller unmarshaller = unmarshallers == null ? null : unmarshallers.poll();
+            if (unmarshaller == null) {
+                unmarshaller = jaxbContext.createUnmarshaller();
+            }
+            return unmarshaller;
+        }
+
+        void releaseUnmarshaller(Unmarshaller unmarshaller) {
+            if (unmarshallers != null) {
+                unmarshallers.offer(unmarshaller);
+            }
+        }
+
+        Marshaller acquireMarshaller(String charset) throws JAXBException {
+            BlockingQueue<Marshaller> pool = getMarshallers(charset);
+            Marshaller marshaller = pool == null ? null : pool.poll();
+            if (marshaller == null) {
+                marshaller = jaxbContext.createMarshaller();
+                // Must respect application specified character set.
+                if (charset != null) {
+                    marshaller.setProperty(Marshaller.JAXB_ENCODING, charset);
+                }
+            }
+            return marshaller;
+        }
+
+        void releaseMarshaller(String charset, Marshaller marshaller) {
+            BlockingQueue<Marshaller> pool = getMarshallers(charset);
+            if (pool != null) {
+                pool.offer(marshaller);
+            }
+        }
+
+        private BlockingQueue<Marshaller> getMarshallers(String charset) {
+            if (poolSize == 0) {
+                return null;
+            }
+            String key = charset == null ? "" : charset.toLowerCase();
+            BlockingQueue<Marshaller> pool = marshallers.get(key);
+            if (pool == null) {
+                BlockingQueue<Marshaller> newPool = new ArrayBlockingQueue<>(poolSize);
+                pool = marshallers.putIfAbsent(key, newPool);
+                if (pool == null) {
+                    pool = newPool;
+                }
+            }
+            return pool;
+        }
     }
 }
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.provider;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Result of lookup of {@link JAXBContextResolver} for media type. Instance is immutable, so JAXB entity providers may share it
+ * between threads through single volatile field. Only type and subtype of media type are kept, parameters of media type, e.g.
+ * charset, do not affect selection of resolver.
+ *
+ * @author andrew00x
+ */
+final class JAXBContextResolverLookup {
+    private final String              type;
+    private final String              subtype;
+    private final JAXBContextResolver resolver;
+
+    JAXBContextResolverLookup(MediaType mediaType, JAXBContextResolver resolver) {
+        this.type = mediaType == null ? null : mediaType.getType();
+        this.subtype = mediaType == null ? null : mediaType.getSubtype();
+        this.resolver = resolver;
+    }
+
+    JAXBContextResolver getResolver() {
+        return resolver;
+    }
+
+    /** @return <code>true</code> if resolver was found for media type with the same type and subtype as specified one */
+    boolean matches(MediaType mediaType) {
+        if (mediaType == null) {
+            return type == null;
+        }
+        return mediaType.getType().equalsIgnoreCase(type) && mediaType.getSubtype().equalsIgnoreCase(subtype);
+    }
+}
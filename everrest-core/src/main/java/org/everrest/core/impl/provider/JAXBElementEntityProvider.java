@@ -24,7 +24,6 @@ import javax.ws.rs.ext.Providers;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.bind.UnmarshalException;
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
@@ -47,6 +46,9 @@ public class JAXBElementEntityProvider implements EntityProvider<JAXBElement<?>>
     /** @see Providers */
     private Providers providers;
 
+    /** Last found JAXBContextResolver and media type it was found for. */
+    private volatile JAXBContextResolverLookup jaxbContextResolver;
+
     public JAXBElementEntityProvider(@Context Providers providers) {
         this.providers = providers;
     }
@@ -68,8 +70,7 @@ public class JAXBElementEntityProvider implements EntityProvider<JAXBElement<?>>
         ParameterizedType pt = (ParameterizedType)genericType;
         Class<?> c = (Class<?>)pt.getActualTypeArguments()[0];
         try {
-            JAXBContext jaxbContext = getJAXBContext(c, mediaType);
-            return jaxbContext.createUnmarshaller().unmarshal(new StreamSource(entityStream), c);
+            return getJAXBContextResolver(mediaType).unmarshal(getJAXBContext(c, mediaType), c, new StreamSource(entityStream));
         } catch (UnmarshalException e) {
             // if can't read from stream (e.g. steam is empty)
             if (LOG.isDebugEnabled()) {
@@ -105,15 +106,9 @@ public class JAXBElementEntityProvider implements EntityProvider<JAXBElement<?>>
                         OutputStream entityStream) throws IOException {
         Class<?> c = t.getDeclaredType();
         try {
-            JAXBContext jaxbContext = getJAXBContext(c, mediaType);
-            Marshaller m = jaxbContext.createMarshaller();
             // Must respect application specified character set.
             String charset = mediaType == null ? null : mediaType.getParameters().get("charset");
-            if (charset != null) {
-                m.setProperty(Marshaller.JAXB_ENCODING, charset);
-            }
-
-            m.marshal(t, entityStream);
+            getJAXBContextResolver(mediaType).marshal(getJAXBContext(c, mediaType), t, charset, entityStream);
         } catch (JAXBException e) {
             throw new IOException("Can't write to output stream " + e);
         }
@@ -129,12 +124,26 @@ public class JAXBElementEntityProvider implements EntityProvider<JAXBElement<?>>
      *         if JAXBContext creation failed
      */
     protected JAXBContext getJAXBContext(Class<?> type, MediaType mediaType) throws JAXBException {
-        ContextResolver<JAXBContextResolver> resolver =
-                providers.getContextResolver(JAXBContextResolver.class, mediaType);
+        return getJAXBContextResolver(mediaType).getJAXBContext(type);
+    }
+
+    /**
+     * @param mediaType
+     *         media type
+     * @return JAXBContextResolver for supplied media type. Resolver is looked up once and reused while type and
+     *         subtype of media type are the same
+     */
+    protected JAXBContextResolver getJAXBContextResolver(MediaType mediaType) {
+        final JAXBContextResolverLookup lookup = jaxbContextResolver;
+        if (lookup != null && lookup.matches(mediaType)) {
+            return lookup.getResolver();
+        }
+        ContextResolver<JAXBContextResolver> resolver = providers.getContextResolver(JAXBContextResolver.class, mediaType);
         if (resolver == null) {
             throw new RuntimeException("Not found any JAXBContextResolver for media type " + mediaType);
         }
-        JAXBContextResolver jaxbContextResolver = resolver.getContext(null);
-        return jaxbContextResolver.getJAXBContext(type);
+        final JAXBContextResolver jaxbResolver = resolver.getContext(null);
+        jaxbContextResolver = new JAXBContextResolverLookup(mediaType, jaxbResolver);
+        return jaxbResolver;
     }
 }
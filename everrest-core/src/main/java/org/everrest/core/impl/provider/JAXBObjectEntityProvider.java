@@ -23,7 +23,6 @@ import javax.ws.rs.ext.Provider;
 import javax.ws.rs.ext.Providers;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.annotation.XmlRootElement;
 import java.io.IOException;
@@ -45,6 +44,9 @@ public class JAXBObjectEntityProvider implements EntityProvider<Object> {
     /** @see Providers */
     private Providers providers;
 
+    /** Last found JAXBContextResolver and media type it was found for. */
+    private volatile JAXBContextResolverLookup jaxbContextResolver;
+
     public JAXBObjectEntityProvider(@Context Providers providers) {
         this.providers = providers;
     }
@@ -64,8 +66,7 @@ public class JAXBObjectEntityProvider implements EntityProvider<Object> {
                            MultivaluedMap<String, String> httpHeaders,
                            InputStream entityStream) throws IOException {
         try {
-            JAXBContext jaxbContext = getJAXBContext(type, mediaType);
-            return jaxbContext.createUnmarshaller().unmarshal(entityStream);
+            return getJAXBContextResolver(mediaType).unmarshal(getJAXBContext(type, mediaType), entityStream);
         } catch (UnmarshalException e) {
             // if can't read from stream (e.g. steam is empty)
             if (LOG.isDebugEnabled()) {
@@ -99,15 +100,9 @@ public class JAXBObjectEntityProvider implements EntityProvider<Object> {
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException {
         try {
-            JAXBContext jaxbContext = getJAXBContext(type, mediaType);
-            Marshaller m = jaxbContext.createMarshaller();
             // Must respect application specified character set.
             String charset = mediaType == null ? null : mediaType.getParameters().get("charset");
-            if (charset != null) {
-                m.setProperty(Marshaller.JAXB_ENCODING, charset);
-            }
-
-            m.marshal(t, entityStream);
+            getJAXBContextResolver(mediaType).marshal(getJAXBContext(type, mediaType), t, charset, entityStream);
         } catch (JAXBException e) {
             throw new IOException("Can't write to output stream " + e);
         }
@@ -123,11 +118,26 @@ public class JAXBObjectEntityProvider implements EntityProvider<Object> {
      *         if JAXBContext creation failed
      */
     protected JAXBContext getJAXBContext(Class<?> type, MediaType mediaType) throws JAXBException {
+        return getJAXBContextResolver(mediaType).getJAXBContext(type);
+    }
+
+    /**
+     * @param mediaType
+     *         media type
+     * @return JAXBContextResolver for supplied media type. Resolver is looked up once and reused while type and
+     *         subtype of media type are the same
+     */
+    protected JAXBContextResolver getJAXBContextResolver(MediaType mediaType) {
+        final JAXBContextResolverLookup lookup = jaxbContextResolver;
+        if (lookup != null && lookup.matches(mediaType)) {
+            return lookup.getResolver();
+        }
         ContextResolver<JAXBContextResolver> resolver = providers.getContextResolver(JAXBContextResolver.class, mediaType);
         if (resolver == null) {
             throw new RuntimeException("Not found any JAXBContextResolver for media type " + mediaType);
         }
-        JAXBContextResolver jaxbContextResolver = resolver.getContext(null);
-        return jaxbContextResolver.getJAXBContext(type);
+        final JAXBContextResolver jaxbResolver = resolver.getContext(null);
+        jaxbContextResolver = new JAXBContextResolverLookup(mediaType, jaxbResolver);
+        return jaxbResolver;
     }
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.provider;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Wrapper for precompiled {@link Templates} that keeps bounded pool of {@link Transformer}s created by wrapped templates.
+ * Transformer is not thread-safe but it is expensive to create new Transformer for each transformation. Transformer
+ * obtained with method {@link #acquireTransformer()} should be returned back with method {@link
+ * #releaseTransformer(Transformer)} when transformation is done.
+ *
+ * @author andrew00x
+ * @see XSLTTemplatesContextResolver
+ * @see XSLTStreamingOutput
+ */
+public class PooledTemplates implements Templates {
+    private final Templates                  templates;
+    private final BlockingQueue<Transformer> transformers;
+
+    /**
+     * @param templates
+     *         templates to wrap
+     * @param poolSize
+     *         max number of idle Transformers kept in pool. If <code>0</code> then Transformers are not pooled
+     */
+    public PooledTemplates(Templates templates, int poolSize) {
+        if (templates == null) {
+            throw new IllegalArgumentException("Templates may not be null");
+        }
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size may not be negative");
+        }
+        this.templates = templates;
+        this.transformers = poolSize > 0 ? new ArrayBlockingQueue<Transformer>(poolSize) : null;
+    }
+
+    /**
+     * Get Transformer from pool or create new one if pool is empty.
+     *
+     * @return Transformer
+     * @throws TransformerConfigurationException
+     *         if new Transformer can't be created
+     */
+    public Transformer acquireTransformer() throws TransformerConfigurationException {
+        Transformer transformer = transformers == null ? null : transformers.poll();
+        if (transformer == null) {
+            transformer = templates.newTransformer();
+        }
+        return transformer;
+    }
+
+    /**
+     * Return Transformer back to pool. Transformer is reset to its original state before it becomes available for the next
+     * transformation. Transformer is dropped if pool is full.
+     *
+     * @param transformer
+     *         Transformer obtained with method {@link #acquireTransformer()}
+     */
+    public void releaseTransformer(Transformer transformer) {
+        if (transformers != null) {
+            transformer.reset();
+            transformers.offer(transformer);
+        }
+    }
+
+    /** @return wrapped templates */
+    public Templates getTemplates() {
+        return templates;
+    }
+
+    @Override
+    public Transformer newTransformer() throws TransformerConfigurationException {
+        return templates.newTransformer();
+    }
+
+    @Override
+    public Properties getOutputProperties() {
+        return templates.getOutputProperties();
+    }
+}
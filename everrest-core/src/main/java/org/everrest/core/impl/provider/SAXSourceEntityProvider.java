@@ -18,12 +18,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.sax.SAXSource;
-import javax.xml.transform.stream.StreamResult;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -78,15 +73,6 @@ public class SAXSourceEntityProvider implements EntityProvider<SAXSource> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException {
-        StreamResult out = new StreamResult(entityStream);
-        try {
-            TransformerFactory.newInstance().newTransformer().transform(t, out);
-        } catch (TransformerConfigurationException e) {
-            throw new IOException("Can't write to output stream " + e);
-        } catch (TransformerException e) {
-            throw new IOException("Can't write to output stream " + e);
-        } catch (TransformerFactoryConfigurationError e) {
-            throw new IOException("Can't write to output stream " + e);
-        }
+        XMLHelper.write(t, entityStream);
     }
 }
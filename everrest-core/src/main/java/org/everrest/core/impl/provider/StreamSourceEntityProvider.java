@@ -17,10 +17,6 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
 import java.io.InputStream;
@@ -73,11 +69,6 @@ public class StreamSourceEntityProvider implements EntityProvider<StreamSource>
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException {
-        StreamResult out = new StreamResult(entityStream);
-        try {
-            TransformerFactory.newInstance().newTransformer().transform(t, out);
-        } catch (TransformerException | TransformerFactoryConfigurationError e) {
-            throw new IOException("Can't write to output stream " + e);
-        }
+        XMLHelper.write(t, entityStream);
     }
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.provider;
+
+import org.everrest.core.provider.EntityProvider;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.Provider;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.stax.StAXSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Gives pull access to XML entity with {@link XMLEventReader}. Entity is parsed while resource method reads it, so memory
+ * usage does not depend on size of entity.
+ *
+ * @author andrew00x
+ */
+@Provider
+@Consumes({MediaType.APPLICATION_XML, "application/*+xml", MediaType.TEXT_XML, "text/*+xml"})
+@Produces({MediaType.APPLICATION_XML, "application/*+xml", MediaType.TEXT_XML, "text/*+xml"})
+public class XMLEventReaderEntityProvider implements EntityProvider<XMLEventReader> {
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == XMLEventReader.class;
+    }
+
+
+    @Override
+    public XMLEventReader readFrom(Class<XMLEventReader> type,
+                                   Type genericType,
+                                   Annotation[] annotations,
+                                   MediaType mediaType,
+                                   MultivaluedMap<String, String> httpHeaders,
+                                   InputStream entityStream) throws IOException {
+        try {
+            return XMLHelper.getXMLInputFactory().createXMLEventReader(entityStream);
+        } catch (XMLStreamException e) {
+            throw new IOException("Can't read from input stream " + e);
+        }
+    }
+
+
+    @Override
+    public long getSize(XMLEventReader t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return XMLEventReader.class.isAssignableFrom(type);
+    }
+
+
+    @Override
+    public void writeTo(XMLEventReader t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        try {
+            XMLHelper.write(new StAXSource(t), entityStream);
+        } catch (XMLStreamException e) {
+            throw new IOException("Can't write to output stream " + e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.provider;
+
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps XML factories that are used by XML entity providers. Looking up of JAXP implementation is expensive, so each factory
+ * is created and configured only once. Parsers are configured to not resolve external entities.
+ * <p/>
+ * DocumentBuilder and Transformer are not thread-safe, so they are taken from small bounded pools and returned back after use.
+ * Pools are not bound to threads, so threads of servlet container that outlive web application do not keep instances created
+ * by class loader of application. Pools are cleared when EverrestProcessor is stopped, see {@link #clearPools()}.
+ *
+ * @author andrew00x
+ */
+public final class XMLHelper {
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(XMLHelper.class);
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+    private static final TransformerFactory     TRANSFORMER_FACTORY      = TransformerFactory.newInstance();
+    private static final XMLInputFactory        XML_INPUT_FACTORY        = createXMLInputFactory();
+
+    /** Max number of idle instances of DocumentBuilder and Transformer kept in pools. */
+    public static final int POOL_SIZE = 16;
+
+    private static final BlockingQueue<DocumentBuilder> DOCUMENT_BUILDERS     = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Transformer>     IDENTITY_TRANSFORMERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+        // Each feature is set separately, parser may not support some of them.
+        setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+        setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+        return factory;
+    }
+
+    private static void setFeature(DocumentBuilderFactory factory, String name, boolean value) {
+        try {
+            factory.setFeature(name, value);
+        } catch (ParserConfigurationException e) {
+            LOG.warn("Feature {} is not supported by {}", name, factory.getClass().getName());
+        }
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+    /**
+     * Parse XML document with namespace aware DocumentBuilder.
+     *
+     * @param in
+     *         stream of XML document
+     * @return parsed document
+     * @throws ParserConfigurationException
+     *         if DocumentBuilder can't be created
+     * @throws SAXException
+     *         if document is not well-formed
+     * @throws IOException
+     *         if any i/o errors occurs
+     */
+    public static Document parse(InputStream in) throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilder builder = DOCUMENT_BUILDERS.poll();
+        if (builder == null) {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+        }
+        try {
+            return builder.parse(in);
+        } finally {
+            builder.reset();
+            DOCUMENT_BUILDERS.offer(builder);
+        }
+    }
+
+    private static Transformer acquireIdentityTransformer() throws TransformerConfigurationException {
+        Transformer transformer = IDENTITY_TRANSFORMERS.poll();
+        if (transformer == null) {
+            synchronized (TRANSFORMER_FACTORY) {
+                transformer = TRANSFORMER_FACTORY.newTransformer();
+            }
+        }
+        return transformer;
+    }
+
+    private static void releaseIdentityTransformer(Transformer transformer) {
+        transformer.reset();
+        IDENTITY_TRANSFORMERS.offer(transformer);
+    }
+
+    /** Remove all pooled instances of DocumentBuilder and Transformer. */
+    public static void clearPools() {
+        DOCUMENT_BUILDERS.clear();
+        IDENTITY_TRANSFORMERS.clear();
+    }
+
+    /** @return XMLInputFactory. XMLInputFactory is thread-safe after configuration is done */
+    public static XMLInputFactory getXMLInputFactory() {
+        return XML_INPUT_FACTORY;
+    }
+
+    /**
+     * Write XML from {@link Source} to {@link OutputStream}. If source is backed by byte stream, bytes are copied as is
+     * without parsing, otherwise identity transformation is applied.
+     *
+     * @param source
+     *         source of XML
+     * @param out
+     *         output stream
+     * @throws IOException
+     *         if any i/o errors occurs or transformation failed
+     */
+    public static void write(Source source, OutputStream out) throws IOException {
+        InputStream in = getByteStream(source);
+        if (in != null) {
+            IOHelper.write(in, out);
+            return;
+        }
+        try {
+            Transformer transformer = acquireIdentityTransformer();
+            try {
+                transformer.transform(source, new StreamResult(out));
+            } finally {
+                releaseIdentityTransformer(transformer);
+            }
+        } catch (TransformerException e) {
+            throw new IOException("Can't write to output stream " + e);
+        }
+    }
+
+    private static InputStream getByteStream(Source source) {
+        if (source instanceof StreamSource) {
+            StreamSource streamSource = (StreamSource)source;
+            if (streamSource.getReader() == null) {
+                return streamSource.getInputStream();
+            }
+        } else if (source instanceof SAXSource) {
+            SAXSource saxSource = (SAXSource)source;
+            InputSource inputSource = saxSource.getInputSource();
+            // custom XMLReader may produce events that differs from content of stream
+            if (saxSource.getXMLReader() == null && inputSource != null && inputSource.getCharacterStream() == null) {
+                return inputSource.getByteStream();
+            }
+        }
+        return null;
+    }
+
+    private XMLHelper() {
+    }
+}
@@ -22,7 +22,9 @@ import java.io.OutputStream;
 
 /**
  * This type should be used by resource methods when need to apply XSLT
- * transformation for returned {@link Source}.
+ * transformation for returned {@link Source}. Result of transformation is
+ * written directly to the output stream. If templates are obtained from
+ * {@link XSLTTemplatesContextResolver} then Transformer is taken from pool.
  *
  * @author <a href="dkatayev@gmail.com">Dmytro Katayev</a>
  * @version $Id: XLSTStreamingOutPut.java
@@ -50,8 +52,15 @@ public class XSLTStreamingOutput implements StreamingOutput {
     @Override
     public void write(OutputStream output) throws IOException {
         try {
-            Transformer transformer = templates.newTransformer();
-            transformer.transform(source, new StreamResult(output));
+            if (templates instanceof PooledTemplates) {
+                PooledTemplates pooledTemplates = (PooledTemplates)templates;
+                Transformer transformer = pooledTemplates.acquireTransformer();
+                transformer.transform(source, new StreamResult(output));
+                // Transformer is not reused if transformation failed, it may be left in inconsistent state.
+                pooledTemplates.releaseTransformer(transformer);
+            } else {
+                templates.newTransformer().transform(source, new StreamResult(output));
+            }
         } catch (TransformerConfigurationException tce) {
             throw new IOException(tce.getMessage(), tce);
         } catch (TransformerException tre) {
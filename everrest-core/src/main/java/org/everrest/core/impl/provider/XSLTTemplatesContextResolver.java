@@ -27,11 +27,14 @@ import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TemplatesHandler;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Provide cache for transformation templates.
+ * Provide cache for transformation templates. Templates are compiled once when they are added and may be used concurrently.
+ * Each registered templates is wrapped by {@link PooledTemplates} so Transformers are reused between transformations.
+ * Templates may be replaced with method {@link #setTemplate(String, Source)} at runtime, transformations that are in
+ * progress are completed with previous version of templates.
  *
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
  * @version $Id: XSLTTemplatesContextResolver.java 63 2010-10-15 14:31:56Z
@@ -40,12 +43,33 @@ import java.util.Map;
 @Provider
 @Consumes({MediaType.APPLICATION_XML, "application/*+xml", MediaType.TEXT_XML, "text/*+xml"})
 public class XSLTTemplatesContextResolver implements ContextResolver<XSLTTemplatesContextResolver> {
+    /** Default max number of idle Transformers kept for each templates. */
+    public static final int DEFAULT_TRANSFORMER_POOL_SIZE = 8;
+
     /** All registered templates. */
-    private final Map<String, Templates> templates = new HashMap<String, Templates>();
+    private final ConcurrentMap<String, PooledTemplates> templates = new ConcurrentHashMap<>();
+
+    /** Guards templates compilation, {@link SAXTransformerFactory} is not thread-safe. */
+    private final Object compileLock = new Object();
+
+    private final int transformerPoolSize;
+
+    private SAXTransformerFactory factory;
 
     /** XML entity resolver. */
-    private EntityResolver resolver;
+    private volatile EntityResolver resolver;
 
+    public XSLTTemplatesContextResolver() {
+        this(DEFAULT_TRANSFORMER_POOL_SIZE);
+    }
+
+    /**
+     * @param transformerPoolSize
+     *         max number of idle Transformers kept for each templates
+     */
+    public XSLTTemplatesContextResolver(int transformerPoolSize) {
+        this.transformerPoolSize = transformerPoolSize;
+    }
 
     @Override
     public XSLTTemplatesContextResolver getContext(Class<?> type) {
@@ -76,37 +100,50 @@ public class XSLTTemplatesContextResolver implements ContextResolver<XSLTTemplat
      * @throws TransformerConfigurationException
      *         if templates handler can't be
      *         initialized
+     * @throws IllegalArgumentException
+     *         if templates with the same name already registered
      * @see Templates
      * @see TransformerConfigurationException
      */
     public void addAsTemplate(String name, Source source) throws IOException, SAXException,
                                                                  TransformerConfigurationException {
-        if (templates.get(name) != null) {
+        if (templates.containsKey(name)) {
             throw new IllegalArgumentException("Template with name '" + name + "' already registered. ");
         }
-        synchronized (templates) {
-            SAXTransformerFactory factory = (SAXTransformerFactory)SAXTransformerFactory.newInstance();
-            TemplatesHandler templateHandler = factory.newTemplatesHandler();
-            XMLReader xmlReader = XMLReaderFactory.createXMLReader();
-            if (resolver != null) {
-                xmlReader.setEntityResolver(resolver);
-            }
-            xmlReader.setContentHandler(templateHandler);
-
-            InputSource inputSource = SAXSource.sourceToInputSource(source);
-            if (inputSource == null) {
-                throw new RuntimeException("Unable convert to Input Source.");
-            }
-
-            xmlReader.parse(inputSource);
+        if (templates.putIfAbsent(name, compile(source)) != null) {
+            throw new IllegalArgumentException("Template with name '" + name + "' already registered. ");
+        }
+    }
 
-            Templates t = templateHandler.getTemplates();
-            if (t == null) {
-                throw new RuntimeException("Unable create templates from given source. ");
-            }
+    /**
+     * Parse given source and add it as templates or replace existed templates with the same name. Transformations which
+     * already use previous templates are not affected.
+     *
+     * @param name
+     *         name to which templates will be mapped
+     * @param source
+     *         templates' source
+     * @throws IOException
+     *         if any i/o errors occurs
+     * @throws SAXException
+     *         if given source can not be parsed
+     * @throws TransformerConfigurationException
+     *         if templates handler can't be
+     *         initialized
+     */
+    public void setTemplate(String name, Source source) throws IOException, SAXException, TransformerConfigurationException {
+        templates.put(name, compile(source));
+    }
 
-            templates.put(name, t);
-        }
+    /**
+     * Remove templates with given name.
+     *
+     * @param name
+     *         templates' name
+     * @return removed templates or <code>null</code> if no templates mapped to given name
+     */
+    public Templates removeTemplate(String name) {
+        return templates.remove(name);
     }
 
     /**
@@ -120,4 +157,32 @@ public class XSLTTemplatesContextResolver implements ContextResolver<XSLTTemplat
     public Templates getTemplates(String name) {
         return templates.get(name);
     }
+
+    private PooledTemplates compile(Source source) throws IOException, SAXException, TransformerConfigurationException {
+        InputSource inputSource = SAXSource.sourceToInputSource(source);
+        if (inputSource == null) {
+            throw new RuntimeException("Unable convert to Input Source.");
+        }
+        Templates t;
+        synchronized (compileLock) {
+            if (factory == null) {
+                factory = (SAXTransformerFactory)SAXTransformerFactory.newInstance();
+            }
+            TemplatesHandler templateHandler = factory.newTemplatesHandler();
+            XMLReader xmlReader = XMLReaderFactory.createXMLReader();
+            EntityResolver resolver = this.resolver;
+            if (resolver != null) {
+                xmlReader.setEntityResolver(resolver);
+            }
+            xmlReader.setContentHandler(templateHandler);
+
+            xmlReader.parse(inputSource);
+
+            t = templateHandler.getTemplates();
+        }
+        if (t == null) {
+            throw new RuntimeException("Unable create templates from given source. ");
+        }
+        return new PooledTemplates(t, transformerPoolSize);
+    }
 }
@@ -41,8 +41,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author andrew00x
@@ -66,6 +68,9 @@ public class AbstractResourceDescriptorImpl extends BaseObjectModel implements A
     /** Resource methods. Resource method has not own path annotation. */
     private final ResourceMethodMap<ResourceMethodDescriptor> resourceMethods;
 
+    /** Snapshot of resource model, may be <code>null</code>. */
+    private final ResourceModelSnapshot resourceModel;
+
     /**
      * Constructs new instance of AbstractResourceDescriptor.
      *
@@ -77,7 +82,22 @@ public class AbstractResourceDescriptorImpl extends BaseObjectModel implements A
     }
 
     public AbstractResourceDescriptorImpl(String path, Class<?> resourceClass) {
+        this(path, resourceClass, null);
+    }
+
+    /**
+     * Constructs new instance of AbstractResourceDescriptor.
+     *
+     * @param path
+     *         path of resource, may be <code>null</code> for sub-resource
+     * @param resourceClass
+     *         resource class
+     * @param resourceModel
+     *         snapshot of resource model, if not <code>null</code> then only methods listed in snapshot are inspected
+     */
+    public AbstractResourceDescriptorImpl(String path, Class<?> resourceClass, ResourceModelSnapshot resourceModel) {
         super(resourceClass);
+        this.resourceModel = resourceModel;
         if (path == null) {
             this.path = null;
             this.uriPattern = null;
@@ -102,7 +122,22 @@ public class AbstractResourceDescriptorImpl extends BaseObjectModel implements A
     }
 
     public AbstractResourceDescriptorImpl(String path, Object resource) {
+        this(path, resource, null);
+    }
+
+    /**
+     * Constructs new instance of AbstractResourceDescriptor.
+     *
+     * @param path
+     *         path of resource, may be <code>null</code> for sub-resource
+     * @param resource
+     *         resource
+     * @param resourceModel
+     *         snapshot of resource model, if not <code>null</code> then only methods listed in snapshot are inspected
+     */
+    public AbstractResourceDescriptorImpl(String path, Object resource, ResourceModelSnapshot resourceModel) {
         super(resource);
+        this.resourceModel = resourceModel;
         if (path == null) {
             this.path = null;
             this.uriPattern = null;
@@ -164,12 +199,21 @@ public class AbstractResourceDescriptorImpl extends BaseObjectModel implements A
      */
     protected void processMethods() {
         Class<?> resourceClass = getObjectClass();
+        // Signatures of resource methods known from snapshot or found methods if resource class is not in snapshot yet.
+        Set<String> knownMethods = resourceModel == null ? null : resourceModel.getResourceMethods(resourceClass);
+        Set<String> foundMethods = resourceModel == null || knownMethods != null ? null : new HashSet<String>();
 
         for (Method method : resourceClass.getMethods()) {
+            if (knownMethods != null && !knownMethods.contains(ResourceModelSnapshot.getSignature(method))) {
+                continue;
+            }
             Path subPath = getMethodAnnotation(method, resourceClass, Path.class, false);
             HttpMethod httpMethod = getMethodAnnotation(method, resourceClass, HttpMethod.class, true);
 
             if (subPath != null || httpMethod != null) {
+                if (foundMethods != null) {
+                    foundMethods.add(ResourceModelSnapshot.getSignature(method));
+                }
                 List<MethodParameter> params = createMethodParametersList(resourceClass, method);
 
                 // Need only one type annotation at the moment
@@ -236,6 +280,9 @@ public class AbstractResourceDescriptorImpl extends BaseObjectModel implements A
                 }
             }
         }
+        if (foundMethods != null) {
+            resourceModel.putResourceMethods(resourceClass, foundMethods);
+        }
         if (resourceMethods.size() + subResourceMethods.size() + subResourceLocators.size() == 0) {
             // Warn instead throw exception. Lets user resolve such situation.
             String msg = "Not found any resource methods, sub-resource methods or sub-resource locators in "
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.resource;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Snapshot of resource model that is stored in file between restarts of application. For each root resource class snapshot
+ * keeps only signatures of its resource methods, sub-resource methods and sub-resource locators, not the model itself.
+ * Discovering of them requires lookup of JAX-RS annotations in whole hierarchy of resource class for each public method, with
+ * snapshot this lookup is skipped for methods that are not listed in it. Listed methods are still processed with reflection
+ * and the model is built from their annotations in the same way as without snapshot.
+ * <p/>
+ * Snapshot is valid until the classpath is changed, file is bound to hash of classpath entries (path, size and modification
+ * time of each jar and directory). If hash differs then whole snapshot is ignored and recreated. Directories are not walked,
+ * instead snapshot keeps stamp of modification times of class files of resource class and all its superclasses and interfaces,
+ * annotations may be inherited from any of them. Resource is inspected again if any of these class files is changed.
+ * <p/>
+ * Only classes which whole hierarchy, except classes of JRE, is loaded from hashed classpath are stored in snapshot, classes
+ * created at runtime, e.g. groovy scripts, and their subclasses are always processed with reflection.
+ *
+ * @author andrew00x
+ * @see org.everrest.core.impl.EverrestConfiguration#EVERREST_RESOURCE_MODEL_SNAPSHOT
+ */
+public final class ResourceModelSnapshot {
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ResourceModelSnapshot.class);
+
+    private static final int MAGIC   = 0x4556524d; // EVRM
+    private static final int VERSION = 3;
+
+    /** Signatures of resource methods and stamp of class files of resource class hierarchy. */
+    private static final class ResourceEntry {
+        final long        hierarchyStamp;
+        final Set<String> methods;
+
+        ResourceEntry(long hierarchyStamp, Set<String> methods) {
+            this.hierarchyStamp = hierarchyStamp;
+            this.methods = methods;
+        }
+    }
+
+    /**
+     * Load snapshot from file. If file does not exist, is broken or created for other classpath then empty snapshot is
+     * returned.
+     *
+     * @param file
+     *         file of snapshot
+     * @param classLoader
+     *         class loader of application, classpath is collected from it and its parents
+     * @return snapshot
+     */
+    public static ResourceModelSnapshot load(File file, ClassLoader classLoader) {
+        final Set<String> classpath = getClasspath(classLoader);
+        final String classpathHash = hash(classpath);
+        final ConcurrentMap<String, ResourceEntry> resourceMethods = new ConcurrentHashMap<>();
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                if (input.readInt() == MAGIC && input.readInt() == VERSION && classpathHash.equals(input.readUTF())) {
+                    for (int i = 0, classes = input.readInt(); i < classes; i++) {
+                        final String className = input.readUTF();
+                        final long hierarchyStamp = input.readLong();
+                        final Set<String> methods = new HashSet<>();
+                        for (int j = 0, size = input.readInt(); j < size; j++) {
+                            methods.add(input.readUTF());
+                        }
+                        resourceMethods.put(className, new ResourceEntry(hierarchyStamp, Collections.unmodifiableSet(methods)));
+                    }
+                    LOG.debug("Load resource model snapshot from {}, {} resources. ", file, resourceMethods.size());
+                } else {
+                    LOG.info("Resource model snapshot {} is out of date and will be recreated. ", file);
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable read resource model snapshot {}, it will be recreated. {}", file, e.getMessage());
+                resourceMethods.clear();
+            }
+        }
+        return new ResourceModelSnapshot(file, classpath, classpathHash, resourceMethods);
+    }
+
+    private final File                                 file;
+    private final Set<String>                          classpath;
+    private final String                               classpathHash;
+    private final ConcurrentMap<String, ResourceEntry> resourceMethods;
+    private final AtomicBoolean                        modified;
+
+    private ResourceModelSnapshot(File file, Set<String> classpath, String classpathHash,
+                                  ConcurrentMap<String, ResourceEntry> resourceMethods) {
+        this.file = file;
+        this.classpath = classpath;
+        this.classpathHash = classpathHash;
+        this.resourceMethods = resourceMethods;
+        this.modified = new AtomicBoolean();
+    }
+
+    /**
+     * Get signatures of resource methods, sub-resource methods and sub-resource locators of resource class.
+     *
+     * @param resourceClass
+     *         resource class
+     * @return signatures of methods, see {@link #getSignature(Method)}, or <code>null</code> if resource class is not in snapshot
+     * or class file of resource class or any of its superclasses and interfaces is changed
+     */
+    Set<String> getResourceMethods(Class<?> resourceClass) {
+        final ResourceEntry entry = resourceMethods.get(resourceClass.getName());
+        if (entry == null) {
+            return null;
+        }
+        final Long stamp = getHierarchyStamp(resourceClass);
+        return stamp != null && entry.hierarchyStamp == stamp ? entry.methods : null;
+    }
+
+    /**
+     * Add signatures of resource methods, sub-resource methods and sub-resource locators of resource class to snapshot.
+     * Nothing happens if class or any of its superclasses and interfaces is not loaded from classpath of snapshot.
+     */
+    void putResourceMethods(Class<?> resourceClass, Set<String> methods) {
+        final Long stamp = getHierarchyStamp(resourceClass);
+        if (stamp != null) {
+            final ResourceEntry entry = new ResourceEntry(stamp, Collections.unmodifiableSet(new HashSet<>(methods)));
+            final ResourceEntry previous = resourceMethods.put(resourceClass.getName(), entry);
+            if (previous == null || previous.hierarchyStamp != entry.hierarchyStamp || !previous.methods.equals(entry.methods)) {
+                modified.set(true);
+            }
+        }
+    }
+
+    /** @return <code>true</code> if snapshot contains resources which are not stored in file yet */
+    public boolean isModified() {
+        return modified.get();
+    }
+
+    /**
+     * Store snapshot in file. File is replaced atomically if file system supports it.
+     *
+     * @throws IOException
+     *         if any i/o error occurs
+     */
+    public void save() throws IOException {
+        modified.set(false);
+        final Path target = file.getAbsoluteFile().toPath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        final Path tmp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(classpathHash);
+                final Map<String, ResourceEntry> copy = new HashMap<>(resourceMethods);
+                output.writeInt(copy.size());
+                for (Map.Entry<String, ResourceEntry> e : copy.entrySet()) {
+                    output.writeUTF(e.getKey());
+                    output.writeLong(e.getValue().hierarchyStamp);
+                    output.writeInt(e.getValue().methods.size());
+                    for (String method : e.getValue().methods) {
+                        output.writeUTF(method);
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return stamp of modification times of class files of class and all its superclasses and interfaces or <code>null</code> if
+     * any of them is not loaded from classpath of snapshot. Classes of JRE are not taken into account.
+     */
+    private Long getHierarchyStamp(Class<?> clazz) {
+        long stamp = 17;
+        final Set<Class<?>> visited = new HashSet<>();
+        final Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            final Class<?> next = queue.poll();
+            if (next.getClassLoader() == null || !visited.add(next)) {
+                continue;
+            }
+            if (!isOnClasspath(next)) {
+                return null;
+            }
+            stamp = 31 * stamp + next.getName().hashCode();
+            stamp = 31 * stamp + getClassFileModified(next);
+            if (next.getSuperclass() != null) {
+                queue.add(next.getSuperclass());
+            }
+            Collections.addAll(queue, next.getInterfaces());
+        }
+        return stamp;
+    }
+
+    private boolean isOnClasspath(Class<?> clazz) {
+        try {
+            final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+            return codeSource != null && codeSource.getLocation() != null
+                   && classpath.contains(codeSource.getLocation().toExternalForm());
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return modification time of class file if class is loaded from directory or <code>0</code> otherwise, e.g. if class is
+     * loaded from jar that is covered by hash of classpath
+     */
+    private static long getClassFileModified(Class<?> clazz) {
+        final URL url = clazz.getResource('/' + clazz.getName().replace('.', '/') + ".class");
+        if (url != null && "file".equals(url.getProtocol())) {
+            try {
+                return new File(url.toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException ignored) {
+            }
+        }
+        return 0;
+    }
+
+    /** @return signature of method, e.g. <i>get(java.lang.String,int)</i> */
+    static String getSignature(Method method) {
+        final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getName());
+        }
+        return signature.append(')').toString();
+    }
+
+    private static Set<String> getClasspath(ClassLoader classLoader) {
+        final Set<String> classpath = new LinkedHashSet<>();
+        for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader)cl).getURLs()) {
+                    classpath.add(url.toExternalForm());
+                }
+            }
+        }
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                classpath.add(new File(entry).toURI().toString());
+            }
+        }
+        return classpath;
+    }
+
+    private static String hash(Set<String> classpath) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        final Charset utf8 = Charset.forName("UTF-8");
+        for (String entry : classpath) {
+            digest.update(entry.getBytes(utf8));
+            File file = null;
+            if (entry.startsWith("file:")) {
+                try {
+                    file = new File(new URL(entry).toURI());
+                } catch (IOException | URISyntaxException | IllegalArgumentException ignored) {
+                }
+            }
+            if (file != null && file.exists()) {
+                // Only size and modification time of jar or directory itself, directories are not walked.
+                final long length = file.length();
+                final long lastModified = file.lastModified();
+                for (int i = 0; i < 8; i++) {
+                    digest.update((byte)(length >>> (i * 8)));
+                    digest.update((byte)(lastModified >>> (i * 8)));
+                }
+            }
+        }
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.uri;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * URI template that is split once to literal parts and template parameters. Literal parts are added to the result URI as is
+ * and only values of template parameters are encoded (or validated) when URI is built. Compiled templates are cached so the
+ * same template is never parsed twice. URIs without template parameters, e.g. URIs of requests, are not cached, otherwise
+ * they push out templates of resources and builders.
+ *
+ * @author andrew00x
+ * @see org.everrest.core.uri.UriPattern#createUriWithValues(String, String, String, int, String, String, String, Object[],
+ * boolean, boolean)
+ */
+public final class CompiledUriTemplate {
+    /** Max number of cached templates with parameters. Cache is cleared when it reaches this size. */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private static final ConcurrentMap<String, CompiledUriTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Get compiled template for URI parts. Each URI part can contains templates.
+     *
+     * @param schema
+     *         the schema URI part
+     * @param userInfo
+     *         the user info URI part
+     * @param host
+     *         the host name URI part
+     * @param port
+     *         the port number URI part
+     * @param path
+     *         the path URI part
+     * @param query
+     *         the query string URI part
+     * @param fragment
+     *         the fragment URI part
+     * @return compiled template
+     * @throws IllegalArgumentException
+     *         if any part contains '{' that is not closed by '}'
+     */
+    public static CompiledUriTemplate compile(String schema,
+                                              String userInfo,
+                                              String host,
+                                              int port,
+                                              String path,
+                                              String query,
+                                              String fragment) {
+        if (!(hasTemplate(schema) || hasTemplate(userInfo) || hasTemplate(host) || hasTemplate(path) || hasTemplate(query)
+              || hasTemplate(fragment))) {
+            return new CompiledUriTemplate(schema, userInfo, host, port, path, query, fragment);
+        }
+        String key = new StringBuilder()
+                .append(schema).append('\u0000')
+                .append(userInfo).append('\u0000')
+                .append(host).append('\u0000')
+                .append(port).append('\u0000')
+                .append(path).append('\u0000')
+                .append(query).append('\u0000')
+                .append(fragment).toString();
+        CompiledUriTemplate template = CACHE.get(key);
+        if (template == null) {
+            template = new CompiledUriTemplate(schema, userInfo, host, port, path, query, fragment);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.putIfAbsent(key, template);
+        }
+        return template;
+    }
+
+    private static boolean hasTemplate(String uriPart) {
+        return uriPart != null && uriPart.indexOf('{') >= 0;
+    }
+
+    /** Literal parts. Number of literals is always greater by one than number of template parameters. */
+    private final String[]  literals;
+    /** Names of template parameters. */
+    private final String[]  names;
+    /** URI component of each template parameter, it determines how value of parameter must be encoded. */
+    private final int[]     components;
+    /** <code>false</code> if value of parameter must be validated only, even if encoding requested. */
+    private final boolean[] encodable;
+    /** Index of the first template parameter with the same name. */
+    private final int[]     firstOccurrences;
+    /** Position of value in array of values for the first occurrence of template parameter, see {@link #build(Object[], boolean, boolean)}. */
+    private final int[]     positions;
+    /** Number of distinct names of template parameters. */
+    private final int       distinctNames;
+
+    private CompiledUriTemplate(String schema, String userInfo, String host, int port, String path, String query, String fragment) {
+        Builder builder = new Builder();
+        if (schema != null) {
+            builder.appendUriPart(schema, UriComponent.SCHEME, false);
+            builder.appendLiteral(':');
+        }
+        if (userInfo != null || host != null || port != -1) {
+            builder.appendLiteral('/');
+            builder.appendLiteral('/');
+
+            if (!(userInfo == null || userInfo.isEmpty())) {
+                builder.appendUriPart(userInfo, UriComponent.USER_INFO, true);
+                builder.appendLiteral('@');
+            }
+            if (host != null) {
+                builder.appendUriPart(host, UriComponent.HOST, true);
+            }
+            if (port != -1) {
+                builder.appendLiteral(':');
+                builder.appendUriPart(Integer.toString(port), UriComponent.PORT, true);
+            }
+        }
+
+        if (!(path == null || path.isEmpty())) {
+            if (!builder.isEmpty() && path.charAt(0) != '/') {
+                builder.appendLiteral('/');
+            }
+            builder.appendUriPart(path, UriComponent.PATH, true);
+        }
+
+        if (!(query == null || query.isEmpty())) {
+            builder.appendLiteral('?');
+            builder.appendUriPart(query, UriComponent.QUERY, true);
+        }
+
+        if (!(fragment == null || fragment.isEmpty())) {
+            builder.appendLiteral('#');
+            builder.appendUriPart(fragment, UriComponent.FRAGMENT, true);
+        }
+
+        builder.literals.add(builder.literal.toString());
+
+        final int size = builder.names.size();
+        literals = builder.literals.toArray(new String[size + 1]);
+        names = builder.names.toArray(new String[size]);
+        components = new int[size];
+        encodable = new boolean[size];
+        firstOccurrences = new int[size];
+        positions = new int[size];
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            components[i] = builder.components.get(i);
+            encodable[i] = builder.encodable.get(i);
+            int first = i;
+            for (int j = 0; j < i; j++) {
+                if (names[j].equals(names[i])) {
+                    first = j;
+                    break;
+                }
+            }
+            firstOccurrences[i] = first;
+            positions[i] = first == i ? distinct++ : positions[first];
+        }
+        distinctNames = distinct;
+    }
+
+    /** @return <code>true</code> if template doesn't contain any parameters */
+    public boolean isLiteral() {
+        return names.length == 0;
+    }
+
+    /**
+     * Create URI string. Each template parameter is replaced by value from map with the same name.
+     *
+     * @param values
+     *         the values which must be used instead templates parameters
+     * @param encode
+     *         if true then encode value before add it in URI, otherwise value must be validate to legal characters
+     * @param asTemplate
+     *         if true ignore absence value for any URI parameters
+     * @return the URI string
+     */
+    public String build(Map<String, ?> values, boolean encode, boolean asTemplate) {
+        if (isLiteral()) {
+            return literals[0];
+        }
+        StringBuilder sb = new StringBuilder(estimateLength());
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            Object o = values.get(names[i]);
+            if (o == null) {
+                if (asTemplate) {
+                    sb.append('{').append(names[i]).append('}');
+                } else {
+                    throw new IllegalArgumentException("Not found corresponding value for parameter " + names[i]);
+                }
+            } else {
+                sb.append(encodeValue(o.toString(), i, encode));
+            }
+        }
+        sb.append(literals[names.length]);
+        return sb.toString();
+    }
+
+    /**
+     * Create URI string. Values are taken from array in order of template parameters. All instances of the same template
+     * parameter are replaced by the same value that corresponds to the position of the first instance of the template
+     * parameter.
+     *
+     * @param values
+     *         the values which must be used instead templates parameters
+     * @param encode
+     *         if true then encode value before add it in URI, otherwise value must be validate to legal characters
+     * @param asTemplate
+     *         if true ignore absence value for any URI parameters
+     * @return the URI string
+     */
+    public String build(Object[] values, boolean encode, boolean asTemplate) {
+        if (isLiteral()) {
+            return literals[0];
+        }
+        String[] resolved = distinctNames == names.length ? null : new String[distinctNames];
+        StringBuilder sb = new StringBuilder(estimateLength());
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            int position = positions[i];
+            String value = null;
+            if (firstOccurrences[i] != i) {
+                // Value already processed when met the first instance of parameter.
+                value = resolved[position];
+            } else if (position < values.length) {
+                if (values[position] == null) {
+                    throw new IllegalArgumentException("Null value for parameter " + names[i]);
+                }
+                value = encodeValue(values[position].toString(), i, encode);
+                if (resolved != null) {
+                    resolved[position] = value;
+                }
+            }
+            if (value != null) {
+                sb.append(value);
+            } else if (asTemplate) {
+                sb.append('{').append(names[i]).append('}');
+            } else {
+                throw new IllegalArgumentException("Not found corresponding value for parameter " + names[i]);
+            }
+        }
+        sb.append(literals[names.length]);
+        return sb.toString();
+    }
+
+    private String encodeValue(String value, int i, boolean encode) {
+        return encode && encodable[i]
+               ? UriComponent.encode(value, components[i], true)
+               : UriComponent.recognizeEncode(value, components[i], true);
+    }
+
+    private int estimateLength() {
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        return length + 16 * names.length;
+    }
+
+    /** Collects literals and template parameters while template is parsed. */
+    private static final class Builder {
+        final List<String>  literals   = new ArrayList<>();
+        final List<String>  names      = new ArrayList<>();
+        final List<Integer> components = new ArrayList<>();
+        final List<Boolean> encodable  = new ArrayList<>();
+        final StringBuilder literal    = new StringBuilder();
+
+        boolean isEmpty() {
+            return literals.isEmpty() && literal.length() == 0;
+        }
+
+        void appendLiteral(char c) {
+            literal.append(c);
+        }
+
+        void appendUriPart(String uriPart, int component, boolean encodable) {
+            final int length = uriPart.length();
+            int lastTemplate = 0;
+            for (int i = 0; i < length; i++) {
+                char c = uriPart.charAt(i);
+                if (c == '{') {
+                    literal.append(uriPart, lastTemplate, i);
+                    lastTemplate = i;
+                    while (++i < length && (c = uriPart.charAt(i)) != '}') {
+                    }
+                    if (c != '}') {
+                        throw new IllegalArgumentException("Invalid URI template " + uriPart + ". Opened '{' is not closed by '}'. ");
+                    }
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    names.add(uriPart.substring(lastTemplate + 1, i));
+                    components.add(component);
+                    this.encodable.add(encodable);
+                    lastTemplate = i + 1;
+                }
+            }
+            if (lastTemplate < length) {
+                literal.append(uriPart, lastTemplate, length);
+            }
+        }
+    }
+}
@@ -20,11 +20,17 @@ import javax.ws.rs.core.PathSegment;
  * @version $Id$
  */
 public final class PathSegmentImpl implements PathSegment {
+    /** Raw path segment, path and matrix parameters are parsed from it on demand. */
+    private final String  pathSegment;
+    /** Position of the first ';' in raw segment or -1 if there is no matrix parameters. */
+    private final int     matrixStart;
+    private final boolean decode;
+
     /** Path. */
-    private final String path;
+    private String path;
 
     /** Matrix parameters. */
-    private final MultivaluedMap<String, String> matrixParameters;
+    private MultivaluedMap<String, String> matrixParameters;
 
     /**
      * @param path
@@ -33,12 +39,22 @@ public final class PathSegmentImpl implements PathSegment {
      *         Matrix parameters
      */
     PathSegmentImpl(String path, MultivaluedMap<String, String> matrixParameters) {
+        this.pathSegment = null;
+        this.matrixStart = -1;
+        this.decode = false;
         this.path = path;
         this.matrixParameters = matrixParameters;
     }
 
+    private PathSegmentImpl(String pathSegment, boolean decode) {
+        this.pathSegment = pathSegment;
+        this.matrixStart = pathSegment.indexOf(';');
+        this.decode = decode;
+    }
+
     /**
-     * Create instance of PathSegment from given string.
+     * Create instance of PathSegment from given string. Path and matrix parameters are parsed (and decoded) when they are
+     * requested first time.
      *
      * @param pathSegment
      *         string which represents PathSegment
@@ -47,71 +63,60 @@ public final class PathSegmentImpl implements PathSegment {
      * @return instance of PathSegment
      */
     public static PathSegment fromString(String pathSegment, boolean decode) {
-        String path = "";
-        MultivaluedMap<String, String> m = new MultivaluedMapImpl();
         if (pathSegment == null || pathSegment.length() == 0) {
-            return new PathSegmentImpl(path, m);
-        }
-
-        int n = 0;
-        // first ';' the start point for matrix parameter
-        int p = pathSegment.indexOf(';', n);
-
-        if (p > 0) {
-            path = pathSegment.substring(0, p);
-        } else {
-            path = pathSegment;
-        }
-        if (decode) {
-            path = UriComponent.decode(path, UriComponent.PATH_SEGMENT);
+            return new PathSegmentImpl("", new MultivaluedMapImpl());
         }
+        return new PathSegmentImpl(pathSegment, decode);
+    }
 
-        if (p < 0) // no matrix parameters
-        {
-            return new PathSegmentImpl(path, m);
+    private MultivaluedMap<String, String> parseMatrixParameters() {
+        MultivaluedMap<String, String> m = new MultivaluedMapImpl();
+        if (matrixStart < 0) { // no matrix parameters
+            return m;
         }
 
-        p++; // next character after ';'
+        int p = matrixStart + 1; // next character after ';'
         int length = pathSegment.length();
         while (p < length) {
-            n = pathSegment.indexOf(';', p); // find next ';'
-            String pair; // should look like 'a=b', but value can absent
+            int n = pathSegment.indexOf(';', p); // find next ';'
             if (n < 0) { // last pair in the string
-                n = pathSegment.length();
-                pair = pathSegment.substring(p);
-            } else {
-                pair = pathSegment.substring(p, n);
+                n = length;
             }
-
+            // pair should look like 'a=b', but value can absent
+            int eq = pathSegment.indexOf('=', p);
             String name;
             String value = ""; // default value
-            int eq = pair.indexOf('=');
-            if (eq == -1) // no value, default is ""
-            {
-                name = pair;
+            if (eq < 0 || eq > n) { // no value, default is ""
+                name = pathSegment.substring(p, n);
             } else {
-                name = pair.substring(0, eq);
-                value = pair.substring(eq + 1);
+                name = pathSegment.substring(p, eq);
+                value = pathSegment.substring(eq + 1, n);
             }
 
-            m.add(decode ? UriComponent.decode(name, UriComponent.PATH_SEGMENT) : name, decode ? UriComponent.decode(
-                    value, UriComponent.PATH_SEGMENT) : value);
+            m.add(decode ? UriComponent.decode(name, UriComponent.PATH_SEGMENT) : name,
+                  decode ? UriComponent.decode(value, UriComponent.PATH_SEGMENT) : value);
 
             p = n + 1;
         }
-
-        return new PathSegmentImpl(path, m);
+        return m;
     }
 
 
     @Override
     public MultivaluedMap<String, String> getMatrixParameters() {
+        if (matrixParameters == null) {
+            matrixParameters = parseMatrixParameters();
+        }
         return matrixParameters;
     }
 
 
     @Override
     public String getPath() {
+        if (path == null) {
+            String p = matrixStart > 0 ? pathSegment.substring(0, matrixStart) : pathSegment;
+            path = decode ? UriComponent.decode(p, UriComponent.PATH_SEGMENT) : p;
+        }
         return path;
     }
 }
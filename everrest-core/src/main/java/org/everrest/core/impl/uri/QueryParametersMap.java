@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.uri;
+
+import org.everrest.core.ExtMultivaluedMap;
+import org.everrest.core.impl.MultivaluedMapImpl;
+import org.everrest.core.util.LazyMultivaluedMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query parameters that are parsed from raw query string on demand. Lookup of single parameter scans query string and
+ * decodes only name and values of matched parameter, without creating substrings for other parameters.
+ *
+ * @author andrew00x
+ * @see UriComponent#parseQueryString(String, boolean)
+ */
+final class QueryParametersMap extends LazyMultivaluedMap<String, String> {
+    private final String  rawQuery;
+    private final boolean decode;
+
+    QueryParametersMap(String rawQuery, boolean decode) {
+        this.rawQuery = rawQuery == null ? "" : rawQuery;
+        this.decode = decode;
+    }
+
+    @Override
+    protected List<String> lookup(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String name = (String)key;
+        final int length = rawQuery.length();
+        List<String> values = null;
+        int p = 0;
+        while (p < length) {
+            int n = rawQuery.indexOf('&', p);
+            if (n < 0) {
+                n = length;
+            }
+            if (n > p) {
+                int eq = rawQuery.indexOf('=', p);
+                if (eq < 0 || eq > n) {
+                    eq = n;
+                }
+                if (nameMatches(name, p, eq)) {
+                    if (values == null) {
+                        values = new ArrayList<>(1);
+                    }
+                    values.add(eq < n ? value(eq + 1, n) : "");
+                }
+            }
+            p = n + 1;
+        }
+        return values;
+    }
+
+    private boolean nameMatches(String name, int from, int to) {
+        if (decode && UriComponent.firstEscaped(rawQuery, from, to) >= 0) {
+            return name.equals(UriComponent.decode(rawQuery.substring(from, to), UriComponent.QUERY));
+        }
+        return to - from == name.length() && rawQuery.regionMatches(from, name, 0, name.length());
+    }
+
+    private String value(int from, int to) {
+        String value = rawQuery.substring(from, to);
+        return decode ? UriComponent.decode(value, UriComponent.QUERY) : value;
+    }
+
+    @Override
+    protected ExtMultivaluedMap<String, String> materialize() {
+        MultivaluedMapImpl result = new MultivaluedMapImpl();
+        final int length = rawQuery.length();
+        int p = 0;
+        while (p < length) {
+            int n = rawQuery.indexOf('&', p);
+            if (n < 0) {
+                n = length;
+            }
+            if (n > p) {
+                int eq = rawQuery.indexOf('=', p);
+                if (eq < 0 || eq > n) {
+                    eq = n;
+                }
+                String name = rawQuery.substring(p, eq);
+                result.add(decode ? UriComponent.decode(name, UriComponent.QUERY) : name, eq < n ? value(eq + 1, n) : "");
+            }
+            p = n + 1;
+        }
+        return result;
+    }
+}
@@ -21,11 +21,21 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author andrew00x
  */
 public class UriBuilderImpl extends UriBuilder {
+    /** Methods of resource classes mapped by name, see {@link #path(Class, String)}. */
+    private static final ClassValue<ConcurrentMap<String, Method>> RESOURCE_METHODS = new ClassValue<ConcurrentMap<String, Method>>() {
+        @Override
+        protected ConcurrentMap<String, Method> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /** Scheme, e.g. http, https, etc. */
     private String schema;
 
@@ -47,6 +57,9 @@ public class UriBuilderImpl extends UriBuilder {
     /** Fragment. */
     private String fragment;
 
+    /** Compiled URI template, it is reset when any part of URI is changed. */
+    private CompiledUriTemplate compiled;
+
     public UriBuilderImpl() {
     }
 
@@ -56,17 +69,7 @@ public class UriBuilderImpl extends UriBuilder {
         if (values == null) {
             throw new IllegalArgumentException("Null values aren't allowed");
         }
-        encode();
-        String uri = UriPattern.createUriWithValues(
-                schema,
-                userInfo,
-                host,
-                port,
-                path.toString(),
-                query.toString(),
-                fragment,
-                values,
-                true);
+        String uri = getCompiledTemplate().build(values, true, false);
         try {
             return new URI(uri);
         } catch (URISyntaxException e) {
@@ -85,17 +88,7 @@ public class UriBuilderImpl extends UriBuilder {
         if (values == null) {
             throw new IllegalArgumentException("Null values aren't allowed");
         }
-        encode();
-        String uri = UriPattern.createUriWithValues(
-                schema,
-                userInfo,
-                host,
-                port,
-                path.toString(),
-                query.toString(),
-                fragment,
-                values,
-                false);
+        String uri = getCompiledTemplate().build(values, false, false);
         try {
             return new URI(uri);
         } catch (URISyntaxException e) {
@@ -109,17 +102,7 @@ public class UriBuilderImpl extends UriBuilder {
         if (values == null) {
             throw new IllegalArgumentException("Null values aren't allowed");
         }
-        encode();
-        String uri = UriPattern.createUriWithValues(
-                schema,
-                userInfo,
-                host,
-                port,
-                path.toString(),
-                query.toString(),
-                fragment,
-                values,
-                true);
+        String uri = getCompiledTemplate().build(values, true, false);
         try {
             return new URI(uri);
         } catch (URISyntaxException e) {
@@ -141,17 +124,7 @@ public class UriBuilderImpl extends UriBuilder {
         if (values == null) {
             throw new IllegalArgumentException("Null values aren't allowed");
         }
-        encode();
-        String uri = UriPattern.createUriWithValues(
-                schema,
-                userInfo,
-                host,
-                port,
-                path.toString(),
-                query.toString(),
-                fragment,
-                values,
-                false);
+        String uri = getCompiledTemplate().build(values, false, false);
         try {
             return new URI(uri);
         } catch (URISyntaxException e) {
@@ -174,6 +147,18 @@ public class UriBuilderImpl extends UriBuilder {
                 true);
     }
 
+    /**
+     * Get compiled template for current state of builder. Template is compiled once and reused until any part of URI is
+     * changed.
+     */
+    private CompiledUriTemplate getCompiledTemplate() {
+        if (compiled == null) {
+            encode();
+            compiled = CompiledUriTemplate.compile(schema, userInfo, host, port, path.toString(), query.toString(), fragment);
+        }
+        return compiled;
+    }
+
     /** Encode URI path, query and fragment components. */
     private void encode() {
         // Should do this even path all segments already encoded. The reason is
@@ -274,11 +259,13 @@ public class UriBuilderImpl extends UriBuilder {
         this.path = new StringBuilder(cloned.path);
         this.query = new StringBuilder(cloned.query);
         this.fragment = cloned.fragment;
+        this.compiled = cloned.compiled;
     }
 
 
     @Override
     public UriBuilder fragment(String fragment) {
+        compiled = null;
         this.fragment = fragment == null ? null : UriComponent.encode(fragment, UriComponent.FRAGMENT, true);
         return this;
     }
@@ -318,6 +305,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder resolveTemplates(Map<String, Object> templateValues, boolean encodeSlashInPath) throws IllegalArgumentException {
+        compiled = null;
         if (templateValues == null) {
             throw new IllegalArgumentException("Null map isn't allowed");
         }
@@ -365,6 +353,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder host(String host) {
+        compiled = null;
         this.host = host == null ? null : UriComponent.recognizeEncode(host, UriComponent.HOST, true);
         return this;
     }
@@ -372,6 +361,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder matrixParam(String name, Object... values) {
+        compiled = null;
         if (name == null) {
             throw new IllegalArgumentException("Name is null");
         }
@@ -395,6 +385,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder path(String p) {
+        compiled = null;
         if (p == null) {
             throw new IllegalArgumentException("Path segments are null");
         }
@@ -457,9 +448,19 @@ public class UriBuilderImpl extends UriBuilder {
             throw new IllegalArgumentException("Method name is null");
         }
 
-        Method[] methods = resource.getMethods();
+        path(findMethod(resource, method));
+
+        return this;
+    }
 
-        Method matched = null;
+    private static Method findMethod(Class<?> resource, String method) {
+        ConcurrentMap<String, Method> resourceMethods = RESOURCE_METHODS.get(resource);
+        Method matched = resourceMethods.get(method);
+        if (matched != null) {
+            return matched;
+        }
+
+        Method[] methods = resource.getMethods();
         for (int i = 0, length = methods.length; i < length; i++) {
             Method m = methods[i];
             if (matched != null && m.getName().equals(method)) {
@@ -474,14 +475,14 @@ public class UriBuilderImpl extends UriBuilder {
             throw new IllegalArgumentException("Method " + method + " not found at resource class " + resource.getName());
         }
 
-        path(matched);
-
-        return this;
+        resourceMethods.putIfAbsent(method, matched);
+        return matched;
     }
 
 
     @Override
     public UriBuilder port(int port) {
+        compiled = null;
         if (port < -1) {
             throw new IllegalArgumentException("Invalid port " + port);
         }
@@ -492,6 +493,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder queryParam(String name, Object... values) {
+        compiled = null;
         if (name == null) {
             throw new IllegalArgumentException("Name is null");
         }
@@ -519,6 +521,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder replaceMatrixParam(String name, Object... values) {
+        compiled = null;
         if (name == null) {
             throw new IllegalArgumentException("Name is null");
         }
@@ -567,6 +570,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder replaceMatrix(String matrix) {
+        compiled = null;
         // Search ';' which goes after '/' at final path segment.
         if (path.length() > 0) {
             int p = path.lastIndexOf("/");
@@ -590,6 +594,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder replacePath(String p) {
+        compiled = null;
         path.setLength(0);
         if (!(p == null || p.isEmpty())) {
             path(p);
@@ -600,6 +605,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder replaceQueryParam(String name, Object... values) {
+        compiled = null;
         if (name == null) {
             throw new IllegalArgumentException("Name is null");
         }
@@ -645,6 +651,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder replaceQuery(String queryString) {
+        compiled = null;
         query.setLength(0);
 
         if (!(queryString == null || queryString.isEmpty())) {
@@ -657,6 +664,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder scheme(String schema) {
+        compiled = null;
         this.schema = schema != null ? UriComponent.validate(schema, UriComponent.SCHEME, true) : null;
         return this;
     }
@@ -664,6 +672,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder schemeSpecificPart(String ssp) {
+        compiled = null;
         if (ssp == null) {
             throw new IllegalArgumentException("Scheme specific part (ssp) is null");
         }
@@ -716,6 +725,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder uri(URI uri) {
+        compiled = null;
         if (uri == null) {
             throw new IllegalArgumentException("URI is null");
         }
@@ -764,6 +774,7 @@ public class UriBuilderImpl extends UriBuilder {
 
     @Override
     public UriBuilder userInfo(String userInfo) {
+        compiled = null;
         this.userInfo = userInfo != null ? UriComponent.recognizeEncode(userInfo, UriComponent.USER_INFO, true) : null;
         return this;
     }
@@ -10,13 +10,10 @@
  *******************************************************************************/
 package org.everrest.core.impl.uri;
 
-import org.everrest.core.impl.MultivaluedMapImpl;
-import org.everrest.core.util.NoSyncByteArrayOutputStream;
 
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.UriBuilder;
-import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -429,24 +426,32 @@ public final class UriComponent {
             throw new IllegalArgumentException("Malformed string at index " + p);
         }
 
-        p = 0; // reset pointer
-        StringBuilder sb = new StringBuilder();
-        NoSyncByteArrayOutputStream buff = null;
+        // Most of strings do not contain any escaped characters, return them as is.
+        p = firstEscaped(str, 0, length);
+        if (p < 0) {
+            return str;
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(str, 0, p);
+        // Buffer for sequence of percent-encoded octets. Sequence may not be longer than rest of string divided by three.
+        byte[] bytes = null;
         while (p < length) {
             char c = str.charAt(p);
             switch (c) {
                 case '%':
-                    if (buff == null) {
-                        buff = new NoSyncByteArrayOutputStream(4);
-                    } else {
-                        buff.reset();
+                    if (bytes == null) {
+                        bytes = new byte[(length - p) / 3];
                     }
-                    p = percentDecode(str, p, buff);
-                    byte[] bytes = buff.toByteArray();
-                    if (bytes.length == 1 && (bytes[0] & 0xFF) < 128) {
+                    int n = 0;
+                    do {
+                        bytes[n++] = (byte)((hexValue(getHexCharacter(str, p + 1)) << 4) | hexValue(getHexCharacter(str, p + 2)));
+                        p += 3;
+                    } while (p < length && str.charAt(p) == '%');
+                    if (n == 1 && bytes[0] >= 0) {
                         sb.append((char)bytes[0]);
                     } else {
-                        sb.append(UTF8.decode(ByteBuffer.wrap(bytes)));
+                        sb.append(new String(bytes, 0, n, UTF8));
                     }
                     break;
                 case '+':
@@ -496,34 +501,28 @@ public final class UriComponent {
     }
 
     /**
-     * Decode percent encoded string.
+     * Find position of the first character that must be decoded, i.e. '%' or '+'.
      *
      * @param str
      *         the source string
-     * @param p
+     * @param from
      *         start position in string
-     * @param out
-     *         output buffer for decoded characters
-     * @return current position in source string
+     * @param to
+     *         end position in string, exclusive
+     * @return position of the first escaped character or -1 if there is no escaped characters in specified range
      */
-    private static int percentDecode(String str, int p, ByteArrayOutputStream out) {
-        int length = str.length();
-        for (; ; ) {
-            char hc = getHexCharacter(str, ++p); // higher char
-            char lc = getHexCharacter(str, ++p); // lower char
-
-            int r = ((Character.isDigit(hc) ? hc - '0' : hc - 'A' + 10) << 4)
-                    | (Character.isDigit(lc) ? lc - '0' : lc - 'A' + 10);
-
-            out.write((byte)r);
-            p++;
-
-            if (p == length || str.charAt(p) != '%') {
-                break;
+    static int firstEscaped(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c == '%' || c == '+') {
+                return i;
             }
         }
+        return -1;
+    }
 
-        return p;
+    private static int hexValue(char hex) {
+        return hex <= '9' ? hex - '0' : hex - 'A' + 10;
     }
 
     /**
@@ -613,39 +612,11 @@ public final class UriComponent {
      *         source query string
      * @param decode
      *         if true then query parameters will be decoded
-     * @return {@link MultivaluedMap} with query parameters
+     * @return {@link MultivaluedMap} with query parameters. Query string is parsed lazily, single parameter may be got
+     * without parsing of the whole query string
      */
     public static MultivaluedMap<String, String> parseQueryString(String rawQuery, boolean decode) {
-        MultivaluedMap<String, String> result = new MultivaluedMapImpl();
-        if (!(rawQuery == null || rawQuery.isEmpty())) {
-            int p = 0;
-            int n = 0;
-            while (n < rawQuery.length()) {
-                n = rawQuery.indexOf('&', p);
-                if (n < 0) {
-                    n = rawQuery.length();
-                }
-
-                String pair = rawQuery.substring(p, n);
-                if (!pair.isEmpty()) {
-                    String name;
-                    String value;
-                    int eq = pair.indexOf('=');
-                    if (eq < 0) {
-                        // no value
-                        name = pair;
-                        value = "";
-                    } else {
-                        name = pair.substring(0, eq);
-                        value = pair.substring(eq + 1);
-                    }
-
-                    result.add(decode ? decode(name, QUERY) : name, decode ? decode(value, QUERY) : value);
-                }
-                p = n + 1;
-            }
-        }
-        return result;
+        return new QueryParametersMap(rawQuery, decode);
     }
 
     public static UriBuilderImpl parseTemplate(String template) {
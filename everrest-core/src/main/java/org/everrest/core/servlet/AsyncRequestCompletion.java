@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Completes asynchronous request exactly once. Request may be completed by thread that processes it, by timer when timeout occurs
+ * or by container when I/O error occurs. After request is completed neither response nor {@link AsyncContext} may be used any more,
+ * components that write response check {@link #isCompleted()} and modify response while they hold monitor of this object, so
+ * response is never modified concurrently with resetting it after timeout.
+ * <p/>
+ * Timeout is not applied to the whole exchange. Reading of request body and sending of response report about each chunk of data
+ * with {@link #progress()} and request is timed out only if there is no progress during timeout period, e.g. request is processed
+ * too long or client stops sending or receiving data.
+ *
+ * @author andrew00x
+ */
+class AsyncRequestCompletion implements AsyncListener {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncRequestCompletion.class);
+
+    private final AsyncContext             asyncContext;
+    private final HttpServletResponse      response;
+    private final ScheduledExecutorService timer;
+    private final long                     timeout;
+    private final AtomicBoolean            completed = new AtomicBoolean();
+
+    private volatile long               lastProgress;
+    private volatile ScheduledFuture<?> timeoutCheck;
+
+    AsyncRequestCompletion(AsyncContext asyncContext, HttpServletResponse response) {
+        this(asyncContext, response, null, 0);
+    }
+
+    /**
+     * @param asyncContext
+     *         context of asynchronous request
+     * @param response
+     *         response
+     * @param timer
+     *         timer that checks timeout, if <code>null</code> request is timed out by container only
+     * @param timeout
+     *         max time in milliseconds without any progress of request
+     */
+    AsyncRequestCompletion(AsyncContext asyncContext, HttpServletResponse response, ScheduledExecutorService timer, long timeout) {
+        this.asyncContext = asyncContext;
+        this.response = response;
+        this.timer = timer;
+        this.timeout = timeout;
+        this.lastProgress = System.currentTimeMillis();
+    }
+
+    /** Start checking timeout of request. */
+    void startTimer() {
+        progress();
+        if (timer != null && timeout > 0) {
+            scheduleTimeoutCheck(timeout);
+        }
+    }
+
+    /** Notify that request is making progress, e.g. next chunk of data is read or sent. Timeout period is restarted. */
+    void progress() {
+        lastProgress = System.currentTimeMillis();
+    }
+
+    /** @return <code>true</code> if request is completed and response must not be used any more */
+    boolean isCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Complete request if it is not completed yet.
+     *
+     * @return <code>true</code> if request is completed by this call and <code>false</code> if it was completed before
+     */
+    boolean complete() {
+        if (markCompleted()) {
+            asyncContext.complete();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Send status to client if response is not committed yet and complete request if it is not completed yet. If response is
+     * already committed then client may not get error status any more and request is aborted: response is completed before the
+     * whole body is sent. Body of asynchronous response always has length, see {@link AsyncServletContainerResponseWriter#writeAsync()},
+     * so client and container never take the truncated response for complete one and connection is closed.
+     *
+     * @param status
+     *         HTTP status
+     * @return <code>true</code> if request is completed by this call and <code>false</code> if it was completed before
+     */
+    boolean completeWithError(int status) {
+        if (markCompleted()) {
+            boolean aborted;
+            try {
+                synchronized (this) {
+                    aborted = response.isCommitted();
+                    if (!aborted) {
+                        response.reset();
+                        response.setStatus(status);
+                    }
+                }
+            } finally {
+                asyncContext.complete();
+            }
+            if (aborted) {
+                LOG.warn("Response is already committed, request is aborted");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean markCompleted() {
+        if (completed.compareAndSet(false, true)) {
+            final ScheduledFuture<?> check = timeoutCheck;
+            if (check != null) {
+                check.cancel(false);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void scheduleTimeoutCheck(long delay) {
+        try {
+            timeoutCheck = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    checkTimeout();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // timer is stopped, servlet is destroyed
+            completeWithError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void checkTimeout() {
+        if (isCompleted()) {
+            return;
+        }
+        final long idle = System.currentTimeMillis() - lastProgress;
+        if (idle >= timeout) {
+            timeout();
+        } else {
+            scheduleTimeoutCheck(timeout - idle);
+        }
+    }
+
+    private void timeout() {
+        if (completeWithError(HttpServletResponse.SC_SERVICE_UNAVAILABLE)) {
+            LOG.warn("Asynchronous request is not completed in time");
+        }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        markCompleted();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        timeout();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        final Throwable error = event.getThrowable();
+        if (complete() && error != null && LOG.isDebugEnabled()) {
+            LOG.debug(error.getMessage(), error);
+        }
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.impl.FileCollector;
+import org.everrest.core.util.NoSyncByteArrayOutputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads body of request with non-blocking I/O. Body is kept in memory until its size is not greater then max buffer size, otherwise
+ * it is saved in temporary file. Listener is notified when the whole body is read.
+ *
+ * @author andrew00x
+ */
+class AsyncRequestReader implements ReadListener {
+    /** Gets result of reading of request body. */
+    interface Listener {
+        /**
+         * Called when the whole body is read.
+         *
+         * @param entityStream
+         *         stream of request body
+         */
+        void onRead(InputStream entityStream);
+
+        /** Called each time when next chunk of body is read. */
+        void onProgress();
+
+        void onError(Throwable error);
+    }
+
+    private final ServletInputStream input;
+    private final int                maxBufferSize;
+    private final Listener           listener;
+    private final byte[]             buffer = new byte[4096];
+
+    private NoSyncByteArrayOutputStream memory = new NoSyncByteArrayOutputStream();
+    private File                        file;
+    private OutputStream                fileOutput;
+
+    AsyncRequestReader(ServletInputStream input, int maxBufferSize, Listener listener) {
+        this.input = input;
+        this.maxBufferSize = maxBufferSize;
+        this.listener = listener;
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+        int n;
+        while (input.isReady() && (n = input.read(buffer)) != -1) {
+            if (memory != null && memory.size() + n > maxBufferSize) {
+                file = FileCollector.getInstance().createFile();
+                fileOutput = new FileOutputStream(file);
+                memory.writeTo(fileOutput);
+                memory = null;
+            }
+            if (memory != null) {
+                memory.write(buffer, 0, n);
+            } else {
+                fileOutput.write(buffer, 0, n);
+            }
+            listener.onProgress();
+        }
+    }
+
+    @Override
+    public void onAllDataRead() throws IOException {
+        final InputStream entityStream;
+        if (memory != null) {
+            entityStream = new ByteArrayInputStream(memory.getBytes(), 0, memory.size());
+        } else {
+            fileOutput.close();
+            entityStream = new FileInputStream(file) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        delete();
+                    }
+                }
+            };
+        }
+        listener.onRead(entityStream);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        delete();
+        listener.onError(error);
+    }
+
+    /** Remove temporary file if body of request was saved in file. */
+    void delete() {
+        if (file != null) {
+            try {
+                if (fileOutput != null) {
+                    fileOutput.close();
+                }
+            } catch (IOException ignored) {
+            }
+            if (file.exists() && !file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+}
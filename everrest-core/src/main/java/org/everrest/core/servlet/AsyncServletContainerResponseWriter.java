@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.GenericContainerResponse;
+import org.everrest.core.impl.FileCollector;
+import org.everrest.core.util.NoSyncByteArrayOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Writer of response for asynchronous processing of request. Headers are set in the same way as {@link
+ * ServletContainerResponseWriter} does, but body is serialized to the buffer and is sent to client with non-blocking I/O, see {@link
+ * #writeAsync()}. Thread that serializes response is not blocked by slow clients. Body is kept in memory until
+ * its size is not greater then max buffer size, otherwise it is saved in temporary file and is streamed to client from this file.
+ * Headers are written while monitor of {@link AsyncRequestCompletion} is held, so they never interleave with resetting of response
+ * after timeout.
+ *
+ * @author andrew00x
+ */
+class AsyncServletContainerResponseWriter extends ServletContainerResponseWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncServletContainerResponseWriter.class);
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final HttpServletResponse    servletResponse;
+    private final AsyncRequestCompletion completion;
+    private final BodyBuffer             body;
+
+    AsyncServletContainerResponseWriter(HttpServletResponse response, AsyncRequestCompletion completion, int maxBufferSize) {
+        super(response);
+        this.servletResponse = response;
+        this.completion = completion;
+        this.body = new BodyBuffer(maxBufferSize);
+    }
+
+    @Override
+    public void writeHeaders(GenericContainerResponse response) throws IOException {
+        // Response must not be touched after request is completed, e.g. after timeout.
+        synchronized (completion) {
+            if (!completion.isCompleted()) {
+                super.writeHeaders(response);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public void writeBody(GenericContainerResponse response, MessageBodyWriter entityWriter) throws IOException {
+        if (completion.isCompleted() || servletResponse.isCommitted()) {
+            return;
+        }
+        Object entity = response.getEntity();
+        if (entity != null) {
+            entityWriter.writeTo(entity, entity.getClass(), response.getEntityType(), null, response.getContentType(),
+                                 response.getHttpHeaders(), body);
+        }
+    }
+
+    /**
+     * Send buffered body to client when output stream becomes writable and complete asynchronous processing of request after that.
+     * Nothing is sent if request is already completed, e.g. because of timeout. Length of body is known when it is buffered, it is
+     * always set in response, so if request is aborted while body is sent client does not take the truncated body for complete one.
+     */
+    void writeAsync() throws IOException {
+        final InputStream input;
+        synchronized (completion) {
+            if (completion.isCompleted()) {
+                discard();
+                return;
+            }
+            input = body.getInputStream();
+            if (input == null) {
+                completion.complete();
+                return;
+            }
+            servletResponse.setContentLengthLong(body.length());
+        }
+        completion.progress();
+        final ServletOutputStream output = servletResponse.getOutputStream();
+        output.setWriteListener(new WriteListener() {
+            private final byte[] chunk = new byte[CHUNK_SIZE];
+
+            @Override
+            public void onWritePossible() throws IOException {
+                while (output.isReady()) {
+                    if (completion.isCompleted()) {
+                        closeQuietly(input);
+                        return;
+                    }
+                    final int n = input.read(chunk);
+                    if (n == -1) {
+                        closeQuietly(input);
+                        completion.complete();
+                        return;
+                    }
+                    output.write(chunk, 0, n);
+                    completion.progress();
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(error.getMessage(), error);
+                }
+                closeQuietly(input);
+                completion.complete();
+            }
+        });
+    }
+
+    /** Drop buffered body, e.g. if request failed or completed before body is sent. */
+    void discard() {
+        body.delete();
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Keeps body of response in memory until its size is not greater then max buffer size, in temporary file otherwise. */
+    private static final class BodyBuffer extends OutputStream {
+        final int maxBufferSize;
+
+        NoSyncByteArrayOutputStream memory = new NoSyncByteArrayOutputStream();
+        File                        file;
+        OutputStream                fileOutput;
+
+        BodyBuffer(int maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (memory != null && memory.size() + len > maxBufferSize) {
+                file = FileCollector.getInstance().createFile();
+                fileOutput = new FileOutputStream(file);
+                memory.writeTo(fileOutput);
+                memory = null;
+            }
+            if (memory != null) {
+                memory.write(b, off, len);
+            } else {
+                fileOutput.write(b, off, len);
+            }
+        }
+
+        /** @return length of buffered body */
+        long length() {
+            return memory != null ? memory.size() : file.length();
+        }
+
+        /** @return stream of buffered body or <code>null</code> if body is empty */
+        InputStream getInputStream() throws IOException {
+            if (memory != null) {
+                return memory.size() == 0 ? null : new ByteArrayInputStream(memory.getBytes(), 0, memory.size());
+            }
+            fileOutput.close();
+            return new FileInputStream(file) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        delete();
+                    }
+                }
+            };
+        }
+
+        /** Remove temporary file if body of response was saved in file. */
+        void delete() {
+            if (file != null) {
+                try {
+                    fileOutput.close();
+                } catch (IOException ignored) {
+                }
+                if (file.exists() && !file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+    }
+}
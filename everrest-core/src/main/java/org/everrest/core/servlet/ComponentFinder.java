@@ -18,13 +18,21 @@ import javax.servlet.ServletException;
 import javax.servlet.annotation.HandlesTypes;
 import javax.ws.rs.Path;
 import javax.ws.rs.ext.Provider;
+import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
-/** @author andrew00x */
+/**
+ * Collects JAX-RS components found by servlet container. Classes passed by container are ignored if web application has {@link
+ * ComponentIndex}, components are loaded from index in this case, see {@link EverrestServletContextInitializer#EVERREST_SCAN_INDEX}.
+ * Servlet container still scans classpath for this initializer, exclude everrest-core from scanning in configuration of container
+ * to avoid it.
+ *
+ * @author andrew00x
+ */
 @HandlesTypes({Path.class, Provider.class, Filter.class})
 public class ComponentFinder implements ServletContainerInitializer {
 
@@ -37,28 +45,55 @@ public class ComponentFinder implements ServletContainerInitializer {
 
     @Override
     public void onStartup(Set<Class<?>> c, ServletContext ctx) throws ServletException {
-        if (c != null) {
-            List<String> skip = new LinkedList<String>();
-            String skipParameter = ctx.getInitParameter(EverrestServletContextInitializer.EVERREST_SCAN_SKIP_PACKAGES);
-            if (skipParameter != null) {
-                for (String s : skipParameter.split(",")) {
-                    skip.add(s.trim());
-                }
-            }
-            skip.add("org.everrest.core");
-            skip.add("javax.ws.rs");
+        if (c != null && !hasIndex(ctx)) {
+            List<String> skip = getSkipPackages(ctx.getInitParameter(EverrestServletContextInitializer.EVERREST_SCAN_SKIP_PACKAGES));
             for (Class<?> clazz : c) {
-                if (!clazz.isInterface()                            // skip interfaces
-                    && !Modifier.isAbstract(clazz.getModifiers())   // skip abstract classes
-                    && (clazz.getEnclosingClass() == null)          // skip anonymous and local classes
-                    && !isSkipped(skip, clazz)) {                   // skip internal stuff
+                if (isComponent(clazz, skip)) {
                     scanned.add(clazz);
                 }
             }
         }
     }
 
-    private boolean isSkipped(List<String> skip, Class<?> clazz) {
+    private static boolean hasIndex(ServletContext ctx) {
+        if (!new EverrestServletContextInitializer(ctx).getBoolean(EverrestServletContextInitializer.EVERREST_SCAN_INDEX, true)) {
+            return false;
+        }
+        try {
+            return ComponentIndex.readComponentNames(ctx.getClassLoader()) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get list of packages which components must not be added in application.
+     *
+     * @param skipParameter
+     *         comma separated list of packages, value of {@link EverrestServletContextInitializer#EVERREST_SCAN_SKIP_PACKAGES},
+     *         may be <code>null</code>
+     * @return list of skipped packages, includes everrest and JAX-RS API packages
+     */
+    static List<String> getSkipPackages(String skipParameter) {
+        List<String> skip = new LinkedList<String>();
+        if (skipParameter != null) {
+            for (String s : skipParameter.split(",")) {
+                skip.add(s.trim());
+            }
+        }
+        skip.add("org.everrest.core");
+        skip.add("javax.ws.rs");
+        return skip;
+    }
+
+    static boolean isComponent(Class<?> clazz, List<String> skip) {
+        return !clazz.isInterface()                            // skip interfaces
+               && !Modifier.isAbstract(clazz.getModifiers())   // skip abstract classes
+               && (clazz.getEnclosingClass() == null)          // skip anonymous and local classes
+               && !isSkipped(skip, clazz);                     // skip internal stuff
+    }
+
+    private static boolean isSkipped(List<String> skip, Class<?> clazz) {
         final String clazzName = clazz.getName();
         for (String s : skip) {
             if (clazzName.startsWith(s)) {
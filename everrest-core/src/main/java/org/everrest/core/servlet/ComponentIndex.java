@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.Filter;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.ext.Provider;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index of JAX-RS components created at compile time by {@link ComponentIndexProcessor}. Each jar or classes directory may
+ * contain own index in {@link #INDEX_LOCATION}, one FQN of class per line, lines started with '#' are ignored. If web
+ * application has index it is used instead of result of scanning, see {@link EverrestServletContextInitializer#EVERREST_SCAN_INDEX}.
+ *
+ * @author andrew00x
+ */
+public final class ComponentIndex {
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ComponentIndex.class);
+
+    /** Location of index resource. */
+    public static final String INDEX_LOCATION = "META-INF/everrest/components";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private ComponentIndex() {
+    }
+
+    /**
+     * Read names of classes from indexes that belong to specified class loader. Indexes that are visible through parent class
+     * loader, e.g. indexes in jars of servlet container, are ignored.
+     *
+     * @param classLoader
+     *         class loader
+     * @return names of indexed classes or <code>null</code> if there is no any index
+     * @throws IOException
+     *         if any i/o error occurs when read index
+     */
+    public static Set<String> readComponentNames(ClassLoader classLoader) throws IOException {
+        final Set<URL> indexes = getResources(classLoader);
+        final ClassLoader parent = classLoader.getParent();
+        if (parent != null && !indexes.isEmpty()) {
+            indexes.removeAll(getResources(parent));
+        }
+        if (indexes.isEmpty()) {
+            return null;
+        }
+        final Set<String> names = new LinkedHashSet<>();
+        for (URL index : indexes) {
+            try (InputStream input = index.openStream()) {
+                names.addAll(read(input));
+            }
+        }
+        return names;
+    }
+
+    private static Set<URL> getResources(ClassLoader classLoader) throws IOException {
+        final Set<URL> resources = new LinkedHashSet<>();
+        for (Enumeration<URL> e = classLoader.getResources(INDEX_LOCATION); e.hasMoreElements(); ) {
+            resources.add(e.nextElement());
+        }
+        return resources;
+    }
+
+    /**
+     * Load indexed components.
+     *
+     * @param classLoader
+     *         class loader
+     * @param skip
+     *         packages which components must not be loaded
+     * @return indexed components or <code>null</code> if there is no any index
+     * @throws IOException
+     *         if any i/o error occurs when read index
+     */
+    static Set<Class<?>> loadComponents(ClassLoader classLoader, List<String> skip) throws IOException {
+        final Set<String> names = readComponentNames(classLoader);
+        if (names == null) {
+            return null;
+        }
+        final Set<Class<?>> components = new LinkedHashSet<>();
+        for (String name : names) {
+            final Class<?> clazz;
+            try {
+                clazz = classLoader.loadClass(name);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Index may be stale, e.g. class removed after index was created.
+                LOG.warn("Unable load indexed component {}. {}", name, e.toString());
+                continue;
+            }
+            if (isAnnotated(clazz) && ComponentFinder.isComponent(clazz, skip)) {
+                components.add(clazz);
+            }
+        }
+        return components;
+    }
+
+    private static boolean isAnnotated(Class<?> clazz) {
+        return clazz.isAnnotationPresent(Path.class) || clazz.isAnnotationPresent(Provider.class) || clazz.isAnnotationPresent(Filter.class);
+    }
+
+    static Set<String> read(InputStream input) throws IOException {
+        final Set<String> names = new LinkedHashSet<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input, UTF8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!(line.isEmpty() || line.startsWith("#"))) {
+                names.add(line);
+            }
+        }
+        return names;
+    }
+
+    static void write(Collection<String> names, OutputStream output) throws IOException {
+        final Writer writer = new OutputStreamWriter(output, UTF8);
+        for (String name : names) {
+            writer.write(name);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that creates {@link ComponentIndex} of classes annotated with {@link javax.ws.rs.Path}, {@link
+ * javax.ws.rs.ext.Provider} or {@link org.everrest.core.Filter}. The same as scanning at runtime only concrete top level
+ * classes are indexed. Processor is not registered in META-INF/services/javax.annotation.processing.Processor, so it is not
+ * run by javac automatically, module that needs index must enable processor explicitly, e.g. with maven-compiler-plugin:
+ * <pre>
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;org.everrest.core.servlet.ComponentIndexProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ * or with javac option <code>-processor org.everrest.core.servlet.ComponentIndexProcessor</code>. Creation of index may be
+ * disabled with option <code>-Aeverrest.index=false</code>, e.g. in some profiles of build.
+ * <p/>
+ * In case of incremental compilation processor sees only recompiled classes, so entries of existed index are kept if
+ * classes are still available for compiler.
+ *
+ * @author andrew00x
+ */
+@SupportedAnnotationTypes({"javax.ws.rs.Path", "javax.ws.rs.ext.Provider", "org.everrest.core.Filter"})
+@SupportedOptions(ComponentIndexProcessor.INDEX_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    /** Name of processor option that enables or disables creation of index. Index is created if option is not set. */
+    public static final String INDEX_OPTION = "everrest.index";
+
+    private final Set<String> components = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if ("false".equalsIgnoreCase(processingEnv.getOptions().get(INDEX_OPTION))) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            if (!components.isEmpty()) {
+                writeIndex();
+            }
+        } else {
+            for (TypeElement annotation : annotations) {
+                for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                    if (isComponent(element)) {
+                        components.add(((TypeElement)element).getQualifiedName().toString());
+                    }
+                }
+            }
+        }
+        // Do not claim annotations, other processors may be interested in them.
+        return false;
+    }
+
+    private boolean isComponent(Element element) {
+        return element.getKind() == ElementKind.CLASS
+               && !element.getModifiers().contains(Modifier.ABSTRACT)
+               && element.getEnclosingElement().getKind() == ElementKind.PACKAGE;
+    }
+
+    private void writeIndex() {
+        readExistedIndex();
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (OutputStream output = index.openOutputStream()) {
+                ComponentIndex.write(components, output);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable write index of components. " + e.getMessage());
+        }
+    }
+
+    private void readExistedIndex() {
+        try {
+            final FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (InputStream input = index.openInputStream()) {
+                for (String name : ComponentIndex.read(input)) {
+                    if (processingEnv.getElementUtils().getTypeElement(name) != null) {
+                        components.add(name);
+                    }
+                }
+            }
+        } catch (FileNotFoundException | NoSuchFileException ignored) {
+            // no index yet
+        } catch (IOException | IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Unable read existed index of components. " + e.getMessage());
+        }
+    }
+}
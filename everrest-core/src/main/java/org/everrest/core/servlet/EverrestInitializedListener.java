@@ -69,7 +69,7 @@ public class EverrestInitializedListener implements ServletContextListener {
             everrest.addSingleton(new AsynchronousProcessListWriter());
         }
         if (config.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(config));
         }
         everrest.addApplication(application);
         EverrestProcessor processor = new EverrestProcessor(resources, providers, dependencySupplier, config, everrest);
@@ -13,29 +13,50 @@ package org.everrest.core.servlet;
 import org.everrest.core.UnhandledException;
 import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.impl.EnvironmentContext;
+import org.everrest.core.impl.EverrestConfiguration;
 import org.everrest.core.impl.EverrestProcessor;
 import org.everrest.core.tools.ErrorPages;
 import org.everrest.core.tools.WebApplicationDeclaredRoles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Servlet that dispatches requests to {@link EverrestProcessor}. If {@link EverrestConfiguration#EVERREST_SERVLET_ASYNC} is enabled
+ * and servlet supports asynchronous mode then body of request and response are transferred with non-blocking I/O and requests are
+ * processed in separate thread pool, so container threads are not blocked by slow clients.
+ *
  * @author andrew00x
  */
 @SuppressWarnings("serial")
 public class EverrestServlet extends HttpServlet {
     private static final Logger LOG = LoggerFactory.getLogger(EverrestServlet.class);
 
+    private static final AtomicLong threadCounter = new AtomicLong(1);
+
     private WebApplicationDeclaredRoles webApplicationRoles;
     private ErrorPages                  errorPages;
+    private ThreadPoolExecutor          asyncExecutor;
+    private ScheduledThreadPoolExecutor asyncTimer;
+    private long                        asyncTimeout;
+    private int                         maxBufferSize;
 
     protected EverrestProcessor processor;
 
@@ -44,19 +65,51 @@ public class EverrestServlet extends HttpServlet {
         processor = (EverrestProcessor)getServletConfig().getServletContext().getAttribute(EverrestProcessor.class.getName());
         webApplicationRoles = new WebApplicationDeclaredRoles(getServletContext());
         errorPages = new ErrorPages(getServletContext());
+        final EverrestConfiguration config = new EverrestServletContextInitializer(getServletContext()).getConfiguration();
+        if (config.isServletAsync()) {
+            asyncExecutor = new ThreadPoolExecutor(config.getServletAsyncPoolSize(), config.getServletAsyncPoolSize(),
+                                                   0L, TimeUnit.MILLISECONDS,
+                                                   new ArrayBlockingQueue<Runnable>(config.getServletAsyncQueueSize()),
+                                                   new ThreadFactory() {
+                                                       @Override
+                                                       public Thread newThread(Runnable r) {
+                                                           final Thread t = new Thread(r, "everrest.EverrestServlet"
+                                                                                          + threadCounter.getAndIncrement());
+                                                           t.setDaemon(true);
+                                                           return t;
+                                                       }
+                                                   });
+            asyncTimer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread t = new Thread(r, "everrest.EverrestServlet.Timer");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            asyncTimer.setRemoveOnCancelPolicy(true);
+            asyncTimeout = TimeUnit.SECONDS.toMillis(config.getServletAsyncTimeout());
+            maxBufferSize = config.getMaxBufferSize();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdownNow();
+            asyncTimer.shutdownNow();
+        }
+        super.destroy();
     }
 
     @Override
     public void service(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException,
                                                                                                  ServletException {
-        EnvironmentContext env = new EnvironmentContext();
-        env.put(HttpServletRequest.class, httpRequest);
-        env.put(HttpServletResponse.class, httpResponse);
-        env.put(ServletConfig.class, getServletConfig());
-        final ServletContext servletContext = getServletContext();
-        env.put(ServletContext.class, servletContext);
-        env.put(WebApplicationDeclaredRoles.class, webApplicationRoles);
-        env.put(ErrorPages.class, errorPages);
+        if (asyncExecutor != null && httpRequest.isAsyncSupported()) {
+            serviceAsync(httpRequest, httpResponse);
+            return;
+        }
+        EnvironmentContext env = createEnvironment(httpRequest, httpResponse);
         try {
             ServletContainerRequest request = ServletContainerRequest.create(httpRequest);
             ContainerResponse response = new ContainerResponse(new ServletContainerResponseWriter(httpResponse));
@@ -80,4 +133,108 @@ public class EverrestServlet extends HttpServlet {
         }
 
     }
+
+    private EnvironmentContext createEnvironment(HttpServletRequest httpRequest, HttpServletResponse httpResponse) {
+        EnvironmentContext env = new EnvironmentContext();
+        env.put(HttpServletRequest.class, httpRequest);
+        env.put(HttpServletResponse.class, httpResponse);
+        env.put(ServletConfig.class, getServletConfig());
+        env.put(ServletContext.class, getServletContext());
+        env.put(WebApplicationDeclaredRoles.class, webApplicationRoles);
+        env.put(ErrorPages.class, errorPages);
+        return env;
+    }
+
+    /**
+     * Read body of request with non-blocking I/O and process request in separate thread after that. Response is sent to client with
+     * non-blocking I/O as well. If request does not make any progress in time, i.e. client does not send or receive data or request
+     * is processed too long, client gets response with status 503 (Service Unavailable) or connection is aborted if response is
+     * already committed. Container does not time out request, see {@link AsyncRequestCompletion}.
+     */
+    private void serviceAsync(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse) throws IOException {
+        final AsyncContext asyncContext = httpRequest.startAsync(httpRequest, httpResponse);
+        asyncContext.setTimeout(0);
+        final AsyncRequestCompletion completion = new AsyncRequestCompletion(asyncContext, httpResponse, asyncTimer, asyncTimeout);
+        asyncContext.addListener(completion);
+        completion.startTimer();
+        final String contentLength = httpRequest.getHeader("Content-Length");
+        final boolean hasEntity = httpRequest.getHeader("Transfer-Encoding") != null
+                                  || !(contentLength == null || "0".equals(contentLength));
+        if (!hasEntity) {
+            dispatchAsync(completion, httpRequest, httpResponse, null);
+            return;
+        }
+        httpRequest.getInputStream().setReadListener(
+                new AsyncRequestReader(httpRequest.getInputStream(), maxBufferSize, new AsyncRequestReader.Listener() {
+                    @Override
+                    public void onRead(InputStream entityStream) {
+                        dispatchAsync(completion, httpRequest, httpResponse, entityStream);
+                    }
+
+                    @Override
+                    public void onProgress() {
+                        completion.progress();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        LOG.debug(error.getMessage(), error);
+                        completion.completeWithError(HttpServletResponse.SC_BAD_REQUEST);
+                    }
+                }));
+    }
+
+    private void dispatchAsync(final AsyncRequestCompletion completion, final HttpServletRequest httpRequest,
+                               final HttpServletResponse httpResponse, final InputStream entityStream) {
+        completion.progress();
+        try {
+            asyncExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    processAsync(completion, httpRequest, httpResponse, entityStream);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            closeQuietly(entityStream);
+            LOG.warn("Too many asynchronous requests, request {} rejected", httpRequest.getRequestURI());
+            completion.completeWithError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void processAsync(AsyncRequestCompletion completion, HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+                              InputStream entityStream) {
+        AsyncServletContainerResponseWriter writer = null;
+        try {
+            if (completion.isCompleted()) {
+                // timeout occurs while request waits for processing
+                return;
+            }
+            ServletContainerRequest request = ServletContainerRequest.create(
+                    httpRequest, entityStream == null ? new ByteArrayInputStream(new byte[0]) : entityStream);
+            writer = new AsyncServletContainerResponseWriter(httpResponse, completion, maxBufferSize);
+            processor.process(request, new ContainerResponse(writer), createEnvironment(httpRequest, httpResponse));
+            writer.writeAsync();
+        } catch (Throwable e) {
+            if (e instanceof UnhandledException) {
+                LOG.error(e.getMessage(), e);
+            } else {
+                LOG.debug(e.getLocalizedMessage(), e);
+            }
+            if (writer != null) {
+                writer.discard();
+            }
+            completion.completeWithError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            closeQuietly(entityStream);
+        }
+    }
+
+    private void closeQuietly(InputStream entityStream) {
+        if (entityStream != null) {
+            try {
+                entityStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
 }
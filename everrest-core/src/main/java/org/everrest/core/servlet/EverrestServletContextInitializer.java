@@ -18,6 +18,7 @@ import javax.servlet.ServletContext;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.ext.Provider;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -29,6 +30,17 @@ public class EverrestServletContextInitializer {
 
     public static final String EVERREST_SCAN_SKIP_PACKAGES = "org.everrest.scan.skip.packages";
 
+    /**
+     * Use index created at compile time instead of result of scanning. Only indexes of jars and classes directories of web
+     * application are used, indexes of servlet container are ignored. If web application has index then classes passed to {@link
+     * ComponentFinder} by servlet container are ignored, result of scanning is used only if there is no index at all. Default is
+     * <code>true</code>.
+     *
+     * @see ComponentIndex
+     * @see ComponentIndexProcessor
+     */
+    public static final String EVERREST_SCAN_INDEX = "org.everrest.scan.index";
+
     public static final String JAXRS_APPLICATION = "javax.ws.rs.Application";
 
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(EverrestServletContextInitializer.class);
@@ -42,7 +54,8 @@ public class EverrestServletContextInitializer {
     /**
      * Try get application's FQN from context-param javax.ws.rs.Application and instantiate it. If such parameter is not
      * specified then scan web application's folders WEB-INF/classes and WEB-INF/lib for classes which contains JAX-RS
-     * annotations. Interesting for three annotations {@link Path}, {@link Provider} and {@link Filter} .
+     * annotations. Interesting for three annotations {@link Path}, {@link Provider} and {@link Filter} . If {@link ComponentIndex}
+     * is available then components are loaded from index and result of scanning is not used.
      *
      * @return instance of javax.ws.rs.core.Application
      */
@@ -62,16 +75,35 @@ public class EverrestServletContextInitializer {
                 throw new RuntimeException(e);
             }
         } else if (scan) {
+            Set<Class<?>> indexed = null;
+            if (getBoolean(EVERREST_SCAN_INDEX, true)) {
+                indexed = loadIndexedComponents();
+            }
+            final Set<Class<?>> components = indexed != null ? indexed : new LinkedHashSet<>(ComponentFinder.findComponents());
             application = new Application() {
                 @Override
                 public Set<Class<?>> getClasses() {
-                    return new LinkedHashSet<>(ComponentFinder.findComponents());
+                    return new LinkedHashSet<>(components);
                 }
             };
         }
         return application;
     }
 
+    private Set<Class<?>> loadIndexedComponents() {
+        try {
+            final Set<Class<?>> components = ComponentIndex.loadComponents(Thread.currentThread().getContextClassLoader(),
+                                                                           ComponentFinder.getSkipPackages(getParameter(EVERREST_SCAN_SKIP_PACKAGES)));
+            if (components != null) {
+                LOG.debug("Load {} components from index. ", components.size());
+            }
+            return components;
+        } catch (IOException e) {
+            LOG.warn("Unable read index of components, use result of scanning. {}", e.getMessage());
+            return null;
+        }
+    }
+
     public EverrestConfiguration getConfiguration() {
         EverrestConfiguration config = new EverrestConfiguration();
         for (String parameterName : getParameterNames()) {
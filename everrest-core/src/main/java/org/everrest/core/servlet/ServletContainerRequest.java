@@ -12,8 +12,6 @@ package org.everrest.core.servlet;
 
 import org.everrest.core.ExtHttpHeaders;
 import org.everrest.core.impl.ContainerRequest;
-import org.everrest.core.impl.InputHeadersMap;
-import org.everrest.core.impl.MultivaluedMapImpl;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
@@ -26,7 +24,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.Principal;
-import java.util.Enumeration;
 
 /** @author andrew00x */
 public final class ServletContainerRequest extends ContainerRequest {
@@ -34,6 +31,19 @@ public final class ServletContainerRequest extends ContainerRequest {
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ServletContainerRequest.class);
 
     public static ServletContainerRequest create(final HttpServletRequest req) {
+        return create(req, getEntityStream(req));
+    }
+
+    /**
+     * Create request with body that is already read from servlet request, e.g. with non-blocking I/O.
+     *
+     * @param req
+     *         servlet request
+     * @param entityStream
+     *         body of request
+     * @return new request
+     */
+    public static ServletContainerRequest create(final HttpServletRequest req, final InputStream entityStream) {
         // If the URL is forwarded, obtain the forwarding information
         final URL forwardedUrl = getForwardedUrl(req);
         String host;
@@ -77,7 +87,7 @@ public final class ServletContainerRequest extends ContainerRequest {
             requestUriBuilder.append(queryString);
         }
         final URI requestUri = URI.create(requestUriBuilder.toString());
-        return new ServletContainerRequest(getMethod(req), requestUri, baseUri, getEntityStream(req), getHeaders(req),
+        return new ServletContainerRequest(getMethod(req), requestUri, baseUri, entityStream, getHeaders(req),
                                            getSecurityContext(req));
     }
 
@@ -148,23 +158,14 @@ public final class ServletContainerRequest extends ContainerRequest {
     }
 
     /**
-     * Get HTTP headers from {@link HttpServletRequest} .
+     * Get HTTP headers from {@link HttpServletRequest}. Headers are read from servlet request on demand.
      *
      * @param servletRequest
      *         {@link HttpServletRequest}
      * @return request headers
      */
     private static MultivaluedMap<String, String> getHeaders(HttpServletRequest servletRequest) {
-        MultivaluedMap<String, String> h = new MultivaluedMapImpl();
-        Enumeration<String> headerNames = servletRequest.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-            String name = headerNames.nextElement();
-            Enumeration<String> e = servletRequest.getHeaders(name);
-            while (e.hasMoreElements()) {
-                h.add(name, e.nextElement());
-            }
-        }
-        return new InputHeadersMap(h);
+        return new ServletHeadersMap(servletRequest);
     }
 
     /**
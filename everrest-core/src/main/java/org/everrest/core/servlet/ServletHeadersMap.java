@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.ExtMultivaluedMap;
+import org.everrest.core.impl.InputHeadersMap;
+import org.everrest.core.impl.MultivaluedMapImpl;
+import org.everrest.core.util.LazyMultivaluedMap;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read only case insensitive view of headers of {@link HttpServletRequest}. Single header is got directly from servlet
+ * request, headers are copied to {@link InputHeadersMap} only when they are iterated.
+ *
+ * @author andrew00x
+ */
+final class ServletHeadersMap extends LazyMultivaluedMap<String, String> {
+    private static final Comparator<Object> CASELESS_COMPARATOR = new Comparator<Object>() {
+        @Override
+        public int compare(Object o1, Object o2) {
+            return String.CASE_INSENSITIVE_ORDER.compare(String.valueOf(o1), String.valueOf(o2));
+        }
+    };
+
+    private final HttpServletRequest servletRequest;
+
+    ServletHeadersMap(HttpServletRequest servletRequest) {
+        this.servletRequest = servletRequest;
+    }
+
+    @Override
+    protected List<String> lookup(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String name = (String)key;
+        if (servletRequest.getHeader(name) == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(1);
+        Enumeration<String> e = servletRequest.getHeaders(name);
+        while (e.hasMoreElements()) {
+            values.add(e.nextElement());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /** Missing header does not cause materialization of all headers. */
+    @Override
+    public List<String> getList(String key) {
+        if (isMaterialized()) {
+            return super.getList(key);
+        }
+        List<String> values = get(key);
+        return values != null ? values : Collections.<String>emptyList();
+    }
+
+    @Override
+    protected Map<Object, List<String>> newLookupsMap() {
+        return new TreeMap<>(CASELESS_COMPARATOR);
+    }
+
+    @Override
+    protected ExtMultivaluedMap<String, String> materialize() {
+        MultivaluedMapImpl h = new MultivaluedMapImpl();
+        Enumeration<String> headerNames = servletRequest.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String name = headerNames.nextElement();
+            Enumeration<String> e = servletRequest.getHeaders(name);
+            while (e.hasMoreElements()) {
+                h.add(name, e.nextElement());
+            }
+        }
+        return new InputHeadersMap(h);
+    }
+
+    /** Values are read only, so there is no need to keep them. Besides {@link InputHeadersMap} may not be updated. */
+    @Override
+    protected void retainLookups(ExtMultivaluedMap<String, String> materialized, Map<Object, List<String>> lookups) {
+    }
+}
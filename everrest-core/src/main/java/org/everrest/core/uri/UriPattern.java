@@ -10,11 +10,10 @@
  *******************************************************************************/
 package org.everrest.core.uri;
 
-import org.everrest.core.impl.uri.UriComponent;
+import org.everrest.core.impl.uri.CompiledUriTemplate;
 
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -274,48 +273,7 @@ public class UriPattern {
                                              Map<String, ?> values,
                                              boolean encode,
                                              boolean asTemplate) {
-        StringBuilder sb = new StringBuilder();
-        if (schema != null) {
-            appendUriPart(sb, schema, UriComponent.SCHEME, values, false, asTemplate);
-            sb.append(':');
-        }
-        if (userInfo != null || host != null || port != -1) {
-            sb.append('/');
-            sb.append('/');
-
-            if (!(userInfo == null || userInfo.isEmpty())) {
-                appendUriPart(sb, userInfo, UriComponent.USER_INFO, values, encode, asTemplate);
-                sb.append('@');
-            }
-            if (host != null) {
-                appendUriPart(sb, host, UriComponent.HOST, values, encode, asTemplate);
-            }
-
-            if (port != -1) {
-                sb.append(':');
-                appendUriPart(sb, Integer.toString(port), UriComponent.PORT, values, encode, asTemplate);
-            }
-
-        }
-
-        if (!(path == null || path.isEmpty())) {
-            if (sb.length() > 0 && path.charAt(0) != '/') {
-                sb.append('/');
-            }
-            appendUriPart(sb, path, UriComponent.PATH, values, encode, asTemplate);
-        }
-
-        if (!(query == null || query.isEmpty())) {
-            sb.append('?');
-            appendUriPart(sb, query, UriComponent.QUERY, values, encode, asTemplate);
-        }
-
-        if (!(fragment == null || fragment.isEmpty())) {
-            sb.append('#');
-            appendUriPart(sb, fragment, UriComponent.FRAGMENT, values, encode, asTemplate);
-        }
-
-        return sb.toString();
+        return CompiledUriTemplate.compile(schema, userInfo, host, port, path, query, fragment).build(values, encode, asTemplate);
     }
 
     /**
@@ -388,51 +346,7 @@ public class UriPattern {
                                              Object[] values,
                                              boolean encode,
                                              boolean asTemplate) {
-        Map<String, String> m = new HashMap<>();
-        StringBuilder sb = new StringBuilder();
-        int p = 0;
-
-        if (schema != null) {
-            p = appendUriPart(sb, schema, UriComponent.SCHEME, values, p, m, false, asTemplate);
-            sb.append(':');
-        }
-        if (userInfo != null || host != null || port != -1) {
-            sb.append('/');
-            sb.append('/');
-
-            if (!(userInfo == null || userInfo.isEmpty())) {
-                p = appendUriPart(sb, userInfo, UriComponent.USER_INFO, values, p, m, encode, asTemplate);
-                sb.append('@');
-            }
-
-            if (host != null) {
-                p = appendUriPart(sb, host, UriComponent.HOST, values, p, m, encode, asTemplate);
-            }
-
-            if (port != -1) {
-                sb.append(':');
-                p = appendUriPart(sb, Integer.toString(port), UriComponent.PORT, values, p, m, encode, asTemplate);
-            }
-        }
-
-        if (!(path == null || path.isEmpty())) {
-            if (sb.length() > 0 && path.charAt(0) != '/') {
-                sb.append('/');
-            }
-            p = appendUriPart(sb, path, UriComponent.PATH, values, p, m, encode, asTemplate);
-        }
-
-        if (!(query == null || query.isEmpty())) {
-            sb.append('?');
-            p = appendUriPart(sb, query, UriComponent.QUERY, values, p, m, encode, asTemplate);
-        }
-
-        if (!(fragment == null || fragment.isEmpty())) {
-            sb.append('#');
-            appendUriPart(sb, fragment, UriComponent.FRAGMENT, values, p, m, encode, asTemplate);
-        }
-
-        return sb.toString();
+        return CompiledUriTemplate.compile(schema, userInfo, host, port, path, query, fragment).build(values, encode, asTemplate);
     }
 
 
@@ -470,149 +384,4 @@ public class UriPattern {
                                              boolean encode) {
         return createUriWithValues(schema, userInfo, host, port, path, query, fragment, values, encode, false);
     }
-
-    /**
-     * @param sb
-     *         the StringBuilder for appending URI part
-     * @param uriPart
-     *         URI part
-     * @param component
-     *         the URI component
-     * @param values
-     *         values map
-     * @param encode
-     *         if true then encode value before add it in URI, otherwise value must be validate to legal characters
-     * @param asTemplate
-     *         if true ignore absence value for any URI parameters
-     */
-    private static void appendUriPart(StringBuilder sb,
-                                      String uriPart,
-                                      int component,
-                                      Map<String, ?> values,
-                                      boolean encode,
-                                      boolean asTemplate) {
-        final int length = uriPart.length();
-        int lastTemplate = 0;
-        for (int i = 0; i < length; i++) {
-            char c = uriPart.charAt(i);
-            if (c == '{') {
-                sb.append(uriPart, lastTemplate, i);
-                lastTemplate = i;
-                while (++i < length && (c = uriPart.charAt(i)) != '}') {
-                }
-                if (c != '}') {
-                    throw new IllegalArgumentException("Invalid URI template " + uriPart + ". Opened '{' is not closed by '}'. ");
-                }
-                String name = uriPart.substring(lastTemplate + 1, i);
-                Object o = values.get(name);
-                if (o == null) {
-                    if (asTemplate) {
-                        sb.append('{').append(name).append('}');
-                    } else {
-                        throw new IllegalArgumentException("Not found corresponding value for parameter " + name);
-                    }
-                } else {
-
-                    String value = o.toString();
-                    sb.append(encode
-                              ? UriComponent.encode(value, component, true)
-                              : UriComponent.recognizeEncode(value, component, true)
-                             );
-                }
-                lastTemplate = i + 1;
-            }
-        }
-        if (lastTemplate == 0) {
-            // There is no any templates in string. Add it as is.
-            sb.append(uriPart);
-        } else if (lastTemplate < length) {
-            // append the tail of uri part
-            sb.append(uriPart, lastTemplate, length);
-        }
-    }
-
-    /**
-     * @param sb
-     *         the StringBuilder for appending URI part
-     * @param uriPart
-     *         URI part
-     * @param component
-     *         the URI component
-     * @param sourceValues
-     *         the source array of values
-     * @param offset
-     *         the offset in array
-     * @param values
-     *         values map, keep parameter/value pair which have been already found. From java docs:
-     *         <p>
-     *         All instances of the same template parameter will be replaced by the same value that corresponds to the
-     *         position of the first instance of the template parameter. e.g. the template "{a}/{b}/{a}" with values
-     *         {"x", "y", "z"} will result in the the URI "x/y/x", <i>not</i> "x/y/z".
-     *         </p>
-     * @param encode
-     *         if true then encode value before add it in URI, otherwise value must be validate to legal characters
-     * @param asTemplate
-     *         if true ignore absence value for any URI parameters
-     * @return offset
-     */
-    private static int appendUriPart(StringBuilder sb,
-                                     String uriPart,
-                                     int component,
-                                     Object[] sourceValues,
-                                     int offset,
-                                     Map<String, String> values,
-                                     boolean encode,
-                                     boolean asTemplate) {
-        final int length = uriPart.length();
-        int lastTemplate = 0;
-        for (int i = 0; i < length; i++) {
-            char c = uriPart.charAt(i);
-            if (c == '{') {
-                sb.append(uriPart, lastTemplate, i);
-                lastTemplate = i;
-                while (++i < length && (c = uriPart.charAt(i)) != '}') {
-                }
-                if (c != '}') {
-                    throw new IllegalArgumentException("Invalid URI template " + uriPart + ". Opened '{' is not closed by '}'. ");
-                }
-                String paramName = uriPart.substring(lastTemplate + 1, i);
-
-                String value = values.get(paramName);
-                if (value != null) {
-                    // Value already known, then don't take new one from array.
-                    // Value from map is already validate or encoded, so do nothing about it.
-                    sb.append(value);
-                } else {
-                    // Value is unknown, we met it first time, then process it and keep in map.
-                    // Value will be encoded (or validate)before putting in map.
-                    if (offset < sourceValues.length) {
-                        value = sourceValues[offset++].toString();
-                    }
-
-                    if (value != null) {
-                        value = encode
-                                ? UriComponent.encode(value, component, true)
-                                : UriComponent.recognizeEncode(value, component, true);
-                        values.put(paramName, value);
-                        sb.append(value);
-                    } else {
-                        if (asTemplate) {
-                            sb.append('{').append(paramName).append('}');
-                        } else {
-                            throw new IllegalArgumentException("Not found corresponding value for parameter " + paramName);
-                        }
-                    }
-                }
-                lastTemplate = i + 1;
-            }
-        }
-        if (lastTemplate == 0) {
-            // There is no any templates in string. Add it as is.
-            sb.append(uriPart);
-        } else if (lastTemplate < length) {
-            // append the tail of uri part
-            sb.append(uriPart, lastTemplate, length);
-        }
-        return offset;
-    }
 }
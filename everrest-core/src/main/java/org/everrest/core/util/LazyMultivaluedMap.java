@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.util;
+
+import org.everrest.core.ExtMultivaluedMap;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link MultivaluedMap} that is backed by some raw source, e.g. query string or HTTP headers, and does not parse the whole
+ * source until it is really required. Lookup of single key with methods {@link #get(Object)}, {@link #getFirst(Object)} and
+ * {@link #containsKey(Object)} parses only values for the requested key. Any other operation (iteration, size, modification)
+ * materializes full map once and then all methods are delegated to it. Lists of values that were already returned by
+ * {@link #get(Object)} are retained in materialized map, so changes made with them are not lost.
+ * <p/>
+ * Implementation is not thread-safe.
+ *
+ * @param <K>
+ *         key
+ * @param <V>
+ *         value
+ * @author andrew00x
+ */
+public abstract class LazyMultivaluedMap<K, V> implements ExtMultivaluedMap<K, V> {
+    /** Values that were looked up before full map is materialized. Value is <code>null</code> if key is not found. */
+    private Map<Object, List<V>>    lookups;
+    private ExtMultivaluedMap<K, V> materialized;
+
+    /**
+     * Find all values for the key in raw source.
+     *
+     * @param key
+     *         key
+     * @return modifiable list of values or <code>null</code> if there is no mapping for the key
+     */
+    protected abstract List<V> lookup(Object key);
+
+    /**
+     * Parse raw source to full map.
+     *
+     * @return new modifiable map
+     */
+    protected abstract ExtMultivaluedMap<K, V> materialize();
+
+    /**
+     * Create map to keep results of {@link #lookup(Object)}. Keys of map must be compared in the same way as keys of
+     * materialized map, e.g. case-insensitive for HTTP headers.
+     *
+     * @return new map
+     */
+    protected Map<Object, List<V>> newLookupsMap() {
+        return new HashMap<>(4);
+    }
+
+    /**
+     * Copy lists of values that were already returned by {@link #get(Object)} to just materialized map. Subclasses that
+     * provide read-only maps may override this method and do nothing.
+     *
+     * @param materialized
+     *         just materialized map
+     * @param lookups
+     *         results of {@link #lookup(Object)}, value is <code>null</code> if key was not found
+     */
+    protected void retainLookups(ExtMultivaluedMap<K, V> materialized, Map<Object, List<V>> lookups) {
+        for (Map.Entry<Object, List<V>> e : lookups.entrySet()) {
+            if (e.getValue() != null) {
+                @SuppressWarnings("unchecked")
+                K key = (K)e.getKey();
+                materialized.put(key, e.getValue());
+            }
+        }
+    }
+
+    /** @return <code>true</code> if full map is already materialized */
+    public final boolean isMaterialized() {
+        return materialized != null;
+    }
+
+    /** @return materialized map */
+    protected final ExtMultivaluedMap<K, V> getMaterialized() {
+        if (materialized == null) {
+            ExtMultivaluedMap<K, V> map = materialize();
+            if (lookups != null) {
+                retainLookups(map, lookups);
+                lookups = null;
+            }
+            materialized = map;
+        }
+        return materialized;
+    }
+
+    @Override
+    public List<V> get(Object key) {
+        if (materialized != null) {
+            return materialized.get(key);
+        }
+        if (lookups == null) {
+            lookups = newLookupsMap();
+        }
+        if (lookups.containsKey(key)) {
+            return lookups.get(key);
+        }
+        List<V> values = lookup(key);
+        lookups.put(key, values);
+        return values;
+    }
+
+    @Override
+    public V getFirst(K key) {
+        List<V> values = get(key);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return materialized != null ? materialized.containsKey(key) : get(key) != null;
+    }
+
+    @Override
+    public List<V> getList(K key) {
+        List<V> values = get(key);
+        return values != null ? values : getMaterialized().getList(key);
+    }
+
+    @Override
+    public void putSingle(K key, V value) {
+        getMaterialized().putSingle(key, value);
+    }
+
+    @Override
+    public void add(K key, V value) {
+        getMaterialized().add(key, value);
+    }
+
+    @SafeVarargs
+    @Override
+    public final void addAll(K key, V... newValues) {
+        getMaterialized().addAll(key, newValues);
+    }
+
+    @Override
+    public void addAll(K key, List<V> valueList) {
+        getMaterialized().addAll(key, valueList);
+    }
+
+    @Override
+    public void addFirst(K key, V value) {
+        getMaterialized().addFirst(key, value);
+    }
+
+    @Override
+    public boolean equalsIgnoreValueOrder(MultivaluedMap<K, V> otherMap) {
+        return getMaterialized().equalsIgnoreValueOrder(otherMap);
+    }
+
+    @Override
+    public int size() {
+        return getMaterialized().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getMaterialized().isEmpty();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return getMaterialized().containsValue(value);
+    }
+
+    @Override
+    public List<V> put(K key, List<V> value) {
+        return getMaterialized().put(key, value);
+    }
+
+    @Override
+    public List<V> remove(Object key) {
+        return getMaterialized().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends List<V>> m) {
+        getMaterialized().putAll(m);
+    }
+
+    @Override
+    public void clear() {
+        getMaterialized().clear();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return getMaterialized().keySet();
+    }
+
+    @Override
+    public Collection<List<V>> values() {
+        return getMaterialized().values();
+    }
+
+    @Override
+    public Set<Entry<K, List<V>>> entrySet() {
+        return getMaterialized().entrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || getMaterialized().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return getMaterialized().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getMaterialized().toString();
+    }
+}
@@ -52,13 +52,44 @@ public class MediaTypeMap<T> extends ConcurrentSkipListMap<MediaType, T> {
             // should e compared lexicographically, otherwise new entry with the
             // same 'weight' will be not added in map.
             if (r == 0) {
-                r = toString(o1).compareToIgnoreCase(toString(o2));
+                r = compareIgnoreCase(o1, o2);
             }
             return r;
         }
 
-        private String toString(MediaType mime) {
-            return mime.getType() + "/" + mime.getSubtype();
+        /** The same as compare strings 'type/subtype' ignoring case but without creating such strings. */
+        private int compareIgnoreCase(MediaType mime1, MediaType mime2) {
+            String type1 = mime1.getType();
+            String subtype1 = mime1.getSubtype();
+            String type2 = mime2.getType();
+            String subtype2 = mime2.getSubtype();
+            int length1 = type1.length() + 1 + subtype1.length();
+            int length2 = type2.length() + 1 + subtype2.length();
+            int length = Math.min(length1, length2);
+            for (int i = 0; i < length; i++) {
+                char c1 = charAt(type1, subtype1, i);
+                char c2 = charAt(type2, subtype2, i);
+                if (c1 != c2) {
+                    c1 = Character.toUpperCase(c1);
+                    c2 = Character.toUpperCase(c2);
+                    if (c1 != c2) {
+                        c1 = Character.toLowerCase(c1);
+                        c2 = Character.toLowerCase(c2);
+                        if (c1 != c2) {
+                            return c1 - c2;
+                        }
+                    }
+                }
+            }
+            return length1 - length2;
+        }
+
+        private char charAt(String type, String subtype, int i) {
+            final int typeLength = type.length();
+            if (i < typeLength) {
+                return type.charAt(i);
+            }
+            return i == typeLength ? '/' : subtype.charAt(i - typeLength - 1);
         }
     };
 }
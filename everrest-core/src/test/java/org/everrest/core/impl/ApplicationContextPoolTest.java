@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.impl.method.MethodInvokerDecorator;
+import org.everrest.core.impl.method.MethodInvokerDecoratorFactory;
+import org.everrest.core.method.MethodInvoker;
+import org.everrest.core.tools.ResourceLauncher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Application;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author andrew00x
+ */
+public class ApplicationContextPoolTest extends BaseTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setContextPoolSize(1);
+        config.setProperty(EverrestConfiguration.METHOD_INVOKER_DECORATOR_FACTORY, CountingDecoratorFactory.class.getName());
+        ProviderBinder providers = new ApplicationProviderBinder();
+        providers.addContextResolver(asynchronousPool);
+        processor.stop();
+        processor = new EverrestProcessor(new ResourceBinderImpl(), providers, dependencySupplier, config, null);
+        launcher = new ResourceLauncher(processor);
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Object> getSingletons() {
+                return new HashSet<Object>(Arrays.asList(new Resource1(), new Resource2()));
+            }
+        });
+        Resource1.contexts.clear();
+        Resource1.matchedURIs.clear();
+        CountingDecoratorFactory.decorators.set(0);
+    }
+
+    public static class CountingDecoratorFactory implements MethodInvokerDecoratorFactory {
+        static final AtomicInteger decorators = new AtomicInteger();
+
+        @Override
+        public MethodInvokerDecorator makeDecorator(MethodInvoker invoker) {
+            decorators.incrementAndGet();
+            return new MethodInvokerDecorator(invoker) {
+            };
+        }
+    }
+
+    @Path("a/{x}")
+    public static class Resource1 {
+        static List<ApplicationContext> contexts    = new ArrayList<>();
+        static List<String>             matchedURIs = new ArrayList<>();
+
+        @GET
+        public String m(@PathParam("x") String x) {
+            ApplicationContext context = ApplicationContextImpl.getCurrent();
+            contexts.add(context);
+            matchedURIs.addAll(context.getMatchedURIs());
+            return x + ":" + context.getAttributes().put("x", x);
+        }
+    }
+
+    @Path("b")
+    public static class Resource2 {
+        @GET
+        public String m() {
+            return "b";
+        }
+    }
+
+    @Test
+    public void testContextReusedWithoutStateOfPreviousRequest() throws Exception {
+        Assert.assertEquals("1:null", launcher.service("GET", "/a/1", "", null, null, null).getEntity());
+        Assert.assertEquals("2:null", launcher.service("GET", "/a/2", "", null, null, null).getEntity());
+        Assert.assertSame(Resource1.contexts.get(0), Resource1.contexts.get(1));
+        Assert.assertEquals(2, Resource1.matchedURIs.size());
+        Assert.assertEquals("/a/2", Resource1.matchedURIs.get(1));
+    }
+
+    @Test
+    public void testStateDroppedWhenContextReturnedToPool() throws Exception {
+        launcher.service("GET", "/a/1", "", null, null, null);
+        ApplicationContext context = Resource1.contexts.get(0);
+        Assert.assertNull(context.getContainerRequest());
+        Assert.assertNull(context.getContainerResponse());
+        Assert.assertTrue(context.getAttributes().isEmpty());
+        Assert.assertTrue(context.getMatchedResources().isEmpty());
+    }
+
+    @Test
+    public void testContextOfAsynchronousRequestNotReused() throws Exception {
+        launcher.service("GET", "/a/1", "", null, null, null);
+        Assert.assertEquals(202, launcher.service("GET", "/b?async=true", "", null, null, null).getStatus());
+        launcher.service("GET", "/a/2", "", null, null, null);
+        Assert.assertNotSame(Resource1.contexts.get(0), Resource1.contexts.get(1));
+    }
+
+    @Test
+    public void testMethodInvokerDecoratedForEachRequest() throws Exception {
+        launcher.service("GET", "/a/1", "", null, null, null);
+        launcher.service("GET", "/a/2", "", null, null, null);
+        Assert.assertEquals(2, CountingDecoratorFactory.decorators.get());
+    }
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.GenericContainerRequest;
+import org.everrest.core.FilterDescriptor;
+import org.everrest.core.ObjectFactory;
+import org.everrest.core.RequestFilter;
+import org.everrest.core.SingletonObjectFactory;
+import org.everrest.core.impl.provider.DefaultExceptionMapper;
+import org.everrest.core.impl.provider.ProviderDescriptorImpl;
+import org.everrest.core.impl.provider.StringEntityProvider;
+import org.everrest.core.provider.ProviderDescriptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.lang.annotation.Annotation;
+
+/**
+ * @author andrew00x
+ */
+public class ApplicationProviderBinderTest {
+
+    @Provider
+    public static class MyStringWriter extends StringEntityProvider {
+    }
+
+    @Provider
+    @Path("/a")
+    public static class MyRequestFilter implements RequestFilter {
+        @Override
+        public void doFilter(GenericContainerRequest request) {
+        }
+    }
+
+    @Provider
+    public static class RuntimeExceptionMapper implements ExceptionMapper<RuntimeException> {
+        @Override
+        public Response toResponse(RuntimeException exception) {
+            return Response.status(409).build();
+        }
+    }
+
+    /** Implements ExceptionMapper through super class. */
+    public static class ExtendedRuntimeExceptionMapper extends RuntimeExceptionMapper {
+    }
+
+    /** Implements ExceptionMapper as raw type, so type of exception can't be determined. */
+    @Provider
+    @SuppressWarnings("rawtypes")
+    public static class RawExceptionMapper implements ExceptionMapper {
+        @Override
+        public Response toResponse(Throwable exception) {
+            return Response.status(409).build();
+        }
+    }
+
+    @Test
+    public void testSnapshotUpdatedWhenProviderAdded() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        MessageBodyWriter<String> writer =
+                providers.getMessageBodyWriter(String.class, null, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        Assert.assertEquals(StringEntityProvider.class, writer.getClass());
+
+        providers.addMessageBodyWriter(new MyStringWriter());
+        writer = providers.getMessageBodyWriter(String.class, null, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        Assert.assertEquals(MyStringWriter.class, writer.getClass());
+    }
+
+    @Test
+    public void testApplicationFiltersGoFirst() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        int size = providers.getRequestFilters("/a").size();
+
+        providers.addRequestFilter(new MyRequestFilter());
+        Assert.assertEquals(size + 1, providers.getRequestFilters("/a").size());
+        Assert.assertEquals(MyRequestFilter.class,
+                            providers.getRequestFilters("/a").get(0).getObjectModel().getObjectClass());
+        Assert.assertEquals(size, providers.getRequestFilters("/b").size());
+    }
+
+    @Test
+    public void testExceptionMapperResolvedForSuperClass() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        Assert.assertNull(providers.getExceptionMapper(IllegalStateException.class));
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+        Assert.assertNull(providers.findExceptionMapper(Error.class));
+
+        providers.addExceptionMapper(new RuntimeExceptionMapper());
+        Assert.assertEquals(RuntimeExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(Exception.class).getClass());
+    }
+
+    @Test
+    public void testBatch() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        ProviderBinder.Batch batch = providers.startBatch()
+                                              .addExceptionMapper(factory(new RuntimeExceptionMapper()))
+                                              .addMessageBodyWriter(factory(new MyStringWriter()));
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+        batch.commit();
+        Assert.assertEquals(RuntimeExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+        Assert.assertEquals(MyStringWriter.class,
+                            providers.getMessageBodyWriter(String.class, null, new Annotation[0], MediaType.TEXT_PLAIN_TYPE).getClass());
+    }
+
+    @Test
+    public void testBatchWithConflictNotApplied() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        ProviderBinder.Batch batch = providers.startBatch()
+                                              .addMessageBodyWriter(factory(new MyStringWriter()))
+                                              .addExceptionMapper(factory(new RuntimeExceptionMapper()))
+                                              .addExceptionMapper(factory(new RuntimeExceptionMapper()));
+        try {
+            batch.commit();
+            Assert.fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+        Assert.assertEquals(StringEntityProvider.class,
+                            providers.getMessageBodyWriter(String.class, null, new Annotation[0], MediaType.TEXT_PLAIN_TYPE).getClass());
+    }
+
+    @Test
+    public void testBatchWithConflictOfInheritedExceptionMapperNotApplied() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        ProviderBinder.Batch batch = providers.startBatch()
+                                              .addExceptionMapper(factory(new RuntimeExceptionMapper()))
+                                              .addExceptionMapper(factory(new ExtendedRuntimeExceptionMapper()));
+        try {
+            batch.commit();
+            Assert.fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+    }
+
+    @Test
+    public void testBatchCountedAsOneModification() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        long count = providers.getModificationCount();
+        providers.startBatch()
+                 .addExceptionMapper(factory(new RuntimeExceptionMapper()))
+                 .addMessageBodyWriter(factory(new MyStringWriter()))
+                 .addRequestFilter(filterFactory(new MyRequestFilter()))
+                 .commit();
+        Assert.assertEquals(count + 1, providers.getModificationCount());
+        Assert.assertEquals(MyRequestFilter.class,
+                            providers.getRequestFilters("/a").get(0).getObjectModel().getObjectClass());
+    }
+
+    @Test
+    public void testBatchWithRawExceptionMapperNotApplied() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        long count = providers.getModificationCount();
+        ProviderBinder.Batch batch = providers.startBatch()
+                                              .addExceptionMapper(factory(new RuntimeExceptionMapper()))
+                                              .addExceptionMapper(factory(new RawExceptionMapper()));
+        try {
+            batch.commit();
+            Assert.fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+        Assert.assertEquals(count, providers.getModificationCount());
+        Assert.assertEquals(DefaultExceptionMapper.class, providers.findExceptionMapper(IllegalStateException.class).getClass());
+    }
+
+    @Test
+    public void testRawExceptionMapperRejected() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        try {
+            providers.addExceptionMapper(factory(new RawExceptionMapper()));
+            Assert.fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void testInheritedExceptionMapper() {
+        ApplicationProviderBinder providers = new ApplicationProviderBinder();
+        providers.addExceptionMapper(factory(new ExtendedRuntimeExceptionMapper()));
+        Assert.assertEquals(ExtendedRuntimeExceptionMapper.class,
+                            providers.findExceptionMapper(IllegalStateException.class).getClass());
+    }
+
+    private static ObjectFactory<ProviderDescriptor> factory(Object provider) {
+        return new SingletonObjectFactory<ProviderDescriptor>(new ProviderDescriptorImpl(provider), provider);
+    }
+
+    private static ObjectFactory<FilterDescriptor> filterFactory(Object filter) {
+        return new SingletonObjectFactory<FilterDescriptor>(new FilterDescriptorImpl(filter), filter);
+    }
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.tools.ByteArrayContainerResponseWriter;
+import org.everrest.core.tools.ResourceLauncher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @author andrew00x
+ */
+public class ContentEncodingTest extends BaseTest {
+    private static final String BIG_ENTITY = "hello world, this entity is big enough for compression";
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setCompression(true);
+        config.setCompressionMinSize(16);
+        config.setDecompressionMaxSize(1000);
+        processor.stop();
+        processor = new EverrestProcessor(new ResourceBinderImpl(), new ApplicationProviderBinder(), dependencySupplier, config, null);
+        launcher = new ResourceLauncher(processor);
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Object> getSingletons() {
+                return Collections.<Object>singleton(new Resource1());
+            }
+        });
+    }
+
+    @Path("a")
+    public static class Resource1 {
+        @GET
+        @Path("small")
+        @Produces("text/plain")
+        public byte[] small() {
+            return "hello".getBytes();
+        }
+
+        @GET
+        @Path("big")
+        @Produces("text/plain")
+        public String big() {
+            return BIG_ENTITY;
+        }
+
+        @GET
+        @Path("binary")
+        @Produces("application/octet-stream")
+        public byte[] binary() {
+            return BIG_ENTITY.getBytes();
+        }
+
+        @POST
+        @Path("echo")
+        @Produces("text/plain")
+        public String echo(String entity) {
+            return entity;
+        }
+
+        @POST
+        @Path("headers")
+        @Produces("text/plain")
+        public String headers(@HeaderParam("Content-Encoding") String contentEncoding,
+                              @HeaderParam("Content-Length") String contentLength, String entity) {
+            return contentEncoding + "," + contentLength + "," + entity;
+        }
+    }
+
+    @Test
+    public void testGzipResponse() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service("GET", "/a/big", "", header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"), null,
+                                                      writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("gzip", writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, writer.getHeaders().getFirst(HttpHeaders.VARY));
+        Assert.assertNull(writer.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+        Assert.assertEquals(BIG_ENTITY, read(new GZIPInputStream(new ByteArrayInputStream(writer.getBody()))));
+    }
+
+    @Test
+    public void testDeflateResponse() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        launcher.service("GET", "/a/big", "", header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, deflate"), null, writer, null);
+        Assert.assertEquals("deflate", writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(BIG_ENTITY, read(new InflaterInputStream(new ByteArrayInputStream(writer.getBody()))));
+    }
+
+    @Test
+    public void testAllAcceptEncodingHeadersUsed() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HttpHeaders.ACCEPT_ENCODING, Arrays.asList("gzip;q=0.5", "deflate"));
+        launcher.service("GET", "/a/big", "", headers, null, writer, null);
+        Assert.assertEquals("deflate", writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(BIG_ENTITY, read(new InflaterInputStream(new ByteArrayInputStream(writer.getBody()))));
+    }
+
+    @Test
+    public void testResponseNotCompressed() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        launcher.service("GET", "/a/small", "", header(HttpHeaders.ACCEPT_ENCODING, "gzip"), null, writer, null);
+        Assert.assertNull(writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals("hello", new String(writer.getBody()));
+
+        writer.reset();
+        launcher.service("GET", "/a/binary", "", header(HttpHeaders.ACCEPT_ENCODING, "gzip"), null, writer, null);
+        Assert.assertNull(writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(BIG_ENTITY, new String(writer.getBody()));
+
+        writer.reset();
+        launcher.service("GET", "/a/big", "", null, null, writer, null);
+        Assert.assertNull(writer.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, writer.getHeaders().getFirst(HttpHeaders.VARY));
+        Assert.assertEquals(BIG_ENTITY, new String(writer.getBody()));
+    }
+
+    @Test
+    public void testGzipRequest() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        Map<String, List<String>> headers = header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList("text/plain"));
+        ContainerResponse response = launcher.service("POST", "/a/echo", "", headers, gzip("hello".getBytes()), writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("hello", new String(writer.getBody()));
+    }
+
+    @Test
+    public void testHeadersOfCompressedEntityRemovedFromRequest() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        Map<String, List<String>> headers = header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList("text/plain"));
+        byte[] entity = gzip("hello".getBytes());
+        headers.put(HttpHeaders.CONTENT_LENGTH, Collections.singletonList(Integer.toString(entity.length)));
+        ContainerResponse response = launcher.service("POST", "/a/headers", "", headers, entity, writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("null,null,hello", new String(writer.getBody()));
+    }
+
+    @Test
+    public void testNegotiate() {
+        Assert.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+        Assert.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, *"));
+        Assert.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("*, x-gzip;q=0"));
+        Assert.assertNull(ContentEncoding.negotiate("gzip;q=0, deflate;q=0, *"));
+        Assert.assertNull(ContentEncoding.negotiate("gzip;q=0"));
+        Assert.assertNull(ContentEncoding.negotiate("identity, gzip;q=0.5"));
+        Assert.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("deflate, gzip"));
+        Assert.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate, *;q=0.5"));
+    }
+
+    @Test
+    public void testDecompressionLimit() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        Map<String, List<String>> headers = header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList("text/plain"));
+        ContainerResponse response = launcher.service("POST", "/a/echo", "", headers, gzip(new byte[10000]), writer, null);
+        Assert.assertEquals(413, response.getStatus());
+    }
+
+    private Map<String, List<String>> header(String name, String value) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private String read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buf = new byte[256];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            bytes.write(buf, 0, n);
+        }
+        return new String(bytes.toByteArray());
+    }
+}
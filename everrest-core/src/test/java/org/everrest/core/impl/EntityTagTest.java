@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.VersionProvider;
+import org.everrest.core.Versioned;
+import org.everrest.core.tools.ByteArrayContainerResponseWriter;
+import org.everrest.core.tools.ResourceLauncher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author andrew00x
+ */
+public class EntityTagTest extends BaseTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setAutoEntityTag(true);
+        config.setEntityTagMaxSize(16);
+        processor.stop();
+        processor = new EverrestProcessor(new ResourceBinderImpl(), new ApplicationProviderBinder(), dependencySupplier, config, null);
+        launcher = new ResourceLauncher(processor);
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Object> getSingletons() {
+                return Collections.<Object>singleton(new Resource1());
+            }
+        });
+        Resource1.invocations = 0;
+    }
+
+    public static class Version implements VersionProvider {
+        @Override
+        public String getVersion(Object resource, ApplicationContext context) {
+            return "v1";
+        }
+    }
+
+    @Path("a")
+    public static class Resource1 {
+        static int invocations;
+
+        @GET
+        @Path("small")
+        public String small() {
+            return "hello";
+        }
+
+        @GET
+        @Path("big")
+        public String big() {
+            return "hello world, this entity is too big for entity tag";
+        }
+
+        @GET
+        @Path("versioned")
+        @Versioned(Version.class)
+        public String versioned() {
+            invocations++;
+            return "versioned";
+        }
+    }
+
+    @Test
+    public void testEntityTagGenerated() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service("GET", "/a/small", "", null, null, writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("hello", new String(writer.getBody()));
+        EntityTag entityTag = (EntityTag)writer.getHeaders().getFirst(HttpHeaders.ETAG);
+        Assert.assertNotNull(entityTag);
+        Assert.assertFalse(entityTag.isWeak());
+
+        writer.reset();
+        response = launcher.service("GET", "/a/small", "", ifNoneMatch(entityTag.toString()), null, writer, null);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(0, writer.getBody().length);
+        Assert.assertEquals(entityTag, writer.getHeaders().getFirst(HttpHeaders.ETAG));
+
+        writer.reset();
+        response = launcher.service("GET", "/a/small", "", ifNoneMatch("\"other\""), null, writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("hello", new String(writer.getBody()));
+    }
+
+    @Test
+    public void testEntityTagNotGeneratedForBigEntity() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service("GET", "/a/big", "", null, null, writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("hello world, this entity is too big for entity tag", new String(writer.getBody()));
+        Assert.assertNull(writer.getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testVersionedMethodNotInvokedIfClientHasActualEntity() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service("GET", "/a/versioned", "", ifNoneMatch("\"v1\""), null, writer, null);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(0, Resource1.invocations);
+
+        writer.reset();
+        response = launcher.service("GET", "/a/versioned", "", null, null, writer, null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals(1, Resource1.invocations);
+        Assert.assertEquals("versioned", new String(writer.getBody()));
+        Assert.assertEquals(new EntityTag("v1"), writer.getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    private Map<String, List<String>> ifNoneMatch(String entityTag) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(entityTag));
+        return headers;
+    }
+}
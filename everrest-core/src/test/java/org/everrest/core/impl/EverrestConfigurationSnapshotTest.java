@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author andrew00x
+ */
+public class EverrestConfigurationSnapshotTest {
+
+    @Test
+    public void testSnapshotIsOutdatedWhenConfigurationChanged() {
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setMaxBufferSize(1024);
+        EverrestConfigurationSnapshot snapshot = new EverrestConfigurationSnapshot(config);
+        Assert.assertTrue(snapshot.isActual(config));
+        Assert.assertEquals(1024, snapshot.getMaxBufferSize());
+
+        config.setMaxBufferSize(2048);
+        Assert.assertFalse(snapshot.isActual(config));
+        Assert.assertEquals(1024, snapshot.getMaxBufferSize());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        new EverrestConfigurationSnapshot(new EverrestConfiguration()).setCompression(true);
+    }
+
+    @Test
+    public void testOverlayChangesNotVisibleInSnapshot() {
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setProperty("a", "b");
+        EverrestConfigurationSnapshot snapshot = new EverrestConfigurationSnapshot(config);
+        EverrestConfigurationOverlay overlay = new EverrestConfigurationOverlay(snapshot);
+        Assert.assertFalse(overlay.isCompression());
+        Assert.assertEquals("b", overlay.getProperty("a"));
+
+        overlay.setCompression(true);
+        overlay.setProperty("a", null);
+        Assert.assertTrue(overlay.isCompression());
+        Assert.assertNull(overlay.getProperty("a"));
+        Assert.assertFalse(snapshot.isCompression());
+        Assert.assertEquals("b", snapshot.getProperty("a"));
+
+        EverrestConfiguration copy = new EverrestConfiguration(overlay);
+        Assert.assertTrue(copy.isCompression());
+        Assert.assertNull(copy.getProperty("a"));
+    }
+}
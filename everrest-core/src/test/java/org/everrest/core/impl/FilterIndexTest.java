@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.FilterDescriptor;
+import org.everrest.core.GenericContainerRequest;
+import org.everrest.core.ObjectFactory;
+import org.everrest.core.RequestFilter;
+import org.everrest.core.SingletonObjectFactory;
+import org.everrest.core.uri.UriPattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author andrew00x
+ */
+public class FilterIndexTest {
+
+    public static class AnyFilter implements RequestFilter {
+        @Override
+        public void doFilter(GenericContainerRequest request) {
+        }
+    }
+
+    @Path("/a/b")
+    public static class LiteralFilter extends AnyFilter {
+    }
+
+    @Path("/a/{x}")
+    public static class TemplateFilter extends AnyFilter {
+    }
+
+    @Path("/c")
+    public static class OtherFilter extends AnyFilter {
+    }
+
+    @Test
+    public void testMatchedFilters() {
+        FilterIndex index = createIndex(new LiteralFilter(), new TemplateFilter(), new OtherFilter(), new AnyFilter());
+
+        Assert.assertEquals(classes(LiteralFilter.class, TemplateFilter.class, AnyFilter.class), classes(index.getMatched("/a/b")));
+        Assert.assertEquals(classes(LiteralFilter.class, TemplateFilter.class, AnyFilter.class), classes(index.getMatched("/a/b/")));
+        Assert.assertEquals(classes(TemplateFilter.class, AnyFilter.class), classes(index.getMatched("/a/bb")));
+        Assert.assertEquals(classes(OtherFilter.class, AnyFilter.class), classes(index.getMatched("/c")));
+        Assert.assertEquals(classes(AnyFilter.class), classes(index.getMatched("/a")));
+        Assert.assertEquals(classes(AnyFilter.class), classes(index.getMatched("/c/d")));
+        Assert.assertEquals(classes(AnyFilter.class), classes(index.getMatched(null)));
+    }
+
+    @Test
+    public void testPathsMatchedSamePatternsShareFilters() {
+        FilterIndex index = createIndex(new LiteralFilter(), new TemplateFilter(), new OtherFilter(), new AnyFilter());
+        Assert.assertSame(index.getMatched("/a/x1"), index.getMatched("/a/x2"));
+        Assert.assertNotSame(index.getMatched("/a/x1"), index.getMatched("/a/b"));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        Assert.assertTrue(createIndex().getMatched("/a").isEmpty());
+    }
+
+    private FilterIndex createIndex(AnyFilter... filters) {
+        List<Map.Entry<UriPattern, List<ObjectFactory<FilterDescriptor>>>> entries = new ArrayList<>();
+        for (AnyFilter filter : filters) {
+            FilterDescriptor descriptor = new FilterDescriptorImpl(filter);
+            ObjectFactory<FilterDescriptor> factory = new SingletonObjectFactory<>(descriptor, filter);
+            entries.add(new AbstractMap.SimpleEntry<>(descriptor.getUriPattern(),
+                                                                 Collections.singletonList(factory)));
+        }
+        return new FilterIndex(entries, 0);
+    }
+
+    private List<Class<?>> classes(Class<?>... classes) {
+        List<Class<?>> l = new ArrayList<>();
+        Collections.addAll(l, classes);
+        return l;
+    }
+
+    private List<Class<?>> classes(List<ObjectFactory<FilterDescriptor>> filters) {
+        List<Class<?>> l = new ArrayList<>();
+        for (ObjectFactory<FilterDescriptor> filter : filters) {
+            l.add(filter.getObjectModel().getObjectClass());
+        }
+        return l;
+    }
+}
@@ -10,7 +10,12 @@
  *******************************************************************************/
 package org.everrest.core.impl;
 
+import org.everrest.core.ObjectFactory;
+import org.everrest.core.ResourceBinder;
 import org.everrest.core.ResourcePublicationException;
+import org.everrest.core.SingletonObjectFactory;
+import org.everrest.core.impl.resource.AbstractResourceDescriptorImpl;
+import org.everrest.core.resource.AbstractResourceDescriptor;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -18,7 +23,10 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -59,6 +67,61 @@ public class ResourceBinderTest extends BaseTest {
         }
     }
 
+    /** Binder that is not {@link ResourceBinderImpl}, so {@link ApplicationPublisher} can't register resources in batch. */
+    public static class DelegatingResourceBinder implements ResourceBinder {
+        private final ResourceBinder delegate = new ResourceBinderImpl();
+
+        @Override
+        public List<ObjectFactory<AbstractResourceDescriptor>> getResources() {
+            return delegate.getResources();
+        }
+
+        @Override
+        public int getSize() {
+            return delegate.getSize();
+        }
+
+        @Override
+        public void addResource(Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+            delegate.addResource(resourceClass, properties);
+        }
+
+        @Override
+        public void addResource(String uriPattern, Class<?> resourceClass, MultivaluedMap<String, String> properties) {
+            delegate.addResource(uriPattern, resourceClass, properties);
+        }
+
+        @Override
+        public void addResource(Object resource, MultivaluedMap<String, String> properties) {
+            delegate.addResource(resource, properties);
+        }
+
+        @Override
+        public void addResource(String uriPattern, Object resource, MultivaluedMap<String, String> properties) {
+            delegate.addResource(uriPattern, resource, properties);
+        }
+
+        @Override
+        public void addResource(ObjectFactory<AbstractResourceDescriptor> resourceFactory) {
+            delegate.addResource(resourceFactory);
+        }
+
+        @Override
+        public ObjectFactory<AbstractResourceDescriptor> getMatchedResource(String requestPath, List<String> parameterValues) {
+            return delegate.getMatchedResource(requestPath, parameterValues);
+        }
+
+        @Override
+        public ObjectFactory<AbstractResourceDescriptor> removeResource(Class<?> clazz) {
+            return delegate.removeResource(clazz);
+        }
+
+        @Override
+        public ObjectFactory<AbstractResourceDescriptor> removeResource(String path) {
+            return delegate.removeResource(path);
+        }
+    }
+
     @Test
     public void testBind() {
         int prevSize = processor.getResources().getSize();
@@ -157,4 +220,105 @@ public class ResourceBinderTest extends BaseTest {
         }
         Assert.assertEquals(initSize + 1, processor.getResources().getSize());
     }
+
+    @Test
+    public void testPublishManyResources() {
+        int initSize = processor.getResources().getSize();
+        EverrestApplication application = new EverrestApplication();
+        int count = ApplicationPublisher.RESOURCES_PER_THREAD * 4;
+        for (int i = 0; i < count; i++) {
+            application.addResource("/many/" + i, new Resource());
+        }
+        processor.addApplication(application);
+        Assert.assertEquals(initSize + count, processor.getResources().getSize());
+        List<String> patterns = new ArrayList<>();
+        for (ObjectFactory<AbstractResourceDescriptor> resource : processor.getResources().getResources()) {
+            patterns.add(resource.getObjectModel().getUriPattern().getTemplate());
+        }
+        Assert.assertTrue(patterns.contains("/many/0"));
+        Assert.assertTrue(patterns.contains("/many/" + (count - 1)));
+    }
+
+    @Test
+    public void testPublishManyResourcesWithURIConflict() {
+        int initSize = processor.getResources().getSize();
+        EverrestApplication application = new EverrestApplication();
+        for (int i = 0; i < ApplicationPublisher.RESOURCES_PER_THREAD * 4; i++) {
+            application.addResource("/many/" + i, new Resource());
+        }
+        application.addClass(URIConflictResource1.class);
+        application.addSingleton(new URIConflictResource2());
+        try {
+            processor.addApplication(application);
+            Assert.fail("ResourcePublicationException expected");
+        } catch (ResourcePublicationException e) {
+            // resource that is listed later is rejected
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "Resource class " + URIConflictResource2.class.getName() + " can't be registered."));
+        }
+        // nothing registered
+        Assert.assertEquals(initSize, processor.getResources().getSize());
+    }
+
+    @Test
+    public void testPublishWithCustomResourceBinder() {
+        DelegatingResourceBinder binder = new DelegatingResourceBinder();
+        EverrestApplication application = new EverrestApplication();
+        application.addClass(URIConflictResource1.class);
+        application.addResource("/custom/singleton", new Resource());
+        Resource instance = new Resource();
+        application.addFactory(new SingletonObjectFactory<AbstractResourceDescriptor>(
+                new AbstractResourceDescriptorImpl("/custom/factory", instance), instance));
+        new ApplicationPublisher(binder, new ApplicationProviderBinder()).publish(application);
+        Assert.assertEquals(3, binder.getSize());
+        List<String> patterns = new ArrayList<>();
+        for (ObjectFactory<AbstractResourceDescriptor> resource : binder.getResources()) {
+            patterns.add(resource.getObjectModel().getUriPattern().getTemplate());
+        }
+        Assert.assertTrue(patterns.contains("/a/b/c/{d}/e"));
+        Assert.assertTrue(patterns.contains("/custom/singleton"));
+        Assert.assertTrue(patterns.contains("/custom/factory"));
+    }
+
+    @Test
+    public void testBatch() {
+        ResourceBinderImpl binder = new ResourceBinderImpl();
+        binder.addResource(URIConflictResource1.class, null);
+        List<ObjectFactory<AbstractResourceDescriptor>> before = binder.getResources();
+        ResourceBinderImpl.Batch batch = binder.startBatch()
+                                               .addResource(Resource.class, null)
+                                               .removeResource(URIConflictResource1.class)
+                                               .addResource(new URIConflictResource2(), null);
+        // nothing visible before commit
+        Assert.assertEquals(before, binder.getResources());
+        batch.commit();
+        Assert.assertEquals(2, binder.getSize());
+        List<Class<?>> classes = new ArrayList<>();
+        for (ObjectFactory<AbstractResourceDescriptor> resource : binder.getResources()) {
+            classes.add(resource.getObjectModel().getObjectClass());
+        }
+        Assert.assertTrue(classes.contains(Resource.class));
+        Assert.assertTrue(classes.contains(URIConflictResource2.class));
+        try {
+            batch.commit();
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testBatchWithURIConflictNotApplied() {
+        ResourceBinderImpl binder = new ResourceBinderImpl();
+        binder.addResource(URIConflictResource1.class, null);
+        ResourceBinderImpl.Batch batch = binder.startBatch()
+                                               .addResource(Resource.class, null)
+                                               .addResource(URIConflictResource2.class, null);
+        try {
+            batch.commit();
+            Assert.fail("ResourcePublicationException expected");
+        } catch (ResourcePublicationException expected) {
+        }
+        Assert.assertEquals(1, binder.getSize());
+        Assert.assertEquals(URIConflictResource1.class, binder.getResources().get(0).getObjectModel().getObjectClass());
+    }
 }
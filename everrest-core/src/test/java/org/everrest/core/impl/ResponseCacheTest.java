@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl;
+
+import org.everrest.core.Filter;
+import org.everrest.core.GenericContainerResponse;
+import org.everrest.core.ResponseFilter;
+import org.everrest.core.tools.ByteArrayContainerResponseWriter;
+import org.everrest.core.tools.ResourceLauncher;
+import org.everrest.core.tools.SimpleSecurityContext;
+import org.everrest.test.mock.MockPrincipal;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author andrew00x
+ */
+public class ResponseCacheTest extends BaseTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setCache(true);
+        processor.stop();
+        processor = new EverrestProcessor(new ResourceBinderImpl(), new ApplicationProviderBinder(), dependencySupplier, config, null);
+        launcher = new ResourceLauncher(processor);
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Object> getSingletons() {
+                return new HashSet<Object>(Arrays.asList(new Resource1(), new ResponseFilter1()));
+            }
+        });
+        Resource1.invocations = 0;
+        ResponseFilter1.invocations = 0;
+    }
+
+    @Filter
+    public static class ResponseFilter1 implements ResponseFilter {
+        static int invocations;
+
+        @Override
+        public void doFilter(GenericContainerResponse response) {
+            response.getHttpHeaders().add("X-Filtered", Integer.toString(++invocations));
+        }
+    }
+
+    @Path("a")
+    @Produces("text/plain")
+    public static class Resource1 {
+        static int invocations;
+
+        @GET
+        @Path("cached")
+        public Response cached() {
+            return Response.ok("cached " + (++invocations)).cacheControl(maxAge(60)).build();
+        }
+
+        @POST
+        @Path("cached")
+        public void update() {
+        }
+
+        @GET
+        @Path("nostore")
+        public Response noStore() {
+            CacheControl cacheControl = maxAge(60);
+            cacheControl.setNoStore(true);
+            return Response.ok("nostore " + (++invocations)).cacheControl(cacheControl).build();
+        }
+
+        @GET
+        @Path("vary")
+        public Response vary(@HeaderParam("Accept-Language") String language) {
+            invocations++;
+            return Response.ok("vary " + language).cacheControl(maxAge(60)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+                           .build();
+        }
+
+        @GET
+        @Path("secured")
+        @RolesAllowed("users")
+        public Response secured() {
+            CacheControl cacheControl = maxAge(60);
+            cacheControl.setSMaxAge(60);
+            return Response.ok("secured " + (++invocations)).cacheControl(cacheControl).build();
+        }
+
+        @GET
+        @Path("produces")
+        @Produces({"text/plain", "application/xml"})
+        public Response produces(@HeaderParam("Accept") String accept) {
+            invocations++;
+            return Response.ok("produces " + accept).cacheControl(maxAge(60)).build();
+        }
+
+        @GET
+        @Path("etag")
+        public Response etag() {
+            invocations++;
+            return Response.ok("etag").cacheControl(maxAge(60)).tag(new EntityTag("x")).build();
+        }
+
+        private CacheControl maxAge(int maxAge) {
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.setMaxAge(maxAge);
+            return cacheControl;
+        }
+    }
+
+    @Test
+    public void testResponseServedFromCache() throws Exception {
+        Assert.assertEquals("cached 1", body(get("/a/cached", null)));
+        ByteArrayContainerResponseWriter writer = get("/a/cached", null);
+        Assert.assertEquals("cached 1", body(writer));
+        Assert.assertNotNull(writer.getHeaders().getFirst("Age"));
+        Assert.assertEquals(1, Resource1.invocations);
+        ResponseCache cache = processor.getResponseCache();
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertTrue(cache.getSize() > 0);
+    }
+
+    @Test
+    public void testUnsafeMethodInvalidatesCache() throws Exception {
+        get("/a/cached", null);
+        launcher.service("POST", "/a/cached", "", null, null, null);
+        Assert.assertEquals("cached 2", body(get("/a/cached", null)));
+        Assert.assertEquals(2, Resource1.invocations);
+    }
+
+    @Test
+    public void testQueryStringIsPartOfKey() throws Exception {
+        Assert.assertEquals("cached 1", body(get("/a/cached?x=1", null)));
+        Assert.assertEquals("cached 2", body(get("/a/cached?x=2", null)));
+        launcher.service("POST", "/a/cached?x=1", "", null, null, null);
+        Assert.assertEquals("cached 2", body(get("/a/cached?x=2", null)));
+        Assert.assertEquals("cached 3", body(get("/a/cached?x=1", null)));
+    }
+
+    @Test
+    public void testFiltersAppliedToCachedResponse() throws Exception {
+        Assert.assertEquals("1", get("/a/cached", null).getHeaders().getFirst("X-Filtered"));
+        ByteArrayContainerResponseWriter writer = get("/a/cached", null);
+        Assert.assertEquals("cached 1", body(writer));
+        Assert.assertEquals("2", writer.getHeaders().getFirst("X-Filtered"));
+        Assert.assertEquals(1, Resource1.invocations);
+    }
+
+    @Test
+    public void testHeadersAddedByFiltersNotStored() throws Exception {
+        get("/a/cached", null);
+        ByteArrayContainerResponseWriter writer = get("/a/cached", null);
+        Assert.assertEquals(Collections.<Object>singletonList("2"), writer.getHeaders().get("X-Filtered"));
+    }
+
+    @Test
+    public void testAuthenticatedRequestNotStored() throws Exception {
+        EnvironmentContext env = new EnvironmentContext();
+        env.put(SecurityContext.class, new SimpleSecurityContext(new MockPrincipal("user"), Collections.singleton("users"), "BASIC",
+                                                                 false));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        launcher.service("GET", "/a/secured", "", null, null, writer, env);
+        Assert.assertEquals("secured 1", body(writer));
+        writer = new ByteArrayContainerResponseWriter();
+        launcher.service("GET", "/a/secured", "", null, null, writer, env);
+        Assert.assertEquals("secured 2", body(writer));
+    }
+
+    @Test
+    public void testAcceptIsImplicitVaryOfMethodThatProducesManyTypes() throws Exception {
+        Assert.assertEquals("produces text/plain", body(get("/a/produces", header(HttpHeaders.ACCEPT, "text/plain"))));
+        Assert.assertEquals("produces application/xml", body(get("/a/produces", header(HttpHeaders.ACCEPT, "application/xml"))));
+        Assert.assertEquals("produces text/plain", body(get("/a/produces", header(HttpHeaders.ACCEPT, "text/plain"))));
+        Assert.assertEquals(2, Resource1.invocations);
+    }
+
+    @Test
+    public void testRequestWithCookieNotStored() throws Exception {
+        get("/a/cached", header(HttpHeaders.COOKIE, "session=1"));
+        Assert.assertEquals("cached 2", body(get("/a/cached", null)));
+    }
+
+    @Test
+    public void testNoStore() throws Exception {
+        get("/a/nostore", null);
+        Assert.assertEquals("nostore 2", body(get("/a/nostore", null)));
+    }
+
+    @Test
+    public void testRequestNoCache() throws Exception {
+        get("/a/cached", null);
+        Assert.assertEquals("cached 2", body(get("/a/cached", header(HttpHeaders.CACHE_CONTROL, "no-cache"))));
+    }
+
+    @Test
+    public void testVary() throws Exception {
+        Assert.assertEquals("vary en", body(get("/a/vary", header(HttpHeaders.ACCEPT_LANGUAGE, "en"))));
+        Assert.assertEquals("vary fr", body(get("/a/vary", header(HttpHeaders.ACCEPT_LANGUAGE, "fr"))));
+        Assert.assertEquals("vary en", body(get("/a/vary", header(HttpHeaders.ACCEPT_LANGUAGE, "en"))));
+        Assert.assertEquals(2, Resource1.invocations);
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        get("/a/etag", null);
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service("GET", "/a/etag", "", header(HttpHeaders.IF_NONE_MATCH, "\"x\""), null, writer,
+                                                      null);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(1, Resource1.invocations);
+    }
+
+    private ByteArrayContainerResponseWriter get(String path, Map<String, List<String>> headers) throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        launcher.service("GET", path, "", headers, null, writer, null);
+        return writer;
+    }
+
+    private String body(ByteArrayContainerResponseWriter writer) {
+        return new String(writer.getBody());
+    }
+
+    private Map<String, List<String>> header(String name, String value) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+}
@@ -18,6 +18,8 @@ import org.junit.Test;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Variant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -35,6 +37,27 @@ public class VariantsHandlerTest {
                                                 .mediaTypes(MediaType.valueOf("text/xml")).languages(new Locale("en", "us")).add().build();
     }
 
+    @Test
+    public void testSelectionCachedForEqualVariantList() throws Exception {
+        MultivaluedMap<String, String> h = new MultivaluedMapImpl();
+        h.putSingle("Accept", "text/xml");
+        h.putSingle("Accept-Language", "en");
+        ContainerRequest r = new ContainerRequest("GET", null, null, null, h, null);
+        Variant v = VariantsHandler.handleVariants(r, variantList);
+        Assert.assertSame(variantList.get(2), v);
+        // equal but not the same list, variant must be taken from list passed to handler
+        List<Variant> copy = new ArrayList<>(variantList);
+        copy.set(2, new Variant(MediaType.valueOf("text/xml"), new Locale("en"), null));
+        Assert.assertSame(copy.get(2), VariantsHandler.handleVariants(r, copy));
+        Assert.assertSame(v, VariantsHandler.handleVariants(r, variantList));
+    }
+
+    @Test
+    public void testVary() {
+        Assert.assertEquals("Accept,Accept-Language", VariantsHandler.getVary(variantList));
+        Assert.assertEquals("Accept-Encoding", VariantsHandler.getVary(Collections.singletonList(new Variant(null, (Locale)null, "gzip"))));
+    }
+
     @Test
     public void testVariantHandler1() throws Exception {
         MultivaluedMap<String, String> h = new MultivaluedMapImpl();
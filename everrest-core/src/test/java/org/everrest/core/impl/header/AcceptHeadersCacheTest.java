@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @author andrew00x
+ */
+public class AcceptHeadersCacheTest {
+
+    @Test
+    public void testParsedHeaderCached() {
+        AcceptHeadersCache.clear();
+        String header = "text/xml;q=0.5, application/json";
+        List<AcceptMediaType> first = AcceptHeadersCache.getAcceptMediaTypes(header);
+        Assert.assertEquals(2, first.size());
+        Assert.assertEquals(MediaType.APPLICATION_JSON_TYPE, first.get(0));
+        Assert.assertEquals(0, AcceptHeadersCache.getHitCount());
+        Assert.assertEquals(1, AcceptHeadersCache.getMissCount());
+
+        Assert.assertSame(first, AcceptHeadersCache.getAcceptMediaTypes(new String(header)));
+        Assert.assertEquals(1, AcceptHeadersCache.getHitCount());
+        Assert.assertEquals(0.5, AcceptHeadersCache.getHitRatio(), 0.0001);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCachedListUnmodifiable() {
+        AcceptHeadersCache.getAcceptMediaTypes("text/plain").add(AcceptMediaType.DEFAULT);
+    }
+
+    @Test
+    public void testAcceptLocales() {
+        List<Locale> locales = AcceptHeadersCache.getAcceptLocales("en;q=0.3, uk");
+        Assert.assertEquals(2, locales.size());
+        Assert.assertEquals(new Locale("uk"), locales.get(0));
+        Assert.assertSame(locales, AcceptHeadersCache.getAcceptLocales("en;q=0.3, uk"));
+        Assert.assertEquals(1, AcceptHeadersCache.getAcceptLocales(null).size());
+    }
+
+    @Test
+    public void testAcceptTokens() {
+        Assert.assertEquals("gzip", AcceptHeadersCache.getAcceptEncodings("deflate;q=0.5, gzip").get(0).getToken());
+        Assert.assertEquals("utf-8", AcceptHeadersCache.getAcceptCharsets("utf-8, iso-8859-1;q=0.1").get(0).getToken());
+    }
+}
@@ -10,8 +10,11 @@
  *******************************************************************************/
 package org.everrest.core.impl.header;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Date;
+
 /**
  * @author andrew00x
  */
@@ -36,4 +39,39 @@ public class DateHeaderTest {
         String date = "Thu, 29 Dec 2011 12:03:50 GMT";
         HeaderHelper.parseDateHeader(date);
     }
+
+    @Test
+    public void testAllFormatsParsedToTheSameDate() {
+        long expected = HeaderHelper.parseDateHeader("Sun, 06 Nov 1994 08:49:37 GMT").getTime();
+        Assert.assertEquals(784111777000L, expected);
+        Assert.assertEquals(expected, HeaderHelper.parseDateHeader("Sunday, 06-Nov-94 08:49:37 GMT").getTime());
+        Assert.assertEquals(expected, HeaderHelper.parseDateHeader("Sun Nov  6 08:49:37 1994").getTime());
+        Assert.assertEquals(expected, HeaderHelper.parseDateHeader("Sun, 06 Nov 1994 03:49:37 EST").getTime());
+        Assert.assertEquals(expected, HeaderHelper.parseDateHeader("Sun, 06 Nov 1994 10:49:37 +0200").getTime());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidDate() {
+        HeaderHelper.parseDateHeader("Sun, 06 Foo 1994 08:49:37 GMT");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDateOutOfRange() {
+        HeaderHelper.parseDateHeader("Sun, 31 Nov 1994 08:49:37 GMT");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownTimeZone() {
+        HeaderHelper.parseDateHeader("Sun, 06 Nov 1994 08:49:37 FOO");
+    }
+
+    @Test
+    public void testFormat() {
+        Assert.assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HeaderHelper.formatDate(new Date(784111777123L)));
+        // the same second
+        Assert.assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HeaderHelper.formatDate(new Date(784111777999L)));
+        Assert.assertEquals("Sun, 06 Nov 1994 08:49:38 GMT", HeaderHelper.formatDate(new Date(784111778000L)));
+        String now = HttpDateFormat.format(System.currentTimeMillis());
+        Assert.assertSame(now, HttpDateFormat.format(HeaderHelper.parseDateHeader(now)));
+    }
 }
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import java.util.Collections;
+
+/**
+ * @author andrew00x
+ */
+public class HeaderValueCacheTest {
+
+    @Test
+    public void testEqualValuesSerializedOnce() {
+        String first = HeaderHelper.getHeaderAsString(new MediaType("text", "plain"));
+        Assert.assertEquals("text/plain", first);
+        Assert.assertSame(first, HeaderHelper.getHeaderAsString(new MediaType("text", "plain")));
+        String etag = HeaderHelper.getHeaderAsString(new EntityTag("12345", true));
+        Assert.assertEquals("W/\"12345\"", etag);
+        Assert.assertSame(etag, HeaderHelper.getHeaderAsString(new EntityTag("12345", true)));
+    }
+
+    @Test
+    public void testMediaTypeInstanceWithParametersSerializedOnce() {
+        MediaType mediaType = new MediaType("text", "html", Collections.singletonMap("charset", "UTF-8"));
+        String first = HeaderHelper.getHeaderAsString(mediaType);
+        Assert.assertEquals("text/html;charset=UTF-8", first);
+        Assert.assertSame(first, HeaderHelper.getHeaderAsString(mediaType));
+        Assert.assertSame(first, HeaderHelper.getHeaderAsString(
+                new MediaType("text", "html", Collections.singletonMap("charset", "UTF-8"))));
+        Assert.assertEquals("text/html;charset=utf-8", HeaderHelper.getHeaderAsString(
+                new MediaType("text", "html", Collections.singletonMap("charset", "utf-8"))));
+    }
+
+    @Test
+    public void testCaseOfMediaTypeKept() {
+        Assert.assertEquals("text/plain", HeaderHelper.getHeaderAsString(new MediaType("text", "plain")));
+        Assert.assertEquals("Text/Plain", HeaderHelper.getHeaderAsString(new MediaType("Text", "Plain")));
+    }
+
+    @Test
+    public void testChangedCacheControlSerializedAgain() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(60);
+        String first = HeaderHelper.getHeaderAsString(cacheControl);
+        Assert.assertTrue(first, first.contains("60"));
+        cacheControl.setMaxAge(120);
+        String second = HeaderHelper.getHeaderAsString(cacheControl);
+        Assert.assertTrue(second, second.contains("120"));
+    }
+
+    @Test
+    public void testSubclassesNotCached() {
+        Assert.assertFalse(HeaderValueCache.isCacheable(AcceptMediaType.valueOf("text/plain;q=0.5")));
+        Assert.assertFalse(HeaderValueCache.isCacheable("text/plain"));
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.header;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author andrew00x
+ */
+public class MediaTypeRegistryTest {
+    private static final String[] TYPES = {"*/*", "text/*", "text/plain", "application/*", "application/xml",
+                                           "application/atom+xml", "application/*+xml", "application/atom+*",
+                                           "application/json", "application/vnd.foo+json", "Application/XML"};
+
+    @Test
+    public void testRegisteredTypesGiveTheSameResultsAsStringComparison() {
+        for (String type : TYPES) {
+            MediaTypeRegistry.register(MediaType.valueOf(type));
+        }
+        for (String one : TYPES) {
+            for (String two : TYPES) {
+                MediaType oneType = MediaType.valueOf(one);
+                MediaType twoType = MediaType.valueOf(two);
+                Assert.assertEquals(one + " <> " + two, MediaTypeHelper.computeCompatible(oneType, twoType),
+                                    MediaTypeHelper.isCompatible(oneType, twoType));
+                Assert.assertEquals(one + " -> " + two, MediaTypeHelper.computeMatched(oneType, twoType),
+                                    MediaTypeHelper.isMatched(oneType, twoType));
+            }
+        }
+    }
+
+    @Test
+    public void testRegisterIgnoresParameters() {
+        int id = MediaTypeRegistry.register(MediaType.valueOf("text/html"));
+        Assert.assertTrue(id >= 0);
+        Assert.assertEquals(id, MediaTypeRegistry.register(MediaType.valueOf("text/html;charset=utf-8")));
+    }
+
+    @Test
+    public void testLookupDoesNotRegister() {
+        MediaType mediaType = MediaType.valueOf("application/x-not-registered");
+        int size = MediaTypeRegistry.size();
+        Assert.assertFalse(MediaTypeHelper.isCompatible(mediaType, MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertTrue(MediaTypeHelper.isMatched(MediaType.WILDCARD_TYPE, mediaType));
+        Assert.assertNull(MediaTypeRegistry.get(mediaType));
+        Assert.assertEquals(size, MediaTypeRegistry.size());
+    }
+
+    @Test
+    public void testRangeOfRegisteredType() {
+        MediaTypeRegistry.register(MediaType.valueOf("application/atom+xml"));
+        MediaType mediaType = MediaType.valueOf("application/atom+xml;charset=utf-8");
+        List<MediaType> range = new ArrayList<>();
+        MediaTypeHelper.MediaTypeRange iterator = new MediaTypeHelper.MediaTypeRange(mediaType);
+        while (iterator.hasNext()) {
+            range.add(iterator.next());
+        }
+        Assert.assertEquals(4, range.size());
+        Assert.assertSame(mediaType, range.get(0));
+        Assert.assertEquals(MediaType.valueOf("application/*+xml"), range.get(1));
+        Assert.assertEquals(MediaType.valueOf("application/*"), range.get(2));
+        Assert.assertEquals(MediaType.WILDCARD_TYPE, range.get(3));
+    }
+}
@@ -10,9 +10,14 @@
  *******************************************************************************/
 package org.everrest.core.impl.method;
 
+import org.everrest.core.impl.ApplicationProviderBinder;
 import org.everrest.core.impl.BaseTest;
 import org.everrest.core.impl.EnvironmentContext;
+import org.everrest.core.impl.EverrestConfiguration;
+import org.everrest.core.impl.EverrestProcessor;
+import org.everrest.core.impl.ResourceBinderImpl;
 import org.everrest.core.impl.method.filter.SecurityConstraint;
+import org.everrest.core.tools.ResourceLauncher;
 import org.everrest.core.tools.SimpleSecurityContext;
 import org.everrest.test.mock.MockPrincipal;
 import org.junit.Assert;
@@ -29,6 +34,7 @@ import java.security.Principal;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author andrew00x
@@ -212,4 +218,54 @@ public class SecurityConstraintTest extends BaseTest {
         env.put(SecurityContext.class, null);
         Assert.assertEquals(403, launcher.service("GET", "/c/4", "", null, null, env).getStatus());
     }
+
+    @Test
+    public void testRoleChecksRemembered() throws Exception {
+        final EverrestConfiguration config = new EverrestConfiguration();
+        config.setRoleCacheTimeout(60000);
+        processor = new EverrestProcessor(new ResourceBinderImpl(), new ApplicationProviderBinder(), dependencySupplier, config, null);
+        launcher = new ResourceLauncher(processor);
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.<Class<?>>singleton(Resource2.class);
+            }
+
+            @Override
+            public Set<Object> getSingletons() {
+                return Collections.<Object>singleton(new SecurityConstraint(config));
+            }
+        });
+
+        final AtomicInteger roleChecks = new AtomicInteger();
+        EnvironmentContext env = new EnvironmentContext();
+        for (int i = 0; i < 3; i++) {
+            // Container may create new principal for each request, results are remembered for name of principal.
+            env.put(SecurityContext.class, new CountingSecurityContext(new MockPrincipal("user"), "BASIC", roleChecks));
+            Assert.assertEquals(204, launcher.service("GET", "/b/1", "", null, null, env).getStatus());
+            Assert.assertEquals(403, launcher.service("GET", "/b/2", "", null, null, env).getStatus());
+        }
+        // one check for each role
+        Assert.assertEquals(2, roleChecks.get());
+
+        env.put(SecurityContext.class, new CountingSecurityContext(new MockPrincipal("user"), "DIGEST", roleChecks));
+        Assert.assertEquals(204, launcher.service("GET", "/b/1", "", null, null, env).getStatus());
+        // other authentication scheme
+        Assert.assertEquals(3, roleChecks.get());
+    }
+
+    private class CountingSecurityContext extends SimpleSecurityContext {
+        final AtomicInteger roleChecks;
+
+        CountingSecurityContext(Principal principal, String authenticationScheme, AtomicInteger roleChecks) {
+            super(principal, userRoles, authenticationScheme, false);
+            this.roleChecks = roleChecks;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            roleChecks.incrementAndGet();
+            return super.isUserInRole(role);
+        }
+    }
 }
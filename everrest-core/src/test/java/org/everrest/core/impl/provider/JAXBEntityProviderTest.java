@@ -41,6 +41,13 @@ import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author andrew00x
@@ -120,6 +127,77 @@ public class JAXBEntityProviderTest {
         writer.writeTo(book, Book.class, Book.class, null, mediaType, null, new ByteArrayOutputStream());
     }
 
+    @Test
+    public void testWriteJAXBObjectWithCharset() throws Exception {
+        MessageBodyWriter<Object> writer = new JAXBObjectEntityProvider(ProviderBinder.getInstance());
+        MediaType mediaType = new MediaType("application", "xml", "windows-1251");
+        Book book = new Book();
+        book.setTitle("\u0413\u0430\u043c\u043b\u0435\u0442");
+        // write twice, second time marshaller is taken from pool
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeTo(book, Book.class, Book.class, null, mediaType, null, out);
+            String xml = out.toString("windows-1251");
+            Assert.assertTrue(xml.contains("encoding=\"windows-1251\""));
+            Assert.assertTrue(xml.contains(book.getTitle()));
+        }
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked"})
+    public void testOverriddenJAXBContextUsed() throws Exception {
+        final JAXBContext jaxbContext = JAXBContext.newInstance(Book.class);
+        final List<Class<?>> requested = new ArrayList<>();
+        MessageBodyReader reader = new JAXBObjectEntityProvider(ProviderBinder.getInstance()) {
+            @Override
+            protected JAXBContext getJAXBContext(Class<?> type, MediaType mediaType) {
+                requested.add(type);
+                return jaxbContext;
+            }
+        };
+        Book book = (Book)reader.readFrom(Book.class, Book.class, null, mediaType, new MultivaluedMapImpl(),
+                                          new ByteArrayInputStream(data));
+        Assert.assertEquals("Brett McLaughlin", book.getAuthor());
+        ((MessageBodyWriter)reader).writeTo(book, Book.class, Book.class, null, mediaType, null, new ByteArrayOutputStream());
+        Assert.assertEquals(2, requested.size());
+    }
+
+    @Test
+    public void testJAXBContextCreatedOnce() throws Exception {
+        final JAXBContextResolver resolver = new JAXBContextResolver();
+        final CyclicBarrier barrier = new CyclicBarrier(4);
+        List<Future<JAXBContext>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(new Callable<JAXBContext>() {
+                    @Override
+                    public JAXBContext call() throws Exception {
+                        barrier.await();
+                        return resolver.getJAXBContext(Book.class);
+                    }
+                }));
+            }
+            JAXBContext jaxbContext = results.get(0).get();
+            for (Future<JAXBContext> result : results) {
+                Assert.assertSame(jaxbContext, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResolverLookupIgnoresMediaTypeParameters() throws Exception {
+        JAXBObjectEntityProvider provider = new JAXBObjectEntityProvider(ProviderBinder.getInstance());
+        JAXBContextResolver resolver = provider.getJAXBContextResolver(new MediaType("application", "xml", "UTF-8"));
+        Assert.assertSame(resolver, provider.getJAXBContextResolver(new MediaType("Application", "XML")));
+        JAXBContextResolverLookup lookup = new JAXBContextResolverLookup(new MediaType("application", "xml", "UTF-8"), resolver);
+        Assert.assertTrue(lookup.matches(new MediaType("application", "xml", "windows-1251")));
+        Assert.assertFalse(lookup.matches(new MediaType("text", "xml")));
+        Assert.assertFalse(lookup.matches(null));
+    }
+
     private static Price createPrice(String currency, Float value) {
         Price price = new Price();
         price.setCurrency(currency);
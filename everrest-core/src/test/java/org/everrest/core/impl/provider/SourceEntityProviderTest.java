@@ -24,6 +24,9 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXSource;
@@ -31,6 +34,12 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author andrew00x
@@ -119,4 +128,97 @@ public class SourceEntityProviderTest {
         writer.writeTo(new DOMSource(d), DOMSource.class, DOMSource.class, null, mediaType, null, out);
         System.out.println(out.toString("UTF-8"));
     }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testReadXMLStreamReaderEntityProvider() throws Exception {
+        MessageBodyReader reader = new XMLStreamReaderEntityProvider();
+        Assert.assertTrue(reader.isReadable(XMLStreamReader.class, XMLStreamReader.class, null, mediaType));
+        XMLStreamReader src = (XMLStreamReader)reader.readFrom(XMLStreamReader.class, XMLStreamReader.class, null, mediaType,
+                                                               new MultivaluedMapImpl(), new ByteArrayInputStream(data));
+        src.nextTag();
+        Assert.assertEquals("root", src.getLocalName());
+        src.nextTag();
+        Assert.assertEquals("message", src.getLocalName());
+        Assert.assertEquals("to be or not to be", src.getElementText());
+    }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testWriteXMLStreamReaderEntityProvider() throws Exception {
+        XMLStreamReader src = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(data));
+        MessageBodyWriter writer = new XMLStreamReaderEntityProvider();
+        Assert.assertTrue(writer.isWriteable(XMLStreamReader.class, XMLStreamReader.class, null, mediaType));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(src, XMLStreamReader.class, XMLStreamReader.class, null, mediaType, null, out);
+        Assert.assertTrue(out.toString("UTF-8").contains("<root><message>to be or not to be</message></root>"));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testReadXMLEventReaderEntityProvider() throws Exception {
+        MessageBodyReader reader = new XMLEventReaderEntityProvider();
+        Assert.assertTrue(reader.isReadable(XMLEventReader.class, XMLEventReader.class, null, mediaType));
+        XMLEventReader src = (XMLEventReader)reader.readFrom(XMLEventReader.class, XMLEventReader.class, null, mediaType,
+                                                             new MultivaluedMapImpl(), new ByteArrayInputStream(data));
+        Assert.assertTrue(src.nextEvent().isStartDocument());
+        Assert.assertEquals("root", src.nextTag().asStartElement().getName().getLocalPart());
+    }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testWriteXMLEventReaderEntityProvider() throws Exception {
+        XMLEventReader src = XMLInputFactory.newInstance().createXMLEventReader(new ByteArrayInputStream(data));
+        MessageBodyWriter writer = new XMLEventReaderEntityProvider();
+        Assert.assertTrue(writer.isWriteable(XMLEventReader.class, XMLEventReader.class, null, mediaType));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(src, XMLEventReader.class, XMLEventReader.class, null, mediaType, null, out);
+        Assert.assertTrue(out.toString("UTF-8").contains("<root><message>to be or not to be</message></root>"));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testDOMSourceEntityProviderDoesNotResolveExternalEntities() throws Exception {
+        byte[] xxe = ("<?xml version=\"1.0\"?><!DOCTYPE root [<!ENTITY e SYSTEM \"file:///etc/passwd\">]><root>&e;</root>")
+                .getBytes("UTF-8");
+        MessageBodyReader reader = new DOMSourceEntityProvider();
+        DOMSource src = (DOMSource)reader.readFrom(DOMSource.class, DOMSource.class, null, mediaType, new MultivaluedMapImpl(),
+                                                   new ByteArrayInputStream(xxe));
+        String text = ((Document)src.getNode()).getDocumentElement().getTextContent();
+        Assert.assertFalse(text.contains("root:"));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    @Test
+    public void testDOMSourceEntityProviderReadsAfterMalformedEntity() throws Exception {
+        MessageBodyReader reader = new DOMSourceEntityProvider();
+        Assert.assertNull(reader.readFrom(DOMSource.class, DOMSource.class, null, mediaType, new MultivaluedMapImpl(),
+                                          new ByteArrayInputStream("<root><message>".getBytes("UTF-8"))));
+        DOMSource src = (DOMSource)reader.readFrom(DOMSource.class, DOMSource.class, null, mediaType, new MultivaluedMapImpl(),
+                                                   new ByteArrayInputStream(data));
+        Assert.assertEquals("to be or not to be", ((Document)src.getNode()).getDocumentElement().getTextContent());
+    }
+
+    @Test
+    public void testPooledDocumentBuildersUsedConcurrently() throws Exception {
+        final int threads = XMLHelper.POOL_SIZE * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Document>> results = new ArrayList<>();
+            for (int i = 0; i < threads * 4; i++) {
+                results.add(executor.submit(new Callable<Document>() {
+                    @Override
+                    public Document call() throws Exception {
+                        return XMLHelper.parse(new ByteArrayInputStream(data));
+                    }
+                }));
+            }
+            for (Future<Document> result : results) {
+                Assert.assertEquals("to be or not to be", result.get().getDocumentElement().getTextContent());
+            }
+        } finally {
+            executor.shutdownNow();
+            XMLHelper.clearPools();
+        }
+    }
 }
@@ -24,6 +24,7 @@ import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Providers;
 import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.stream.StreamSource;
 import java.util.HashSet;
 import java.util.Set;
@@ -81,4 +82,19 @@ public class XSLTTransformationTest extends BaseTest {
         Assert.assertEquals(200, response.getStatus());
         System.out.println(new String(writer.getBody()));
     }
+
+    @Test
+    public void testTransformerReusedAndTemplatesReplaced() throws Exception {
+        XSLTTemplatesContextResolver resolver = new XSLTTemplatesContextResolver();
+        resolver.addAsTemplate("test.template", new StreamSource(Thread.currentThread().getContextClassLoader().getResourceAsStream(
+                "xslt/book.xsl")));
+        PooledTemplates templates = (PooledTemplates)resolver.getTemplates("test.template");
+        Transformer transformer = templates.acquireTransformer();
+        templates.releaseTransformer(transformer);
+        Assert.assertSame(transformer, templates.acquireTransformer());
+
+        resolver.setTemplate("test.template", new StreamSource(Thread.currentThread().getContextClassLoader().getResourceAsStream(
+                "xslt/book.xsl")));
+        Assert.assertNotSame(templates, resolver.getTemplates("test.template"));
+    }
 }
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.impl.resource;
+
+import org.everrest.core.impl.ApplicationProviderBinder;
+import org.everrest.core.impl.EverrestConfiguration;
+import org.everrest.core.impl.EverrestProcessor;
+import org.everrest.core.impl.ResourceBinderImpl;
+import org.everrest.core.resource.AbstractResourceDescriptor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * @author andrew00x
+ */
+public class ResourceModelSnapshotTest {
+
+    @Path("a")
+    public static class Resource {
+        @GET
+        public String m0() {
+            return null;
+        }
+
+        @POST
+        @Path("b")
+        public void m1(String entity) {
+        }
+
+        @Path("c")
+        public Object m2() {
+            return null;
+        }
+
+        public void notResourceMethod() {
+        }
+    }
+
+    public interface ResourceApi {
+        @GET
+        @Path("d")
+        String m3();
+    }
+
+    public abstract static class AbstractResource implements ResourceApi {
+    }
+
+    @Path("e")
+    public static class InheritedResource extends AbstractResource {
+        @Override
+        public String m3() {
+            return null;
+        }
+    }
+
+    private File        file;
+    private ClassLoader classLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("everrest-model", ".bin");
+        Assert.assertTrue(file.delete());
+        URL location = Resource.class.getProtectionDomain().getCodeSource().getLocation();
+        classLoader = new URLClassLoader(new URL[]{location}, getClass().getClassLoader());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        ResourceModelSnapshot snapshot = ResourceModelSnapshot.load(file, classLoader);
+        Assert.assertNull(snapshot.getResourceMethods(Resource.class));
+        AbstractResourceDescriptor expected = new AbstractResourceDescriptorImpl("a", Resource.class, snapshot);
+        Assert.assertTrue(snapshot.isModified());
+        snapshot.save();
+        Assert.assertFalse(snapshot.isModified());
+        Assert.assertTrue(file.exists());
+
+        ResourceModelSnapshot loaded = ResourceModelSnapshot.load(file, classLoader);
+        Set<String> methods = loaded.getResourceMethods(Resource.class);
+        Assert.assertNotNull(methods);
+        Assert.assertEquals(3, methods.size());
+        Assert.assertTrue(methods.contains("m1(java.lang.String)"));
+        Assert.assertFalse(methods.contains("notResourceMethod()"));
+
+        AbstractResourceDescriptor descriptor = new AbstractResourceDescriptorImpl("a", Resource.class, loaded);
+        Assert.assertFalse(loaded.isModified());
+        Assert.assertEquals(expected.getResourceMethods().keySet(), descriptor.getResourceMethods().keySet());
+        Assert.assertEquals(expected.getSubResourceMethods().keySet(), descriptor.getSubResourceMethods().keySet());
+        Assert.assertEquals(expected.getSubResourceLocators().keySet(), descriptor.getSubResourceLocators().keySet());
+    }
+
+    @Test
+    public void testOnlyMethodsFromSnapshotInspected() {
+        ResourceModelSnapshot snapshot = ResourceModelSnapshot.load(file, classLoader);
+        snapshot.putResourceMethods(Resource.class, Collections.singleton("m2()"));
+        AbstractResourceDescriptor descriptor = new AbstractResourceDescriptorImpl("a", Resource.class, snapshot);
+        Assert.assertNull(descriptor.getResourceMethods().get(HttpMethod.GET));
+        Assert.assertEquals(0, descriptor.getSubResourceMethods().size());
+        Assert.assertEquals(1, descriptor.getSubResourceLocators().size());
+    }
+
+    @Test
+    public void testSnapshotIgnoredWhenClasspathChanged() throws Exception {
+        ResourceModelSnapshot snapshot = ResourceModelSnapshot.load(file, classLoader);
+        new AbstractResourceDescriptorImpl("a", Resource.class, snapshot);
+        snapshot.save();
+
+        File dir = Files.createTempDirectory("everrest-model").toFile();
+        try (URLClassLoader otherClassLoader = new URLClassLoader(new URL[]{dir.toURI().toURL()}, classLoader)) {
+            ResourceModelSnapshot loaded = ResourceModelSnapshot.load(file, otherClassLoader);
+            Assert.assertNull(loaded.getResourceMethods(Resource.class));
+        } finally {
+            Assert.assertTrue(dir.delete());
+        }
+    }
+
+    @Test
+    public void testResourceInspectedAgainWhenClassFileChanged() throws Exception {
+        ResourceModelSnapshot snapshot = ResourceModelSnapshot.load(file, classLoader);
+        new AbstractResourceDescriptorImpl("a", Resource.class, snapshot);
+        snapshot.save();
+
+        File classFile = new File(Resource.class.getResource("ResourceModelSnapshotTest$Resource.class").toURI());
+        long lastModified = classFile.lastModified();
+        Assert.assertTrue(classFile.setLastModified(lastModified - 10000));
+        try {
+            ResourceModelSnapshot loaded = ResourceModelSnapshot.load(file, classLoader);
+            Assert.assertNull(loaded.getResourceMethods(Resource.class));
+            new AbstractResourceDescriptorImpl("a", Resource.class, loaded);
+            Assert.assertTrue(loaded.isModified());
+            Assert.assertEquals(3, loaded.getResourceMethods(Resource.class).size());
+        } finally {
+            Assert.assertTrue(classFile.setLastModified(lastModified));
+        }
+    }
+
+    @Test
+    public void testResourceInspectedAgainWhenClassFileOfInterfaceChanged() throws Exception {
+        ResourceModelSnapshot snapshot = ResourceModelSnapshot.load(file, classLoader);
+        new AbstractResourceDescriptorImpl("e", InheritedResource.class, snapshot);
+        snapshot.save();
+        Assert.assertEquals(Collections.singleton("m3()"),
+                            ResourceModelSnapshot.load(file, classLoader).getResourceMethods(InheritedResource.class));
+
+        File classFile = new File(ResourceApi.class.getResource("ResourceModelSnapshotTest$ResourceApi.class").toURI());
+        long lastModified = classFile.lastModified();
+        Assert.assertTrue(classFile.setLastModified(lastModified - 10000));
+        try {
+            ResourceModelSnapshot loaded = ResourceModelSnapshot.load(file, classLoader);
+            Assert.assertNull(loaded.getResourceMethods(InheritedResource.class));
+        } finally {
+            Assert.assertTrue(classFile.setLastModified(lastModified));
+        }
+    }
+
+    @Test
+    public void testSnapshotSavedWhenProcessorStarted() throws Exception {
+        EverrestConfiguration config = new EverrestConfiguration();
+        config.setResourceModelSnapshot(file.getAbsolutePath());
+        ResourceBinderImpl resources = new ResourceBinderImpl();
+        EverrestProcessor processor = new EverrestProcessor(resources, new ApplicationProviderBinder(), null, config, null);
+        resources.addResource(Resource.class, null);
+        Assert.assertFalse(file.exists());
+        processor.start();
+        Assert.assertTrue(file.exists());
+        processor.stop();
+    }
+}
@@ -763,4 +763,30 @@ public class UriBuilderTest {
         Assert.assertEquals(URI.create("http://user@localhost:8080/a?query#fragment"), base);
         Assert.assertEquals(URI.create("http://user@localhost:8080/a/b?query#fragment"), full);
     }
+
+    @Test
+    public void testBuildReusesCompiledTemplateUntilBuilderChanged() {
+        UriBuilder builder = UriBuilder.fromUri("http://localhost:8080").path("{a}/{b}/{a}");
+        Assert.assertEquals(URI.create("http://localhost:8080/x/y/x"), builder.build("x", "y", "z"));
+        Assert.assertEquals(URI.create("http://localhost:8080/x%20y/z/x%20y"), builder.build("x y", "z"));
+        builder.queryParam("q", "{b}");
+        Assert.assertEquals(URI.create("http://localhost:8080/1/2/1?q=2"), builder.build("1", "2"));
+    }
+
+    @Test
+    public void testBuildWithNullValueFails() {
+        try {
+            UriBuilder.fromUri("http://localhost:8080").path("{a}").build(new Object[]{null});
+            Assert.fail("IllegalArgumentException should be thrown.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testOnlyTemplatesWithParametersAreCached() {
+        Assert.assertSame(CompiledUriTemplate.compile("http", null, "localhost", 8080, "/a/{b}", null, null),
+                          CompiledUriTemplate.compile("http", null, "localhost", 8080, "/a/{b}", null, null));
+        Assert.assertNotSame(CompiledUriTemplate.compile("http", null, "localhost", 8080, "/a/b", null, null),
+                             CompiledUriTemplate.compile("http", null, "localhost", 8080, "/a/b", null, null));
+    }
 }
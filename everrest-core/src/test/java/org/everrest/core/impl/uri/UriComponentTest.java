@@ -16,6 +16,7 @@ import org.junit.Test;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.PathSegment;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -89,6 +90,34 @@ public class UriComponentTest {
         Assert.assertEquals("test", m.get("q2").get(1));
     }
 
+    @Test
+    public void testParseQueryStringLookupBeforeMaterialization() {
+        String str = "a%20b=1&q=x&a+b=2&q&other=%D0%9F";
+        MultivaluedMap<String, String> m = UriComponent.parseQueryString(str, true);
+        List<String> ab = m.get("a b");
+        Assert.assertEquals(Arrays.asList("1", "2"), ab);
+        Assert.assertEquals(Arrays.asList("x", ""), m.get("q"));
+        Assert.assertNull(m.get("missing"));
+        Assert.assertFalse(m.containsKey("missing"));
+        ab.add("3");
+        // full map must keep list already returned to caller
+        Assert.assertEquals(3, m.size());
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), m.get("a b"));
+        Assert.assertEquals("\u041f", m.getFirst("other"));
+    }
+
+    @Test
+    public void testDecode() {
+        String str = "no-escaped-characters";
+        Assert.assertSame(str, UriComponent.decode(str, UriComponent.QUERY));
+        Assert.assertEquals("a b/c\u041f\u0440d", UriComponent.decode("a+b%2fc%D0%9F%D1%80d", UriComponent.QUERY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeMalformed() {
+        UriComponent.decode("a%2xb", UriComponent.QUERY);
+    }
+
     @Test
     public void testParsePathSegment() {
         String path = "/to/be/or%20not/to/be;a=foo;b=b%20a%23r";
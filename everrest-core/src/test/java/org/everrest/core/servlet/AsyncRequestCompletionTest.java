@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.impl.ContainerResponse;
+import org.everrest.core.impl.provider.ByteEntityProvider;
+import org.everrest.test.mock.MockHttpServletResponse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author andrew00x
+ */
+public class AsyncRequestCompletionTest {
+
+    static class CountingAsyncContext implements AsyncContext {
+        final CountDownLatch completeLatch = new CountDownLatch(1);
+        volatile int completed;
+
+        @Override
+        public void complete() {
+            completed++;
+            completeLatch.countDown();
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return null;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return null;
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return true;
+        }
+
+        @Override
+        public void dispatch() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void start(Runnable run) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> clazz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+        }
+
+        @Override
+        public long getTimeout() {
+            return 0;
+        }
+    }
+
+    /** Output stream that is always ready and remembers write listener. */
+    static class ListenedServletOutputStream extends ServletOutputStream {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        WriteListener writeListener;
+        boolean       ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.writeListener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            content.write(b);
+        }
+    }
+
+    static class AsyncHttpServletResponse extends MockHttpServletResponse {
+        final ListenedServletOutputStream output;
+        boolean committed;
+        long    contentLength = -1;
+
+        AsyncHttpServletResponse() {
+            this(new ListenedServletOutputStream());
+        }
+
+        AsyncHttpServletResponse(ListenedServletOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return output;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        @Override
+        public void setContentLengthLong(long contentLength) {
+            this.contentLength = contentLength;
+        }
+    }
+
+    private CountingAsyncContext     asyncContext;
+    private AsyncHttpServletResponse httpResponse;
+    private AsyncRequestCompletion   completion;
+
+    @Before
+    public void setUp() throws Exception {
+        asyncContext = new CountingAsyncContext();
+        httpResponse = new AsyncHttpServletResponse();
+        completion = new AsyncRequestCompletion(asyncContext, httpResponse);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        completion.onTimeout(new AsyncEvent(asyncContext));
+        Assert.assertTrue(completion.isCompleted());
+        Assert.assertEquals(503, httpResponse.getStatus());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testCompletedOnce() throws Exception {
+        Assert.assertTrue(completion.complete());
+        Assert.assertFalse(completion.complete());
+        Assert.assertFalse(completion.completeWithError(500));
+        completion.onTimeout(new AsyncEvent(asyncContext));
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testCommittedResponseNotResetWhenTimeout() throws Exception {
+        httpResponse.setStatus(200);
+        httpResponse.committed = true;
+        completion.onTimeout(new AsyncEvent(asyncContext));
+        Assert.assertTrue(completion.isCompleted());
+        Assert.assertEquals(200, httpResponse.getStatus());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testTimeoutWhenNoProgress() throws Exception {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+        try {
+            completion = new AsyncRequestCompletion(asyncContext, httpResponse, timer, 200);
+            completion.startTimer();
+            Assert.assertTrue(asyncContext.completeLatch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(503, httpResponse.getStatus());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testProgressRestartsTimeout() throws Exception {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+        try {
+            completion = new AsyncRequestCompletion(asyncContext, httpResponse, timer, 500);
+            completion.startTimer();
+            for (int i = 0; i < 10; i++) {
+                Thread.sleep(100);
+                completion.progress();
+            }
+            Assert.assertFalse(completion.isCompleted());
+            Assert.assertTrue(asyncContext.completeLatch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, asyncContext.completed);
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResponseNotWrittenAfterTimeout() throws Exception {
+        AsyncServletContainerResponseWriter writer = new AsyncServletContainerResponseWriter(httpResponse, completion, 1024);
+        ContainerResponse response = new ContainerResponse(writer);
+        response.setResponse(Response.ok("late".getBytes()).build());
+        completion.onTimeout(new AsyncEvent(asyncContext));
+        writer.writeHeaders(response);
+        writer.writeBody(response, new ByteEntityProvider());
+        writer.writeAsync();
+        Assert.assertEquals(503, httpResponse.getStatus());
+        Assert.assertNull(httpResponse.output.writeListener);
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testBodyStreamedFromFileWhenMaxBufferSizeExceeded() throws Exception {
+        byte[] body = new byte[20000];
+        Arrays.fill(body, (byte)'x');
+        AsyncServletContainerResponseWriter writer = new AsyncServletContainerResponseWriter(httpResponse, completion, 1024);
+        ContainerResponse response = new ContainerResponse(writer);
+        response.setResponse(Response.ok(body).build());
+        writer.writeBody(response, new ByteEntityProvider());
+        writer.writeAsync();
+        Assert.assertEquals(0, asyncContext.completed);
+        httpResponse.output.writeListener.onWritePossible();
+        Assert.assertArrayEquals(body, httpResponse.output.content.toByteArray());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+}
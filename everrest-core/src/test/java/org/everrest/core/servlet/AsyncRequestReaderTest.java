@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+
+/**
+ * @author andrew00x
+ */
+public class AsyncRequestReaderTest {
+
+    /** Gives one chunk of data each time it becomes ready. */
+    private static class ChunkedServletInputStream extends ServletInputStream {
+        final LinkedList<byte[]> chunks;
+        boolean ready;
+
+        ChunkedServletInputStream(String... chunks) {
+            this.chunks = new LinkedList<>();
+            for (String chunk : chunks) {
+                this.chunks.add(chunk.getBytes());
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return chunks.isEmpty();
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            ready = false;
+            if (chunks.isEmpty()) {
+                return -1;
+            }
+            byte[] chunk = chunks.removeFirst();
+            System.arraycopy(chunk, 0, b, 0, chunk.length);
+            return chunk.length;
+        }
+    }
+
+    private static class ResultListener implements AsyncRequestReader.Listener {
+        InputStream entityStream;
+        Throwable   error;
+
+        @Override
+        public void onRead(InputStream entityStream) {
+            this.entityStream = entityStream;
+        }
+
+        @Override
+        public void onProgress() {
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    @Test
+    public void testBodyKeptInMemory() throws Exception {
+        ResultListener listener = new ResultListener();
+        read(new ChunkedServletInputStream("hello ", "async ", "world"), 1024, listener);
+        Assert.assertFalse(listener.entityStream instanceof FileInputStream);
+        Assert.assertEquals("hello async world", readAll(listener.entityStream));
+    }
+
+    @Test
+    public void testBodySavedInFileWhenMaxBufferSizeExceeded() throws Exception {
+        ResultListener listener = new ResultListener();
+        read(new ChunkedServletInputStream("hello ", "async ", "world"), 8, listener);
+        Assert.assertTrue(listener.entityStream instanceof FileInputStream);
+        Assert.assertEquals("hello async world", readAll(listener.entityStream));
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        ResultListener listener = new ResultListener();
+        read(new ChunkedServletInputStream(), 1024, listener);
+        Assert.assertEquals("", readAll(listener.entityStream));
+    }
+
+    @Test
+    public void testErrorPassedToListener() throws Exception {
+        ResultListener listener = new ResultListener();
+        ChunkedServletInputStream input = new ChunkedServletInputStream("hello ", "async ", "world");
+        AsyncRequestReader reader = new AsyncRequestReader(input, 8, listener);
+        input.ready = true;
+        reader.onDataAvailable();
+        input.ready = true;
+        reader.onDataAvailable();
+        IOException error = new IOException("connection reset");
+        reader.onError(error);
+        Assert.assertSame(error, listener.error);
+        Assert.assertNull(listener.entityStream);
+    }
+
+    private void read(ChunkedServletInputStream input, int maxBufferSize, ResultListener listener) throws IOException {
+        AsyncRequestReader reader = new AsyncRequestReader(input, maxBufferSize, listener);
+        while (!input.isFinished()) {
+            // container calls listener each time when data becomes available
+            input.ready = true;
+            reader.onDataAvailable();
+        }
+        reader.onAllDataRead();
+        Assert.assertNotNull(listener.entityStream);
+        Assert.assertNull(listener.error);
+    }
+
+    private String readAll(InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[16];
+            int n;
+            while ((n = input.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toString();
+        } finally {
+            input.close();
+        }
+    }
+}
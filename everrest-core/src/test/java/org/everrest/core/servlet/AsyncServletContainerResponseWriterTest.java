@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.impl.ContainerResponse;
+import org.everrest.core.impl.provider.ByteEntityProvider;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.AsyncHttpServletResponse;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.CountingAsyncContext;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.ListenedServletOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+
+/**
+ * @author andrew00x
+ */
+public class AsyncServletContainerResponseWriterTest {
+
+    /** Output stream that becomes not ready after each write, as if client reads response slowly. */
+    private static class SlowServletOutputStream extends ListenedServletOutputStream {
+        @Override
+        public void write(byte[] b, int off, int len) {
+            content.write(b, off, len);
+            ready = false;
+        }
+    }
+
+    private CountingAsyncContext                asyncContext;
+    private AsyncHttpServletResponse            httpResponse;
+    private AsyncRequestCompletion              completion;
+    private AsyncServletContainerResponseWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        asyncContext = new CountingAsyncContext();
+        httpResponse = new AsyncHttpServletResponse(new SlowServletOutputStream());
+        completion = new AsyncRequestCompletion(asyncContext, httpResponse);
+        writer = new AsyncServletContainerResponseWriter(httpResponse, completion, 1024);
+    }
+
+    @Test
+    public void testHeadersWritten() throws Exception {
+        ContainerResponse response = new ContainerResponse(writer);
+        response.setResponse(Response.status(201).header("foo", "bar").build());
+        writer.writeHeaders(response);
+        Assert.assertEquals(201, httpResponse.getStatus());
+        Assert.assertEquals("bar", httpResponse.getHeader("foo"));
+    }
+
+    @Test
+    public void testLengthOfBufferedBodySet() throws Exception {
+        byte[] body = "hello async".getBytes();
+        write(body);
+        writer.writeAsync();
+        Assert.assertEquals(body.length, httpResponse.contentLength);
+        sendAll();
+        Assert.assertArrayEquals(body, httpResponse.output.content.toByteArray());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testBodySentWhenClientReady() throws Exception {
+        byte[] body = new byte[20000];
+        Arrays.fill(body, (byte)'x');
+        write(body);
+        writer.writeAsync();
+        Assert.assertEquals(body.length, httpResponse.contentLength);
+        httpResponse.output.writeListener.onWritePossible();
+        Assert.assertEquals(8192, httpResponse.output.content.size());
+        Assert.assertFalse(completion.isCompleted());
+        sendAll();
+        Assert.assertArrayEquals(body, httpResponse.output.content.toByteArray());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testRequestAbortedWhenTimeoutWhileBodySent() throws Exception {
+        byte[] body = new byte[20000];
+        Arrays.fill(body, (byte)'x');
+        write(body);
+        writer.writeAsync();
+        httpResponse.output.writeListener.onWritePossible();
+        httpResponse.committed = true;
+        completion.completeWithError(503);
+        sendAll();
+        Assert.assertEquals(8192, httpResponse.output.content.size());
+        Assert.assertEquals(body.length, httpResponse.contentLength);
+        Assert.assertEquals(200, httpResponse.getStatus());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    @Test
+    public void testEmptyBodyCompletesRequest() throws Exception {
+        ContainerResponse response = new ContainerResponse(writer);
+        response.setResponse(Response.noContent().build());
+        writer.writeHeaders(response);
+        writer.writeBody(response, new ByteEntityProvider());
+        writer.writeAsync();
+        Assert.assertNull(httpResponse.output.writeListener);
+        Assert.assertEquals(204, httpResponse.getStatus());
+        Assert.assertEquals(1, asyncContext.completed);
+    }
+
+    private void write(byte[] body) throws Exception {
+        ContainerResponse response = new ContainerResponse(writer);
+        response.setResponse(Response.ok(body).build());
+        writer.writeHeaders(response);
+        writer.writeBody(response, new ByteEntityProvider());
+    }
+
+    private void sendAll() throws Exception {
+        for (int i = 0; i < 10 && !completion.isCompleted(); i++) {
+            httpResponse.output.ready = true;
+            httpResponse.output.writeListener.onWritePossible();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.test.mock.MockServletContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author andrew00x
+ */
+public class ComponentIndexTest {
+    private Path sources;
+    private Path classes;
+
+    @Before
+    public void setUp() throws Exception {
+        sources = Files.createTempDirectory("everrest-index-src");
+        classes = Files.createTempDirectory("everrest-index-classes");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(sources);
+        delete(classes);
+    }
+
+    @Test
+    public void testIndexContainsConcreteTopLevelComponents() throws Exception {
+        source("a.b.Resource1", "@javax.ws.rs.Path(\"a\") public class Resource1 { public static class Nested {} }");
+        source("a.b.Provider1", "@javax.ws.rs.ext.Provider public class Provider1 {}");
+        source("a.b.Filter1", "@org.everrest.core.Filter public class Filter1 {}");
+        source("a.b.Abstract1", "@javax.ws.rs.Path(\"b\") public abstract class Abstract1 {}");
+        source("a.b.Interface1", "@javax.ws.rs.Path(\"c\") public interface Interface1 {}");
+        source("a.b.Resource2", "public class Resource2 { @javax.ws.rs.Path(\"d\") public void m() {} "
+                                + "@javax.ws.rs.Path(\"e\") public static class Nested {} }");
+        compile();
+
+        final Set<String> names;
+        try (InputStream input = Files.newInputStream(classes.resolve(ComponentIndex.INDEX_LOCATION))) {
+            names = ComponentIndex.read(input);
+        }
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("a.b.Filter1", "a.b.Provider1", "a.b.Resource1")), names);
+    }
+
+    @Test
+    public void testIndexDisabledWithOption() throws Exception {
+        source("a.b.Resource1", "@javax.ws.rs.Path(\"a\") public class Resource1 {}");
+        compile("-A" + ComponentIndexProcessor.INDEX_OPTION + "=false");
+        Assert.assertFalse(Files.exists(classes.resolve(ComponentIndex.INDEX_LOCATION)));
+    }
+
+    @Test
+    public void testIndexOfParentClassLoaderIgnored() throws Exception {
+        source("a.b.Resource1", "@javax.ws.rs.Path(\"a\") public class Resource1 {}");
+        compile();
+
+        try (URLClassLoader parent = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+             URLClassLoader classLoader = new URLClassLoader(new URL[]{sources.toUri().toURL()}, parent)) {
+            Assert.assertNull(ComponentIndex.loadComponents(classLoader, Collections.<String>emptyList()));
+            Assert.assertEquals(1, ComponentIndex.loadComponents(parent, Collections.<String>emptyList()).size());
+        }
+    }
+
+    @Test
+    public void testLoadComponentsFromIndex() throws Exception {
+        source("a.b.Resource1", "@javax.ws.rs.Path(\"a\") public class Resource1 {}");
+        source("a.b.Skipped1", "@javax.ws.rs.ext.Provider public class Skipped1 {}");
+        compile();
+        // stale entry
+        Files.write(classes.resolve(ComponentIndex.INDEX_LOCATION), "a.b.Removed1\n".getBytes(), StandardOpenOption.APPEND);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            Set<Class<?>> components = ComponentIndex.loadComponents(classLoader, ComponentFinder.getSkipPackages("a.b.Skipped"));
+            Assert.assertEquals(1, components.size());
+            Assert.assertEquals("a.b.Resource1", components.iterator().next().getName());
+        }
+    }
+
+    @Test
+    public void testIndexUsedInsteadOfScanning() throws Exception {
+        source("a.b.Resource1", "@javax.ws.rs.Path(\"a\") public class Resource1 {}");
+        compile();
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            MockServletContext servletContext = new MockServletContext();
+            servletContext.setInitParameter(EverrestServletContextInitializer.EVERREST_SCAN_COMPONENTS, "true");
+            new ComponentFinder().onStartup(Collections.<Class<?>>singleton(StringBuilder.class), servletContext);
+            Assert.assertTrue(ComponentFinder.findComponents().isEmpty());
+            Set<Class<?>> components = new EverrestServletContextInitializer(servletContext).getApplication().getClasses();
+            Assert.assertEquals(1, components.size());
+            Assert.assertEquals("a.b.Resource1", components.iterator().next().getName());
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Test
+    public void testNoIndex() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, null)) {
+            Assert.assertNull(ComponentIndex.loadComponents(classLoader, Collections.<String>emptyList()));
+        }
+    }
+
+    private void source(String name, String body) throws IOException {
+        final int dot = name.lastIndexOf('.');
+        final Path file = sources.resolve(name.replace('.', File.separatorChar) + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, ("package " + name.substring(0, dot) + ";\n" + body).getBytes(Charset.forName("UTF-8")));
+    }
+
+    private void compile(String... options) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertNotNull("Java compiler is not available", compiler);
+        final List<String> args = new ArrayList<>(Arrays.asList("-processor", ComponentIndexProcessor.class.getName(),
+                                                                "-classpath", System.getProperty("java.class.path"),
+                                                                "-d", classes.toString()));
+        args.addAll(Arrays.asList(options));
+        Files.walkFileTree(sources, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                args.add(file.toString());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Assert.assertEquals(errors.toString(), 0, compiler.run(null, null, errors, args.toArray(new String[args.size()])));
+    }
+
+    private static void delete(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
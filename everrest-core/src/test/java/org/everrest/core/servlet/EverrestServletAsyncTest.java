@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.everrest.core.servlet;
+
+import org.everrest.core.impl.BaseTest;
+import org.everrest.core.impl.EverrestConfiguration;
+import org.everrest.core.impl.EverrestProcessor;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.AsyncHttpServletResponse;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.CountingAsyncContext;
+import org.everrest.core.servlet.AsyncRequestCompletionTest.ListenedServletOutputStream;
+import org.everrest.test.mock.MockHttpServletRequest;
+import org.everrest.test.mock.MockServletContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Application;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing of requests by {@link EverrestServlet} in asynchronous mode.
+ *
+ * @author andrew00x
+ */
+public class EverrestServletAsyncTest extends BaseTest {
+
+    @Path("a")
+    public static class Resource1 {
+        @GET
+        public String m0() {
+            return "hello";
+        }
+
+        @POST
+        public String m1(String entity) {
+            return entity.toUpperCase();
+        }
+
+        @GET
+        @Path("slow")
+        public String m2() throws InterruptedException {
+            Thread.sleep(3000);
+            return "late";
+        }
+    }
+
+    /** Input stream that gives the whole body as soon as read listener is set. */
+    private static class ReadyServletInputStream extends ServletInputStream {
+        final ByteArrayInputStream data;
+
+        ReadyServletInputStream(byte[] data) {
+            this.data = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return data.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() {
+            return data.read();
+        }
+    }
+
+    /** Output stream that calls write listener as soon as it is set. */
+    private static class ReadyServletOutputStream extends ListenedServletOutputStream {
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            super.setWriteListener(writeListener);
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    }
+
+    private static class AsyncHttpServletRequest extends MockHttpServletRequest {
+        final CountingAsyncContext    asyncContext = new CountingAsyncContext();
+        final ReadyServletInputStream input;
+
+        AsyncHttpServletRequest(String url, String method, byte[] body) {
+            super(url, null, body.length, method, headers(body.length));
+            input = new ReadyServletInputStream(body);
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return true;
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+            return asyncContext;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return input;
+        }
+
+        private static Map<String, List<String>> headers(int contentLength) {
+            Map<String, List<String>> headers = new HashMap<>();
+            headers.put("Content-Length", Arrays.asList(Integer.toString(contentLength)));
+            return headers;
+        }
+    }
+
+    private EverrestServlet servlet;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        processor.addApplication(new Application() {
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.<Class<?>>singleton(Resource1.class);
+            }
+        });
+        final MockServletContext servletContext = new MockServletContext();
+        servletContext.setInitParameter(EverrestConfiguration.EVERREST_SERVLET_ASYNC, "true");
+        servletContext.setInitParameter(EverrestConfiguration.EVERREST_SERVLET_ASYNC_TIMEOUT, "1");
+        servletContext.setAttribute(EverrestProcessor.class.getName(), processor);
+        servlet = new EverrestServlet();
+        servlet.init(new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "everrest";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        });
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        servlet.destroy();
+        super.tearDown();
+    }
+
+    @Test
+    public void testRequestWithoutBody() throws Exception {
+        AsyncHttpServletRequest request = new AsyncHttpServletRequest("http://localhost:8080/context/a", "GET", new byte[0]);
+        AsyncHttpServletResponse response = new AsyncHttpServletResponse(new ReadyServletOutputStream());
+        servlet.service(request, response);
+        Assert.assertTrue(request.asyncContext.completeLatch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("hello", response.output.content.toString());
+        Assert.assertEquals(5, response.contentLength);
+        Assert.assertEquals(1, request.asyncContext.completed);
+    }
+
+    @Test
+    public void testRequestWithBody() throws Exception {
+        AsyncHttpServletRequest request = new AsyncHttpServletRequest("http://localhost:8080/context/a", "POST",
+                                                                      "hello async".getBytes());
+        AsyncHttpServletResponse response = new AsyncHttpServletResponse(new ReadyServletOutputStream());
+        servlet.service(request, response);
+        Assert.assertTrue(request.asyncContext.completeLatch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("HELLO ASYNC", response.output.content.toString());
+    }
+
+    @Test
+    public void testTimeoutWhenRequestProcessedTooLong() throws Exception {
+        AsyncHttpServletRequest request = new AsyncHttpServletRequest("http://localhost:8080/context/a/slow", "GET", new byte[0]);
+        AsyncHttpServletResponse response = new AsyncHttpServletResponse(new ReadyServletOutputStream());
+        servlet.service(request, response);
+        Assert.assertTrue(request.asyncContext.completeLatch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(503, response.getStatus());
+        Assert.assertEquals(0, response.output.content.size());
+        Assert.assertEquals(1, request.asyncContext.completed);
+    }
+}
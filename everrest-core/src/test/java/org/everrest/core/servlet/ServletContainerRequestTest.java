@@ -11,6 +11,10 @@
 package org.everrest.core.servlet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -18,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
 
 import org.everrest.core.ExtHttpHeaders;
 import org.everrest.core.tools.EmptyInputStream;
@@ -138,4 +143,25 @@ public class ServletContainerRequestTest {
         assertEquals(TEST_SCHEME + "other.myhost.com:777" + TEST_BASE_PATH, req.getBaseUri().toString());
         assertEquals(TEST_SCHEME + "other.myhost.com:777" + TEST_FULL_PATH, req.getRequestUri().toString());
     }
+
+    @Test
+    public void testHeadersReadLazily() {
+        MockHttpServletRequest httpReq = new MockEmptyBodyHttpRequest("other.myhost.com", null);
+        ServletContainerRequest req = ServletContainerRequest.create(httpReq);
+        MultivaluedMap<String, String> headers = req.getRequestHeaders();
+        assertFalse(((ServletHeadersMap)headers).isMaterialized());
+        assertEquals(TEST_HOST, headers.getFirst("HOST"));
+        assertNull(headers.get("x-unknown"));
+        assertTrue(((ServletHeadersMap)headers).getList("x-unknown").isEmpty());
+        assertFalse(((ServletHeadersMap)headers).isMaterialized());
+
+        assertEquals(2, headers.size());
+        assertTrue(((ServletHeadersMap)headers).isMaterialized());
+        assertEquals(TEST_HOST, headers.getFirst("host"));
+        try {
+            headers.putSingle("foo", "bar");
+            fail("Request headers must be read only");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
 }
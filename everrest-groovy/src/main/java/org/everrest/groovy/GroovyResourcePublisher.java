@@ -17,6 +17,7 @@ import org.everrest.core.ObjectFactory;
 import org.everrest.core.PerRequestObjectFactory;
 import org.everrest.core.ResourceBinder;
 import org.everrest.core.ResourcePublicationException;
+import org.everrest.core.impl.ResourceBinderImpl;
 import org.everrest.core.resource.AbstractResourceDescriptor;
 import org.everrest.core.uri.UriPattern;
 
@@ -35,6 +36,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -160,6 +162,50 @@ public class GroovyResourcePublisher {
         resources.put(resourceId, rc.getAnnotation(Path.class).value());
     }
 
+    /**
+     * Parse given streams and publish results as per-request RESTful services. If {@link ResourceBinderImpl} is used then all
+     * resources are published in one batch, so either all resources become available at once or none of them if any resource
+     * can't be published.
+     *
+     * @param sources
+     *         streams which contain groovy source code of RESTful services mapped to ids to be assigned to resources
+     * @param properties
+     *         optional resource properties. This parameter may be <code>null</code>
+     * @param src
+     *         additional path to Groovy sources
+     * @param files
+     *         Groovy source files to be added in build path directly
+     * @throws ResourcePublicationException
+     *         see {@link ResourceBinder#addResource(Class, MultivaluedMap)}
+     */
+    public void publishPerRequest(Map<ResourceId, InputStream> sources, MultivaluedMap<String, String> properties,
+                                  SourceFolder[] src, SourceFile[] files) {
+        ExtendedGroovyClassLoader classLoader;
+        try {
+            classLoader = classLoaderProvider.getGroovyClassLoader(src);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        Map<ResourceId, Class<?>> classes = new LinkedHashMap<>();
+        for (Map.Entry<ResourceId, InputStream> e : sources.entrySet()) {
+            classes.put(e.getKey(), classLoader.parseClass(e.getValue(), e.getKey().getId(), files));
+        }
+        if (binder instanceof ResourceBinderImpl) {
+            ResourceBinderImpl.Batch batch = ((ResourceBinderImpl)binder).startBatch();
+            for (Class<?> rc : classes.values()) {
+                batch.addResource(rc, properties);
+            }
+            batch.commit();
+        } else {
+            for (Class<?> rc : classes.values()) {
+                binder.addResource(rc, properties);
+            }
+        }
+        for (Map.Entry<ResourceId, Class<?>> e : classes.entrySet()) {
+            resources.put(e.getKey(), e.getValue().getAnnotation(Path.class).value());
+        }
+    }
+
     /**
      * Parse given <code>source</code> and publish result as per-request RESTful service.
      *
@@ -10,12 +10,17 @@
  *******************************************************************************/
 package org.everrest.groovy;
 
+import org.everrest.core.ResourcePublicationException;
 import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.tools.ByteArrayContainerResponseWriter;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author andrew00x
@@ -38,6 +43,58 @@ public class GroovySimpleTest extends BaseTest {
         publicationTest(true, new BaseResourceId("g2"));
     }
 
+    @Test
+    public void testPerRequestAllAtOnce() throws Exception {
+        Map<ResourceId, InputStream> sources = new LinkedHashMap<>();
+        sources.put(new BaseResourceId("g3"), new ByteArrayInputStream(script("b", "hello b").getBytes()));
+        sources.put(new BaseResourceId("g4"), new ByteArrayInputStream(script("c", "hello c").getBytes()));
+
+        int initSize = resources.getSize();
+        groovyPublisher.publishPerRequest(sources, null, null, null);
+
+        Assert.assertEquals(initSize + 2, resources.getSize());
+        Assert.assertTrue(groovyPublisher.isPublished(new BaseResourceId("g3")));
+        Assert.assertTrue(groovyPublisher.isPublished(new BaseResourceId("g4")));
+
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse resp = launcher.service("GET", "/b", "", null, null, writer, null);
+        Assert.assertEquals(200, resp.getStatus());
+        Assert.assertEquals("hello b", new String(writer.getBody()));
+        writer = new ByteArrayContainerResponseWriter();
+        resp = launcher.service("GET", "/c", "", null, null, writer, null);
+        Assert.assertEquals(200, resp.getStatus());
+        Assert.assertEquals("hello c", new String(writer.getBody()));
+    }
+
+    @Test
+    public void testPerRequestNoneIfAnyConflicts() throws Exception {
+        groovyPublisher.publishPerRequest(script("d", "hello d"), new BaseResourceId("g5"), null, null, null);
+        int initSize = resources.getSize();
+
+        Map<ResourceId, InputStream> sources = new LinkedHashMap<>();
+        sources.put(new BaseResourceId("g6"), new ByteArrayInputStream(script("e", "hello e").getBytes()));
+        sources.put(new BaseResourceId("g7"), new ByteArrayInputStream(script("d", "hello again").getBytes()));
+        try {
+            groovyPublisher.publishPerRequest(sources, null, null, null);
+            Assert.fail("ResourcePublicationException expected");
+        } catch (ResourcePublicationException expected) {
+        }
+
+        Assert.assertEquals(initSize, resources.getSize());
+        Assert.assertFalse(groovyPublisher.isPublished(new BaseResourceId("g6")));
+        Assert.assertFalse(groovyPublisher.isPublished(new BaseResourceId("g7")));
+        ContainerResponse resp = launcher.service("GET", "/e", "", null, null, new ByteArrayContainerResponseWriter(), null);
+        Assert.assertEquals(404, resp.getStatus());
+    }
+
+    private static String script(String path, String message) {
+        return "@javax.ws.rs.Path(\"" + path + "\")" //
+               + "class GroovyResource {" //
+               + "@javax.ws.rs.GET " //
+               + "def m0() { return \"" + message + "\" }" //
+               + "}";
+    }
+
     private void publicationTest(boolean singleton, ResourceId resourceId) throws Exception {
         String script = //
                 "@javax.ws.rs.Path(\"a\")" //
@@ -70,7 +70,7 @@ public class EverrestInitializer implements Startable {
             everrest.addClass(AsynchronousJobService.class);
         }
         if (config.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(config));
         }
 
         // Do not prevent GC remove objects if they are removed somehow from ResourceBinder or ProviderBinder.
@@ -141,7 +141,7 @@ public abstract class EverrestExoContextListener implements ServletContextListen
             everrest.addSingleton(new AsynchronousProcessListWriter());
         }
         if (config.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(config));
         }
         everrest.addApplication(application);
         ExoContainer container = getContainer(servletContext);
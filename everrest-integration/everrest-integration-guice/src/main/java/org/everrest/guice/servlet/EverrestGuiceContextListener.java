@@ -96,7 +96,7 @@ public abstract class EverrestGuiceContextListener extends GuiceServletContextLi
             everrest.addSingleton(new AsynchronousProcessListWriter());
         }
         if (config.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(config));
         }
         everrest.addApplication(application);
 
@@ -151,7 +151,7 @@ public class EverrestComposer implements WebappComposer {
             everrest.addSingleton(new AsynchronousProcessListWriter());
         }
         if (config.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(config));
         }
         everrest.addApplication(application);
 
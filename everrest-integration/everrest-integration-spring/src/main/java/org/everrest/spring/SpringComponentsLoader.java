@@ -180,7 +180,7 @@ public class SpringComponentsLoader implements BeanFactoryPostProcessor, Handler
             everrest.addSingleton(new AsynchronousProcessListWriter());
         }
         if (configuration.isCheckSecurity()) {
-            everrest.addSingleton(new SecurityConstraint());
+            everrest.addSingleton(new SecurityConstraint(configuration));
         }
         return everrest;
     }